@@ -0,0 +1,61 @@
+package nl.tudelft.sem.template.example.dispatch;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import nl.tudelft.sem.template.example.geo.GeoDistance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long one round of the batch dispatcher takes to match couriers to orders,
+ * with couriers and orders spread uniformly over a city-sized area.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HungarianSolverBenchmark {
+
+    @Param({"100", "200", "1000"})
+    private int size;
+
+    private double[][] costs;
+
+    /**
+     * Generates the distances between {@code size} couriers and {@code size} orders.
+     */
+    @Setup(Level.Trial)
+    public void generateCosts() {
+        Random random = new Random(42);
+        double[][] couriers = new double[size][];
+        double[][] orders = new double[size][];
+        for (int i = 0; i < size; i++) {
+            couriers[i] = new double[] {52.0 + random.nextDouble() * 0.1, 4.3 + random.nextDouble() * 0.1};
+            orders[i] = new double[] {52.0 + random.nextDouble() * 0.1, 4.3 + random.nextDouble() * 0.1};
+        }
+        costs = new double[size][size];
+        for (int courier = 0; courier < size; courier++) {
+            for (int order = 0; order < size; order++) {
+                costs[courier][order] = GeoDistance.distance(couriers[courier][0], couriers[courier][1],
+                        orders[order][0], orders[order][1]);
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] solve() {
+        return HungarianSolver.solve(costs);
+    }
+}
@@ -0,0 +1,68 @@
+package nl.tudelft.sem.template.example.geo;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the batch distance calculation from one point to many others, both exactly and with the fast path,
+ * for points spread over a city, where the fast path is always taken, and over a country, where it mostly is not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoDistanceBenchmark {
+
+    @Param({"0.1", "5.0"})
+    private double spreadDegrees;
+
+    @Param({"1000"})
+    private int size;
+
+    private double[] latitudes;
+
+    private double[] longitudes;
+
+    private double[] distances;
+
+    /**
+     * Generates {@code size} points spread uniformly around the origin of the distances.
+     */
+    @Setup(Level.Trial)
+    public void generatePoints() {
+        Random random = new Random(42);
+        latitudes = new double[size];
+        longitudes = new double[size];
+        distances = new double[size];
+        for (int i = 0; i < size; i++) {
+            latitudes[i] = 52.0 + (random.nextDouble() - 0.5) * spreadDegrees;
+            longitudes[i] = 4.3 + (random.nextDouble() - 0.5) * spreadDegrees;
+        }
+    }
+
+    @Benchmark
+    public double[] exact() {
+        GeoDistance.haversineDistances(52.0, 4.3, latitudes, longitudes, distances);
+        return distances;
+    }
+
+    @Benchmark
+    public double[] fast() {
+        GeoDistance.distances(52.0, 4.3, latitudes, longitudes, distances);
+        return distances;
+    }
+}
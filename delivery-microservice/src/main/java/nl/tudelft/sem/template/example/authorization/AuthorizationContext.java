@@ -0,0 +1,65 @@
+package nl.tudelft.sem.template.example.authorization;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import nl.tudelft.sem.template.example.repository.DeliveryParticipants;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Holds the authorization data that was already looked up while handling the current request,
+ * so that the controller and the AuthorizationService do not retrieve the same role or delivery participants twice.
+ * Outside of a request every lookup gets a fresh context, so nothing is shared between callers.
+ */
+public class AuthorizationContext {
+    private static final String ATTRIBUTE_NAME = AuthorizationContext.class.getName();
+
+    private final Map<Long, String> roles = new HashMap<>();
+
+    private final Map<Long, DeliveryParticipants> participants = new HashMap<>();
+
+    /**
+     * Retrieves the context bound to the request that is currently being handled.
+     *
+     * @return The context of the current request, or a new one if there is no request bound to the thread.
+     */
+    public static AuthorizationContext current() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return new AuthorizationContext();
+        }
+        Object context = requestAttributes.getAttribute(ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST);
+        if (context == null) {
+            context = new AuthorizationContext();
+            requestAttributes.setAttribute(ATTRIBUTE_NAME, context, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (AuthorizationContext) context;
+    }
+
+    public Optional<String> getRole(Long authorizationId) {
+        return Optional.ofNullable(roles.get(authorizationId));
+    }
+
+    public void putRole(Long authorizationId, String role) {
+        roles.put(authorizationId, role);
+    }
+
+    /**
+     * Checks whether the participants of an order's delivery were already looked up in this context.
+     *
+     * @param orderId The id of the order.
+     * @return {@code true} if they were looked up, even if the delivery did not exist; otherwise, {@code false}.
+     */
+    public boolean hasParticipants(Long orderId) {
+        return participants.containsKey(orderId);
+    }
+
+    public DeliveryParticipants getParticipants(Long orderId) {
+        return participants.get(orderId);
+    }
+
+    public void putParticipants(Long orderId, DeliveryParticipants deliveryParticipants) {
+        participants.put(orderId, deliveryParticipants);
+    }
+}
@@ -1,11 +1,14 @@
 package nl.tudelft.sem.template.example.authorization;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import nl.tudelft.sem.template.example.exception.MicroserviceCommunicationException;
 import nl.tudelft.sem.template.example.external.UsersMicroservice;
+import nl.tudelft.sem.template.example.repository.DeliveryParticipants;
 import nl.tudelft.sem.template.example.repository.DeliveryRepository;
-import nl.tudelft.sem.template.model.Delivery;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -31,6 +34,7 @@ public class AuthorizationService {
 
     /**
      * Checks whether the user making the call to the endpoint is involved in the specified order.
+     * Only the ids of the participants of the delivery are loaded, and only once per request.
      *
      * @param authorizationId The id of the user making the request.
      * @param role The role of the user with the provided id.
@@ -38,20 +42,22 @@ public class AuthorizationService {
      * @return {@code true} if the user is involved in the order; otherwise, {@code false}.
      */
     public Boolean isInvolvedInOrder(Long authorizationId, String role, Long orderId) {
-        Delivery delivery = deliveryRepository.findDeliveryByOrder_OrderId(orderId);
         if (role.equals("admin")) {
             return true;
         }
+        DeliveryParticipants participants = findParticipants(orderId);
+        if (participants == null) {
+            return false;
+        }
         switch (role) {
             case "customer" -> {
-                return delivery.getOrder().getCustomerId().equals(authorizationId);
+                return participants.isCustomer(authorizationId);
             }
             case "vendor" -> {
-                return delivery.getOrder().getVendor().getId().equals(authorizationId);
+                return participants.isVendor(authorizationId);
             }
             case "courier" -> {
-                Long deliveryCourierId = delivery.getCourierId();
-                return deliveryCourierId != null && deliveryCourierId.equals(authorizationId);
+                return participants.isCourier(authorizationId);
             }
             default -> {
                 return false;
@@ -59,8 +65,19 @@ public class AuthorizationService {
         }
     }
 
+    private DeliveryParticipants findParticipants(Long orderId) {
+        AuthorizationContext context = AuthorizationContext.current();
+        if (context.hasParticipants(orderId)) {
+            return context.getParticipants(orderId);
+        }
+        DeliveryParticipants participants = deliveryRepository.findParticipantsByOrderId(orderId);
+        context.putParticipants(orderId, participants);
+        return participants;
+    }
+
     /**
      * Retrieves the role of the user with the specified authorization id from the user microservice.
+     * The role is only retrieved once per request, later calls reuse it.
      *
      * @param authorizationId The id of the user for whom the role is retrieved.
      * @return The role of the user.
@@ -68,11 +85,18 @@ public class AuthorizationService {
      *         or if the user type could not be found.
      */
     public String getUserRole(Long authorizationId) throws MicroserviceCommunicationException {
+        AuthorizationContext context = AuthorizationContext.current();
+        Optional<String> resolvedRole = context.getRole(authorizationId);
+        if (resolvedRole.isPresent()) {
+            return resolvedRole.get();
+        }
         Optional<String> userType = usersMicroservice.getUserType(authorizationId);
         if (userType.isEmpty()) {
             throw new MicroserviceCommunicationException("User type could not be found");
         }
-        return userType.get().replaceAll("\"", "");
+        String role = userType.get().replaceAll("\"", "");
+        context.putRole(authorizationId, role);
+        return role;
     }
 
     /**
@@ -104,6 +128,42 @@ public class AuthorizationService {
         return !role.equals("customer") && isInvolvedInOrder(authorizationId, role, orderId);
     }
 
+    /**
+     * Finds which of the given orders the user with the specified authorization id may update.
+     * The role of the user is retrieved once, and the participants of all the deliveries are loaded
+     * with a single query instead of one per order.
+     *
+     * @param authorizationId The id of the user for whom the permission is checked.
+     * @param orderIds The ids of the orders for which the permission is checked.
+     * @return The ids of the orders the user is allowed to update.
+     * @throws MicroserviceCommunicationException If communication with the user microservice fails
+     *         or if the user type could not be found.
+     */
+    public Set<Long> findUpdatableOrders(Long authorizationId, List<Long> orderIds)
+            throws MicroserviceCommunicationException {
+        String role = getUserRole(authorizationId);
+        if (role.equals("customer") || orderIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        if (role.equals("admin")) {
+            return new HashSet<>(orderIds);
+        }
+        AuthorizationContext context = AuthorizationContext.current();
+        for (Long orderId : orderIds) {
+            context.putParticipants(orderId, null);
+        }
+        for (DeliveryParticipants participants : deliveryRepository.findParticipantsByOrderIds(orderIds)) {
+            context.putParticipants(participants.getOrderId(), participants);
+        }
+        Set<Long> updatable = new HashSet<>();
+        for (Long orderId : orderIds) {
+            if (isInvolvedInOrder(authorizationId, role, orderId)) {
+                updatable.add(orderId);
+            }
+        }
+        return updatable;
+    }
+
     /**
      * Checks whether the user with the specified authorization id has permission to view courier analytics or is an admin.
      *
@@ -0,0 +1,270 @@
+package nl.tudelft.sem.template.example.cache;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongPredicate;
+import nl.tudelft.sem.template.example.repository.AvailableOrder;
+import nl.tudelft.sem.template.example.repository.DeliveryRepository;
+import nl.tudelft.sem.template.example.repository.VendorRepository;
+import nl.tudelft.sem.template.example.statemachine.OrderStatusChangedEvent;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory pool of the accepted orders that are still waiting for a courier.
+ * Orders of vendors with their own couriers are queued per vendor, all the other orders share one queue,
+ * so a courier can take the next order without listing every available order first.
+ * The pickup locations of the shared orders are also kept in a {@link PickupLocationGrid},
+ * so that independent couriers can be given the order closest to them.
+ *
+ * <p>The queues are lock-free and removing an order only drops it from the membership map;
+ * the stale queue entry is skipped when it reaches the head of its queue. Orders that leave the pool
+ * without going through a queue, for instance because they were claimed as the nearest order, are counted,
+ * and the queues are compacted once there are more stale entries than orders left in the pool.
+ * The database stays the source of truth: an order taken from the pool still has to be claimed there,
+ * and the pool is rebuilt from the database when the application starts.
+ */
+@Component
+public class AvailableOrderPool {
+    static final double GRID_CELL_SIZE = 0.05;
+
+    static final int NEAREST_BATCH_SIZE = 8;
+
+    static final int MIN_STALE_ENTRIES_BEFORE_COMPACTION = 1024;
+
+    private final DeliveryRepository deliveryRepository;
+
+    private final VendorRepository vendorRepository;
+
+    private final ConcurrentMap<Long, Long> vendorIdsByOrderId = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, Queue<Long>> vendorQueues = new ConcurrentHashMap<>();
+
+    private final Queue<Long> sharedQueue = new ConcurrentLinkedQueue<>();
+
+    private final Set<Long> vendorsWithCouriers = ConcurrentHashMap.newKeySet();
+
+    private final PickupLocationGrid sharedPickupLocations = new PickupLocationGrid(GRID_CELL_SIZE);
+
+    private final AtomicInteger staleQueueEntries = new AtomicInteger();
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param deliveryRepository The repository the available orders are loaded from.
+     * @param vendorRepository The repository the vendors with their own couriers are loaded from.
+     */
+    @Autowired
+    public AvailableOrderPool(DeliveryRepository deliveryRepository, VendorRepository vendorRepository) {
+        this.deliveryRepository = deliveryRepository;
+        this.vendorRepository = vendorRepository;
+    }
+
+    /**
+     * Replaces the contents of the pool with the unassigned accepted orders in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        vendorIdsByOrderId.clear();
+        vendorQueues.clear();
+        sharedQueue.clear();
+        vendorsWithCouriers.clear();
+        sharedPickupLocations.clear();
+        staleQueueEntries.set(0);
+        vendorsWithCouriers.addAll(vendorRepository.findIdsOfVendorsWithCouriers());
+        for (AvailableOrder order : deliveryRepository.findUnassignedOrdersByStatus(Order.StatusEnum.ACCEPTED)) {
+            orderAvailable(order.getOrderId(), order.getVendorId(),
+                    new Location(order.getPickupLatitude(), order.getPickupLongitude()));
+        }
+    }
+
+    /**
+     * Adds an order that is waiting for a courier. Adding an order that is already in the pool has no effect.
+     *
+     * @param orderId The id of the order.
+     * @param vendorId The id of the vendor the order belongs to.
+     * @param pickupLocation The address of the vendor, or {@code null} if it is not known.
+     */
+    public void orderAvailable(long orderId, long vendorId, Location pickupLocation) {
+        if (vendorIdsByOrderId.putIfAbsent(orderId, vendorId) != null) {
+            return;
+        }
+        queueOf(vendorId).add(orderId);
+        if (!vendorsWithCouriers.contains(vendorId) && pickupLocation != null
+                && pickupLocation.getLatitude() != null && pickupLocation.getLongitude() != null) {
+            sharedPickupLocations.put(orderId, vendorId, pickupLocation.getLatitude(), pickupLocation.getLongitude());
+        }
+    }
+
+    /**
+     * Removes an order that got a courier or is no longer accepted.
+     *
+     * @param orderId The id of the order.
+     */
+    public void orderUnavailable(long orderId) {
+        if (vendorIdsByOrderId.remove(orderId) != null) {
+            queueEntryBecameStale();
+        }
+        sharedPickupLocations.remove(orderId);
+    }
+
+    /**
+     * Adds an order that was just accepted, and removes an order that moved on to any other status.
+     * This only happens once the change is committed, as couriers claim the orders in the pool against the
+     * status in the database, and a change that is rolled back must not affect the pool.
+     *
+     * @param event The status change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void orderStatusChanged(OrderStatusChangedEvent event) {
+        Order order = event.getOrder();
+        if (event.getNewStatus() == Order.StatusEnum.ACCEPTED) {
+            orderAvailable(order.getOrderId(), order.getVendor().getId(), order.getVendor().getAddress());
+        } else {
+            orderUnavailable(order.getOrderId());
+        }
+    }
+
+    /**
+     * Records that a vendor has its own couriers, so that its orders are no longer offered to other couriers.
+     * Orders of the vendor that are already in the shared queue are moved to the queue of the vendor.
+     *
+     * @param vendorId The id of the vendor.
+     */
+    public void vendorHasCouriers(long vendorId) {
+        if (!vendorsWithCouriers.add(vendorId)) {
+            return;
+        }
+        Iterator<Long> iterator = sharedQueue.iterator();
+        while (iterator.hasNext()) {
+            Long orderId = iterator.next();
+            if (Long.valueOf(vendorId).equals(vendorIdsByOrderId.get(orderId))) {
+                iterator.remove();
+                sharedPickupLocations.remove(orderId);
+                queueOf(vendorId).add(orderId);
+            }
+        }
+    }
+
+    /**
+     * Takes orders from the queue of a vendor, or from the shared queue, until one of them is claimed.
+     * Orders that cannot be claimed are dropped from the pool.
+     *
+     * @param vendorId The id of the vendor the courier works for, or {@code null} for independent couriers.
+     * @param claim Claims an order in the database, returning whether it succeeded.
+     * @return The id of the claimed order, or an empty optional if the queue ran out.
+     */
+    public Optional<Long> claimNext(Long vendorId, LongPredicate claim) {
+        Queue<Long> queue = vendorId == null ? sharedQueue : vendorQueues.get(vendorId);
+        if (queue == null) {
+            return Optional.empty();
+        }
+        Long orderId;
+        while ((orderId = queue.poll()) != null) {
+            Long orderVendorId = vendorIdsByOrderId.get(orderId);
+            if (orderVendorId == null) {
+                continue;
+            }
+            if (vendorId == null && vendorsWithCouriers.contains(orderVendorId)) {
+                queueOf(orderVendorId).add(orderId);
+                continue;
+            }
+            if (take(orderId, orderVendorId) && claim.test(orderId)) {
+                return Optional.of(orderId);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Takes the orders of vendors without their own couriers, closest to a location first, until one of them is claimed.
+     * Orders that cannot be claimed are dropped from the pool.
+     *
+     * @param location The current location of the courier.
+     * @param claim Claims an order in the database, returning whether it succeeded.
+     * @return The id of the claimed order, or an empty optional if there are no orders with a known pickup location left.
+     */
+    public Optional<Long> claimNearest(Location location, LongPredicate claim) {
+        List<Long> nearest;
+        while (!(nearest = sharedPickupLocations.nearest(location.getLatitude(), location.getLongitude(),
+                NEAREST_BATCH_SIZE, vendorId -> !vendorsWithCouriers.contains(vendorId))).isEmpty()) {
+            for (Long orderId : nearest) {
+                Long vendorId = vendorIdsByOrderId.get(orderId);
+                sharedPickupLocations.remove(orderId);
+                if (vendorId == null || !take(orderId, vendorId)) {
+                    continue;
+                }
+                queueEntryBecameStale();
+                if (claim.test(orderId)) {
+                    return Optional.of(orderId);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Retrieves the number of orders in the pool.
+     *
+     * @return The number of orders waiting for a courier.
+     */
+    public int size() {
+        return vendorIdsByOrderId.size();
+    }
+
+    /**
+     * Counts the queue entries of the orders that left the pool without being polled from their queue.
+     *
+     * @return The number of entries in the queues, including the stale ones.
+     */
+    int queuedEntries() {
+        int entries = sharedQueue.size();
+        for (Queue<Long> queue : vendorQueues.values()) {
+            entries += queue.size();
+        }
+        return entries;
+    }
+
+    private void queueEntryBecameStale() {
+        if (staleQueueEntries.incrementAndGet()
+                > Math.max(MIN_STALE_ENTRIES_BEFORE_COMPACTION, vendorIdsByOrderId.size())) {
+            compactQueues();
+        }
+    }
+
+    private void compactQueues() {
+        staleQueueEntries.set(0);
+        sharedQueue.removeIf(orderId -> !vendorIdsByOrderId.containsKey(orderId));
+        for (Queue<Long> queue : vendorQueues.values()) {
+            queue.removeIf(orderId -> !vendorIdsByOrderId.containsKey(orderId));
+        }
+    }
+
+    private boolean take(long orderId, long vendorId) {
+        if (!vendorIdsByOrderId.remove(orderId, vendorId)) {
+            return false;
+        }
+        sharedPickupLocations.remove(orderId);
+        return true;
+    }
+
+    private Queue<Long> queueOf(long vendorId) {
+        if (vendorsWithCouriers.contains(vendorId)) {
+            return vendorQueues.computeIfAbsent(vendorId, id -> new ConcurrentLinkedQueue<>());
+        }
+        return sharedQueue;
+    }
+}
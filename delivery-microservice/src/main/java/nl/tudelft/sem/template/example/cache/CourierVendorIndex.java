@@ -0,0 +1,75 @@
+package nl.tudelft.sem.template.example.cache;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import nl.tudelft.sem.template.example.repository.VendorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reverse index from the id of a courier to the id of the vendor the courier is assigned to.
+ * Known assignments are answered from memory; couriers that are not in the index yet are looked up
+ * with an indexed query on the vendor_couriers table, and remembered either way.
+ * Couriers are never removed from a vendor, so a remembered assignment stays valid, and a courier
+ * remembered without a vendor is overwritten as soon as they are assigned to one.
+ */
+@Component
+public class CourierVendorIndex {
+    private static final long NO_VENDOR = -1L;
+
+    private final VendorRepository vendorRepository;
+
+    private final ConcurrentMap<Long, Long> vendorIdsByCourierId = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CourierVendorIndex(VendorRepository vendorRepository) {
+        this.vendorRepository = vendorRepository;
+    }
+
+    /**
+     * Finds the vendor a courier is assigned to.
+     *
+     * @param courierId The id of the courier.
+     * @return The id of the vendor, or an empty optional if the courier does not belong to a vendor.
+     */
+    public Optional<Long> findVendorId(long courierId) {
+        Long vendorId = vendorIdsByCourierId.get(courierId);
+        if (vendorId == null) {
+            List<Long> vendorIds = vendorRepository.findVendorIdsByCourierId(courierId);
+            vendorId = vendorIds.isEmpty()
+                    // an assignment recorded while the query ran is newer than its empty result
+                    ? vendorIdsByCourierId.merge(courierId, NO_VENDOR, (known, none) -> known)
+                    : vendorIdsByCourierId.merge(courierId, vendorIds.get(0), CourierVendorIndex::lowestVendor);
+        }
+        return vendorId == NO_VENDOR ? Optional.empty() : Optional.of(vendorId);
+    }
+
+    /**
+     * Records that a courier was assigned to a vendor.
+     * If the courier belongs to more than one vendor, the one with the lowest id is kept,
+     * like the query on the vendor_couriers table does.
+     *
+     * @param courierId The id of the courier.
+     * @param vendorId The id of the vendor.
+     */
+    public void courierAssigned(long courierId, long vendorId) {
+        vendorIdsByCourierId.merge(courierId, vendorId, CourierVendorIndex::lowestVendor);
+    }
+
+    private static Long lowestVendor(Long known, Long added) {
+        return known == NO_VENDOR ? added : Math.min(known, added);
+    }
+
+    /**
+     * Forgets all the remembered assignments, so that they are looked up in the database again.
+     */
+    public void clear() {
+        vendorIdsByCourierId.clear();
+    }
+
+    public int size() {
+        return vendorIdsByCourierId.size();
+    }
+}
@@ -0,0 +1,163 @@
+package nl.tudelft.sem.template.example.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded in-memory cache whose entries expire a fixed amount of time after being written.
+ * When the cache is full, the least recently used entry is evicted to make room for a new one.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the cached values.
+ */
+public class ExpiringCache<K, V> {
+    private final long timeToLiveMillis;
+
+    private final int maximumSize;
+
+    private final Clock clock;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Creates a cache that uses the system clock to expire its entries.
+     *
+     * @param timeToLive How long an entry stays valid after it was written.
+     * @param maximumSize The maximum number of entries kept in the cache.
+     */
+    public ExpiringCache(Duration timeToLive, int maximumSize) {
+        this(timeToLive, maximumSize, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a cache that uses the given clock to expire its entries.
+     *
+     * @param timeToLive How long an entry stays valid after it was written.
+     * @param maximumSize The maximum number of entries kept in the cache.
+     * @param clock The clock used to decide whether an entry has expired.
+     */
+    public ExpiringCache(Duration timeToLive, int maximumSize, Clock clock) {
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("The time to live must be positive");
+        }
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("The maximum size must be at least 1");
+        }
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.maximumSize = maximumSize;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Retrieves the value cached for a key, as long as it has not expired yet.
+     *
+     * @param key The key to look up.
+     * @return The cached value or an empty optional if there is no valid entry for the key.
+     */
+    public synchronized Optional<V> get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            missCount.increment();
+            return Optional.empty();
+        }
+        if (entry.expiresAt <= clock.millis()) {
+            entries.remove(key);
+            evictionCount.increment();
+            missCount.increment();
+            return Optional.empty();
+        }
+        hitCount.increment();
+        return Optional.of(entry.value);
+    }
+
+    /**
+     * Caches a value for a key, replacing the previous value if there was one.
+     * If the cache is full, expired entries are dropped first and then the least recently used ones.
+     *
+     * @param key The key of the value.
+     * @param value The value to cache.
+     */
+    public synchronized void put(K key, V value) {
+        long now = clock.millis();
+        entries.put(key, new Entry<>(value, now + timeToLiveMillis));
+        if (entries.size() > maximumSize) {
+            evictExpired(now);
+        }
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maximumSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictionCount.increment();
+        }
+    }
+
+    /**
+     * Removes the entry of a key, so that the next lookup goes to the source again.
+     *
+     * @param key The key whose entry is removed.
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all the entries from the cache.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Retrieves the number of entries currently stored, including the ones that expired but were not dropped yet.
+     *
+     * @return The number of entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt <= now) {
+                iterator.remove();
+                evictionCount.increment();
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package nl.tudelft.sem.template.example.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongPredicate;
+import nl.tudelft.sem.template.example.geo.GeoDistance;
+
+/**
+ * Uniform grid over the pickup locations of orders, used to find the orders closest to a point
+ * without looking at every order. Orders are ranked by their equirectangular distance in meters,
+ * so a degree of longitude counts for less than a degree of latitude away from the equator,
+ * as it does on the earth. The cells themselves are squares of degrees.
+ *
+ * <p>A search looks at the rings of cells around the cell of the point, from the inside out,
+ * and stops as soon as no cell further away can hold a closer order. How close a ring can be, in meters,
+ * takes the narrowest degree of longitude the ring reaches into account.
+ * When a ring would have more cells than there are occupied cells, the remaining occupied cells are scanned instead,
+ * so a search never costs more than a scan over all the orders.
+ */
+public class PickupLocationGrid {
+    private final double cellSize;
+
+    private final ConcurrentMap<Long, ConcurrentMap<Long, Entry>> cells = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param cellSize The width and height of a cell, in the unit of the coordinates.
+     */
+    public PickupLocationGrid(double cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("The cell size must be positive");
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Adds an order to the grid, moving it if it was already there.
+     *
+     * @param orderId The id of the order.
+     * @param vendorId The id of the vendor the order is picked up at.
+     * @param latitude The latitude of the pickup location.
+     * @param longitude The longitude of the pickup location.
+     */
+    public void put(long orderId, long vendorId, double latitude, double longitude) {
+        Entry entry = new Entry(orderId, vendorId, latitude, longitude, cell(latitude), cell(longitude));
+        remove(orderId);
+        entries.put(orderId, entry);
+        cells.compute(key(entry.row, entry.column), (key, cell) -> {
+            ConcurrentMap<Long, Entry> orders = cell == null ? new ConcurrentHashMap<>() : cell;
+            orders.put(orderId, entry);
+            return orders;
+        });
+    }
+
+    /**
+     * Removes an order from the grid. Removing an order that is not in the grid has no effect.
+     *
+     * @param orderId The id of the order.
+     */
+    public void remove(long orderId) {
+        Entry entry = entries.remove(orderId);
+        if (entry == null) {
+            return;
+        }
+        cells.computeIfPresent(key(entry.row, entry.column), (key, cell) -> {
+            cell.remove(orderId, entry);
+            return cell.isEmpty() ? null : cell;
+        });
+    }
+
+    /**
+     * Removes all the orders from the grid.
+     */
+    public void clear() {
+        entries.clear();
+        cells.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Finds the orders picked up closest to a point.
+     *
+     * @param latitude The latitude of the point.
+     * @param longitude The longitude of the point.
+     * @param limit The maximum number of orders to find.
+     * @param vendorFilter Decides, by the id of their vendor, which orders may be returned.
+     * @return The ids of at most {@code limit} orders, closest first.
+     */
+    public List<Long> nearest(double latitude, double longitude, int limit, LongPredicate vendorFilter) {
+        if (limit < 1) {
+            return List.of();
+        }
+        Search search = new Search(latitude, longitude, limit, vendorFilter);
+        int row = cell(latitude);
+        int column = cell(longitude);
+        for (int ring = 0; !cells.isEmpty(); ring++) {
+            if (search.isFull() && search.farthest() <= closestInRing(latitude, ring)) {
+                break;
+            }
+            if (8L * ring >= cells.size()) {
+                scanFrom(search, row, column, ring);
+                break;
+            }
+            scanRing(search, row, column, ring);
+        }
+        return search.result();
+    }
+
+    /**
+     * A cell in the ring differs at least {@code ring - 1} cells from the point in latitude or in longitude.
+     * In meters, a degree of longitude is narrowest at the highest latitude the mean latitude of the point
+     * and an order in the ring can have.
+     */
+    private double closestInRing(double latitude, int ring) {
+        double degrees = Math.max(0, ring - 1) * cellSize;
+        double highestMeanLatitude = Math.min(90, Math.abs(latitude) + (ring + 1) * cellSize / 2);
+        return GeoDistance.EARTH_RADIUS_METERS * Math.toRadians(degrees) * Math.cos(Math.toRadians(highestMeanLatitude));
+    }
+
+    private void scanRing(Search search, int row, int column, int ring) {
+        if (ring == 0) {
+            scan(search, cells.get(key(row, column)));
+            return;
+        }
+        for (int offset = -ring; offset <= ring; offset++) {
+            scan(search, cells.get(key(row - ring, column + offset)));
+            scan(search, cells.get(key(row + ring, column + offset)));
+        }
+        for (int offset = -ring + 1; offset < ring; offset++) {
+            scan(search, cells.get(key(row + offset, column - ring)));
+            scan(search, cells.get(key(row + offset, column + ring)));
+        }
+    }
+
+    private void scanFrom(Search search, int row, int column, int ring) {
+        for (Map<Long, Entry> cell : cells.values()) {
+            for (Entry entry : cell.values()) {
+                if (Math.max(Math.abs(entry.row - row), Math.abs(entry.column - column)) >= ring) {
+                    search.offer(entry);
+                }
+            }
+        }
+    }
+
+    private void scan(Search search, Map<Long, Entry> cell) {
+        if (cell != null) {
+            cell.values().forEach(search::offer);
+        }
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    private static final class Entry {
+        private final long orderId;
+
+        private final long vendorId;
+
+        private final double latitude;
+
+        private final double longitude;
+
+        private final int row;
+
+        private final int column;
+
+        private Entry(long orderId, long vendorId, double latitude, double longitude, int row, int column) {
+            this.orderId = orderId;
+            this.vendorId = vendorId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.row = row;
+            this.column = column;
+        }
+    }
+
+    private static final class Candidate {
+        private final long orderId;
+
+        private final double distance;
+
+        private Candidate(long orderId, double distance) {
+            this.orderId = orderId;
+            this.distance = distance;
+        }
+    }
+
+    private static final class Search {
+        private final double latitude;
+
+        private final double longitude;
+
+        private final int limit;
+
+        private final LongPredicate vendorFilter;
+
+        private final PriorityQueue<Candidate> closest = new PriorityQueue<>(
+                Comparator.comparingDouble((Candidate candidate) -> candidate.distance).reversed());
+
+        private Search(double latitude, double longitude, int limit, LongPredicate vendorFilter) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.limit = limit;
+            this.vendorFilter = vendorFilter;
+        }
+
+        private void offer(Entry entry) {
+            if (!vendorFilter.test(entry.vendorId)) {
+                return;
+            }
+            double distance = GeoDistance.equirectangular(latitude, longitude, entry.latitude, entry.longitude);
+            if (!isFull()) {
+                closest.add(new Candidate(entry.orderId, distance));
+            } else if (distance < farthest()) {
+                closest.poll();
+                closest.add(new Candidate(entry.orderId, distance));
+            }
+        }
+
+        private boolean isFull() {
+            return closest.size() >= limit;
+        }
+
+        private double farthest() {
+            return closest.peek().distance;
+        }
+
+        private List<Long> result() {
+            List<Candidate> candidates = new ArrayList<>(closest);
+            candidates.sort(Comparator.comparingDouble(candidate -> candidate.distance));
+            List<Long> orderIds = new ArrayList<>(candidates.size());
+            candidates.forEach(candidate -> orderIds.add(candidate.orderId));
+            return orderIds;
+        }
+    }
+}
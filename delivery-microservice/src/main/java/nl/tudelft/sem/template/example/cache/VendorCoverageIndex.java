@@ -0,0 +1,243 @@
+package nl.tudelft.sem.template.example.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import nl.tudelft.sem.template.example.geo.GeoDistance;
+import nl.tudelft.sem.template.example.repository.VendorRepository;
+import nl.tudelft.sem.template.example.repository.VendorZone;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Vendor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Index over the delivery zones of all the vendors, answering which vendors deliver to a point
+ * without checking every vendor.
+ *
+ * <p>The world is divided into cells of a fixed number of degrees, and every vendor is listed in all the cells
+ * its zone overlaps. A lookup only checks the exact distance to the vendors listed in the cell of the point.
+ * Zones that would span too many cells, such as huge ones or ones reaching a pole, are kept apart
+ * and checked on every lookup instead.
+ */
+@Component
+public class VendorCoverageIndex {
+    static final double CELL_SIZE_DEGREES = 0.1;
+
+    static final int MAX_CELLS_PER_ZONE = 4096;
+
+    private static final int COLUMNS = (int) Math.round(360 / CELL_SIZE_DEGREES);
+
+    private static final double METERS_PER_DEGREE = GeoDistance.EARTH_RADIUS_METERS * Math.PI / 180;
+
+    private static final double METERS_PER_KILOMETER = 1000;
+
+    private final VendorRepository vendorRepository;
+
+    private final ConcurrentMap<Long, Zone> zones = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, Set<Long>> vendorIdsByCell = new ConcurrentHashMap<>();
+
+    private final Set<Long> largeZones = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public VendorCoverageIndex(VendorRepository vendorRepository) {
+        this.vendorRepository = vendorRepository;
+    }
+
+    /**
+     * Checks whether a point lies within a delivery zone.
+     *
+     * @param address The address of the vendor, at the center of the zone.
+     * @param deliveryZone The radius of the zone, in kilometers.
+     * @param point The point to check.
+     * @return true if the point is at most the radius away from the address, otherwise false.
+     */
+    public static boolean isWithinZone(Location address, long deliveryZone, Location point) {
+        return GeoDistance.distance(address.getLatitude(), address.getLongitude(), point.getLatitude(),
+                point.getLongitude()) <= deliveryZone * METERS_PER_KILOMETER;
+    }
+
+    /**
+     * Replaces the contents of the index with the delivery zones in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        zones.clear();
+        vendorIdsByCell.clear();
+        largeZones.clear();
+        for (VendorZone zone : vendorRepository.findAllVendorZones()) {
+            put(zone.getVendorId(), zone.getLatitude(), zone.getLongitude(), zone.getDeliveryZone());
+        }
+    }
+
+    /**
+     * Updates the delivery zone of a vendor after its address or zone changed.
+     *
+     * @param vendor The vendor, as it was saved.
+     */
+    public void vendorChanged(Vendor vendor) {
+        Location address = vendor.getAddress();
+        put(vendor.getId(), address == null ? null : address.getLatitude(),
+                address == null ? null : address.getLongitude(), vendor.getDeliveryZone());
+    }
+
+    /**
+     * Adds or moves the delivery zone of a vendor.
+     * A vendor without an address or zone does not deliver anywhere, so it is removed instead.
+     *
+     * @param vendorId The id of the vendor.
+     * @param latitude The latitude of the address of the vendor.
+     * @param longitude The longitude of the address of the vendor.
+     * @param deliveryZone The radius of the zone in kilometers.
+     */
+    public synchronized void put(long vendorId, Double latitude, Double longitude, Long deliveryZone) {
+        remove(vendorId);
+        if (latitude == null || longitude == null || deliveryZone == null || deliveryZone < 0) {
+            return;
+        }
+        Zone zone = new Zone(latitude, longitude, deliveryZone * METERS_PER_KILOMETER);
+        zones.put(vendorId, zone);
+        if (zone.cells == null) {
+            largeZones.add(vendorId);
+            return;
+        }
+        for (long cell : zone.cells) {
+            vendorIdsByCell.computeIfAbsent(cell, key -> ConcurrentHashMap.newKeySet()).add(vendorId);
+        }
+    }
+
+    /**
+     * Removes the delivery zone of a vendor. Removing a vendor that is not in the index has no effect.
+     *
+     * @param vendorId The id of the vendor.
+     */
+    public synchronized void remove(long vendorId) {
+        Zone zone = zones.remove(vendorId);
+        if (zone == null) {
+            return;
+        }
+        if (zone.cells == null) {
+            largeZones.remove(vendorId);
+            return;
+        }
+        for (long cell : zone.cells) {
+            vendorIdsByCell.computeIfPresent(cell, (key, vendorIds) -> {
+                vendorIds.remove(vendorId);
+                return vendorIds.isEmpty() ? null : vendorIds;
+            });
+        }
+    }
+
+    /**
+     * Finds the vendors that deliver to a point.
+     *
+     * @param latitude The latitude of the point.
+     * @param longitude The longitude of the point.
+     * @return The ids of the vendors whose delivery zone the point lies in, closest vendor first.
+     */
+    public List<Long> vendorsCovering(double latitude, double longitude) {
+        Set<Long> candidates = new HashSet<>(largeZones);
+        Set<Long> inCell = vendorIdsByCell.get(cell(row(latitude), column(longitude)));
+        if (inCell != null) {
+            candidates.addAll(inCell);
+        }
+        List<Long> vendorIds = new ArrayList<>();
+        List<Double> distances = new ArrayList<>();
+        for (Long vendorId : candidates) {
+            Zone zone = zones.get(vendorId);
+            if (zone == null) {
+                continue;
+            }
+            double distance = zone.distanceTo(latitude, longitude);
+            if (distance <= zone.radius) {
+                vendorIds.add(vendorId);
+                distances.add(distance);
+            }
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < vendorIds.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingDouble((Integer i) -> distances.get(i)).thenComparing(vendorIds::get));
+        List<Long> result = new ArrayList<>(order.size());
+        order.forEach(i -> result.add(vendorIds.get(i)));
+        return result;
+    }
+
+    public int size() {
+        return zones.size();
+    }
+
+    private static int row(double latitude) {
+        return (int) Math.floor(latitude / CELL_SIZE_DEGREES);
+    }
+
+    private static int column(double longitude) {
+        return Math.floorMod((int) Math.floor(longitude / CELL_SIZE_DEGREES), COLUMNS);
+    }
+
+    private static long cell(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    private static final class Zone {
+        private final double latitude;
+
+        private final double longitude;
+
+        private final double radius;
+
+        private final long[] cells;
+
+        private Zone(double latitude, double longitude, double radius) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.radius = radius;
+            this.cells = coveredCells(latitude, longitude, radius);
+        }
+
+        private double distanceTo(double latitude, double longitude) {
+            return GeoDistance.distance(this.latitude, this.longitude, latitude, longitude);
+        }
+
+        /**
+         * Lists the cells overlapping the bounding box of the zone.
+         *
+         * @return The cells, or {@code null} if there are too many of them.
+         */
+        private static long[] coveredCells(double latitude, double longitude, double radius) {
+            double latitudeSpan = radius / METERS_PER_DEGREE;
+            double farthestLatitude = Math.abs(latitude) + latitudeSpan;
+            if (farthestLatitude >= 90) {
+                return null;
+            }
+            double longitudeSpan = latitudeSpan / Math.cos(Math.toRadians(farthestLatitude));
+            if (longitudeSpan >= 180) {
+                return null;
+            }
+            int firstRow = row(latitude - latitudeSpan);
+            int lastRow = row(latitude + latitudeSpan);
+            int firstColumn = (int) Math.floor((longitude - longitudeSpan) / CELL_SIZE_DEGREES);
+            int lastColumn = (int) Math.floor((longitude + longitudeSpan) / CELL_SIZE_DEGREES);
+            long count = (long) (lastRow - firstRow + 1) * (lastColumn - firstColumn + 1);
+            if (count > MAX_CELLS_PER_ZONE) {
+                return null;
+            }
+            long[] cells = new long[(int) count];
+            int index = 0;
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    cells[index++] = cell(row, Math.floorMod(column, COLUMNS));
+                }
+            }
+            return cells;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package nl.tudelft.sem.template.example.configuration;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
@@ -16,8 +17,14 @@ public class ConfigurationProperties {
         this.defaultDeliveryZone = defaultDeliveryZone;
     }
 
+    /**
+     * Creates the RestTemplate used to communicate with the other microservices.
+     *
+     * @param clientHttpRequestFactory The factory creating requests on top of the pooled HTTP client.
+     * @return The RestTemplate.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(ClientHttpRequestFactory clientHttpRequestFactory) {
+        return new RestTemplate(clientHttpRequestFactory);
     }
 }
@@ -1,12 +1,13 @@
 package nl.tudelft.sem.template.example.configuration;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import javax.sql.DataSource;
 import lombok.Getter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 
@@ -26,18 +27,30 @@ public class H2Config {
     }
 
     /**
-     * Set up the connection to the database.
+     * Set up the pool of connections to the database.
+     * Its size, timeouts and leak detection are read from the jdbc.pool.* properties,
+     * and its metrics are exposed over JMX under the name of the pool.
      *
      * @return The data source.
      */
-    @Bean
+    @Bean(destroyMethod = "close")
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(environment.getProperty("jdbc.driverClassName"));
-        dataSource.setUrl(environment.getProperty("jdbc.url"));
-        dataSource.setUsername(environment.getProperty("jdbc.user"));
-        dataSource.setPassword(environment.getProperty("jdbc.pass"));
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName(environment.getProperty("jdbc.driverClassName"));
+        config.setJdbcUrl(environment.getProperty("jdbc.url"));
+        config.setUsername(environment.getProperty("jdbc.user"));
+        config.setPassword(environment.getProperty("jdbc.pass"));
 
-        return dataSource;
+        config.setPoolName(environment.getProperty("jdbc.pool.name", "delivery-db-pool"));
+        config.setMaximumPoolSize(environment.getProperty("jdbc.pool.maximum-size", Integer.class, 10));
+        config.setMinimumIdle(environment.getProperty("jdbc.pool.minimum-idle", Integer.class, 2));
+        config.setIdleTimeout(environment.getProperty("jdbc.pool.idle-timeout-ms", Long.class, 600_000L));
+        config.setMaxLifetime(environment.getProperty("jdbc.pool.max-lifetime-ms", Long.class, 1_800_000L));
+        config.setConnectionTimeout(environment.getProperty("jdbc.pool.connection-timeout-ms", Long.class, 30_000L));
+        config.setLeakDetectionThreshold(
+                environment.getProperty("jdbc.pool.leak-detection-threshold-ms", Long.class, 0L));
+        config.setRegisterMbeans(environment.getProperty("jdbc.pool.register-mbeans", Boolean.class, true));
+
+        return new HikariDataSource(config);
     }
 }
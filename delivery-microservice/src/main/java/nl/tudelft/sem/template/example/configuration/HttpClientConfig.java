@@ -0,0 +1,79 @@
+package nl.tudelft.sem.template.example.configuration;
+
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+/**
+ * The configuration of the HTTP client used to communicate with the other microservices.
+ * Connections are pooled and kept alive between requests, and every request is bounded by timeouts.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Getter
+    private final Environment environment;
+
+    public HttpClientConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Set up the pool holding the connections to the other microservices.
+     *
+     * @return The connection manager.
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(environment.getProperty("http.client.max-total", Integer.class, 100));
+        connectionManager.setDefaultMaxPerRoute(environment.getProperty("http.client.max-per-route", Integer.class, 20));
+        connectionManager.setValidateAfterInactivity(
+                environment.getProperty("http.client.validate-after-inactivity-ms", Integer.class, 2000));
+        return connectionManager;
+    }
+
+    /**
+     * Set up the HTTP client that takes its connections from the pool.
+     *
+     * @param connectionManager The pool holding the connections.
+     * @return The HTTP client.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(environment.getProperty("http.client.connect-timeout-ms", Integer.class, 2000))
+                .setSocketTimeout(environment.getProperty("http.client.read-timeout-ms", Integer.class, 5000))
+                .setConnectionRequestTimeout(
+                        environment.getProperty("http.client.connection-request-timeout-ms", Integer.class, 1000))
+                .build();
+        long idleEvictionMillis = environment.getProperty("http.client.idle-eviction-ms", Long.class, 30000L);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEvictionMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Set up the request factory the RestTemplate uses to create its requests.
+     *
+     * @param httpClient The pooled HTTP client.
+     * @return The request factory.
+     */
+    @Bean
+    public ClientHttpRequestFactory clientHttpRequestFactory(CloseableHttpClient httpClient) {
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+}
@@ -0,0 +1,80 @@
+package nl.tudelft.sem.template.example.configuration;
+
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes how much of the HTTP connection pool is in use, and logs it periodically.
+ */
+@Component
+public class HttpClientPoolMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientPoolMetrics.class);
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    @Autowired
+    public HttpClientPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    public int getLeasedConnections() {
+        return connectionManager.getTotalStats().getLeased();
+    }
+
+    public int getAvailableConnections() {
+        return connectionManager.getTotalStats().getAvailable();
+    }
+
+    public int getPendingRequests() {
+        return connectionManager.getTotalStats().getPending();
+    }
+
+    public int getMaxConnections() {
+        return connectionManager.getTotalStats().getMax();
+    }
+
+    /**
+     * Computes the fraction of the pool that is currently leased out.
+     *
+     * @return A value between 0 and 1.
+     */
+    public double getUtilisation() {
+        PoolStats stats = connectionManager.getTotalStats();
+        return stats.getMax() == 0 ? 0.0 : (double) stats.getLeased() / stats.getMax();
+    }
+
+    /**
+     * Logs how much of the pool is in use. When requests are waiting for a connection,
+     * the pool is too small for the load, which is logged as a warning.
+     *
+     * @return The statistics that were logged.
+     */
+    @Scheduled(fixedDelayString = "${http.client.metrics-log-interval-ms:60000}")
+    public PoolStats logPoolUsage() {
+        PoolStats stats = connectionManager.getTotalStats();
+        if (stats.getPending() > 0) {
+            logger.warn("HTTP connection pool exhausted: {} of {} connections leased, {} requests waiting",
+                    stats.getLeased(), stats.getMax(), stats.getPending());
+        } else {
+            logger.info("HTTP connection pool: {} of {} connections leased, {} available",
+                    stats.getLeased(), stats.getMax(), stats.getAvailable());
+        }
+        return stats;
+    }
+
+    /**
+     * Retrieves the statistics of the connections to a single host.
+     *
+     * @param route The route to the host.
+     * @return The statistics of the route.
+     */
+    public PoolStats getRouteStats(HttpRoute route) {
+        return connectionManager.getStats(route);
+    }
+}
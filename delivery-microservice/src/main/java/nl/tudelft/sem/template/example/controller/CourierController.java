@@ -9,6 +9,8 @@ import nl.tudelft.sem.template.example.exception.MicroserviceCommunicationExcept
 import nl.tudelft.sem.template.example.exception.NoAvailableOrdersException;
 import nl.tudelft.sem.template.example.exception.OrderNotFoundException;
 import nl.tudelft.sem.template.example.service.CourierService;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.LocationPing;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -73,6 +75,87 @@ public class CourierController implements CourierApi {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Assigns the nearest available order to a courier.
+     *
+     * @path PUT: /courier/delivery/{courier_id}/assign-nearest-order
+     * @param courierId Unique identifier of the courier (required)
+     * @param authorizationId Identification of the user who is making the request (required)
+     * @param location Current location of the courier (required)
+     * @return Response code
+     */
+    @Override
+    public ResponseEntity<Void> courierDeliveryCourierIdAssignNearestOrderPut(Long courierId, Integer authorizationId,
+                                                                              Location location) {
+        if (location == null || location.getLatitude() == null || location.getLongitude() == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        try {
+            courierService.assignCourierToNearestOrder(courierId, location);
+        } catch (DeliveryNotFoundException | NoAvailableOrdersException | CourierNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Puts a courier in the queue of the batch dispatcher.
+     *
+     * @path PUT: /courier/delivery/{courier_id}/dispatch-queue
+     * @param courierId Unique identifier of the courier (required)
+     * @param authorizationId Identification of the user who is making the request (required)
+     * @param location Current location of the courier (required)
+     * @return 202 if the courier was queued, 200 if batch dispatch is disabled and an order was assigned straight away
+     */
+    @Override
+    public ResponseEntity<Void> courierDeliveryCourierIdDispatchQueuePut(Long courierId, Integer authorizationId,
+                                                                         Location location) {
+        if (location == null || location.getLatitude() == null || location.getLongitude() == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        try {
+            if (courierService.queueCourierForDispatch(courierId, location)) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+            }
+        } catch (DeliveryNotFoundException | NoAvailableOrdersException | CourierNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Records the locations reported by a courier's device.
+     * Couriers can only report their own locations.
+     *
+     * @path POST: /courier/delivery/{courier_id}/location
+     * @param courierId Unique identifier of the courier (required)
+     * @param authorizationId Identification of the user who is making the request (required)
+     * @param locationPings Locations of the courier, in the order they were measured (required)
+     * @return 202 if the locations were recorded
+     */
+    @Override
+    public ResponseEntity<Void> courierDeliveryCourierIdLocationPost(Long courierId, Integer authorizationId,
+                                                                     List<LocationPing> locationPings) {
+        if (locationPings == null || locationPings.isEmpty() || !locationPings.stream().allMatch(this::isValidPing)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        if (courierId.longValue() != authorizationId.longValue()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            courierService.recordLocations(courierId, locationPings);
+        } catch (CourierNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+    }
+
+    private boolean isValidPing(LocationPing ping) {
+        return ping != null && ping.getTimestamp() != null
+                && ping.getLatitude() != null && ping.getLatitude() >= -90 && ping.getLatitude() <= 90
+                && ping.getLongitude() != null && ping.getLongitude() >= -180 && ping.getLongitude() <= 180;
+    }
+
     /**
      * Assigns a specific order to a courier.
      *
@@ -3,6 +3,11 @@ package nl.tudelft.sem.template.example.controller;
 import static nl.tudelft.sem.template.model.Order.StatusEnum;
 
 import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 import nl.tudelft.sem.template.api.DeliveryApi;
 import nl.tudelft.sem.template.example.authorization.AuthorizationService;
 import nl.tudelft.sem.template.example.exception.CourierNotFoundException;
@@ -12,40 +17,59 @@ import nl.tudelft.sem.template.example.exception.MicroserviceCommunicationExcept
 import nl.tudelft.sem.template.example.exception.OrderNotFoundException;
 import nl.tudelft.sem.template.example.service.DeliveryService;
 import nl.tudelft.sem.template.example.service.OrderService;
+import nl.tudelft.sem.template.example.tracking.LocationStreamBroadcaster;
 import nl.tudelft.sem.template.model.Delivery;
+import nl.tudelft.sem.template.model.DeliveryCreationResult;
 import nl.tudelft.sem.template.model.DeliveryPostRequest;
+import nl.tudelft.sem.template.model.DeliverySummary;
 import nl.tudelft.sem.template.model.Issue;
 import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.OrderStatusUpdate;
+import nl.tudelft.sem.template.model.OrderStatusUpdateResult;
+import nl.tudelft.sem.template.model.Vendor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
 @RestController
 public class DeliveryController implements DeliveryApi {
 
+    static final int MAX_BULK_DELIVERIES = 1000;
+
+    static final int MAX_BULK_STATUS_UPDATES = 1000;
+
     DeliveryService deliveryService;
 
     OrderService orderService;
 
     AuthorizationService authorizationService;
 
+    LocationStreamBroadcaster locationStreamBroadcaster;
+
     /**
      * Simple constructor that handles dependency injection of the service.
      *
      * @param deliveryService Instance of DeliveryService to handle the logic
      * @param orderService    Instance of OrderService to handle the logic
+     * @param locationStreamBroadcaster Instance of LocationStreamBroadcaster pushing the live locations
      */
 
     @Autowired
     DeliveryController(DeliveryService deliveryService,
-                       OrderService orderService, AuthorizationService authorizationService) {
+                       OrderService orderService, AuthorizationService authorizationService,
+                       LocationStreamBroadcaster locationStreamBroadcaster) {
         this.deliveryService = deliveryService;
         this.orderService = orderService;
         this.authorizationService = authorizationService;
+        this.locationStreamBroadcaster = locationStreamBroadcaster;
     }
 
     @Override
@@ -59,6 +83,26 @@ public class DeliveryController implements DeliveryApi {
         }
     }
 
+    /**
+     * Creates the deliveries of many orders at once, such as the orders a vendor imports in bulk.
+     * The vendors are resolved first, so the deliveries are only saved in a transaction once they are all known.
+     *
+     * @param authorizationId     Identification of the user who is making the request (required)
+     * @param deliveryPostRequest (required) - The basic elements of at most 1000 deliveries
+     * @return The result of every delivery, in the order of the request
+     * @path POST: /delivery/bulk
+     */
+    @Override
+    public ResponseEntity<List<DeliveryCreationResult>> deliveryBulkPost(Integer authorizationId,
+                                                                         List<DeliveryPostRequest> deliveryPostRequest) {
+        if (deliveryPostRequest == null || deliveryPostRequest.isEmpty()
+                || deliveryPostRequest.size() > MAX_BULK_DELIVERIES) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<Long, Vendor> vendors = deliveryService.findVendorsOrCreate(deliveryPostRequest);
+        return ResponseEntity.ok(deliveryService.createDeliveries(deliveryPostRequest, vendors));
+    }
+
     /**
      * If user has required permissions, the order's status is changed
      * to the one found in the body.
@@ -89,6 +133,35 @@ public class DeliveryController implements DeliveryApi {
         }
     }
 
+    /**
+     * Changes the status of many orders at once, such as a vendor starting to prepare all its accepted orders.
+     * The permissions of the user are checked for all the orders together, and the orders the user
+     * may not update are reported as forbidden.
+     *
+     * @param authorizationId   Identification of the user who is making the request (required)
+     * @param orderStatusUpdate (required) - The orders with their new status, at most 1000
+     * @return The result of every status change, in the order of the request
+     * @path PUT: /delivery/orders/status
+     */
+    @Override
+    public ResponseEntity<List<OrderStatusUpdateResult>> deliveryOrdersStatusPut(Integer authorizationId,
+                                                                                 List<OrderStatusUpdate> orderStatusUpdate) {
+        if (orderStatusUpdate == null || orderStatusUpdate.isEmpty()
+                || orderStatusUpdate.size() > MAX_BULK_STATUS_UPDATES) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            List<Long> orderIds = orderStatusUpdate.stream().map(OrderStatusUpdate::getOrderId)
+                    .filter(Objects::nonNull).distinct().collect(Collectors.toList());
+            Set<Long> updatableOrderIds = authorizationService.findUpdatableOrders(Long.valueOf(authorizationId),
+                    orderIds);
+            return ResponseEntity.ok(orderService.setOrderStatuses(authorizationId, orderStatusUpdate,
+                    updatableOrderIds));
+        } catch (MicroserviceCommunicationException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
 
     /**
      * Returns a text format of the order's string.
@@ -346,8 +419,7 @@ public class DeliveryController implements DeliveryApi {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
 
-            Long deliveryId = deliveryService.getDeliveryIdByOrderId(orderId.longValue());
-            Location liveLocation = deliveryService.calculateLiveLocation(deliveryId);
+            Location liveLocation = deliveryService.calculateLiveLocation(orderId.longValue());
 
             return ResponseEntity.ok(liveLocation);
 
@@ -359,6 +431,55 @@ public class DeliveryController implements DeliveryApi {
         }
     }
 
+    /**
+     * Streams the live location of an order as server-sent events, so that it does not have to be polled.
+     * The user is authorized once, when subscribing, after which the location is pushed at a fixed cadence.
+     * This endpoint is not part of the OpenAPI specification, as the generated interface cannot return a stream.
+     *
+     * @param orderId The unique identifier of the order. (required)
+     * @param authorizationId Identification of the user who is making the request. (required)
+     * @return The stream of locations, starting with the current one.
+     * @path GET: /delivery/order/{order_id}/location/stream
+     */
+    @GetMapping(value = "/delivery/order/{order_id}/location/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> deliveryOrderOrderIdLocationStreamGet(
+            @PathVariable("order_id") Integer orderId,
+            @RequestHeader(value = "authorizationId") Integer authorizationId) {
+        try {
+            if (!authorizationService.canViewDeliveryDetails(Long.valueOf(authorizationId), Long.valueOf(orderId))) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            return ResponseEntity.ok(locationStreamBroadcaster.subscribe(orderId.longValue()));
+        } catch (MicroserviceCommunicationException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (OrderNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    /**
+     * Returns the status, times, ETA, current location, courier and issue of the delivery of an order at once,
+     * so that a client showing all of them needs a single request, authorization and delivery load.
+     *
+     * @param orderId The unique identifier of the order. (required)
+     * @param authorizationId Identification of the user who is making the request. (required)
+     * @return The summary of the delivery.
+     * @path GET: /delivery/order/{order_id}/summary
+     */
+    @Override
+    public ResponseEntity<DeliverySummary> deliveryOrderOrderIdSummaryGet(Integer orderId, Integer authorizationId) {
+        try {
+            if (!authorizationService.canViewDeliveryDetails(Long.valueOf(authorizationId), Long.valueOf(orderId))) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            return ResponseEntity.ok(deliveryService.getSummary(orderId.longValue()));
+        } catch (MicroserviceCommunicationException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (OrderNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
     /**
      * Returns the courier assigned to an order.
      *
@@ -132,6 +132,34 @@ public class VendorController implements VendorApi {
         }
     }
 
+    /**
+     * Retrieves the ids of the vendors that deliver to a location.
+     * Only customers and admins can look up which vendors deliver to a location.
+     *
+     * @param authorizationId Identification of the user who is making the request (required)
+     * @param latitude The latitude of the location (required)
+     * @param longitude The longitude of the location (required)
+     * @return the ids of the vendors whose delivery zone contains the location, closest vendor first
+     * @path GET: /vendor/delivery/coverage
+     */
+    @Override
+    public ResponseEntity<List<Long>> vendorDeliveryCoverageGet(Integer authorizationId, Double latitude,
+                                                                Double longitude) {
+        if (latitude == null || latitude < -90 || latitude > 90
+                || longitude == null || longitude < -180 || longitude > 180) {
+            return new ResponseEntity<List<Long>>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            String role = authorizationService.getUserRole((long) authorizationId);
+            if (!role.equals("customer") && !role.equals("admin")) {
+                return new ResponseEntity<List<Long>>(HttpStatus.FORBIDDEN);
+            }
+        } catch (MicroserviceCommunicationException e) {
+            return new ResponseEntity<List<Long>>(HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.ok(vendorService.getVendorsDeliveringTo(new Location(latitude, longitude)));
+    }
+
     @Override
     public ResponseEntity<Location> vendorDeliveryVendorIdVendorAddressGet(Integer vendorId, Integer authorizationId) {
         try {
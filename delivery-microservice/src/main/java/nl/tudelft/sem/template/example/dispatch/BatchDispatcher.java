@@ -0,0 +1,257 @@
+package nl.tudelft.sem.template.example.dispatch;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import nl.tudelft.sem.template.example.cache.AvailableOrderPool;
+import nl.tudelft.sem.template.example.cache.CourierVendorIndex;
+import nl.tudelft.sem.template.example.geo.GeoDistance;
+import nl.tudelft.sem.template.example.repository.AvailableOrder;
+import nl.tudelft.sem.template.example.repository.DeliveryRepository;
+import nl.tudelft.sem.template.example.repository.VendorRepository;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Optional dispatch mode in which couriers wait in a queue instead of picking an order themselves.
+ * Periodically, all the waiting couriers are matched to the available orders at once, minimising the total distance
+ * to the vendors plus a penalty for every second an order is not ready yet, and all the claims are committed
+ * in a single transaction.
+ *
+ * <p>Couriers of a vendor can only get orders of that vendor and the other couriers only get orders of vendors
+ * without couriers, so every vendor with couriers, and all the other couriers together, form a separate problem
+ * that is solved with the {@link HungarianSolver}.
+ */
+@Component
+public class BatchDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(BatchDispatcher.class);
+
+    private final DeliveryRepository deliveryRepository;
+
+    private final VendorRepository vendorRepository;
+
+    private final CourierVendorIndex courierVendorIndex;
+
+    private final AvailableOrderPool availableOrderPool;
+
+    private final TransactionOperations transactionOperations;
+
+    private final Clock clock;
+
+    private final boolean enabled;
+
+    private final int maxBatchSize;
+
+    private final double readinessWeight;
+
+    private final Duration idleTimeout;
+
+    private final ConcurrentMap<Long, IdleCourier> idleCouriers = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor of the dispatcher, reading its settings from the environment.
+     *
+     * @param deliveryRepository The repository the available orders are loaded from and claimed in.
+     * @param vendorRepository The repository the vendors with their own couriers are loaded from.
+     * @param courierVendorIndex The index from couriers to the vendors they work for.
+     * @param availableOrderPool The pool the claimed orders are removed from.
+     * @param transactionManager The transaction manager used to commit the claims of a round together.
+     * @param environment The environment holding the dispatch settings.
+     */
+    @Autowired
+    public BatchDispatcher(DeliveryRepository deliveryRepository, VendorRepository vendorRepository,
+                           CourierVendorIndex courierVendorIndex, AvailableOrderPool availableOrderPool,
+                           PlatformTransactionManager transactionManager, Environment environment) {
+        this(deliveryRepository, vendorRepository, courierVendorIndex, availableOrderPool,
+                new TransactionTemplate(transactionManager), Clock.systemUTC(),
+                environment.getProperty("dispatch.batch.enabled", Boolean.class, false),
+                environment.getProperty("dispatch.batch.max-batch-size", Integer.class, 200),
+                environment.getProperty("dispatch.batch.readiness-weight", Double.class, 10.0),
+                Duration.ofMillis(environment.getProperty("dispatch.batch.idle-timeout-ms", Long.class, 300_000L)));
+    }
+
+    /**
+     * Constructor of the dispatcher with explicit settings.
+     *
+     * @param deliveryRepository The repository the available orders are loaded from and claimed in.
+     * @param vendorRepository The repository the vendors with their own couriers are loaded from.
+     * @param courierVendorIndex The index from couriers to the vendors they work for.
+     * @param availableOrderPool The pool the claimed orders are removed from.
+     * @param transactionOperations Runs the claims of a round in a single transaction.
+     * @param clock The clock used to decide how long couriers have been waiting and orders are not ready yet.
+     * @param enabled Whether couriers are dispatched in batches at all.
+     * @param maxBatchSize The maximum number of couriers, and of orders per problem, matched in one round.
+     * @param readinessWeight The cost, in meters, of every second an order is not ready yet.
+     * @param idleTimeout How long a courier stays in the queue without getting an order.
+     */
+    public BatchDispatcher(DeliveryRepository deliveryRepository, VendorRepository vendorRepository,
+                           CourierVendorIndex courierVendorIndex, AvailableOrderPool availableOrderPool,
+                           TransactionOperations transactionOperations, Clock clock, boolean enabled,
+                           int maxBatchSize, double readinessWeight, Duration idleTimeout) {
+        this.deliveryRepository = deliveryRepository;
+        this.vendorRepository = vendorRepository;
+        this.courierVendorIndex = courierVendorIndex;
+        this.availableOrderPool = availableOrderPool;
+        this.transactionOperations = transactionOperations;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.readinessWeight = readinessWeight;
+        this.idleTimeout = idleTimeout;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Puts a courier in the queue for the next round, replacing the location of the courier if it was already queued.
+     *
+     * @param courierId The id of the courier.
+     * @param location The current location of the courier, or {@code null} if it is not known.
+     */
+    public void courierIdle(long courierId, Location location) {
+        idleCouriers.put(courierId, new IdleCourier(courierId, location, clock.instant()));
+    }
+
+    public boolean isIdle(long courierId) {
+        return idleCouriers.containsKey(courierId);
+    }
+
+    /**
+     * Matches the waiting couriers to the available orders and claims the matched orders.
+     * Couriers whose order was claimed by someone else in the meantime stay in the queue for the next round.
+     * Runs periodically when batch dispatch is enabled, but can also be called directly.
+     *
+     * @return The number of couriers that got an order.
+     */
+    @Scheduled(fixedDelayString = "${dispatch.batch.interval-ms:5000}")
+    public int dispatchIdleCouriers() {
+        if (!enabled) {
+            return 0;
+        }
+        Instant now = clock.instant();
+        idleCouriers.values().removeIf(courier -> courier.since.plus(idleTimeout).isBefore(now));
+        if (idleCouriers.isEmpty()) {
+            return 0;
+        }
+
+        // Problems are keyed by the vendor of the couriers, or null for the couriers that do not work for a vendor.
+        Map<Long, List<IdleCourier>> couriersByVendor = new HashMap<>();
+        idleCouriers.values().stream().limit(maxBatchSize).forEach(courier -> couriersByVendor
+                .computeIfAbsent(courierVendorIndex.findVendorId(courier.courierId).orElse(null), v -> new ArrayList<>())
+                .add(courier));
+        Set<Long> vendorsWithCouriers = new HashSet<>(vendorRepository.findIdsOfVendorsWithCouriers());
+        Map<Long, List<AvailableOrder>> ordersByVendor = new HashMap<>();
+        for (AvailableOrder order : deliveryRepository.findUnassignedOrdersByStatus(Order.StatusEnum.ACCEPTED)) {
+            Long key = vendorsWithCouriers.contains(order.getVendorId()) ? order.getVendorId() : null;
+            if (couriersByVendor.containsKey(key)) {
+                List<AvailableOrder> orders = ordersByVendor.computeIfAbsent(key, v -> new ArrayList<>());
+                if (orders.size() < maxBatchSize) {
+                    orders.add(order);
+                }
+            }
+        }
+
+        List<Assignment> assignments = new ArrayList<>();
+        couriersByVendor.forEach((vendorId, couriers) ->
+                assignments.addAll(match(couriers, ordersByVendor.getOrDefault(vendorId, List.of()), now)));
+        if (assignments.isEmpty()) {
+            return 0;
+        }
+        List<Assignment> claimed = transactionOperations.execute(status -> claim(assignments));
+        for (Assignment assignment : claimed) {
+            idleCouriers.remove(assignment.courierId);
+            availableOrderPool.orderUnavailable(assignment.orderId);
+        }
+        logger.info("Dispatched {} of {} matched couriers", claimed.size(), assignments.size());
+        return claimed.size();
+    }
+
+    private List<Assignment> match(List<IdleCourier> couriers, List<AvailableOrder> orders, Instant now) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        double[][] costs = new double[couriers.size()][orders.size()];
+        for (int row = 0; row < couriers.size(); row++) {
+            for (int column = 0; column < orders.size(); column++) {
+                costs[row][column] = cost(couriers.get(row), orders.get(column), now);
+            }
+        }
+        int[] matches = HungarianSolver.solve(costs);
+        List<Assignment> assignments = new ArrayList<>();
+        for (int row = 0; row < matches.length; row++) {
+            if (matches[row] >= 0) {
+                assignments.add(new Assignment(couriers.get(row).courierId, orders.get(matches[row]).getOrderId()));
+            }
+        }
+        return assignments;
+    }
+
+    private double cost(IdleCourier courier, AvailableOrder order, Instant now) {
+        double cost = 0;
+        Location location = courier.location;
+        if (location != null && location.getLatitude() != null && location.getLongitude() != null
+                && order.getPickupLatitude() != null && order.getPickupLongitude() != null) {
+            cost += GeoDistance.distance(location.getLatitude(), location.getLongitude(),
+                    order.getPickupLatitude(), order.getPickupLongitude());
+        }
+        if (order.getReadyTime() != null) {
+            long secondsUntilReady = Duration.between(now, order.getReadyTime().toInstant()).getSeconds();
+            cost += readinessWeight * Math.max(0, secondsUntilReady);
+        }
+        return cost;
+    }
+
+    private List<Assignment> claim(List<Assignment> assignments) {
+        List<Assignment> claimed = new ArrayList<>();
+        for (Assignment assignment : assignments) {
+            if (deliveryRepository.claimOrder(assignment.courierId, assignment.orderId, Order.StatusEnum.ACCEPTED) == 1) {
+                claimed.add(assignment);
+            }
+        }
+        return claimed;
+    }
+
+    private static final class IdleCourier {
+        private final long courierId;
+
+        private final Location location;
+
+        private final Instant since;
+
+        private IdleCourier(long courierId, Location location, Instant since) {
+            this.courierId = courierId;
+            this.location = location;
+            this.since = since;
+        }
+    }
+
+    private static final class Assignment {
+        private final long courierId;
+
+        private final long orderId;
+
+        private Assignment(long courierId, long orderId) {
+            this.courierId = courierId;
+            this.orderId = orderId;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package nl.tudelft.sem.template.example.dispatch;
+
+import java.util.Arrays;
+
+/**
+ * Solves the assignment problem: given the cost of every row-column pair, finds the matching of rows to columns
+ * with the lowest total cost, using the Hungarian algorithm with row and column potentials.
+ * A problem with {@code n} rows and {@code m} columns takes {@code O(n^2 * m)} time when {@code n <= m},
+ * and is transposed first otherwise, so that every row or every column is matched.
+ */
+public final class HungarianSolver {
+
+    private HungarianSolver() {
+    }
+
+    /**
+     * Finds the cheapest matching of rows to columns.
+     *
+     * @param costs The cost of matching every row to every column; all the rows must have the same length.
+     * @return For every row, the column it is matched to, or -1 if it is left unmatched because there are fewer columns.
+     */
+    public static int[] solve(double[][] costs) {
+        int rows = costs.length;
+        if (rows == 0) {
+            return new int[0];
+        }
+        int columns = costs[0].length;
+        if (rows > columns) {
+            return invert(solve(transpose(costs)), rows);
+        }
+        double[] rowPotentials = new double[rows + 1];
+        double[] columnPotentials = new double[columns + 1];
+        // Rows and columns are counted from 1, column 0 is the virtual column the augmenting paths start from.
+        int[] rowOfColumn = new int[columns + 1];
+        int[] previousColumn = new int[columns + 1];
+        double[] minimumSlack = new double[columns + 1];
+        boolean[] visited = new boolean[columns + 1];
+        for (int row = 1; row <= rows; row++) {
+            rowOfColumn[0] = row;
+            int column = 0;
+            Arrays.fill(minimumSlack, Double.POSITIVE_INFINITY);
+            Arrays.fill(visited, false);
+            do {
+                visited[column] = true;
+                int currentRow = rowOfColumn[column];
+                double[] currentCosts = costs[currentRow - 1];
+                double delta = Double.POSITIVE_INFINITY;
+                int nextColumn = 0;
+                for (int candidate = 1; candidate <= columns; candidate++) {
+                    if (visited[candidate]) {
+                        continue;
+                    }
+                    double slack = currentCosts[candidate - 1] - rowPotentials[currentRow] - columnPotentials[candidate];
+                    if (slack < minimumSlack[candidate]) {
+                        minimumSlack[candidate] = slack;
+                        previousColumn[candidate] = column;
+                    }
+                    if (minimumSlack[candidate] < delta) {
+                        delta = minimumSlack[candidate];
+                        nextColumn = candidate;
+                    }
+                }
+                for (int candidate = 0; candidate <= columns; candidate++) {
+                    if (visited[candidate]) {
+                        rowPotentials[rowOfColumn[candidate]] += delta;
+                        columnPotentials[candidate] -= delta;
+                    } else {
+                        minimumSlack[candidate] -= delta;
+                    }
+                }
+                column = nextColumn;
+            } while (rowOfColumn[column] != 0);
+            do {
+                int previous = previousColumn[column];
+                rowOfColumn[column] = rowOfColumn[previous];
+                column = previous;
+            } while (column != 0);
+        }
+        int[] columnOfRow = new int[rows];
+        Arrays.fill(columnOfRow, -1);
+        for (int column = 1; column <= columns; column++) {
+            if (rowOfColumn[column] != 0) {
+                columnOfRow[rowOfColumn[column] - 1] = column - 1;
+            }
+        }
+        return columnOfRow;
+    }
+
+    private static double[][] transpose(double[][] costs) {
+        double[][] transposed = new double[costs[0].length][costs.length];
+        for (int row = 0; row < costs.length; row++) {
+            for (int column = 0; column < costs[row].length; column++) {
+                transposed[column][row] = costs[row][column];
+            }
+        }
+        return transposed;
+    }
+
+    private static int[] invert(int[] rowOfColumn, int rows) {
+        int[] columnOfRow = new int[rows];
+        Arrays.fill(columnOfRow, -1);
+        for (int column = 0; column < rowOfColumn.length; column++) {
+            if (rowOfColumn[column] >= 0) {
+                columnOfRow[rowOfColumn[column]] = column;
+            }
+        }
+        return columnOfRow;
+    }
+}
@@ -0,0 +1,98 @@
+package nl.tudelft.sem.template.example.domain;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.MapKeyColumn;
+import javax.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running totals of the delivered orders of a courier, from which the courier analytics are read
+ * without going through the courier's whole delivery history.
+ */
+@Entity
+@Table(name = "courier_stats")
+@Getter
+@NoArgsConstructor
+public class CourierStats {
+    @Id
+    private Long courierId;
+
+    private long deliveredCount;
+
+    private long datedDeliveryCount;
+
+    private long totalDurationMillis;
+
+    private double totalDistance;
+
+    @ElementCollection
+    @CollectionTable(name = "courier_stats_days", joinColumns = @JoinColumn(name = "courier_id"))
+    @MapKeyColumn(name = "delivery_day")
+    @Column(name = "deliveries")
+    private Map<LocalDate, Long> deliveriesPerDay = new HashMap<>();
+
+    private int activeDays;
+
+    public CourierStats(Long courierId) {
+        this.courierId = courierId;
+    }
+
+    /**
+     * Adds a delivered order to the totals.
+     * The day bucket is only updated if the delivered time is known, and the duration only if both times are.
+     *
+     * @param pickUpTime The time the order was picked up, or {@code null} if it is unknown.
+     * @param deliveredTime The time the order was delivered, or {@code null} if it is unknown.
+     * @param distance The distance between the vendor and the destination in meters, or {@code null} if it is unknown.
+     */
+    public void addDelivery(OffsetDateTime pickUpTime, OffsetDateTime deliveredTime, Double distance) {
+        deliveredCount++;
+        if (deliveredTime != null) {
+            deliveriesPerDay.merge(deliveredTime.toLocalDate(), 1L, Long::sum);
+            activeDays = deliveriesPerDay.size();
+            datedDeliveryCount++;
+            if (pickUpTime != null) {
+                totalDurationMillis += Duration.between(pickUpTime, deliveredTime).toMillis();
+            }
+        }
+        if (distance != null) {
+            totalDistance += distance;
+        }
+    }
+
+    /**
+     * Calculates the average number of deliveries on the days the courier delivered anything.
+     *
+     * @return The rounded average, or 0 if the courier has not delivered anything yet.
+     */
+    public int averageDeliveriesPerDay() {
+        if (activeDays == 0) {
+            return 0;
+        }
+        return (int) Math.round((double) datedDeliveryCount / activeDays);
+    }
+
+    /**
+     * Calculates the efficiency of the courier, being the distance travelled per second of delivery.
+     *
+     * @return The efficiency, in meters per second, or 0 if the courier has not spent a second delivering yet.
+     */
+    public int efficiency() {
+        long totalSeconds = Duration.ofMillis(totalDurationMillis).toSeconds();
+        if (totalSeconds == 0) {
+            return 0;
+        }
+        return (int) (totalDistance / totalSeconds);
+    }
+}
@@ -0,0 +1,60 @@
+package nl.tudelft.sem.template.example.domain;
+
+import java.time.Instant;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A status change of an order that still has to be propagated to the Orders microservice.
+ * It is written in the same transaction as the status change itself and removed once it was delivered.
+ */
+@Entity
+@Table(name = "order_status_outbox", indexes = {
+    @Index(name = "idx_order_status_outbox_order_id", columnList = "orderId"),
+    @Index(name = "idx_order_status_outbox_next_attempt", columnList = "failed, nextAttemptAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderStatusOutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private long orderId;
+
+    private long authorizationId;
+
+    private String status;
+
+    private int attempts;
+
+    private boolean failed;
+
+    private Instant createdAt;
+
+    private Instant nextAttemptAt;
+
+    /**
+     * Creates an event that can be sent right away.
+     *
+     * @param orderId The id of the order whose status changed.
+     * @param authorizationId The id of the user who changed the status.
+     * @param status The new status of the order.
+     * @param createdAt The moment the status was changed.
+     */
+    public OrderStatusOutboxEvent(long orderId, long authorizationId, String status, Instant createdAt) {
+        this.orderId = orderId;
+        this.authorizationId = authorizationId;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+}
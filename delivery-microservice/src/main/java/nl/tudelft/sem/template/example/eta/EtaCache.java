@@ -0,0 +1,166 @@
+package nl.tudelft.sem.template.example.eta;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import nl.tudelft.sem.template.example.cache.ExpiringCache;
+import nl.tudelft.sem.template.example.statemachine.OrderStatusChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache of the estimated times of arrival of orders, so that customers polling for the ETA of their order
+ * do not load the delivery and estimate its arrival on every request.
+ *
+ * <p>Entries are invalidated whenever the times, issue or status of an order change, and expire after a short
+ * time to live anyway, as estimates also depend on the current time and on the other deliveries.
+ * An estimate is only cached if its order was not invalidated while it was being made,
+ * so that an estimate from before a change cannot end up in the cache after it. To tell, a version is kept
+ * for every order that is being estimated, and dropped again once none of its estimates is in progress.
+ */
+@Component
+public class EtaCache {
+    private final ExpiringCache<Long, OffsetDateTime> etas;
+
+    private final Map<Long, PendingEstimates> pending = new HashMap<>();
+
+    /**
+     * Constructor of the cache, reading its settings from the environment.
+     *
+     * @param environment The environment holding the settings of the cache.
+     */
+    @Autowired
+    public EtaCache(Environment environment) {
+        this(new ExpiringCache<>(
+                Duration.ofMillis(environment.getProperty("eta.cache.time-to-live-ms", Long.class, 15_000L)),
+                environment.getProperty("eta.cache.maximum-size", Integer.class, 10_000)));
+    }
+
+    /**
+     * Constructor of the cache, keeping the estimates in the given cache.
+     *
+     * @param etas The cache holding the estimates per order id.
+     */
+    public EtaCache(ExpiringCache<Long, OffsetDateTime> etas) {
+        this.etas = etas;
+    }
+
+    /**
+     * Retrieves the cached estimate of an order.
+     *
+     * @param orderId The id of the order.
+     * @return The estimated time of arrival, or an empty optional if it has to be estimated again.
+     */
+    public Optional<OffsetDateTime> get(long orderId) {
+        return etas.get(orderId);
+    }
+
+    /**
+     * Marks the start of an estimate of an order, before anything the estimate depends on is loaded.
+     * The estimate has to be closed once it is made, or once it turns out it cannot be made.
+     *
+     * @param orderId The id of the order.
+     * @return The estimate in progress, through which it is cached.
+     */
+    public synchronized Estimate startEstimate(long orderId) {
+        PendingEstimates estimates = pending.computeIfAbsent(orderId, id -> new PendingEstimates());
+        estimates.count++;
+        return new Estimate(orderId, estimates.version);
+    }
+
+    private synchronized void put(long orderId, OffsetDateTime eta, long version) {
+        PendingEstimates estimates = pending.get(orderId);
+        if (estimates != null && estimates.version == version) {
+            etas.put(orderId, eta);
+        }
+    }
+
+    private synchronized void finish(long orderId) {
+        PendingEstimates estimates = pending.get(orderId);
+        if (estimates != null && --estimates.count == 0) {
+            pending.remove(orderId);
+        }
+    }
+
+    /**
+     * Drops the cached estimate of an order after something it depends on changed,
+     * and keeps the estimates of the order that are in progress from being cached.
+     *
+     * @param orderId The id of the order.
+     */
+    public synchronized void invalidate(long orderId) {
+        PendingEstimates estimates = pending.get(orderId);
+        if (estimates != null) {
+            estimates.version++;
+        }
+        etas.invalidate(orderId);
+    }
+
+    /**
+     * Drops the cached estimate of an order whose status changed, once the change is committed,
+     * as an estimate made before that would still see the old status.
+     *
+     * @param event The status change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void orderStatusChanged(OrderStatusChangedEvent event) {
+        invalidate(event.getOrderId());
+    }
+
+    /**
+     * Retrieves the number of orders with estimates in progress.
+     *
+     * @return The number of orders.
+     */
+    public synchronized int pendingOrders() {
+        return pending.size();
+    }
+
+    public ExpiringCache<Long, OffsetDateTime> getCache() {
+        return etas;
+    }
+
+    /**
+     * An estimate of an order in progress.
+     */
+    public final class Estimate implements AutoCloseable {
+        private final long orderId;
+
+        private final long version;
+
+        private boolean closed;
+
+        private Estimate(long orderId, long version) {
+            this.orderId = orderId;
+            this.version = version;
+        }
+
+        /**
+         * Caches the estimate, unless the order was invalidated since the estimate was started.
+         *
+         * @param eta The estimated time of arrival.
+         */
+        public void put(OffsetDateTime eta) {
+            EtaCache.this.put(orderId, eta, version);
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                finish(orderId);
+            }
+        }
+    }
+
+    private static final class PendingEstimates {
+        private int count;
+
+        private long version;
+    }
+}
@@ -0,0 +1,300 @@
+package nl.tudelft.sem.template.example.eta;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+import nl.tudelft.sem.template.example.geo.GeoDistance;
+import nl.tudelft.sem.template.example.repository.CompletedDelivery;
+import nl.tudelft.sem.template.example.repository.DeliveryRepository;
+import nl.tudelft.sem.template.model.Delivery;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Order;
+import nl.tudelft.sem.template.model.Time;
+import nl.tudelft.sem.template.model.Vendor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Estimates when orders arrive, from statistics of the deliveries that were completed before.
+ *
+ * <p>For every vendor, and for every hour of the day, the model keeps how fast its orders travelled to their
+ * destination and how long they waited to be picked up after being ready. The statistics are running totals,
+ * updated whenever the times of a delivery change, so that an estimate never looks at past deliveries.
+ * Vendors and hours with few deliveries lean on the statistics of all hours and all vendors,
+ * and on the configured defaults when nothing was delivered yet.
+ *
+ * <p>Distances are measured in a straight line, so the learned speeds also account for couriers not being able
+ * to travel in one.
+ */
+@Component
+public class EtaModel {
+    private static final int ALL_HOURS = 24;
+
+    private final DeliveryRepository deliveryRepository;
+
+    private final Clock clock;
+
+    private final ZoneId timeZone;
+
+    private final double defaultSpeed;
+
+    private final Duration defaultPreparationTime;
+
+    private final Duration defaultPickupDelay;
+
+    private final double priorWeight;
+
+    private final TimingStatistics[] allVendors = newStatistics();
+
+    private final ConcurrentMap<Long, TimingStatistics[]> byVendor = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor of the model, reading its settings from the environment.
+     *
+     * @param deliveryRepository The repository the statistics are built from on startup.
+     * @param environment The environment holding the settings of the model.
+     */
+    @Autowired
+    public EtaModel(DeliveryRepository deliveryRepository, Environment environment) {
+        this(deliveryRepository, Clock.systemUTC(), ZoneId.of(environment.getProperty("eta.time-zone", "UTC")),
+                environment.getProperty("eta.default-speed", Double.class, 5.0),
+                Duration.ofMinutes(environment.getProperty("eta.default-preparation-minutes", Long.class, 15L)),
+                Duration.ofMinutes(environment.getProperty("eta.default-pickup-delay-minutes", Long.class, 5L)),
+                environment.getProperty("eta.prior-weight", Double.class, 5.0));
+    }
+
+    /**
+     * Constructor of the model with explicit settings.
+     *
+     * @param deliveryRepository The repository the statistics are built from on startup.
+     * @param clock The clock estimates are made from.
+     * @param timeZone The time zone the hours of the day are taken in.
+     * @param defaultSpeed The speed of a trip before any trip was completed, in meters per second.
+     * @param defaultPreparationTime How long an order takes to be ready when the vendor did not say yet.
+     * @param defaultPickupDelay How long a ready order waits to be picked up before any order was picked up.
+     * @param priorWeight The number of deliveries after which the statistics of a vendor or an hour count
+     *                    as much as the statistics they fall back on.
+     */
+    public EtaModel(DeliveryRepository deliveryRepository, Clock clock, ZoneId timeZone, double defaultSpeed,
+                    Duration defaultPreparationTime, Duration defaultPickupDelay, double priorWeight) {
+        if (defaultSpeed <= 0) {
+            throw new IllegalArgumentException("The default speed must be positive");
+        }
+        this.deliveryRepository = deliveryRepository;
+        this.clock = clock;
+        this.timeZone = timeZone;
+        this.defaultSpeed = defaultSpeed;
+        this.defaultPreparationTime = defaultPreparationTime;
+        this.defaultPickupDelay = defaultPickupDelay;
+        this.priorWeight = priorWeight;
+    }
+
+    /**
+     * Replaces the statistics with the ones of the completed deliveries in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        byVendor.clear();
+        synchronized (allVendors) {
+            for (int i = 0; i < allVendors.length; i++) {
+                allVendors[i] = new TimingStatistics();
+            }
+        }
+        for (CompletedDelivery delivery : deliveryRepository.findCompletedDeliveries()) {
+            Location from = location(delivery.getVendorLatitude(), delivery.getVendorLongitude());
+            Location to = location(delivery.getDestinationLatitude(), delivery.getDestinationLongitude());
+            add(Trip.of(delivery.getVendorId(), from, to, delivery.getReadyTime(), delivery.getPickUpTime(),
+                    delivery.getDeliveredTime()), 1);
+        }
+    }
+
+    /**
+     * Takes the trip of a delivery as it is now, to be passed to {@link #tripChanged} once its times changed.
+     *
+     * @param delivery The delivery.
+     * @return The trip, or {@code null} if the delivery was not picked up and delivered yet.
+     */
+    public Trip tripOf(Delivery delivery) {
+        Order order = delivery.getOrder();
+        Time time = delivery.getTime();
+        if (order == null || order.getVendor() == null || order.getVendor().getId() == null || time == null) {
+            return null;
+        }
+        return Trip.of(order.getVendor().getId(), order.getVendor().getAddress(), order.getDestination(),
+                time.getReadyTime(), time.getPickUpTime(), time.getDeliveredTime());
+    }
+
+    /**
+     * Updates the statistics after the times of a delivery changed.
+     *
+     * @param before The trip of the delivery before the change, or {@code null} if there was none.
+     * @param after The trip of the delivery after the change, or {@code null} if there is none.
+     */
+    public synchronized void tripChanged(Trip before, Trip after) {
+        add(before, -1);
+        add(after, 1);
+    }
+
+    /**
+     * Estimates when an order arrives at its destination.
+     * Delivered orders arrived when they were delivered. For the other orders the estimate starts from when
+     * they were picked up, or from when they are ready and are expected to be picked up, and adds the time
+     * it takes to travel from the vendor to the destination. Orders that are late are expected to arrive now.
+     *
+     * @param delivery The delivery of the order.
+     * @return The estimated time of arrival.
+     */
+    public OffsetDateTime estimateArrival(Delivery delivery) {
+        Order order = delivery.getOrder();
+        Time time = delivery.getTime() == null ? new Time() : delivery.getTime();
+        if (order.getStatus() == Order.StatusEnum.DELIVERED && time.getDeliveredTime() != null) {
+            return time.getDeliveredTime();
+        }
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        Vendor vendor = order.getVendor();
+        Long vendorId = vendor == null ? null : vendor.getId();
+
+        OffsetDateTime departure;
+        if (time.getPickUpTime() != null) {
+            departure = time.getPickUpTime();
+        } else if (order.getStatus() == Order.StatusEnum.GIVEN_TO_COURIER
+                || order.getStatus() == Order.StatusEnum.ON_TRANSIT) {
+            departure = now;
+        } else {
+            OffsetDateTime ready = time.getReadyTime() == null ? now.plus(defaultPreparationTime)
+                    : latest(time.getReadyTime(), now);
+            double pickupDelay = estimate(vendorId, hourOf(ready), defaultPickupDelay.toSeconds(),
+                    (statistics, prior) -> statistics.pickupDelay(prior, priorWeight));
+            departure = ready.plus(seconds(pickupDelay));
+        }
+
+        double meters = distance(vendor == null ? null : vendor.getAddress(), order.getDestination());
+        double speed = estimate(vendorId, hourOf(departure), defaultSpeed,
+                (statistics, prior) -> statistics.speed(prior, priorWeight));
+        return latest(departure.plus(seconds(meters / speed)), now);
+    }
+
+    /**
+     * Counts the trips the statistics were built from.
+     *
+     * @return The number of completed deliveries seen.
+     */
+    public long completedTrips() {
+        synchronized (allVendors) {
+            return allVendors[ALL_HOURS].getTrips();
+        }
+    }
+
+    private double estimate(Long vendorId, int hour, double fallback,
+                            BiFunction<TimingStatistics, Double, Double> estimator) {
+        double value;
+        synchronized (allVendors) {
+            value = estimator.apply(allVendors[ALL_HOURS], fallback);
+            value = estimator.apply(allVendors[hour], value);
+        }
+        TimingStatistics[] statistics = vendorId == null ? null : byVendor.get(vendorId);
+        if (statistics != null) {
+            synchronized (statistics) {
+                value = estimator.apply(statistics[ALL_HOURS], value);
+                value = estimator.apply(statistics[hour], value);
+            }
+        }
+        return value;
+    }
+
+    private void add(Trip trip, int weight) {
+        if (trip == null) {
+            return;
+        }
+        add(allVendors, trip, weight);
+        add(byVendor.computeIfAbsent(trip.vendorId, id -> newStatistics()), trip, weight);
+    }
+
+    private void add(TimingStatistics[] statistics, Trip trip, int weight) {
+        synchronized (statistics) {
+            if (trip.meters > 0 && trip.travelSeconds > 0) {
+                int hour = hourOf(trip.pickUpTime);
+                statistics[hour].addTrip(trip.meters, trip.travelSeconds, weight);
+                statistics[ALL_HOURS].addTrip(trip.meters, trip.travelSeconds, weight);
+            }
+            if (trip.readyTime != null) {
+                double delay = Math.max(0, Duration.between(trip.readyTime, trip.pickUpTime).toMillis() / 1000.0);
+                int hour = hourOf(trip.readyTime);
+                statistics[hour].addPickup(delay, weight);
+                statistics[ALL_HOURS].addPickup(delay, weight);
+            }
+        }
+    }
+
+    private int hourOf(OffsetDateTime time) {
+        return time.atZoneSameInstant(timeZone).getHour();
+    }
+
+    private static TimingStatistics[] newStatistics() {
+        TimingStatistics[] statistics = new TimingStatistics[ALL_HOURS + 1];
+        for (int i = 0; i < statistics.length; i++) {
+            statistics[i] = new TimingStatistics();
+        }
+        return statistics;
+    }
+
+    private static double distance(Location from, Location to) {
+        if (from == null || to == null || from.getLatitude() == null || from.getLongitude() == null
+                || to.getLatitude() == null || to.getLongitude() == null) {
+            return 0;
+        }
+        return GeoDistance.distance(from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude());
+    }
+
+    private static Location location(Double latitude, Double longitude) {
+        return latitude == null || longitude == null ? null : new Location(latitude, longitude);
+    }
+
+    private static Duration seconds(double seconds) {
+        return Duration.ofMillis(Math.round(seconds * 1000));
+    }
+
+    private static OffsetDateTime latest(OffsetDateTime first, OffsetDateTime second) {
+        return first.isBefore(second) ? second : first;
+    }
+
+    /**
+     * The part of a completed delivery the statistics are made of.
+     */
+    public static final class Trip {
+        private final long vendorId;
+
+        private final double meters;
+
+        private final double travelSeconds;
+
+        private final OffsetDateTime readyTime;
+
+        private final OffsetDateTime pickUpTime;
+
+        private Trip(long vendorId, double meters, double travelSeconds, OffsetDateTime readyTime,
+                     OffsetDateTime pickUpTime) {
+            this.vendorId = vendorId;
+            this.meters = meters;
+            this.travelSeconds = travelSeconds;
+            this.readyTime = readyTime;
+            this.pickUpTime = pickUpTime;
+        }
+
+        private static Trip of(long vendorId, Location from, Location to, OffsetDateTime readyTime,
+                               OffsetDateTime pickUpTime, OffsetDateTime deliveredTime) {
+            if (pickUpTime == null || deliveredTime == null) {
+                return null;
+            }
+            double travelSeconds = Duration.between(pickUpTime, deliveredTime).toMillis() / 1000.0;
+            return new Trip(vendorId, distance(from, to), travelSeconds, readyTime, pickUpTime);
+        }
+    }
+}
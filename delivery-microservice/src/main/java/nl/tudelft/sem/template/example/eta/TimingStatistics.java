@@ -0,0 +1,75 @@
+package nl.tudelft.sem.template.example.eta;
+
+/**
+ * Running totals of the trips and pickups of completed deliveries, from which the average speed and the average
+ * time between an order being ready and being picked up follow without keeping the deliveries themselves.
+ * Deliveries can be taken out again by adding them with a weight of -1, for instance when their times are corrected.
+ */
+final class TimingStatistics {
+    private long trips;
+
+    private double tripMeters;
+
+    private double tripSeconds;
+
+    private long pickups;
+
+    private double pickupDelaySeconds;
+
+    void addTrip(double meters, double seconds, int weight) {
+        trips += weight;
+        tripMeters += weight * meters;
+        tripSeconds += weight * seconds;
+        if (trips <= 0) {
+            trips = 0;
+            tripMeters = 0;
+            tripSeconds = 0;
+        }
+    }
+
+    void addPickup(double delaySeconds, int weight) {
+        pickups += weight;
+        pickupDelaySeconds += weight * delaySeconds;
+        if (pickups <= 0) {
+            pickups = 0;
+            pickupDelaySeconds = 0;
+        }
+    }
+
+    long getTrips() {
+        return trips;
+    }
+
+    long getPickups() {
+        return pickups;
+    }
+
+    /**
+     * Estimates the speed of a trip, moving from the prior towards the observed speed as more trips are seen.
+     *
+     * @param prior The speed to assume without any trips, in meters per second.
+     * @param priorWeight The number of trips the prior counts for.
+     * @return The estimated speed, in meters per second.
+     */
+    double speed(double prior, double priorWeight) {
+        if (trips == 0 || tripSeconds <= 0) {
+            return prior;
+        }
+        return (tripMeters / tripSeconds * trips + prior * priorWeight) / (trips + priorWeight);
+    }
+
+    /**
+     * Estimates the time between an order being ready and being picked up, moving from the prior towards
+     * the observed average as more pickups are seen.
+     *
+     * @param prior The delay to assume without any pickups, in seconds.
+     * @param priorWeight The number of pickups the prior counts for.
+     * @return The estimated delay, in seconds.
+     */
+    double pickupDelay(double prior, double priorWeight) {
+        if (pickups == 0) {
+            return prior;
+        }
+        return (pickupDelaySeconds + prior * priorWeight) / (pickups + priorWeight);
+    }
+}
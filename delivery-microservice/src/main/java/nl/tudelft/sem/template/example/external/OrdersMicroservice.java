@@ -1,8 +1,11 @@
 package nl.tudelft.sem.template.example.external;
 
+import java.util.List;
+import nl.tudelft.sem.template.model.OrderStatusUpdate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 @Service
@@ -22,15 +25,23 @@ public class OrdersMicroservice {
      * @param orderId - The id of the order.
      * @param authorizationId - The id of the user who is making the request.
      * @param status - The status we will update the order with.
-     * @return True if the order status was updated successfully, false otherwise.
+     * @throws HttpClientErrorException If the OrdersMicroservice rejected the status, which sending again will not fix.
+     * @throws RestClientException If the OrdersMicroservice could not be reached or failed to update the status.
      */
-    public Boolean putOrderStatus(Long orderId, Long authorizationId, String status) {
+    public void putOrderStatus(Long orderId, Long authorizationId, String status) {
         String path = ordersBaseUrl + "/order/" + orderId + "/status/" + authorizationId + "?status=" + status;
-        try {
-            restTemplate.put(path, null);
-            return true;
-        } catch (HttpClientErrorException ex) {
-            return false;
-        }
+        restTemplate.put(path, null);
+    }
+
+    /**
+     * Puts the status of many orders in the OrdersMicroservice with a single request.
+     *
+     * @param authorizationId - The id of the user who is making the request.
+     * @param updates - The orders with the status we will update them with.
+     * @throws RestClientException If the OrdersMicroservice did not update all the statuses.
+     */
+    public void putOrderStatuses(Long authorizationId, List<OrderStatusUpdate> updates) {
+        String path = ordersBaseUrl + "/order/status/" + authorizationId;
+        restTemplate.put(path, updates);
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package nl.tudelft.sem.template.example.external;
 
+import java.time.Duration;
 import java.util.Optional;
+import nl.tudelft.sem.template.example.cache.ExpiringCache;
 import nl.tudelft.sem.template.model.Location;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -13,27 +15,73 @@ public class UsersMicroservice {
 
     private final String usersBaseUrl = "http://localhost:8081";
 
+    private static final Duration USER_TYPE_TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    private static final int USER_TYPE_CACHE_SIZE = 10_000;
+
+    private final ExpiringCache<Long, String> userTypeCache;
+
     @Autowired
     public UsersMicroservice(RestTemplate restTemplate) {
+        this(restTemplate, new ExpiringCache<>(USER_TYPE_TIME_TO_LIVE, USER_TYPE_CACHE_SIZE));
+    }
+
+    /**
+     * Constructor that allows providing the cache in which the user types are kept.
+     *
+     * @param restTemplate The template used to make the requests to the Users Microservice.
+     * @param userTypeCache The cache holding the user types that were already retrieved.
+     */
+    public UsersMicroservice(RestTemplate restTemplate, ExpiringCache<Long, String> userTypeCache) {
         this.restTemplate = restTemplate;
+        this.userTypeCache = userTypeCache;
     }
 
     /**
      * Get the User Type from the Users Microservice.
+     * User types rarely change, so they are cached for a few minutes and only
+     * requested again once their entry expired or was invalidated.
      *
      * @param userId The id of the user we want to check the type of (admin, vendor, courier, customer).
      * @return The type of user if it can be found or an empty optional otherwise.
      */
     public Optional<String> getUserType(Long userId) {
+        Optional<String> cachedUserType = userTypeCache.get(userId);
+        if (cachedUserType.isPresent()) {
+            return cachedUserType;
+        }
         String path = usersBaseUrl + "/user/" + userId;
         try {
             String userType = restTemplate.getForObject(path, String.class);
+            if (userType != null) {
+                userTypeCache.put(userId, userType);
+            }
             return Optional.ofNullable(userType);
         } catch (HttpClientErrorException ex) {
             return Optional.empty();
         }
     }
 
+    /**
+     * Removes the cached type of a user, so that the next lookup asks the Users Microservice again.
+     *
+     * @param userId The id of the user whose type changed.
+     */
+    public void invalidateUserType(Long userId) {
+        userTypeCache.invalidate(userId);
+    }
+
+    /**
+     * Removes all the cached user types.
+     */
+    public void invalidateAllUserTypes() {
+        userTypeCache.invalidateAll();
+    }
+
+    public ExpiringCache<Long, String> getUserTypeCache() {
+        return userTypeCache;
+    }
+
     /**
      * Get the Vendor Address from the Users Microservice.
      *
@@ -0,0 +1,143 @@
+package nl.tudelft.sem.template.example.geo;
+
+/**
+ * Distances over the surface of the earth between points given in degrees of latitude and longitude.
+ *
+ * <p>The exact distance is the great-circle distance, calculated with the haversine formula on a spherical earth.
+ * For points close to each other and away from the poles, the equirectangular projection gives practically
+ * the same result with a single trigonometric call, so {@link #distance} takes that fast path whenever it can.
+ */
+public final class GeoDistance {
+    /**
+     * The mean radius of the earth, in meters.
+     */
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    /**
+     * The largest difference in latitude and in longitude, in degrees, for which the fast path is taken.
+     * Within it, the relative error of the equirectangular projection stays below 0.1%.
+     */
+    static final double FAST_PATH_MAX_DEGREES = 0.5;
+
+    /**
+     * The largest absolute latitude for which the fast path is taken,
+     * since closer to the poles the meridians converge too quickly.
+     */
+    static final double FAST_PATH_MAX_LATITUDE = 70;
+
+    private GeoDistance() {
+    }
+
+    /**
+     * Calculates the distance between two points, taking the fast path if they are close enough to each other.
+     *
+     * @param latitude1 The latitude of the first point.
+     * @param longitude1 The longitude of the first point.
+     * @param latitude2 The latitude of the second point.
+     * @param longitude2 The longitude of the second point.
+     * @return The distance in meters.
+     */
+    public static double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+        if (isShortRange(latitude1, longitude1, latitude2, longitude2)) {
+            return equirectangular(latitude1, longitude1, latitude2, longitude2);
+        }
+        return haversine(latitude1, longitude1, latitude2, longitude2);
+    }
+
+    /**
+     * Calculates the great-circle distance between two points.
+     *
+     * @param latitude1 The latitude of the first point.
+     * @param longitude1 The longitude of the first point.
+     * @param latitude2 The latitude of the second point.
+     * @param longitude2 The longitude of the second point.
+     * @return The distance in meters.
+     */
+    public static double haversine(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double phi1 = Math.toRadians(latitude1);
+        double phi2 = Math.toRadians(latitude2);
+        double sinHalfLatitude = Math.sin((phi2 - phi1) / 2);
+        double sinHalfLongitude = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+        double a = sinHalfLatitude * sinHalfLatitude
+                + Math.cos(phi1) * Math.cos(phi2) * sinHalfLongitude * sinHalfLongitude;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Calculates the distance between two points in the equirectangular projection around their mean latitude,
+     * which is only accurate for points close to each other.
+     *
+     * @param latitude1 The latitude of the first point.
+     * @param longitude1 The longitude of the first point.
+     * @param latitude2 The latitude of the second point.
+     * @param longitude2 The longitude of the second point.
+     * @return The approximate distance in meters.
+     */
+    public static double equirectangular(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double x = Math.toRadians(longitudeDifference(longitude1, longitude2))
+                * Math.cos(Math.toRadians((latitude1 + latitude2) / 2));
+        double y = Math.toRadians(latitude2 - latitude1);
+        return EARTH_RADIUS_METERS * Math.sqrt(x * x + y * y);
+    }
+
+    /**
+     * Calculates the distances from one point to many others, taking the fast path for every point close enough.
+     * The points are passed as primitive arrays and the distances are written into a given array,
+     * so that no objects are created, however many points there are.
+     *
+     * @param latitude The latitude of the point the distances are measured from.
+     * @param longitude The longitude of the point the distances are measured from.
+     * @param latitudes The latitudes of the other points.
+     * @param longitudes The longitudes of the other points.
+     * @param distances The array the distances, in meters, are written to.
+     * @throws IllegalArgumentException if the arrays do not all have the same length.
+     */
+    public static void distances(double latitude, double longitude, double[] latitudes, double[] longitudes,
+                                 double[] distances) {
+        checkLengths(latitudes, longitudes, distances);
+        for (int i = 0; i < latitudes.length; i++) {
+            distances[i] = distance(latitude, longitude, latitudes[i], longitudes[i]);
+        }
+    }
+
+    /**
+     * Calculates the great-circle distances from one point to many others, without taking the fast path.
+     *
+     * @param latitude The latitude of the point the distances are measured from.
+     * @param longitude The longitude of the point the distances are measured from.
+     * @param latitudes The latitudes of the other points.
+     * @param longitudes The longitudes of the other points.
+     * @param distances The array the distances, in meters, are written to.
+     * @throws IllegalArgumentException if the arrays do not all have the same length.
+     */
+    public static void haversineDistances(double latitude, double longitude, double[] latitudes, double[] longitudes,
+                                          double[] distances) {
+        checkLengths(latitudes, longitudes, distances);
+        for (int i = 0; i < latitudes.length; i++) {
+            distances[i] = haversine(latitude, longitude, latitudes[i], longitudes[i]);
+        }
+    }
+
+    static boolean isShortRange(double latitude1, double longitude1, double latitude2, double longitude2) {
+        return Math.abs(latitude2 - latitude1) <= FAST_PATH_MAX_DEGREES
+                && Math.abs(longitudeDifference(longitude1, longitude2)) <= FAST_PATH_MAX_DEGREES
+                && Math.abs(latitude1) <= FAST_PATH_MAX_LATITUDE;
+    }
+
+    private static double longitudeDifference(double longitude1, double longitude2) {
+        double difference = longitude2 - longitude1;
+        if (difference > 180) {
+            return difference - 360;
+        }
+        if (difference < -180) {
+            return difference + 360;
+        }
+        return difference;
+    }
+
+    private static void checkLengths(double[] latitudes, double[] longitudes, double[] distances) {
+        if (latitudes.length != longitudes.length || latitudes.length != distances.length) {
+            throw new IllegalArgumentException("The latitudes, longitudes and distances must have the same length");
+        }
+    }
+}
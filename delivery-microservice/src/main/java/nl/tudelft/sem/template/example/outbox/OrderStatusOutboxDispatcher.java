@@ -0,0 +1,167 @@
+package nl.tudelft.sem.template.example.outbox;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import nl.tudelft.sem.template.example.domain.OrderStatusOutboxEvent;
+import nl.tudelft.sem.template.example.external.OrdersMicroservice;
+import nl.tudelft.sem.template.example.repository.OrderStatusOutboxRepository;
+import nl.tudelft.sem.template.model.OrderStatusUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Drains the order status outbox in the background, sending the status changes to the Orders microservice.
+ * The events are sent one by one, unless the batch endpoint is enabled: then the events of the same user are sent
+ * together in one request, and one by one if the batch is not accepted.
+ * Failed sends are retried with an exponential backoff, and are given up on after a maximum number of attempts.
+ * Statuses the Orders microservice rejects with a client error are given up on right away, as retrying cannot help.
+ */
+@Component
+public class OrderStatusOutboxDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusOutboxDispatcher.class);
+
+    private final OrderStatusOutboxRepository outboxRepository;
+
+    private final OrdersMicroservice ordersMicroservice;
+
+    private final Clock clock;
+
+    private final int batchSize;
+
+    private final boolean batchEndpointEnabled;
+
+    private final int maxAttempts;
+
+    private final Duration initialBackoff;
+
+    private final Duration maxBackoff;
+
+    /**
+     * Constructor of the dispatcher, reading its settings from the environment.
+     *
+     * @param outboxRepository The repository holding the pending status changes.
+     * @param ordersMicroservice The microservice the status changes are sent to.
+     * @param environment The environment holding the outbox settings.
+     */
+    @Autowired
+    public OrderStatusOutboxDispatcher(OrderStatusOutboxRepository outboxRepository,
+                                       OrdersMicroservice ordersMicroservice, Environment environment) {
+        this(outboxRepository, ordersMicroservice, Clock.systemUTC(),
+                environment.getProperty("outbox.batch-size", Integer.class, 100),
+                environment.getProperty("outbox.batch-endpoint-enabled", Boolean.class, false),
+                environment.getProperty("outbox.max-attempts", Integer.class, 10),
+                Duration.ofMillis(environment.getProperty("outbox.initial-backoff-ms", Long.class, 1000L)),
+                Duration.ofMillis(environment.getProperty("outbox.max-backoff-ms", Long.class, 300_000L)));
+    }
+
+    /**
+     * Constructor of the dispatcher with explicit settings.
+     *
+     * @param outboxRepository The repository holding the pending status changes.
+     * @param ordersMicroservice The microservice the status changes are sent to.
+     * @param clock The clock used to schedule the retries.
+     * @param batchSize The maximum number of events sent per run.
+     * @param batchEndpointEnabled Whether the events of the same user are sent to the Orders microservice together.
+     * @param maxAttempts The number of attempts after which an event is given up on.
+     * @param initialBackoff The delay before the first retry, doubled on every following retry.
+     * @param maxBackoff The longest delay between two retries.
+     */
+    public OrderStatusOutboxDispatcher(OrderStatusOutboxRepository outboxRepository,
+                                       OrdersMicroservice ordersMicroservice, Clock clock, int batchSize,
+                                       boolean batchEndpointEnabled, int maxAttempts, Duration initialBackoff,
+                                       Duration maxBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.ordersMicroservice = ordersMicroservice;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.batchEndpointEnabled = batchEndpointEnabled;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Sends the events that are due to the Orders microservice.
+     * Runs periodically, but can also be called directly.
+     *
+     * @return The number of events that were delivered.
+     */
+    @Scheduled(fixedDelayString = "${outbox.dispatch-interval-ms:1000}")
+    public int dispatchPendingEvents() {
+        Instant now = clock.instant();
+        List<OrderStatusOutboxEvent> events = outboxRepository.findDueEvents(now, PageRequest.of(0, batchSize));
+        Map<Long, List<OrderStatusOutboxEvent>> eventsByUser = events.stream().collect(Collectors.groupingBy(
+                OrderStatusOutboxEvent::getAuthorizationId, LinkedHashMap::new, Collectors.toList()));
+        int delivered = 0;
+        for (List<OrderStatusOutboxEvent> userEvents : eventsByUser.values()) {
+            if (batchEndpointEnabled && userEvents.size() > 1 && sendAll(userEvents)) {
+                outboxRepository.deleteAll(userEvents);
+                delivered += userEvents.size();
+                continue;
+            }
+            for (OrderStatusOutboxEvent event : userEvents) {
+                try {
+                    ordersMicroservice.putOrderStatus(event.getOrderId(), event.getAuthorizationId(),
+                            event.getStatus());
+                    outboxRepository.delete(event);
+                    delivered++;
+                } catch (HttpClientErrorException e) {
+                    giveUp(event, e);
+                } catch (RestClientException e) {
+                    scheduleRetry(event, now);
+                }
+            }
+        }
+        return delivered;
+    }
+
+    private boolean sendAll(List<OrderStatusOutboxEvent> events) {
+        List<OrderStatusUpdate> updates = events.stream()
+                .map(event -> new OrderStatusUpdate().orderId(event.getOrderId()).status(event.getStatus()))
+                .collect(Collectors.toList());
+        try {
+            ordersMicroservice.putOrderStatuses(events.get(0).getAuthorizationId(), updates);
+            return true;
+        } catch (RestClientException e) {
+            return false;
+        }
+    }
+
+    private void giveUp(OrderStatusOutboxEvent event, HttpClientErrorException rejection) {
+        event.setAttempts(event.getAttempts() + 1);
+        event.setFailed(true);
+        logger.error("Giving up on sending status {} of order {}, it was rejected with {}",
+                event.getStatus(), event.getOrderId(), rejection.getStatusCode());
+        outboxRepository.save(event);
+    }
+
+    private void scheduleRetry(OrderStatusOutboxEvent event, Instant now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        if (attempts >= maxAttempts) {
+            event.setFailed(true);
+            logger.error("Giving up on sending status {} of order {} after {} attempts",
+                    event.getStatus(), event.getOrderId(), attempts);
+        } else {
+            event.setNextAttemptAt(now.plus(backoff(attempts)));
+        }
+        outboxRepository.save(event);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
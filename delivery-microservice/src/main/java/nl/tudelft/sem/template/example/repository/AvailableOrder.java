@@ -0,0 +1,69 @@
+package nl.tudelft.sem.template.example.repository;
+
+import java.time.OffsetDateTime;
+
+/**
+ * An order that is waiting for a courier, together with the vendor it belongs to, where it is picked up
+ * and when it is ready.
+ */
+public class AvailableOrder {
+    private final long orderId;
+
+    private final long vendorId;
+
+    private final Double pickupLatitude;
+
+    private final Double pickupLongitude;
+
+    private final OffsetDateTime readyTime;
+
+    /**
+     * Creates an available order.
+     *
+     * @param orderId The id of the order.
+     * @param vendorId The id of the vendor the order belongs to.
+     * @param pickupLatitude The latitude of the address of the vendor, or {@code null} if it is not known.
+     * @param pickupLongitude The longitude of the address of the vendor, or {@code null} if it is not known.
+     */
+    public AvailableOrder(long orderId, long vendorId, Double pickupLatitude, Double pickupLongitude) {
+        this(orderId, vendorId, pickupLatitude, pickupLongitude, null);
+    }
+
+    /**
+     * Creates an available order whose ready time is known.
+     *
+     * @param orderId The id of the order.
+     * @param vendorId The id of the vendor the order belongs to.
+     * @param pickupLatitude The latitude of the address of the vendor, or {@code null} if it is not known.
+     * @param pickupLongitude The longitude of the address of the vendor, or {@code null} if it is not known.
+     * @param readyTime The time the vendor expects the order to be ready, or {@code null} if it is not known.
+     */
+    public AvailableOrder(long orderId, long vendorId, Double pickupLatitude, Double pickupLongitude,
+                          OffsetDateTime readyTime) {
+        this.orderId = orderId;
+        this.vendorId = vendorId;
+        this.pickupLatitude = pickupLatitude;
+        this.pickupLongitude = pickupLongitude;
+        this.readyTime = readyTime;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getVendorId() {
+        return vendorId;
+    }
+
+    public Double getPickupLatitude() {
+        return pickupLatitude;
+    }
+
+    public Double getPickupLongitude() {
+        return pickupLongitude;
+    }
+
+    public OffsetDateTime getReadyTime() {
+        return readyTime;
+    }
+}
@@ -0,0 +1,81 @@
+package nl.tudelft.sem.template.example.repository;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A delivery that was picked up and delivered, together with where it went from and to.
+ */
+public class CompletedDelivery {
+    private final long vendorId;
+
+    private final Double vendorLatitude;
+
+    private final Double vendorLongitude;
+
+    private final Double destinationLatitude;
+
+    private final Double destinationLongitude;
+
+    private final OffsetDateTime readyTime;
+
+    private final OffsetDateTime pickUpTime;
+
+    private final OffsetDateTime deliveredTime;
+
+    /**
+     * Creates a completed delivery.
+     *
+     * @param vendorId The id of the vendor of the order.
+     * @param vendorLatitude The latitude of the address of the vendor, or {@code null} if it is not known.
+     * @param vendorLongitude The longitude of the address of the vendor, or {@code null} if it is not known.
+     * @param destinationLatitude The latitude of the destination, or {@code null} if it is not known.
+     * @param destinationLongitude The longitude of the destination, or {@code null} if it is not known.
+     * @param readyTime The time the order was ready, or {@code null} if it is not known.
+     * @param pickUpTime The time the order was picked up.
+     * @param deliveredTime The time the order was delivered.
+     */
+    public CompletedDelivery(long vendorId, Double vendorLatitude, Double vendorLongitude, Double destinationLatitude,
+                             Double destinationLongitude, OffsetDateTime readyTime, OffsetDateTime pickUpTime,
+                             OffsetDateTime deliveredTime) {
+        this.vendorId = vendorId;
+        this.vendorLatitude = vendorLatitude;
+        this.vendorLongitude = vendorLongitude;
+        this.destinationLatitude = destinationLatitude;
+        this.destinationLongitude = destinationLongitude;
+        this.readyTime = readyTime;
+        this.pickUpTime = pickUpTime;
+        this.deliveredTime = deliveredTime;
+    }
+
+    public long getVendorId() {
+        return vendorId;
+    }
+
+    public Double getVendorLatitude() {
+        return vendorLatitude;
+    }
+
+    public Double getVendorLongitude() {
+        return vendorLongitude;
+    }
+
+    public Double getDestinationLatitude() {
+        return destinationLatitude;
+    }
+
+    public Double getDestinationLongitude() {
+        return destinationLongitude;
+    }
+
+    public OffsetDateTime getReadyTime() {
+        return readyTime;
+    }
+
+    public OffsetDateTime getPickUpTime() {
+        return pickUpTime;
+    }
+
+    public OffsetDateTime getDeliveredTime() {
+        return deliveredTime;
+    }
+}
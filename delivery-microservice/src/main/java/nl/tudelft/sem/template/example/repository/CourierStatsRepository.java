@@ -0,0 +1,76 @@
+package nl.tudelft.sem.template.example.repository;
+
+import java.time.LocalDate;
+import nl.tudelft.sem.template.example.domain.CourierStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface CourierStatsRepository extends JpaRepository<CourierStats, Long> {
+    /**
+     * Removes the statistics of a courier, if there are any, so that they are rebuilt on the next read.
+     *
+     * @param courierId - The id of the courier.
+     */
+    @Transactional
+    void deleteByCourierId(Long courierId);
+
+    /**
+     * Adds a delivered order to the totals of a courier in a single statement,
+     * so that orders delivered at the same time do not overwrite each other's update.
+     * The statement also locks the statistics of the courier until the transaction ends.
+     * Like the other updates below, it leaves the persistence context alone: it runs in the transaction
+     * that delivers the order, which never loads the statistics but still holds the orders it changes.
+     *
+     * @param courierId - The id of the courier.
+     * @param datedDeliveries - 1 if the delivered time of the order is known, 0 otherwise.
+     * @param durationMillis - The time between picking up and delivering the order, or 0 if it is unknown.
+     * @param distance - The distance between the vendor and the destination in meters, or 0 if it is unknown.
+     * @return 1 if the totals were updated, 0 if the statistics of the courier were never built.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update CourierStats s set s.deliveredCount = s.deliveredCount + 1, "
+            + "s.datedDeliveryCount = s.datedDeliveryCount + :datedDeliveries, "
+            + "s.totalDurationMillis = s.totalDurationMillis + :durationMillis, "
+            + "s.totalDistance = s.totalDistance + :distance where s.courierId = :courierId")
+    int addDelivery(@Param("courierId") Long courierId, @Param("datedDeliveries") long datedDeliveries,
+                    @Param("durationMillis") long durationMillis, @Param("distance") double distance);
+
+    /**
+     * Adds a delivered order to the day bucket of a courier, if the courier already delivered on that day.
+     *
+     * @param courierId - The id of the courier.
+     * @param day - The day the order was delivered.
+     * @return 1 if the bucket was updated, 0 if there is no bucket for the day yet.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update courier_stats_days set deliveries = deliveries + 1 "
+            + "where courier_id = :courierId and delivery_day = :day", nativeQuery = true)
+    int incrementDeliveriesOnDay(@Param("courierId") Long courierId, @Param("day") LocalDate day);
+
+    /**
+     * Creates the day bucket of a courier for the first order delivered on that day.
+     *
+     * @param courierId - The id of the courier.
+     * @param day - The day the order was delivered.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into courier_stats_days (courier_id, delivery_day, deliveries) "
+            + "values (:courierId, :day, 1)", nativeQuery = true)
+    void insertDeliveriesOnDay(@Param("courierId") Long courierId, @Param("day") LocalDate day);
+
+    /**
+     * Counts one more day on which a courier delivered orders.
+     *
+     * @param courierId - The id of the courier.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update CourierStats s set s.activeDays = s.activeDays + 1 where s.courierId = :courierId")
+    void addActiveDay(@Param("courierId") Long courierId);
+}
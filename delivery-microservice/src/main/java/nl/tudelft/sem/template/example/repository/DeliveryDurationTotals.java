@@ -0,0 +1,42 @@
+package nl.tudelft.sem.template.example.repository;
+
+/**
+ * The number of deliveries matching a query and the sum of the time between their pick up and delivery,
+ * computed by the database so that the deliveries themselves do not have to be loaded.
+ */
+public class DeliveryDurationTotals {
+    private final long count;
+
+    private final long totalMillis;
+
+    /**
+     * Creates the totals of a set of deliveries.
+     *
+     * @param count The number of deliveries.
+     * @param totalMillis The summed durations in milliseconds, or {@code null} if there were no deliveries.
+     */
+    public DeliveryDurationTotals(Long count, Long totalMillis) {
+        this.count = count == null ? 0 : count;
+        this.totalMillis = totalMillis == null ? 0 : totalMillis;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    /**
+     * Calculates the average duration of the deliveries.
+     *
+     * @return The average duration in whole seconds, or 0 if there were no deliveries.
+     */
+    public long getAverageSeconds() {
+        if (count == 0) {
+            return 0;
+        }
+        return totalMillis / 1000 / count;
+    }
+}
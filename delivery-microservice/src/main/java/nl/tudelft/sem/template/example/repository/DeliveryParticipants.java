@@ -0,0 +1,69 @@
+package nl.tudelft.sem.template.example.repository;
+
+/**
+ * The ids of the users taking part in a delivery, which is everything needed to authorize a request
+ * without loading the whole delivery, order and vendor.
+ */
+public class DeliveryParticipants {
+    private final Long orderId;
+
+    private final long customerId;
+
+    private final long vendorId;
+
+    private final Long courierId;
+
+    /**
+     * Creates the participants of a delivery.
+     *
+     * @param customerId The id of the customer who placed the order.
+     * @param vendorId The id of the vendor preparing the order.
+     * @param courierId The id of the courier assigned to the delivery, or {@code null} if there is none yet.
+     */
+    public DeliveryParticipants(long customerId, long vendorId, Long courierId) {
+        this(null, customerId, vendorId, courierId);
+    }
+
+    /**
+     * Creates the participants of the delivery of an order.
+     *
+     * @param orderId The id of the order.
+     * @param customerId The id of the customer who placed the order.
+     * @param vendorId The id of the vendor preparing the order.
+     * @param courierId The id of the courier assigned to the delivery, or {@code null} if there is none yet.
+     */
+    public DeliveryParticipants(Long orderId, long customerId, long vendorId, Long courierId) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.vendorId = vendorId;
+        this.courierId = courierId;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public long getVendorId() {
+        return vendorId;
+    }
+
+    public Long getCourierId() {
+        return courierId;
+    }
+
+    public boolean isCustomer(long userId) {
+        return customerId == userId;
+    }
+
+    public boolean isVendor(long userId) {
+        return vendorId == userId;
+    }
+
+    public boolean isCourier(long userId) {
+        return courierId != null && courierId == userId;
+    }
+}
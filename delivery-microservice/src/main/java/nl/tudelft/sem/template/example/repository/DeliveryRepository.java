@@ -2,7 +2,12 @@ package nl.tudelft.sem.template.example.repository;
 
 import java.util.List;
 import nl.tudelft.sem.template.model.Delivery;
+import nl.tudelft.sem.template.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
     /**
@@ -13,6 +18,14 @@ public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
      */
     Delivery findDeliveryByOrder_OrderId(Long orderId);
 
+    /**
+     * Checks whether there is a delivery for an order.
+     *
+     * @param orderId - The order id of from the Delivery.
+     * @return True if the order has a delivery, false otherwise.
+     */
+    boolean existsByOrder_OrderId(Long orderId);
+
     /**
      * Finds a delivery based on the courierId of the order within the Delivery.
      *
@@ -20,4 +33,105 @@ public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
      * @return A delivery
      */
     List<Delivery> findByCourierId(Long courierId);
+
+    /**
+     * Finds the ids of the customer, vendor and courier of the delivery of an order,
+     * without loading the delivery, order and vendor entities.
+     *
+     * @param orderId - The order id of from the Delivery.
+     * @return The participants of the delivery, or null if there is no delivery for the order.
+     */
+    @Query("select new nl.tudelft.sem.template.example.repository.DeliveryParticipants("
+            + "o.customerId, o.vendor.id, d.courierId) from Delivery d join d.order o where o.orderId = :orderId")
+    DeliveryParticipants findParticipantsByOrderId(@Param("orderId") Long orderId);
+
+    /**
+     * Finds the ids of the customer, vendor and courier of the deliveries of many orders at once.
+     *
+     * @param orderIds - The order ids of the deliveries.
+     * @return The participants of the deliveries that exist, with the id of their order.
+     */
+    @Query("select new nl.tudelft.sem.template.example.repository.DeliveryParticipants("
+            + "o.orderId, o.customerId, o.vendor.id, d.courierId) from Delivery d join d.order o "
+            + "where o.orderId in :orderIds")
+    List<DeliveryParticipants> findParticipantsByOrderIds(@Param("orderIds") List<Long> orderIds);
+
+    /**
+     * Finds the ids of the orders of a vendor that have the given status and no courier assigned yet.
+     *
+     * @param status - The status the orders should have.
+     * @param vendorId - The id of the vendor of the orders.
+     * @return The ids of the matching orders, in the order the deliveries were created.
+     */
+    @Query("select o.orderId from Delivery d join d.order o "
+            + "where d.courierId is null and o.status = :status and o.vendor.id = :vendorId order by d.id")
+    List<Long> findUnassignedOrderIdsByStatusAndVendorId(@Param("status") Order.StatusEnum status,
+                                                         @Param("vendorId") Long vendorId);
+
+    /**
+     * Finds the ids of the orders that have the given status and no courier assigned yet,
+     * restricted to vendors that do not have their own couriers.
+     *
+     * @param status - The status the orders should have.
+     * @return The ids of the matching orders, in the order the deliveries were created.
+     */
+    @Query("select o.orderId from Delivery d join d.order o join o.vendor v "
+            + "where d.courierId is null and o.status = :status and v.couriers is empty order by d.id")
+    List<Long> findUnassignedOrderIdsByStatusOfVendorsWithoutCouriers(@Param("status") Order.StatusEnum status);
+
+    /**
+     * Counts the deliveries of a vendor's orders that have the given status, and sums the time between
+     * their pick up and delivery, in a single query. Deliveries without both times are left out.
+     *
+     * @param vendorId - The id of the vendor of the orders.
+     * @param status - The status the orders should have.
+     * @return The number of deliveries and their total duration.
+     */
+    @Query("select new nl.tudelft.sem.template.example.repository.DeliveryDurationTotals(count(d), "
+            + "sum(function('DATEDIFF', 'MILLISECOND', d.time.pickUpTime, d.time.deliveredTime))) "
+            + "from Delivery d join d.order o where o.vendor.id = :vendorId and o.status = :status "
+            + "and d.time.pickUpTime is not null and d.time.deliveredTime is not null")
+    DeliveryDurationTotals sumDeliveryDurationsByVendorIdAndStatus(@Param("vendorId") Long vendorId,
+                                                                   @Param("status") Order.StatusEnum status);
+
+    /**
+     * Finds the orders with the given status that have no courier assigned yet,
+     * together with their vendor, its address and the time the order is ready.
+     *
+     * @param status - The status of the orders.
+     * @return The orders in the order their deliveries were created.
+     */
+    @Query("select new nl.tudelft.sem.template.example.repository.AvailableOrder(o.orderId, v.id, "
+            + "v.address.latitude, v.address.longitude, d.time.readyTime) from Delivery d join d.order o join o.vendor v "
+            + "where d.courierId is null and o.status = :status order by d.id")
+    List<AvailableOrder> findUnassignedOrdersByStatus(@Param("status") Order.StatusEnum status);
+
+    /**
+     * Finds the deliveries that were picked up and delivered, together with the address of their vendor
+     * and their destination.
+     *
+     * @return The completed deliveries.
+     */
+    @Query("select new nl.tudelft.sem.template.example.repository.CompletedDelivery(v.id, v.address.latitude, "
+            + "v.address.longitude, o.destination.latitude, o.destination.longitude, d.time.readyTime, "
+            + "d.time.pickUpTime, d.time.deliveredTime) from Delivery d join d.order o join o.vendor v "
+            + "where d.time.pickUpTime is not null and d.time.deliveredTime is not null")
+    List<CompletedDelivery> findCompletedDeliveries();
+
+    /**
+     * Assigns a courier to the delivery of an order, but only if no courier was assigned to it yet
+     * and the order has the given status. The check and the assignment happen in a single statement,
+     * so when couriers claim the same order at the same time exactly one of them gets it.
+     *
+     * @param courierId - The id of the courier claiming the order.
+     * @param orderId - The id of the order.
+     * @param status - The status the order must have to be claimed.
+     * @return 1 if the courier got the order, 0 if it was taken, not in the right status or does not exist.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Delivery d set d.courierId = :courierId where d.courierId is null and d.order.orderId = :orderId "
+            + "and exists (select o.orderId from Order o where o.orderId = :orderId and o.status = :status)")
+    int claimOrder(@Param("courierId") Long courierId, @Param("orderId") Long orderId,
+                   @Param("status") Order.StatusEnum status);
 }
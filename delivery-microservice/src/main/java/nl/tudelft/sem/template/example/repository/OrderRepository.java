@@ -1,10 +1,20 @@
 package nl.tudelft.sem.template.example.repository;
 
+import java.util.List;
 import nl.tudelft.sem.template.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
-
-import java.util.List;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findOrdersByVendorId(Long vendorId);
+
+    /**
+     * Finds which of the given order ids already belong to an order.
+     *
+     * @param orderIds - The ids to look for.
+     * @return The ids that already exist, in no particular order.
+     */
+    @Query("select o.orderId from Order o where o.orderId in :orderIds")
+    List<Long> findExistingOrderIds(@Param("orderIds") List<Long> orderIds);
 }
@@ -0,0 +1,24 @@
+package nl.tudelft.sem.template.example.repository;
+
+import java.time.Instant;
+import java.util.List;
+import nl.tudelft.sem.template.example.domain.OrderStatusOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OrderStatusOutboxRepository extends JpaRepository<OrderStatusOutboxEvent, Long> {
+    /**
+     * Finds the events that are due to be sent. Only the oldest pending event of every order is returned,
+     * so that the status changes of an order reach the Orders microservice in the order they were made.
+     *
+     * @param now - The current time.
+     * @param pageable - The maximum number of events to return.
+     * @return The events that can be sent, oldest first.
+     */
+    @Query("select e from OrderStatusOutboxEvent e where e.failed = false and e.nextAttemptAt <= :now "
+            + "and not exists (select p from OrderStatusOutboxEvent p where p.orderId = e.orderId "
+            + "and p.failed = false and p.id < e.id) order by e.id")
+    List<OrderStatusOutboxEvent> findDueEvents(@Param("now") Instant now, Pageable pageable);
+}
@@ -1,7 +1,35 @@
 package nl.tudelft.sem.template.example.repository;
 
+import java.util.List;
 import nl.tudelft.sem.template.model.Vendor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface VendorRepository extends JpaRepository<Vendor, Long> {
+    /**
+     * Finds the ids of the vendors a courier is assigned to.
+     *
+     * @param courierId - The id of the courier.
+     * @return The ids of the vendors, empty if the courier does not belong to any vendor.
+     */
+    @Query("select v.id from Vendor v join v.couriers c where c = :courierId order by v.id")
+    List<Long> findVendorIdsByCourierId(@Param("courierId") Long courierId);
+
+    /**
+     * Finds the ids of the vendors that have their own couriers.
+     *
+     * @return The ids of the vendors, sorted.
+     */
+    @Query("select v.id from Vendor v where v.couriers is not empty order by v.id")
+    List<Long> findIdsOfVendorsWithCouriers();
+
+    /**
+     * Finds the address and delivery zone of every vendor, without loading their couriers.
+     *
+     * @return The delivery zones of all the vendors.
+     */
+    @Query("select new nl.tudelft.sem.template.example.repository.VendorZone(v.id, v.address.latitude, "
+            + "v.address.longitude, v.deliveryZone) from Vendor v")
+    List<VendorZone> findAllVendorZones();
 }
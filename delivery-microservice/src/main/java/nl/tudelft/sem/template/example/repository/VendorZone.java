@@ -0,0 +1,45 @@
+package nl.tudelft.sem.template.example.repository;
+
+/**
+ * The address and delivery zone of a vendor, which is all that is needed to know where the vendor delivers.
+ */
+public class VendorZone {
+    private final long vendorId;
+
+    private final Double latitude;
+
+    private final Double longitude;
+
+    private final Long deliveryZone;
+
+    /**
+     * Creates the delivery zone of a vendor.
+     *
+     * @param vendorId The id of the vendor.
+     * @param latitude The latitude of the address of the vendor, or {@code null} if it is not known.
+     * @param longitude The longitude of the address of the vendor, or {@code null} if it is not known.
+     * @param deliveryZone The radius of the delivery zone in kilometers, or {@code null} if it is not set.
+     */
+    public VendorZone(long vendorId, Double latitude, Double longitude, Long deliveryZone) {
+        this.vendorId = vendorId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.deliveryZone = deliveryZone;
+    }
+
+    public long getVendorId() {
+        return vendorId;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public Long getDeliveryZone() {
+        return deliveryZone;
+    }
+}
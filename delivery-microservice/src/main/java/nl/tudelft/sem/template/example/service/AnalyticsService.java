@@ -1,12 +1,7 @@
 package nl.tudelft.sem.template.example.service;
 
-import java.time.Duration;
-import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import nl.tudelft.sem.template.example.exception.CourierNotFoundException;
 import nl.tudelft.sem.template.example.exception.DeliveryNotFoundException;
@@ -15,6 +10,7 @@ import nl.tudelft.sem.template.example.exception.OrderNotFoundException;
 import nl.tudelft.sem.template.example.exception.RatingNotFoundException;
 import nl.tudelft.sem.template.example.exception.VendorNotFoundException;
 import nl.tudelft.sem.template.example.external.UsersMicroservice;
+import nl.tudelft.sem.template.example.repository.DeliveryDurationTotals;
 import nl.tudelft.sem.template.example.repository.DeliveryRepository;
 import nl.tudelft.sem.template.example.repository.OrderRepository;
 import nl.tudelft.sem.template.example.repository.VendorRepository;
@@ -35,16 +31,20 @@ public class AnalyticsService {
 
     private final UsersMicroservice usersMicroservice;
 
+    private final CourierStatsService courierStatsService;
+
     @Autowired
     public AnalyticsService(DeliveryRepository deliveryRepository, VendorRepository vendorRepository,
                             OrderRepository orderRepository,
                             DeliveryService deliveryService,
-                            UsersMicroservice usersMicroservice) {
+                            UsersMicroservice usersMicroservice,
+                            CourierStatsService courierStatsService) {
         this.deliveryRepository = deliveryRepository;
         this.vendorRepository = vendorRepository;
         this.orderRepository = orderRepository;
         this.deliveryService = deliveryService;
         this.usersMicroservice = usersMicroservice;
+        this.courierStatsService = courierStatsService;
     }
 
     /**
@@ -107,25 +107,7 @@ public class AnalyticsService {
         if (!usersMicroservice.getUserType(courierId).get().equals("courier")) {
             throw new CourierNotFoundException("Courier with id " + courierId + " does not exist.");
         }
-        List<Delivery> deliveries = deliveryRepository.findByCourierId(courierId);
-
-        deliveries = deliveries.stream()
-                .filter(d -> d.getOrder() != null && d.getOrder().getStatus() == Order.StatusEnum.DELIVERED)
-                .collect(Collectors.toList());
-
-        List<LocalDate> deliveredDates = deliveries.stream()
-                .map(delivery -> delivery.getTime().getDeliveredTime().toLocalDate())
-                .collect(Collectors.toList());
-
-        Map<LocalDate, Long> deliveriesPerDay = deliveredDates.stream()
-                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
-
-        double averageDeliveries = deliveriesPerDay.values().stream()
-                .mapToLong(Long::longValue)
-                .average()
-                .orElse(0.0);
-
-        return (int) Math.round(averageDeliveries);
+        return courierStatsService.getStats(courierId).averageDeliveriesPerDay();
     }
 
 
@@ -140,12 +122,7 @@ public class AnalyticsService {
         if (!usersMicroservice.getUserType(courierId).get().equals("courier")) {
             throw new CourierNotFoundException("Courier with id " + courierId + " does not exist.");
         }
-        List<Delivery> deliveries = deliveryRepository.findByCourierId(courierId);
-
-        int successfulDeliveries = (int) deliveries.stream()
-                .filter(delivery -> delivery.getOrder().getStatus() == Order.StatusEnum.DELIVERED)
-                .count();
-        return successfulDeliveries;
+        return (int) courierStatsService.getStats(courierId).getDeliveredCount();
     }
 
     /**
@@ -182,30 +159,14 @@ public class AnalyticsService {
         if (!usersMicroservice.getUserType(courierId).get().equals("courier")) {
             throw new CourierNotFoundException("Courier with id " + courierId + " does not exist.");
         }
-        List<Delivery> deliveries = deliveryRepository.findByCourierId(courierId);
-        List<Delivery> successfulDeliveries = successfulDeliveries(deliveries);
-
-        Duration totalDuration = successfulDeliveries.stream()
-                .map(delivery -> Duration.between(delivery.getTime().getPickUpTime(), delivery.getTime().getDeliveredTime()))
-                .reduce(Duration::plus)
-                .orElse(Duration.ZERO);
-        long totalSeconds = totalDuration.toSeconds();
-
-        double totalDistance = successfulDeliveries.stream()
-                .map(delivery -> (deliveryService.calculateDistance(delivery.getOrder().getVendor().getAddress(),
-                        delivery.getOrder().getDestination())))
-                .mapToDouble(Double::doubleValue)
-                .sum();
-
-        return (int) (totalDistance * 100000 / totalSeconds);
-
+        return courierStatsService.getStats(courierId).efficiency();
     }
 
     /**
      * Calculates the average time for one delivery in seconds for a given vendor.
      *
      * @param vendorId The id of the vendor (required)
-     * @return the time of average delivery
+     * @return the time of average delivery, or 0 if the vendor has no delivered orders yet
      * @throws VendorNotFoundException if the vendor with the given id does not exist
      */
     public Integer getVendorAverage(Long vendorId) throws VendorNotFoundException {
@@ -213,26 +174,9 @@ public class AnalyticsService {
         if (!vendorRepository.existsById(vendorId)) {
             throw new VendorNotFoundException("Vendor with id " + vendorId + " does not exist.");
         }
-        List<Order> orders = orderRepository.findOrdersByVendorId(vendorId);
-        List<Delivery> deliveries = new ArrayList<>();
-
-        for (Order order : orders) {
-            Delivery delivery = deliveryRepository.findDeliveryByOrder_OrderId(order.getOrderId());
-            if (delivery != null) {
-                deliveries.add(delivery);
-            }
-        }
-
-        List<Delivery> successfulDeliveries = successfulDeliveries(deliveries);
-
-        Duration totalDuration = successfulDeliveries.stream()
-                .map(delivery -> Duration.between(delivery.getTime().getPickUpTime(), delivery.getTime().getDeliveredTime()))
-                .reduce(Duration::plus)
-                .orElse(Duration.ZERO);
-        long totalSeconds = totalDuration.toSeconds();
-
-        return (int) totalSeconds / successfulDeliveries.size();
-
+        DeliveryDurationTotals totals = deliveryRepository
+                .sumDeliveryDurationsByVendorIdAndStatus(vendorId, Order.StatusEnum.DELIVERED);
+        return (int) totals.getAverageSeconds();
     }
 
     /**
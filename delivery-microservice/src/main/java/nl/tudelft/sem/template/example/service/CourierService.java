@@ -1,7 +1,10 @@
 package nl.tudelft.sem.template.example.service;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import nl.tudelft.sem.template.example.cache.AvailableOrderPool;
+import nl.tudelft.sem.template.example.cache.CourierVendorIndex;
+import nl.tudelft.sem.template.example.dispatch.BatchDispatcher;
 import nl.tudelft.sem.template.example.exception.CourierNotFoundException;
 import nl.tudelft.sem.template.example.exception.DeliveryNotFoundException;
 import nl.tudelft.sem.template.example.exception.NoAvailableOrdersException;
@@ -9,12 +12,12 @@ import nl.tudelft.sem.template.example.exception.OrderNotFoundException;
 import nl.tudelft.sem.template.example.external.UsersMicroservice;
 import nl.tudelft.sem.template.example.repository.DeliveryRepository;
 import nl.tudelft.sem.template.example.repository.VendorRepository;
-import nl.tudelft.sem.template.example.service.strategy.AssignOrderContext;
-import nl.tudelft.sem.template.example.service.strategy.RandomOrderStrategy;
-import nl.tudelft.sem.template.example.service.strategy.SpecificOrderStrategy;
-import nl.tudelft.sem.template.model.Delivery;
+import nl.tudelft.sem.template.example.service.strategy.AssignOrderStrategyRegistry;
+import nl.tudelft.sem.template.example.service.strategy.AssignmentMode;
+import nl.tudelft.sem.template.example.tracking.CourierLocationTracker;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.LocationPing;
 import nl.tudelft.sem.template.model.Order;
-import nl.tudelft.sem.template.model.Vendor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -26,8 +29,16 @@ public class CourierService {
     VendorRepository vendorRepository;
 
     UsersMicroservice usersMicroservice;
+
+    CourierVendorIndex courierVendorIndex;
+
+    AvailableOrderPool availableOrderPool;
+
+    BatchDispatcher batchDispatcher;
     //private List<Long> courierList = new ArrayList<>();
-    AssignOrderContext assignOrderContext = new AssignOrderContext();
+    AssignOrderStrategyRegistry assignOrderStrategies;
+
+    CourierLocationTracker courierLocationTracker;
 
     /**
      * Constructor for handling dependency injection.
@@ -35,13 +46,26 @@ public class CourierService {
      * @param deliveryRepository JPA repository holding the deliveries
      * @param vendorRepository JPA repository holding the vendors
      * @param usersMicroservice External communication to Users microservice
+     * @param courierVendorIndex Index from couriers to the vendors they are assigned to
+     * @param availableOrderPool Pool of the orders waiting for a courier
+     * @param batchDispatcher Dispatcher matching the queued couriers to orders in batches
+     * @param assignOrderStrategies Registry of the strategies used to assign orders to couriers
+     * @param courierLocationTracker Tracker of the locations reported by the couriers
      */
     @Autowired
     public CourierService(DeliveryRepository deliveryRepository, VendorRepository vendorRepository,
-                          UsersMicroservice usersMicroservice) {
+                          UsersMicroservice usersMicroservice, CourierVendorIndex courierVendorIndex,
+                          AvailableOrderPool availableOrderPool, BatchDispatcher batchDispatcher,
+                          AssignOrderStrategyRegistry assignOrderStrategies,
+                          CourierLocationTracker courierLocationTracker) {
         this.deliveryRepository = deliveryRepository;
         this.vendorRepository = vendorRepository;
         this.usersMicroservice = usersMicroservice;
+        this.courierVendorIndex = courierVendorIndex;
+        this.availableOrderPool = availableOrderPool;
+        this.batchDispatcher = batchDispatcher;
+        this.assignOrderStrategies = assignOrderStrategies;
+        this.courierLocationTracker = courierLocationTracker;
     }
 
     /**
@@ -51,47 +75,24 @@ public class CourierService {
      * @return returns the list of the ids of available orders
      */
     public List<Long> getAvailableOrderIds(Long courierId) {
-        List<Order> filteredOrders = deliveryRepository.findAll()
-                .stream()
-                .filter(delivery -> delivery.getCourierId() == null)
-                .map(Delivery::getOrder)
-                .filter(order -> order.getStatus() == Order.StatusEnum.ACCEPTED)
-                .collect(Collectors.toList());
         try {
             Long vendorId = checkIfCourierIsAssignedToVendor(courierId);
-            filteredOrders = filteredOrders
-                    .stream()
-                    .filter(order -> vendorId.equals(order.getVendor().getId()))
-                    .collect(Collectors.toList());
+            return deliveryRepository.findUnassignedOrderIdsByStatusAndVendorId(Order.StatusEnum.ACCEPTED, vendorId);
         } catch (CourierNotFoundException e) {
-            List<Long> vendorsWithCouriers = getVendorsThatHaveTheirOwnCouriers();
-            filteredOrders = filteredOrders
-                    .stream()
-                    .filter(order -> !vendorsWithCouriers.contains(order.getVendor().getId()))
-                    .collect(Collectors.toList());
+            return deliveryRepository.findUnassignedOrderIdsByStatusOfVendorsWithoutCouriers(Order.StatusEnum.ACCEPTED);
         }
-        return  filteredOrders
-                .stream()
-                .map(Order::getOrderId)
-                .collect(Collectors.toList());
     }
 
     /**
      * Checks if courier is assigned to vendor.
      *
      * @param courierId Unique identifier of the courier (required)
-     * @return returns vendor id if courier is assigned to a vendor and -1 otherwise
+     * @return returns the id of the vendor the courier is assigned to
+     * @throws CourierNotFoundException if the courier is not assigned to any vendor
      */
     public Long checkIfCourierIsAssignedToVendor(long courierId) throws CourierNotFoundException {
-        List<Vendor> allVendors = vendorRepository.findAll();
-        for (Vendor vendor : allVendors) {
-            for (Long id : vendor.getCouriers()) {
-                if (id == courierId) {
-                    return vendor.getId();
-                }
-            }
-        }
-        throw new CourierNotFoundException("Courier does not belong to vendor");
+        return courierVendorIndex.findVendorId(courierId)
+                .orElseThrow(() -> new CourierNotFoundException("Courier does not belong to vendor"));
     }
 
     /**
@@ -100,11 +101,7 @@ public class CourierService {
      * @return returns the list of vendor ids
      */
     public List<Long> getVendorsThatHaveTheirOwnCouriers() {
-        return vendorRepository.findAll()
-                .stream()
-                .filter(vendor -> !vendor.getCouriers().isEmpty())
-                .map(Vendor::getId)
-                .collect(Collectors.toList());
+        return vendorRepository.findIdsOfVendorsWithCouriers();
     }
 
     /**
@@ -120,14 +117,17 @@ public class CourierService {
         if (!usersMicroservice.getUserType(courierId).get().equals("courier")) {
             throw new CourierNotFoundException("Courier with id " + courierId + " not found.");
         }
-        assignOrderContext.setAssignOrderStrategy(new SpecificOrderStrategy(this.deliveryRepository));
-        assignOrderContext.assignOrder(courierId, orderId, getAvailableOrderIds(courierId));
+        // The claim itself checks that the order is still available, so no candidates are listed up front.
+        assignOrderStrategies.get(AssignmentMode.SPECIFIC).assignOrder(courierId, orderId, List.of());
+        availableOrderPool.orderUnavailable(orderId);
     }
 
 
 
     /**
      * Assigns a courier to a random available order.
+     * The order is taken from the available order pool; only when the pool has nothing
+     * for the courier are the available orders looked up in the database.
      *
      * @param courierId Unique identifier of the courier (required)
      */
@@ -136,9 +136,78 @@ public class CourierService {
         if (!usersMicroservice.getUserType(courierId).get().equals("courier")) {
             throw new CourierNotFoundException("Courier with id " + courierId + " not found.");
         }
-        assignOrderContext.setAssignOrderStrategy(new RandomOrderStrategy(this.deliveryRepository));
-        assignOrderContext.assignOrder(courierId, null, getAvailableOrderIds(courierId));
+        assignAnyOrder(courierId);
+    }
+
+    /**
+     * Assigns a courier to the available order whose vendor is closest to the courier.
+     * Couriers that work for a vendor get any available order of their vendor,
+     * as all of them are picked up at the same address.
+     *
+     * @param courierId Unique identifier of the courier (required)
+     * @param courierLocation Current location of the courier (required)
+     */
+    public void assignCourierToNearestOrder(Long courierId, Location courierLocation) throws DeliveryNotFoundException,
+            NoAvailableOrdersException, CourierNotFoundException {
+        if (!usersMicroservice.getUserType(courierId).get().equals("courier")) {
+            throw new CourierNotFoundException("Courier with id " + courierId + " not found.");
+        }
+        if (courierVendorIndex.findVendorId(courierId).isEmpty()) {
+            try {
+                // No candidates are listed up front: when the spatial index has nothing to offer,
+                // the orders are looked up the same way as for any other order below.
+                assignOrderStrategies.get(AssignmentMode.NEAREST).assignOrder(courierId, null, List.of(), courierLocation);
+                return;
+            } catch (NoAvailableOrdersException e) {
+                // fall through to the orders without a known pickup location
+            }
+        }
+        assignAnyOrder(courierId);
+    }
 
+    /**
+     * Puts a courier in the queue of the batch dispatcher, which assigns the courier an order in its next round.
+     * When batch dispatch is disabled, the courier gets the nearest order straight away instead.
+     *
+     * @param courierId Unique identifier of the courier (required)
+     * @param courierLocation Current location of the courier (required)
+     * @return true if the courier was queued, false if an order was assigned straight away
+     */
+    public boolean queueCourierForDispatch(Long courierId, Location courierLocation) throws DeliveryNotFoundException,
+            NoAvailableOrdersException, CourierNotFoundException {
+        if (!batchDispatcher.isEnabled()) {
+            assignCourierToNearestOrder(courierId, courierLocation);
+            return false;
+        }
+        if (!usersMicroservice.getUserType(courierId).get().equals("courier")) {
+            throw new CourierNotFoundException("Courier with id " + courierId + " not found.");
+        }
+        assignOrderStrategies.get(AssignmentMode.BATCH).assignOrder(courierId, null, List.of(), courierLocation);
+        return true;
+    }
+
+    /**
+     * Records a batch of locations reported by a courier.
+     *
+     * @param courierId Unique identifier of the courier (required)
+     * @param pings Locations of the courier, in the order they were measured (required)
+     * @throws CourierNotFoundException if the courier is not found
+     */
+    public void recordLocations(Long courierId, List<LocationPing> pings) throws CourierNotFoundException {
+        if (!usersMicroservice.getUserType(courierId).get().equals("courier")) {
+            throw new CourierNotFoundException("Courier with id " + courierId + " not found.");
+        }
+        courierLocationTracker.record(courierId, pings);
+    }
+
+    private void assignAnyOrder(Long courierId) throws DeliveryNotFoundException, NoAvailableOrdersException {
+        Long vendorId = courierVendorIndex.findVendorId(courierId).orElse(null);
+        Optional<Long> claimed = availableOrderPool.claimNext(vendorId,
+                orderId -> deliveryRepository.claimOrder(courierId, orderId, Order.StatusEnum.ACCEPTED) == 1);
+        if (claimed.isPresent()) {
+            return;
+        }
+        assignOrderStrategies.get(AssignmentMode.RANDOM).assignOrder(courierId, null, getAvailableOrderIds(courierId));
     }
 
 }
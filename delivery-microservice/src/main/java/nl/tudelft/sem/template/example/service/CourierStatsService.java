@@ -0,0 +1,220 @@
+package nl.tudelft.sem.template.example.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import nl.tudelft.sem.template.example.domain.CourierStats;
+import nl.tudelft.sem.template.example.geo.GeoDistance;
+import nl.tudelft.sem.template.example.repository.CourierStatsRepository;
+import nl.tudelft.sem.template.example.repository.DeliveryRepository;
+import nl.tudelft.sem.template.example.statemachine.OrderStatusChangedEvent;
+import nl.tudelft.sem.template.model.Delivery;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Order;
+import nl.tudelft.sem.template.model.Time;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the statistics of every courier up to date as their orders get delivered.
+ * The statistics of a courier are built from the delivery history the first time they are read,
+ * and from then on only updated with the orders that get delivered.
+ *
+ * <p>Building the statistics reads the history at one moment and saves the result at a later one,
+ * so an order delivered in between would be missed by both the history and the update.
+ * Every courier therefore has a {@link Changes} counter, which is bumped when one of their orders
+ * starts and finishes being delivered and when their statistics are discarded.
+ * Built statistics are only saved if nothing changed while they were being built,
+ * otherwise they are returned without saving, and built again on the next read.
+ */
+@Service
+public class CourierStatsService {
+    private final CourierStatsRepository courierStatsRepository;
+
+    private final DeliveryRepository deliveryRepository;
+
+    private final ConcurrentMap<Long, Changes> changes = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for handling dependency injection.
+     *
+     * @param courierStatsRepository JPA repository holding the courier statistics
+     * @param deliveryRepository JPA repository holding the deliveries
+     */
+    @Autowired
+    public CourierStatsService(CourierStatsRepository courierStatsRepository, DeliveryRepository deliveryRepository) {
+        this.courierStatsRepository = courierStatsRepository;
+        this.deliveryRepository = deliveryRepository;
+    }
+
+    /**
+     * Retrieves the statistics of a courier, building them from the delivery history if they do not exist yet.
+     *
+     * @param courierId The id of the courier.
+     * @return The statistics of the courier.
+     */
+    public CourierStats getStats(Long courierId) {
+        Optional<CourierStats> stats = courierStatsRepository.findById(courierId);
+        if (stats.isPresent()) {
+            return stats.get();
+        }
+        Changes courierChanges = changesOf(courierId);
+        long version = courierChanges.version();
+        CourierStats seeded = new CourierStats(courierId);
+        for (Delivery delivery : deliveryRepository.findByCourierId(courierId)) {
+            if (delivery.getOrder() != null && delivery.getOrder().getStatus() == Order.StatusEnum.DELIVERED) {
+                addDelivery(seeded, delivery);
+            }
+        }
+        synchronized (courierChanges) {
+            if (courierChanges.unchangedSince(version)) {
+                try {
+                    courierStatsRepository.save(seeded);
+                } catch (DataIntegrityViolationException e) {
+                    // another request built the same statistics at the same time, ours are just as valid
+                }
+            }
+        }
+        return seeded;
+    }
+
+    /**
+     * Adds an order to the statistics of its courier once it is delivered.
+     *
+     * @param event The status change.
+     */
+    @EventListener
+    public void orderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.getNewStatus() == Order.StatusEnum.DELIVERED) {
+            recordDelivered(event.getOrderId());
+        }
+    }
+
+    /**
+     * Adds an order that was just delivered to the statistics of its courier.
+     * The totals are updated in the transaction that delivers the order, so they are only kept if it commits.
+     * If the statistics of the courier were never built, nothing is updated,
+     * since the order will be included when they are built from the history.
+     *
+     * @param orderId The id of the order that was delivered.
+     */
+    public void recordDelivered(Long orderId) {
+        Delivery delivery = deliveryRepository.findDeliveryByOrder_OrderId(orderId);
+        if (delivery == null || delivery.getCourierId() == null) {
+            return;
+        }
+        Changes courierChanges = changesOf(delivery.getCourierId());
+        courierChanges.deliveryStarted();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    courierChanges.deliveryFinished();
+                }
+            });
+            addDelivery(delivery);
+        } else {
+            try {
+                addDelivery(delivery);
+            } finally {
+                courierChanges.deliveryFinished();
+            }
+        }
+    }
+
+    /**
+     * Discards the statistics of a courier, so that they are rebuilt from the history the next time they are read.
+     * Statistics that are being built at the same time are not saved.
+     *
+     * @param courierId The id of the courier.
+     */
+    public void invalidate(Long courierId) {
+        Changes courierChanges = changesOf(courierId);
+        synchronized (courierChanges) {
+            courierChanges.bump();
+            courierStatsRepository.deleteByCourierId(courierId);
+        }
+    }
+
+    private Changes changesOf(Long courierId) {
+        return changes.computeIfAbsent(courierId, id -> new Changes());
+    }
+
+    private void addDelivery(Delivery delivery) {
+        Long courierId = delivery.getCourierId();
+        Time time = delivery.getTime();
+        Double distance = distanceOf(delivery.getOrder());
+        boolean dated = time != null && time.getDeliveredTime() != null;
+        long durationMillis = dated && time.getPickUpTime() != null
+                ? Duration.between(time.getPickUpTime(), time.getDeliveredTime()).toMillis() : 0;
+        if (courierStatsRepository.addDelivery(courierId, dated ? 1 : 0, durationMillis,
+                distance == null ? 0 : distance) == 0 || !dated) {
+            return;
+        }
+        if (courierStatsRepository.incrementDeliveriesOnDay(courierId, time.getDeliveredTime().toLocalDate()) == 0) {
+            courierStatsRepository.insertDeliveriesOnDay(courierId, time.getDeliveredTime().toLocalDate());
+            courierStatsRepository.addActiveDay(courierId);
+        }
+    }
+
+    private void addDelivery(CourierStats stats, Delivery delivery) {
+        Time time = delivery.getTime();
+        stats.addDelivery(time == null ? null : time.getPickUpTime(), time == null ? null : time.getDeliveredTime(),
+                distanceOf(delivery.getOrder()));
+    }
+
+    private Double distanceOf(Order order) {
+        if (order == null || order.getVendor() == null || order.getVendor().getAddress() == null
+                || order.getDestination() == null) {
+            return null;
+        }
+        Location start = order.getVendor().getAddress();
+        Location end = order.getDestination();
+        return GeoDistance.distance(start.getLatitude(), start.getLongitude(), end.getLatitude(), end.getLongitude());
+    }
+
+    /**
+     * The changes to the delivered orders of one courier, counted so that building their statistics
+     * can tell whether an order was delivered or their statistics were discarded in the meantime.
+     */
+    private static final class Changes {
+        private long version;
+
+        private int deliveriesInProgress;
+
+        synchronized long version() {
+            return version;
+        }
+
+        synchronized void bump() {
+            version++;
+        }
+
+        synchronized void deliveryStarted() {
+            deliveriesInProgress++;
+            version++;
+        }
+
+        synchronized void deliveryFinished() {
+            deliveriesInProgress--;
+            version++;
+        }
+
+        /**
+         * Checks whether statistics built from the history read after the given version can be saved.
+         * That is only the case if no order of the courier started or finished being delivered since,
+         * and none is being delivered right now, as its transaction may or may not have been visible.
+         *
+         * @param since The version read before the history.
+         * @return Whether nothing changed.
+         */
+        synchronized boolean unchangedSince(long since) {
+            return version == since && deliveriesInProgress == 0;
+        }
+    }
+}
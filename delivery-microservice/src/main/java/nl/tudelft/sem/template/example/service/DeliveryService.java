@@ -2,17 +2,34 @@ package nl.tudelft.sem.template.example.service;
 
 import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import nl.tudelft.sem.template.example.cache.VendorCoverageIndex;
 import nl.tudelft.sem.template.example.configuration.ConfigurationProperties;
+import nl.tudelft.sem.template.example.eta.EtaCache;
+import nl.tudelft.sem.template.example.eta.EtaModel;
 import nl.tudelft.sem.template.example.exception.CourierNotFoundException;
 import nl.tudelft.sem.template.example.exception.DeliveryNotFoundException;
+import nl.tudelft.sem.template.example.exception.MicroserviceCommunicationException;
 import nl.tudelft.sem.template.example.exception.OrderAlreadyExistsException;
 import nl.tudelft.sem.template.example.exception.OrderNotFoundException;
 import nl.tudelft.sem.template.example.exception.VendorNotFoundException;
+import nl.tudelft.sem.template.example.geo.GeoDistance;
 import nl.tudelft.sem.template.example.repository.DeliveryRepository;
 import nl.tudelft.sem.template.example.repository.OrderRepository;
 import nl.tudelft.sem.template.example.repository.VendorRepository;
+import nl.tudelft.sem.template.example.tracking.CourierLocationTracker;
 import nl.tudelft.sem.template.model.Delivery;
+import nl.tudelft.sem.template.model.DeliveryCreationResult;
 import nl.tudelft.sem.template.model.DeliveryPostRequest;
+import nl.tudelft.sem.template.model.DeliverySummary;
 import nl.tudelft.sem.template.model.Issue;
 import nl.tudelft.sem.template.model.Location;
 import nl.tudelft.sem.template.model.Order;
@@ -20,10 +37,12 @@ import nl.tudelft.sem.template.model.Time;
 import nl.tudelft.sem.template.model.Vendor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 
 @Service
 public class DeliveryService {
+
     DeliveryRepository deliveryRepository;
     OrderRepository orderRepository;
     VendorRepository vendorRepository;
@@ -31,6 +50,16 @@ public class DeliveryService {
 
     ConfigurationProperties configurationProperties;
 
+    CourierStatsService courierStatsService;
+
+    CourierLocationTracker courierLocationTracker;
+
+    EtaModel etaModel;
+
+    EtaCache etaCache;
+
+    private final Object[] timeUpdateLocks = new Object[64];
+
     /**
      * Constructor for the Delivery Service that allow dependency injection.
      *
@@ -39,16 +68,29 @@ public class DeliveryService {
      * @param vendorRepository The repository where Vendor objects are saved in.
      * @param vendorService The service that handles the vendor interaction logic.
      * @param configurationProperties The configuration properties of the whole microservice
+     * @param courierStatsService The service keeping the statistics of the couriers.
+     * @param courierLocationTracker The tracker of the locations reported by the couriers.
+     * @param etaModel The model estimating when orders arrive, kept up to date when the times of a delivery change.
+     * @param etaCache The cache of the estimated times of arrival, invalidated when a delivery changes.
      */
     @Autowired
     DeliveryService(DeliveryRepository deliveryRepository, OrderRepository orderRepository,
                     VendorRepository vendorRepository, VendorService vendorService,
-                    ConfigurationProperties configurationProperties) {
+                    ConfigurationProperties configurationProperties, CourierStatsService courierStatsService,
+                    CourierLocationTracker courierLocationTracker, EtaModel etaModel,
+                    EtaCache etaCache) {
         this.deliveryRepository = deliveryRepository;
         this.orderRepository = orderRepository;
         this.vendorRepository = vendorRepository;
         this.vendorService = vendorService;
         this.configurationProperties = configurationProperties;
+        this.courierStatsService = courierStatsService;
+        this.courierLocationTracker = courierLocationTracker;
+        this.etaModel = etaModel;
+        this.etaCache = etaCache;
+        for (int i = 0; i < timeUpdateLocks.length; i++) {
+            timeUpdateLocks[i] = new Object();
+        }
     }
 
     /**
@@ -69,6 +111,99 @@ public class DeliveryService {
             throw new OrderAlreadyExistsException("The order id already exists");
         }
 
+        Delivery delivery = newDelivery(deliveryPostRequest, vendor);
+        delivery = deliveryRepository.save(delivery);
+        return delivery;
+    }
+
+    /**
+     * Looks up every distinct vendor of the requests once, creating the ones that are not known yet.
+     * Creating a vendor asks the Users microservice for its location, so this is kept out of the transaction
+     * of {@link #createDeliveries(List, Map)}, which would otherwise hold a connection while waiting for it.
+     *
+     * @param deliveryPostRequests The basic elements of the delivery objects.
+     * @return The vendors by id, null for the vendors that could not be retrieved.
+     */
+    public Map<Long, Vendor> findVendorsOrCreate(List<DeliveryPostRequest> deliveryPostRequests) {
+        Set<Long> vendorIds = new LinkedHashSet<>();
+        for (DeliveryPostRequest request : deliveryPostRequests) {
+            if (isComplete(request)) {
+                vendorIds.add(Long.valueOf(request.getVendorId()));
+            }
+        }
+        Map<Long, Vendor> vendors = new HashMap<>();
+        vendorRepository.findAllById(vendorIds).forEach(vendor -> vendors.put(vendor.getId(), vendor));
+        for (Long vendorId : vendorIds) {
+            if (!vendors.containsKey(vendorId)) {
+                try {
+                    vendors.put(vendorId, vendorService.findVendorOrCreate(vendorId));
+                } catch (MicroserviceCommunicationException e) {
+                    vendors.put(vendorId, null);
+                }
+            }
+        }
+        return vendors;
+    }
+
+    /**
+     * Creates the deliveries of many orders at once. The ids of the orders that already exist are found
+     * with a single query, and the new deliveries are saved together so their inserts are sent to the
+     * database in batches.
+     *
+     * @param deliveryPostRequests The basic elements of the delivery objects.
+     * @param vendors The vendors of the requests, as returned by {@link #findVendorsOrCreate(List)}.
+     * @return The result of every request, in the order of the requests.
+     */
+    @Transactional
+    public List<DeliveryCreationResult> createDeliveries(List<DeliveryPostRequest> deliveryPostRequests,
+                                                         Map<Long, Vendor> vendors) {
+        List<Long> orderIds = new ArrayList<>();
+        for (DeliveryPostRequest request : deliveryPostRequests) {
+            if (isComplete(request)) {
+                orderIds.add(Long.valueOf(request.getOrderId()));
+            }
+        }
+        Set<Long> takenOrderIds = orderIds.isEmpty() ? new HashSet<>()
+                : new HashSet<>(orderRepository.findExistingOrderIds(orderIds));
+
+        List<DeliveryCreationResult> results = new ArrayList<>(deliveryPostRequests.size());
+        List<DeliveryCreationResult> created = new ArrayList<>();
+        List<Delivery> deliveries = new ArrayList<>();
+        for (DeliveryPostRequest request : deliveryPostRequests) {
+            DeliveryCreationResult result = new DeliveryCreationResult();
+            results.add(result);
+            if (!isComplete(request)) {
+                result.setResult(DeliveryCreationResult.ResultEnum.INVALID);
+                continue;
+            }
+            result.setOrderId(Long.valueOf(request.getOrderId()));
+            Vendor vendor = vendors.get(Long.valueOf(request.getVendorId()));
+            if (vendor == null) {
+                result.setResult(DeliveryCreationResult.ResultEnum.VENDOR_NOT_FOUND);
+            } else if (!takenOrderIds.add(result.getOrderId())) {
+                result.setResult(DeliveryCreationResult.ResultEnum.ALREADY_EXISTS);
+            } else {
+                Delivery delivery = newDelivery(request, vendor);
+                deliveries.add(delivery);
+                created.add(result);
+                result.setResult(DeliveryCreationResult.ResultEnum.CREATED);
+                result.setStatus(delivery.getOrder().getStatus().getValue());
+            }
+        }
+
+        List<Delivery> saved = deliveryRepository.saveAll(deliveries);
+        for (int i = 0; i < saved.size(); i++) {
+            created.get(i).setDeliveryId(saved.get(i).getId());
+        }
+        return results;
+    }
+
+    private static boolean isComplete(DeliveryPostRequest request) {
+        return request != null && request.getOrderId() != null && request.getCustomerId() != null
+                && request.getVendorId() != null && request.getDestination() != null;
+    }
+
+    private Delivery newDelivery(DeliveryPostRequest deliveryPostRequest, Vendor vendor) {
         Location destination = deliveryPostRequest.getDestination();
 
         boolean isWithinZone = isWithinDeliveryZone(destination, vendor.getAddress(), vendor.getDeliveryZone());
@@ -83,15 +218,13 @@ public class DeliveryService {
 
         Delivery delivery = new Delivery();
         delivery.setOrder(order);
-        delivery = deliveryRepository.save(delivery);
         return delivery;
     }
 
 
 
     private boolean isWithinDeliveryZone(Location destination, Location vendorLocation, Long deliveryZoneRadius) {
-        double distance = calculateDistance(vendorLocation, destination);
-        return distance <= deliveryZoneRadius;
+        return VendorCoverageIndex.isWithinZone(vendorLocation, deliveryZoneRadius, destination);
     }
 
 
@@ -121,15 +254,7 @@ public class DeliveryService {
      * @throws OrderNotFoundException when the order was not present in the repository
      */
     public void updateReadyTime(Long orderId, OffsetDateTime newReadyTime) throws OrderNotFoundException {
-        Delivery delivery = deliveryRepository.findDeliveryByOrder_OrderId(orderId);
-        if (delivery == null) {
-            throw new OrderNotFoundException("Order with ID: " + orderId + " not found.");
-        }
-
-        Time time = delivery.getTime() == null ? new Time() : delivery.getTime();
-        delivery.setTime(time);
-        time.setReadyTime(newReadyTime);
-        deliveryRepository.save(delivery);
+        updateTime(orderId, time -> time.setReadyTime(newReadyTime));
     }
 
     /**
@@ -158,18 +283,7 @@ public class DeliveryService {
      * @throws OrderNotFoundException when the order was not present in the repository
      */
     public void updatePickupTime(Long orderId, OffsetDateTime newPickUpTime) throws OrderNotFoundException {
-        Delivery delivery = deliveryRepository.findDeliveryByOrder_OrderId(orderId);
-        if (delivery == null) {
-            throw new OrderNotFoundException("Order with ID: " + orderId + " not found.");
-        }
-
-        Time time = delivery.getTime();
-        if (time == null) {
-            time = new Time();
-            delivery.setTime(time);
-        }
-        time.setPickUpTime(newPickUpTime);
-        deliveryRepository.save(delivery);
+        invalidateCourierStatsIfDelivered(updateTime(orderId, time -> time.setPickUpTime(newPickUpTime)));
     }
 
     /**
@@ -197,49 +311,110 @@ public class DeliveryService {
      * @throws OrderNotFoundException when the order was not present in the repository
      */
     public void updateDeliveredTime(Long orderId, OffsetDateTime newDeliveredTime) throws OrderNotFoundException {
-        Delivery delivery = deliveryRepository.findDeliveryByOrder_OrderId(orderId);
-        if (delivery == null) {
-            throw new OrderNotFoundException("Order with ID: " + orderId + " not found.");
-        }
+        invalidateCourierStatsIfDelivered(updateTime(orderId, time -> time.setDeliveredTime(newDeliveredTime)));
+    }
 
-        Time time = delivery.getTime();
-        if (time == null) {
-            time = new Time();
+    /**
+     * Changes the times of a delivery and updates the ETA model with the trip before and after the change.
+     * Changes to the same order are made one at a time, so that every change starts from the trip
+     * the previous one saved; otherwise two changes would both take away the same old trip from the model.
+     *
+     * @param orderId The id of the order corresponding to the Delivery
+     * @param update The change to the times of the delivery
+     * @return The changed delivery
+     * @throws OrderNotFoundException when the order was not present in the repository
+     */
+    private Delivery updateTime(Long orderId, Consumer<Time> update) throws OrderNotFoundException {
+        Delivery delivery;
+        synchronized (timeUpdateLocks[Math.floorMod(orderId.hashCode(), timeUpdateLocks.length)]) {
+            delivery = deliveryRepository.findDeliveryByOrder_OrderId(orderId);
+            if (delivery == null) {
+                throw new OrderNotFoundException("Order with ID: " + orderId + " not found.");
+            }
+
+            Time time = delivery.getTime() == null ? new Time() : delivery.getTime();
             delivery.setTime(time);
+            EtaModel.Trip before = etaModel.tripOf(delivery);
+            update.accept(time);
+            deliveryRepository.save(delivery);
+            etaModel.tripChanged(before, etaModel.tripOf(delivery));
+        }
+        etaCache.invalidate(orderId);
+        return delivery;
+    }
+
+    /**
+     * Discards the statistics of the courier of an already delivered order whose times changed,
+     * so that they are rebuilt from the history the next time they are read.
+     *
+     * @param delivery The delivery that changed.
+     */
+    private void invalidateCourierStatsIfDelivered(Delivery delivery) {
+        if (delivery.getCourierId() != null && delivery.getOrder() != null
+                && delivery.getOrder().getStatus() == Order.StatusEnum.DELIVERED) {
+            courierStatsService.invalidate(delivery.getCourierId());
         }
-        time.setDeliveredTime(newDeliveredTime);
-        deliveryRepository.save(delivery);
     }
 
     /**
-     * Retrieves the ETA (Estimated Time of Arrival).
+     * Retrieves the ETA (Estimated Time of Arrival), estimated from the statistics of earlier deliveries.
+     * Estimates are cached until the order changes or the cached estimate expires.
      *
      * @param orderId The id of the order corresponding to the Delivery
      * @return ETA
      * @throws OrderNotFoundException when the order was not present in the repository
      */
     public OffsetDateTime getEta(Long orderId) throws OrderNotFoundException {
-        Delivery delivery = deliveryRepository.findDeliveryByOrder_OrderId(orderId);
-        if (delivery == null) {
-            throw new OrderNotFoundException("Order with ID: " + orderId + " not found.");
+        Optional<OffsetDateTime> cached = etaCache.get(orderId);
+        if (cached.isPresent()) {
+            return cached.get();
         }
+        try (EtaCache.Estimate estimate = etaCache.startEstimate(orderId)) {
+            Delivery delivery = deliveryRepository.findDeliveryByOrder_OrderId(orderId);
+            if (delivery == null) {
+                throw new OrderNotFoundException("Order with ID: " + orderId + " not found.");
+            }
+            return estimateArrival(delivery, estimate);
+        }
+    }
 
-        OffsetDateTime eta = calculateEstimatedTime(delivery.getOrder().getVendor().getAddress(),
-                delivery.getOrder().getDestination());
+    private OffsetDateTime estimateArrival(Delivery delivery, EtaCache.Estimate estimate) {
+        OffsetDateTime eta = etaModel.estimateArrival(delivery);
+        estimate.put(eta);
         return eta;
     }
 
     /**
-     * Computes ETA.
+     * Retrieves everything there is to know about the delivery of an order, loading the delivery only once.
      *
-     * @param vendorLocation Location of the vendor
-     * @param destination Destination of delivery
-     * @return ETA
+     * @param orderId The id of the order corresponding to the Delivery
+     * @return The status, times, ETA, current location, courier and issue of the delivery
+     * @throws OrderNotFoundException when the order was not present in the repository
      */
-    private OffsetDateTime calculateEstimatedTime(Location vendorLocation, Location destination) {
-        // TODO: Implement specific computation of the estimated time of arrival.
-        long estimatedTravelDurationInMinutes = 30;
-        return OffsetDateTime.now().plusMinutes(estimatedTravelDurationInMinutes);
+    public DeliverySummary getSummary(Long orderId) throws OrderNotFoundException {
+        Delivery delivery;
+        OffsetDateTime eta;
+        try (EtaCache.Estimate estimate = etaCache.startEstimate(orderId)) {
+            delivery = deliveryRepository.findDeliveryByOrder_OrderId(orderId);
+            if (delivery == null) {
+                throw new OrderNotFoundException("Order with ID: " + orderId + " not found.");
+            }
+            eta = etaCache.get(orderId).orElseGet(() -> estimateArrival(delivery, estimate));
+        }
+
+        Order order = delivery.getOrder();
+        Time time = delivery.getTime() == null ? new Time() : delivery.getTime();
+        DeliverySummary summary = new DeliverySummary();
+        summary.setOrderId(order.getOrderId());
+        summary.setStatus(order.getStatus() == null ? null : order.getStatus().toString());
+        summary.setReadyTime(time.getReadyTime());
+        summary.setPickUpTime(time.getPickUpTime());
+        summary.setDeliveredTime(time.getDeliveredTime());
+        summary.setEta(eta);
+        summary.setLocation(liveLocationOf(delivery));
+        summary.setCourierId(delivery.getCourierId());
+        summary.setIssue(delivery.getIssue());
+        return summary;
     }
 
     /**
@@ -257,6 +432,7 @@ public class DeliveryService {
         }
         delivery.setIssue(issue);
         deliveryRepository.save(delivery);
+        etaCache.invalidate(orderId);
     }
 
     /**
@@ -293,16 +469,26 @@ public class DeliveryService {
     }
 
     /**
-     * Calculates the distance between 2 locations.
+     * Calculates the distance over the surface of the earth between 2 locations.
      *
      * @param start The start location(vendor).
      * @param end The end location(destination).
-     * @return The distance between the 2 points.
+     * @return The distance between the 2 points, in meters.
      */
     public double calculateDistance(Location start, Location end) {
-        double latDifference = end.getLatitude() - start.getLatitude();
-        double lonDifference = end.getLongitude() - start.getLongitude();
-        return Math.sqrt(latDifference * latDifference + lonDifference * lonDifference);
+        return GeoDistance.distance(start.getLatitude(), start.getLongitude(), end.getLatitude(), end.getLongitude());
+    }
+
+    /**
+     * Calculates the distances from one location to many others at once, without creating any objects.
+     *
+     * @param start The location the distances are measured from.
+     * @param latitudes The latitudes of the other locations.
+     * @param longitudes The longitudes of the other locations.
+     * @param distances The array the distances, in meters, are written to.
+     */
+    public void calculateDistances(Location start, double[] latitudes, double[] longitudes, double[] distances) {
+        GeoDistance.distances(start.getLatitude(), start.getLongitude(), latitudes, longitudes, distances);
     }
 
     private static final double COURIER_SPEED = 1; // meter per second
@@ -350,23 +536,36 @@ public class DeliveryService {
 
     /**
      * Calculates current location.
+     * Once the order is picked up, this is the newest location its courier reported,
+     * and only if there is no recent one, the location is estimated from the time since the pickup.
      *
-     * @param deliveryId The unique ID of the delivery.
-     * @return The current live location of the delivery.
-     * @throws OrderNotFoundException OrderNotFoundException If the delivery with the specified ID is not found.
+     * @param orderId The unique ID of the order.
+     * @return The current live location of the delivery of the order.
+     * @throws OrderNotFoundException OrderNotFoundException If the order has no delivery.
      */
-    public Location calculateLiveLocation(Long deliveryId) throws OrderNotFoundException {
-        Delivery delivery = deliveryRepository.findDeliveryByOrder_OrderId(deliveryId);
+    public Location calculateLiveLocation(Long orderId) throws OrderNotFoundException {
+        Delivery delivery = deliveryRepository.findDeliveryByOrder_OrderId(orderId);
         if (delivery == null) {
-            throw new OrderNotFoundException("Delivery with ID: " + deliveryId + " not found.");
+            throw new OrderNotFoundException("Delivery of order with ID: " + orderId + " not found.");
         }
+        return liveLocationOf(delivery);
+    }
 
+    private Location liveLocationOf(Delivery delivery) {
         Order order = delivery.getOrder();
         Location vendorLocation = order.getVendor().getAddress();
         Location destination = order.getDestination();
-        OffsetDateTime pickupTime = delivery.getTime().getPickUpTime();
+        OffsetDateTime pickupTime = delivery.getTime() == null ? null : delivery.getTime().getPickUpTime();
         OffsetDateTime currentTime = OffsetDateTime.now();
 
+        if (delivery.getCourierId() != null && pickupTime != null && !pickupTime.isAfter(currentTime)
+                && order.getStatus() != Order.StatusEnum.DELIVERED) {
+            Optional<Location> reported = courierLocationTracker.currentLocation(delivery.getCourierId(),
+                    pickupTime.toInstant().toEpochMilli());
+            if (reported.isPresent()) {
+                return reported.get();
+            }
+        }
         return estimatePosition(vendorLocation, destination, pickupTime, currentTime);
     }
 
@@ -2,33 +2,50 @@ package nl.tudelft.sem.template.example.service;
 
 import static nl.tudelft.sem.template.model.Order.StatusEnum;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import nl.tudelft.sem.template.example.domain.OrderStatusOutboxEvent;
 import nl.tudelft.sem.template.example.exception.IllegalOrderStatusException;
-import nl.tudelft.sem.template.example.exception.MicroserviceCommunicationException;
 import nl.tudelft.sem.template.example.exception.OrderNotFoundException;
-import nl.tudelft.sem.template.example.external.OrdersMicroservice;
 import nl.tudelft.sem.template.example.repository.OrderRepository;
+import nl.tudelft.sem.template.example.repository.OrderStatusOutboxRepository;
+import nl.tudelft.sem.template.example.statemachine.OrderStateMachine;
 import nl.tudelft.sem.template.model.Order;
+import nl.tudelft.sem.template.model.OrderStatusUpdate;
+import nl.tudelft.sem.template.model.OrderStatusUpdateResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class OrderService {
 
     OrderRepository orderRepository;
 
-    OrdersMicroservice ordersMicroservice;
+    OrderStatusOutboxRepository outboxRepository;
+
+    OrderStateMachine orderStateMachine;
 
     /**
      * Simple constructor handling dependency injection.
      *
-     * @param ordersMicroservice microservice responsible for handling orders
      * @param orderRepository JPA repository holding the orders
+     * @param outboxRepository JPA repository holding the status changes still to be sent to the orders microservice
+     * @param orderStateMachine the flow of the statuses, publishing every status change to the caches and statistics
      */
     @Autowired
-    public OrderService(OrderRepository orderRepository, OrdersMicroservice ordersMicroservice) {
+    public OrderService(OrderRepository orderRepository, OrderStatusOutboxRepository outboxRepository,
+                        OrderStateMachine orderStateMachine) {
         this.orderRepository = orderRepository;
-        this.ordersMicroservice = ordersMicroservice;
+        this.outboxRepository = outboxRepository;
+        this.orderStateMachine = orderStateMachine;
     }
 
     /**
@@ -50,6 +67,9 @@ public class OrderService {
      * Checks whether the new status follows a desired flow, respecting
      * certain rules, and if so changes and updates the order in the repository.
      * If not, it throws an exception.
+     * The change is published to the caches and statistics depending on the status by the OrderStateMachine.
+     * The change is recorded in the outbox in the same transaction, and is sent
+     * to the orders microservice in the background by the OrderStatusOutboxDispatcher.
      *
      * @param orderId Unique identifier of the order (required)
      * @param authorizationId Unique identifier of the user making the request.
@@ -58,75 +78,72 @@ public class OrderService {
      *     or status string is not available
      * @throws OrderNotFoundException if order was not found
      */
+    @Transactional(rollbackFor = {IllegalOrderStatusException.class, OrderNotFoundException.class})
     public void setOrderStatus(Integer orderId, Integer authorizationId, String orderStatusString)
-            throws IllegalOrderStatusException, OrderNotFoundException, MicroserviceCommunicationException {
+            throws IllegalOrderStatusException, OrderNotFoundException {
         Optional<Order> orderOptional = orderRepository.findById(Long.valueOf(orderId));
         if (orderOptional.isEmpty()) {
             throw new OrderNotFoundException("Order id not found");
         }
-        if (!ordersMicroservice.putOrderStatus((long) orderId, (long) authorizationId, orderStatusString)) {
-            throw new MicroserviceCommunicationException("Order status could not be updated");
-        }
         Order order = orderOptional.get();
-        StatusEnum newStatus = StatusEnum.fromValue(orderStatusString);
-        assertStatusFlowIsCorrect(order.getStatus(), newStatus);
-        order.setStatus(newStatus);
+        orderStateMachine.transition(order, StatusEnum.fromValue(orderStatusString), authorizationId);
         orderRepository.save(order);
+        outboxRepository.save(new OrderStatusOutboxEvent(orderId, authorizationId, orderStatusString, Instant.now()));
     }
 
     /**
-     * Checks, given the current status of the order, if the order can
-     * or can't reach the second status, following a logical set of rules.
-     * A status can go from:
-     * Pending -> Accepted
-     * Pending -> Rejected
-     * Accepted -> Preparing -> Given to courier -> On transit -> Delivered
+     * Changes the status of many orders at once. All the orders are loaded with a single query,
+     * every change is checked against the flow of the statuses in memory, in the order of the updates,
+     * and the orders and their outbox events are then saved together in one transaction.
+     * The changes that are not allowed are skipped and reported, without affecting the others.
      *
-     * @param oldStatus Current status of an order
-     * @param newStatus New status of an order
-     * @throws IllegalOrderStatusException if status doesn't respect the flow
+     * @param authorizationId Unique identifier of the user making the request.
+     * @param updates The orders with their new status.
+     * @param updatableOrderIds The ids of the orders the user is allowed to update.
+     * @return The result of every update, in the order of the updates.
      */
-    private void assertStatusFlowIsCorrect(StatusEnum oldStatus, StatusEnum newStatus)
-            throws IllegalOrderStatusException {
-        switch (oldStatus) {
-            case PENDING -> {
-                if (newStatus != StatusEnum.ACCEPTED && newStatus != StatusEnum.REJECTED) {
-                    throw new IllegalOrderStatusException("Error! Order status cant go from PENDING to "
-                            + newStatus.toString().toUpperCase() + ".");
-                }
-            }
-            case REJECTED -> {
-                throw new IllegalOrderStatusException("Error! Order status can't change after being REJECTED");
-            }
-            case ACCEPTED -> {
-                if (newStatus != StatusEnum.PREPARING) {
-                    throw new IllegalOrderStatusException("Error! Order status can't change from ACCEPTED to "
-                            + newStatus.toString().toUpperCase() + ".");
-                }
-            }
-            case PREPARING -> {
-                if (newStatus != StatusEnum.GIVEN_TO_COURIER) {
-                    throw new IllegalOrderStatusException("Error! Order status can't change from PREPARING to "
-                            + newStatus.toString().toUpperCase() + ".");
-                }
-            }
-            case GIVEN_TO_COURIER -> {
-                if (newStatus != StatusEnum.ON_TRANSIT) {
-                    throw new IllegalOrderStatusException("Error! Order status can't change from GIVEN_TO_COURIER to "
-                            + newStatus.toString().toUpperCase() + ".");
-                }
-            }
-            case ON_TRANSIT -> {
-                if (newStatus != StatusEnum.DELIVERED) {
-                    throw new IllegalOrderStatusException("Error! Order status can't change from ON_TRANSIT to "
-                            + newStatus.toString().toUpperCase() + ".");
+    @Transactional
+    public List<OrderStatusUpdateResult> setOrderStatuses(Integer authorizationId, List<OrderStatusUpdate> updates,
+                                                          Set<Long> updatableOrderIds) {
+        Map<Long, Order> orders = new HashMap<>();
+        orderRepository.findAllById(updates.stream().map(OrderStatusUpdate::getOrderId)
+                .filter(updatableOrderIds::contains).collect(Collectors.toSet()))
+                .forEach(order -> orders.put(order.getOrderId(), order));
+
+        Instant now = Instant.now();
+        Map<Long, Order> changedOrders = new LinkedHashMap<>();
+        List<OrderStatusOutboxEvent> events = new ArrayList<>();
+        List<OrderStatusUpdateResult> results = new ArrayList<>(updates.size());
+        for (OrderStatusUpdate update : updates) {
+            OrderStatusUpdateResult result = new OrderStatusUpdateResult().orderId(update.getOrderId());
+            results.add(result);
+            Order order = orders.get(update.getOrderId());
+            if (!updatableOrderIds.contains(update.getOrderId())) {
+                result.setResult(OrderStatusUpdateResult.ResultEnum.FORBIDDEN);
+            } else if (order == null) {
+                result.setResult(OrderStatusUpdateResult.ResultEnum.NOT_FOUND);
+            } else {
+                try {
+                    orderStateMachine.transition(order, parseStatus(update.getStatus()), authorizationId);
+                    changedOrders.put(order.getOrderId(), order);
+                    events.add(new OrderStatusOutboxEvent(order.getOrderId(), authorizationId, update.getStatus(), now));
+                    result.setResult(OrderStatusUpdateResult.ResultEnum.UPDATED);
+                } catch (IllegalOrderStatusException e) {
+                    result.setResult(OrderStatusUpdateResult.ResultEnum.ILLEGAL_STATUS);
+                    result.setMessage(e.getMessage());
                 }
             }
-            case DELIVERED -> {
-                throw new IllegalOrderStatusException("Error! Order status can't change from DELIVERED to "
-                        + newStatus.toString().toUpperCase() + ".");
-            }
-            default -> { }
+        }
+        orderRepository.saveAll(changedOrders.values());
+        outboxRepository.saveAll(events);
+        return results;
+    }
+
+    private static StatusEnum parseStatus(String orderStatusString) throws IllegalOrderStatusException {
+        try {
+            return StatusEnum.fromValue(orderStatusString);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalOrderStatusException("Error! " + orderStatusString + " is not an order status.");
         }
     }
 }
@@ -3,6 +3,9 @@ package nl.tudelft.sem.template.example.service;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import nl.tudelft.sem.template.example.cache.AvailableOrderPool;
+import nl.tudelft.sem.template.example.cache.CourierVendorIndex;
+import nl.tudelft.sem.template.example.cache.VendorCoverageIndex;
 import nl.tudelft.sem.template.example.configuration.ConfigurationProperties;
 import nl.tudelft.sem.template.example.exception.CourierNotFoundException;
 import nl.tudelft.sem.template.example.exception.MicroserviceCommunicationException;
@@ -24,20 +27,31 @@ public class VendorService {
 
     UsersMicroservice usersMicroservice;
     CourierService courierService;
+    CourierVendorIndex courierVendorIndex;
+    AvailableOrderPool availableOrderPool;
+    VendorCoverageIndex vendorCoverageIndex;
 
     /**
      * Constructor for the Service allowing dependency injection.
      *
      * @param vendorRepository The JPA repository holding the Vendor entities.
      * @param configurationProperties The configurations holding the delivery zone.
+     * @param courierVendorIndex The index from couriers to their vendors, kept in sync on assignment.
+     * @param availableOrderPool The pool of orders waiting for a courier, told when a vendor gets its own couriers.
+     * @param vendorCoverageIndex The index over the delivery zones, kept in sync when a zone is created or changed.
      */
     @Autowired
     public VendorService(VendorRepository vendorRepository, ConfigurationProperties configurationProperties,
-                  UsersMicroservice usersMicroservice, CourierService courierService) {
+                  UsersMicroservice usersMicroservice, CourierService courierService,
+                  CourierVendorIndex courierVendorIndex, AvailableOrderPool availableOrderPool,
+                  VendorCoverageIndex vendorCoverageIndex) {
         this.vendorRepository = vendorRepository;
         this.configurationProperties = configurationProperties;
         this.usersMicroservice = usersMicroservice;
         this.courierService = courierService;
+        this.courierVendorIndex = courierVendorIndex;
+        this.availableOrderPool = availableOrderPool;
+        this.vendorCoverageIndex = vendorCoverageIndex;
     }
 
     /**
@@ -74,6 +88,7 @@ public class VendorService {
         if (vendorAddress.isPresent()) {
             newVendor.setAddress(vendorAddress.get());
             vendorRepository.save(newVendor);
+            vendorCoverageIndex.vendorChanged(newVendor);
         } else {
             throw new MicroserviceCommunicationException("The vendor address could not be retrieved");
         }
@@ -112,6 +127,7 @@ public class VendorService {
         }
         vendor.setDeliveryZone(deliveryZone);
         vendorRepository.save(vendor);
+        vendorCoverageIndex.vendorChanged(vendor);
         return vendor;
     }
 
@@ -136,6 +152,8 @@ public class VendorService {
         currentCouriers.add(courierId);
         vendor.setCouriers(currentCouriers);
         vendorRepository.save(vendor);
+        courierVendorIndex.courierAssigned(courierId, vendorId);
+        availableOrderPool.vendorHasCouriers(vendorId);
         return vendor;
 
     }
@@ -155,6 +173,16 @@ public class VendorService {
         return vendor.getCouriers();
     }
 
+    /**
+     * Finds the vendors that deliver to a location.
+     *
+     * @param location The location to deliver to.
+     * @return The ids of the vendors whose delivery zone contains the location, closest vendor first.
+     */
+    public List<Long> getVendorsDeliveringTo(Location location) {
+        return vendorCoverageIndex.vendorsCovering(location.getLatitude(), location.getLongitude());
+    }
+
     /**
      * Method that retrieves a Vendor's address.
      *
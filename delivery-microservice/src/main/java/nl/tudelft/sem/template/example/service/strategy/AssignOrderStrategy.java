@@ -3,9 +3,21 @@ package nl.tudelft.sem.template.example.service.strategy;
 import java.util.List;
 import nl.tudelft.sem.template.example.exception.DeliveryNotFoundException;
 import nl.tudelft.sem.template.example.exception.NoAvailableOrdersException;
+import nl.tudelft.sem.template.model.Location;
 
+/**
+ * A way of assigning an order to a courier.
+ * Implementations are shared by all the requests, so they must not keep any state between calls.
+ */
 public interface AssignOrderStrategy {
 
+    /**
+     * Retrieves the assignment mode this strategy implements.
+     *
+     * @return The assignment mode.
+     */
+    AssignmentMode getMode();
+
     /**
      * Assigns order to courier based on the selected strategy.
      *
@@ -17,4 +29,20 @@ public interface AssignOrderStrategy {
      */
     void assignOrder(Long courierId, Long orderId, List<Long> availableOrders) throws DeliveryNotFoundException,
             NoAvailableOrdersException;
+
+    /**
+     * Assigns order to courier based on the selected strategy, knowing where the courier currently is.
+     * Strategies that do not use the location of the courier ignore it.
+     *
+     * @param courierId ID of courier
+     * @param orderId ID of order
+     * @param availableOrders List of available orders for the courier
+     * @param courierLocation Current location of the courier
+     * @throws DeliveryNotFoundException No delivery with id `orderId`
+     * @throws NoAvailableOrdersException No available orders for courier with id `courierId`
+     */
+    default void assignOrder(Long courierId, Long orderId, List<Long> availableOrders, Location courierLocation)
+            throws DeliveryNotFoundException, NoAvailableOrdersException {
+        assignOrder(courierId, orderId, availableOrders);
+    }
 }
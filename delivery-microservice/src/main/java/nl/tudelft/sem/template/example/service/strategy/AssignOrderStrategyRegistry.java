@@ -0,0 +1,52 @@
+package nl.tudelft.sem.template.example.service.strategy;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Looks up the strategy bean implementing an assignment mode.
+ * The strategies are stateless and the registry cannot be changed after it is created,
+ * so any number of assignments can pick and run their strategy at the same time without locking.
+ */
+@Component
+public class AssignOrderStrategyRegistry {
+    private final Map<AssignmentMode, AssignOrderStrategy> strategies;
+
+    /**
+     * Creates the registry from the available strategies.
+     *
+     * @param strategies The strategies, exactly one for every assignment mode.
+     * @throws IllegalStateException if a mode has no strategy or more than one.
+     */
+    @Autowired
+    public AssignOrderStrategyRegistry(List<AssignOrderStrategy> strategies) {
+        Map<AssignmentMode, AssignOrderStrategy> byMode = new EnumMap<>(AssignmentMode.class);
+        for (AssignOrderStrategy strategy : strategies) {
+            AssignOrderStrategy previous = byMode.put(strategy.getMode(), strategy);
+            if (previous != null) {
+                throw new IllegalStateException("Both " + previous.getClass().getSimpleName() + " and "
+                        + strategy.getClass().getSimpleName() + " implement assignment mode " + strategy.getMode());
+            }
+        }
+        for (AssignmentMode mode : AssignmentMode.values()) {
+            if (!byMode.containsKey(mode)) {
+                throw new IllegalStateException("No strategy implements assignment mode " + mode);
+            }
+        }
+        this.strategies = Collections.unmodifiableMap(byMode);
+    }
+
+    /**
+     * Retrieves the strategy implementing an assignment mode.
+     *
+     * @param mode The assignment mode.
+     * @return The strategy, shared by all the callers.
+     */
+    public AssignOrderStrategy get(AssignmentMode mode) {
+        return strategies.get(mode);
+    }
+}
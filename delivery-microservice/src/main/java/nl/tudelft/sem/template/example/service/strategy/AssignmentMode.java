@@ -0,0 +1,26 @@
+package nl.tudelft.sem.template.example.service.strategy;
+
+/**
+ * The ways in which an order can be assigned to a courier, each implemented by one {@link AssignOrderStrategy}.
+ */
+public enum AssignmentMode {
+    /**
+     * The courier asked for a specific order.
+     */
+    SPECIFIC,
+
+    /**
+     * The courier gets any of the orders available to them.
+     */
+    RANDOM,
+
+    /**
+     * The courier gets the available order whose vendor is closest to them.
+     */
+    NEAREST,
+
+    /**
+     * The courier is queued and gets an order in the next round of the batch dispatcher.
+     */
+    BATCH
+}
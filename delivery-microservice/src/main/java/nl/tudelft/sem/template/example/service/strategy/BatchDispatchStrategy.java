@@ -0,0 +1,48 @@
+package nl.tudelft.sem.template.example.service.strategy;
+
+import java.util.List;
+import nl.tudelft.sem.template.example.dispatch.BatchDispatcher;
+import nl.tudelft.sem.template.model.Location;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class BatchDispatchStrategy implements AssignOrderStrategy {
+    private final BatchDispatcher batchDispatcher;
+
+    @Autowired
+    public BatchDispatchStrategy(BatchDispatcher batchDispatcher) {
+        this.batchDispatcher = batchDispatcher;
+    }
+
+    @Override
+    public AssignmentMode getMode() {
+        return AssignmentMode.BATCH;
+    }
+
+    /**
+     * Queues the courier for the next round of the batch dispatcher, which assigns the order later on.
+     *
+     * @param courierId ID of courier
+     * @param orderId ID of order
+     * @param availableOrders List of available orders for the courier
+     */
+    @Override
+    public void assignOrder(Long courierId, Long orderId, List<Long> availableOrders) {
+        batchDispatcher.courierIdle(courierId, null);
+    }
+
+    /**
+     * Queues the courier for the next round of the batch dispatcher, which assigns the order later on,
+     * taking into account how far the courier is from the vendors.
+     *
+     * @param courierId ID of courier
+     * @param orderId ID of order
+     * @param availableOrders List of available orders for the courier
+     * @param courierLocation Current location of the courier
+     */
+    @Override
+    public void assignOrder(Long courierId, Long orderId, List<Long> availableOrders, Location courierLocation) {
+        batchDispatcher.courierIdle(courierId, courierLocation);
+    }
+}
@@ -0,0 +1,73 @@
+package nl.tudelft.sem.template.example.service.strategy;
+
+import java.util.List;
+import java.util.function.LongPredicate;
+import nl.tudelft.sem.template.example.cache.AvailableOrderPool;
+import nl.tudelft.sem.template.example.exception.NoAvailableOrdersException;
+import nl.tudelft.sem.template.example.repository.DeliveryRepository;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class NearestOrderStrategy implements AssignOrderStrategy {
+    private final DeliveryRepository deliveryRepository;
+
+    private final AvailableOrderPool availableOrderPool;
+
+    @Autowired
+    public NearestOrderStrategy(DeliveryRepository deliveryRepository, AvailableOrderPool availableOrderPool) {
+        this.deliveryRepository = deliveryRepository;
+        this.availableOrderPool = availableOrderPool;
+    }
+
+    @Override
+    public AssignmentMode getMode() {
+        return AssignmentMode.NEAREST;
+    }
+
+    /**
+     * Assigns the first available order the courier manages to claim, since the location of the courier is unknown.
+     *
+     * @param courierId ID of courier
+     * @param orderId ID of order
+     * @param availableOrders List of available orders for the courier
+     * @throws NoAvailableOrdersException No available orders for courier with id `courierId`
+     */
+    @Override
+    public void assignOrder(Long courierId, Long orderId, List<Long> availableOrders)
+            throws NoAvailableOrdersException {
+        LongPredicate claim = claimFor(courierId);
+        for (Long candidate : availableOrders) {
+            if (claim.test(candidate)) {
+                return;
+            }
+        }
+        throw new NoAvailableOrdersException("No orders available for courier with id: " + courierId);
+    }
+
+    /**
+     * Assigns the order whose vendor is closest to the courier, looked up in the spatial index of the available orders.
+     * If the index has no order the courier can claim, the available orders are tried in the given order.
+     *
+     * @param courierId ID of courier
+     * @param orderId ID of order
+     * @param availableOrders List of available orders for the courier
+     * @param courierLocation Current location of the courier
+     * @throws NoAvailableOrdersException No available orders for courier with id `courierId`
+     */
+    @Override
+    public void assignOrder(Long courierId, Long orderId, List<Long> availableOrders, Location courierLocation)
+            throws NoAvailableOrdersException {
+        if (courierLocation != null && courierLocation.getLatitude() != null && courierLocation.getLongitude() != null
+                && availableOrderPool.claimNearest(courierLocation, claimFor(courierId)).isPresent()) {
+            return;
+        }
+        assignOrder(courierId, orderId, availableOrders);
+    }
+
+    private LongPredicate claimFor(Long courierId) {
+        return candidate -> deliveryRepository.claimOrder(courierId, candidate, Order.StatusEnum.ACCEPTED) == 1;
+    }
+}
@@ -2,11 +2,10 @@ package nl.tudelft.sem.template.example.service.strategy;
 
 
 import java.util.List;
-import java.util.Optional;
-import nl.tudelft.sem.template.example.exception.DeliveryNotFoundException;
+import nl.tudelft.sem.template.example.cache.AvailableOrderPool;
 import nl.tudelft.sem.template.example.exception.NoAvailableOrdersException;
 import nl.tudelft.sem.template.example.repository.DeliveryRepository;
-import nl.tudelft.sem.template.model.Delivery;
+import nl.tudelft.sem.template.model.Order;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -16,38 +15,39 @@ public class RandomOrderStrategy implements AssignOrderStrategy {
 
     private final DeliveryRepository deliveryRepository;
 
+    private final AvailableOrderPool availableOrderPool;
+
     @Autowired
-    public RandomOrderStrategy(DeliveryRepository deliveryRepository) {
+    public RandomOrderStrategy(DeliveryRepository deliveryRepository, AvailableOrderPool availableOrderPool) {
         this.deliveryRepository = deliveryRepository;
+        this.availableOrderPool = availableOrderPool;
+    }
+
+    @Override
+    public AssignmentMode getMode() {
+        return AssignmentMode.RANDOM;
     }
 
     /**
-     * Assigns a random order to the courier and saves it in the repository.
+     * Assigns the first available order the courier manages to claim.
+     * Orders that were claimed by another courier in the meantime are skipped.
+     * The claimed order is removed from the available order pool, so that it is not offered again.
      *
      * @param courierId ID of courier
      * @param orderId ID of order
      * @param availableOrders List of available orders for the courier
-     * @throws DeliveryNotFoundException No delivery with id `orderId`
      * @throws NoAvailableOrdersException No available orders for courier with id `courierId`
      */
     @Override
-    public void assignOrder(Long courierId, Long orderId, List<Long> availableOrders) throws DeliveryNotFoundException,
-            NoAvailableOrdersException {
-        if (availableOrders.isEmpty()) {
-            throw new NoAvailableOrdersException("No orders available for courier with id: " + courierId);
+    public void assignOrder(Long courierId, Long orderId, List<Long> availableOrders)
+            throws NoAvailableOrdersException {
+        for (Long candidate : availableOrders) {
+            if (deliveryRepository.claimOrder(courierId, candidate, Order.StatusEnum.ACCEPTED) == 1) {
+                availableOrderPool.orderUnavailable(candidate);
+                return;
+            }
         }
-
-        orderId = availableOrders.get(0);
-        Delivery deliveryToUpdate = deliveryRepository.findDeliveryByOrder_OrderId(orderId);
-        Optional<Delivery> deliveryOptional = deliveryRepository.findById(deliveryToUpdate.getId());
-
-        if (deliveryOptional.isEmpty()) {
-            throw new DeliveryNotFoundException("Delivery id not found");
-        }
-
-        Delivery delivery = deliveryOptional.get();
-        delivery.setCourierId(courierId);
-        deliveryRepository.save(delivery);
+        throw new NoAvailableOrdersException("No orders available for courier with id: " + courierId);
     }
 
 }
@@ -2,8 +2,9 @@ package nl.tudelft.sem.template.example.service.strategy;
 
 import java.util.List;
 import nl.tudelft.sem.template.example.exception.DeliveryNotFoundException;
+import nl.tudelft.sem.template.example.exception.NoAvailableOrdersException;
 import nl.tudelft.sem.template.example.repository.DeliveryRepository;
-import nl.tudelft.sem.template.model.Delivery;
+import nl.tudelft.sem.template.model.Order;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -16,23 +17,30 @@ public class SpecificOrderStrategy implements AssignOrderStrategy {
         this.deliveryRepository = deliveryRepository;
     }
 
+    @Override
+    public AssignmentMode getMode() {
+        return AssignmentMode.SPECIFIC;
+    }
+
     /**
-     * Assigns specific order to courier and saves to repository.
+     * Claims a specific order for the courier.
      *
      * @param courierId ID of courier
      * @param orderId ID of order
-     * @param availableOrders List of available orders for the courier
+     * @param availableOrders Not used, the claim only succeeds if the order is still available
      * @throws DeliveryNotFoundException No delivery with id `orderId`
+     * @throws NoAvailableOrdersException The order was already taken or is not accepted yet
      */
     @Override
-    public void assignOrder(Long courierId, Long orderId, List<Long> availableOrders) throws DeliveryNotFoundException {
-        Delivery delivery = deliveryRepository.findDeliveryByOrder_OrderId(orderId);
-
-        if (delivery == null) {
+    public void assignOrder(Long courierId, Long orderId, List<Long> availableOrders) throws DeliveryNotFoundException,
+            NoAvailableOrdersException {
+        if (deliveryRepository.claimOrder(courierId, orderId, Order.StatusEnum.ACCEPTED) == 1) {
+            return;
+        }
+        if (!deliveryRepository.existsByOrder_OrderId(orderId)) {
             throw new DeliveryNotFoundException("Delivery with order id " + orderId + " was not found.");
         }
-
-        delivery.setCourierId(courierId);
-        deliveryRepository.save(delivery);
+        throw new NoAvailableOrdersException("Order with id " + orderId + " is not available for courier with id: "
+                + courierId);
     }
 }
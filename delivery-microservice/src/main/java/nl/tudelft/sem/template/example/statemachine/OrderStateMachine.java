@@ -0,0 +1,122 @@
+package nl.tudelft.sem.template.example.statemachine;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import nl.tudelft.sem.template.example.exception.IllegalOrderStatusException;
+import nl.tudelft.sem.template.model.Order;
+import nl.tudelft.sem.template.model.Order.StatusEnum;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * The flow of the statuses of an order. A status can go from:
+ * Pending -> Accepted
+ * Pending -> Rejected
+ * Accepted -> Preparing -> Given to courier -> On transit -> Delivered
+ *
+ * <p>The allowed transitions and the messages of the rejected ones are computed once, so checking a transition
+ * is a lookup in an enum set. Every transition that is made is published as an {@link OrderStatusChangedEvent}.
+ */
+@Component
+public class OrderStateMachine {
+    private static final Map<StatusEnum, Set<StatusEnum>> TRANSITIONS = transitions();
+
+    private static final Map<StatusEnum, Map<StatusEnum, String>> REJECTIONS = rejections();
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Constructor of the state machine.
+     *
+     * @param eventPublisher The publisher the transitions are published with.
+     */
+    @Autowired
+    public OrderStateMachine(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    private static Map<StatusEnum, Set<StatusEnum>> transitions() {
+        Map<StatusEnum, Set<StatusEnum>> transitions = new EnumMap<>(StatusEnum.class);
+        for (StatusEnum status : StatusEnum.values()) {
+            transitions.put(status, EnumSet.noneOf(StatusEnum.class));
+        }
+        transitions.put(StatusEnum.PENDING, EnumSet.of(StatusEnum.ACCEPTED, StatusEnum.REJECTED));
+        transitions.put(StatusEnum.ACCEPTED, EnumSet.of(StatusEnum.PREPARING));
+        transitions.put(StatusEnum.PREPARING, EnumSet.of(StatusEnum.GIVEN_TO_COURIER));
+        transitions.put(StatusEnum.GIVEN_TO_COURIER, EnumSet.of(StatusEnum.ON_TRANSIT));
+        transitions.put(StatusEnum.ON_TRANSIT, EnumSet.of(StatusEnum.DELIVERED));
+        return transitions;
+    }
+
+    private static Map<StatusEnum, Map<StatusEnum, String>> rejections() {
+        Map<StatusEnum, Map<StatusEnum, String>> rejections = new EnumMap<>(StatusEnum.class);
+        for (StatusEnum oldStatus : StatusEnum.values()) {
+            Map<StatusEnum, String> messages = new EnumMap<>(StatusEnum.class);
+            for (StatusEnum newStatus : StatusEnum.values()) {
+                messages.put(newStatus, rejection(oldStatus, newStatus));
+            }
+            rejections.put(oldStatus, messages);
+        }
+        return rejections;
+    }
+
+    private static String rejection(StatusEnum oldStatus, StatusEnum newStatus) {
+        String to = newStatus.toString().toUpperCase();
+        switch (oldStatus) {
+            case PENDING -> {
+                return "Error! Order status cant go from PENDING to " + to + ".";
+            }
+            case REJECTED -> {
+                return "Error! Order status can't change after being REJECTED";
+            }
+            default -> {
+                return "Error! Order status can't change from " + oldStatus.toString().toUpperCase() + " to " + to + ".";
+            }
+        }
+    }
+
+    /**
+     * Checks whether an order can go from one status to another.
+     *
+     * @param oldStatus Current status of an order
+     * @param newStatus New status of an order
+     * @return {@code true} if the transition follows the flow; otherwise, {@code false}.
+     */
+    public boolean canTransition(StatusEnum oldStatus, StatusEnum newStatus) {
+        return TRANSITIONS.get(oldStatus).contains(newStatus);
+    }
+
+    /**
+     * Checks, given the current status of the order, if the order can
+     * or can't reach the second status.
+     *
+     * @param oldStatus Current status of an order
+     * @param newStatus New status of an order
+     * @throws IllegalOrderStatusException if status doesn't respect the flow
+     */
+    public void assertTransition(StatusEnum oldStatus, StatusEnum newStatus) throws IllegalOrderStatusException {
+        if (!canTransition(oldStatus, newStatus)) {
+            throw new IllegalOrderStatusException(REJECTIONS.get(oldStatus).get(newStatus));
+        }
+    }
+
+    /**
+     * Moves an order to a new status if the flow allows it, and publishes the transition.
+     * The order is not saved.
+     *
+     * @param order The order whose status changes.
+     * @param newStatus The new status of the order.
+     * @param authorizationId The id of the user changing the status.
+     * @throws IllegalOrderStatusException if status doesn't respect the flow
+     */
+    public void transition(Order order, StatusEnum newStatus, long authorizationId)
+            throws IllegalOrderStatusException {
+        StatusEnum oldStatus = order.getStatus();
+        assertTransition(oldStatus, newStatus);
+        order.setStatus(newStatus);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(order, oldStatus, newStatus, authorizationId));
+    }
+}
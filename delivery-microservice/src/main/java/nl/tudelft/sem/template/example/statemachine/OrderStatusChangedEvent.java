@@ -0,0 +1,59 @@
+package nl.tudelft.sem.template.example.statemachine;
+
+import nl.tudelft.sem.template.model.Order;
+
+/**
+ * Published by the {@link OrderStateMachine} after the status of an order changed,
+ * so that the caches and statistics that depend on the status can be brought up to date.
+ * It is published inside the transaction that changes the order, and when a listener runs depends on how it listens.
+ * The {@code AvailableOrderPool} and the {@code EtaCache} use {@code @TransactionalEventListener}, so they only
+ * see the change after the transaction commits, or right away when there is no transaction,
+ * and never see a change that is rolled back.
+ * The {@code CourierStatsService} uses {@code @EventListener} and runs inside the transaction,
+ * so that its update is committed or rolled back together with the status.
+ */
+public class OrderStatusChangedEvent {
+    private final Order order;
+
+    private final Order.StatusEnum oldStatus;
+
+    private final Order.StatusEnum newStatus;
+
+    private final long authorizationId;
+
+    /**
+     * Creates the event of a status change.
+     *
+     * @param order The order, which already has its new status.
+     * @param oldStatus The status the order had before.
+     * @param newStatus The status the order has now.
+     * @param authorizationId The id of the user who changed the status.
+     */
+    public OrderStatusChangedEvent(Order order, Order.StatusEnum oldStatus, Order.StatusEnum newStatus,
+                                   long authorizationId) {
+        this.order = order;
+        this.oldStatus = oldStatus;
+        this.newStatus = newStatus;
+        this.authorizationId = authorizationId;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public long getOrderId() {
+        return order.getOrderId();
+    }
+
+    public Order.StatusEnum getOldStatus() {
+        return oldStatus;
+    }
+
+    public Order.StatusEnum getNewStatus() {
+        return newStatus;
+    }
+
+    public long getAuthorizationId() {
+        return authorizationId;
+    }
+}
@@ -0,0 +1,142 @@
+package nl.tudelft.sem.template.example.tracking;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.LocationPing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the locations the couriers report, so that the location of a delivery can be answered from
+ * where its courier actually is instead of being estimated.
+ *
+ * <p>Every courier gets a {@link LocationRingBuffer} of a fixed size the first time they report a location,
+ * after which recording pings only writes into its arrays. Couriers that stop reporting are dropped periodically.
+ */
+@Component
+public class CourierLocationTracker {
+    private final Clock clock;
+
+    private final int historySize;
+
+    private final Duration maxAge;
+
+    private final Duration inactiveTimeout;
+
+    private final Duration maxClockSkew;
+
+    private final ConcurrentMap<Long, LocationRingBuffer> buffers = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor of the tracker, reading its settings from the environment.
+     *
+     * @param environment The environment holding the tracking settings.
+     */
+    @Autowired
+    public CourierLocationTracker(Environment environment) {
+        this(Clock.systemUTC(),
+                environment.getProperty("tracking.location.history-size", Integer.class, 32),
+                Duration.ofMillis(environment.getProperty("tracking.location.max-age-ms", Long.class, 120_000L)),
+                Duration.ofMillis(environment.getProperty("tracking.location.inactive-timeout-ms", Long.class,
+                        3_600_000L)),
+                Duration.ofMillis(environment.getProperty("tracking.location.max-clock-skew-ms", Long.class, 5_000L)));
+    }
+
+    /**
+     * Constructor of the tracker with explicit settings.
+     *
+     * @param clock The clock used to decide whether a location is still recent enough.
+     * @param historySize The number of locations kept per courier.
+     * @param maxAge How old a location may be to still be reported as the current location of a courier.
+     * @param inactiveTimeout How long after their last location the locations of a courier are dropped.
+     * @param maxClockSkew How far ahead of the server clock the timestamp of a location may be.
+     */
+    public CourierLocationTracker(Clock clock, int historySize, Duration maxAge, Duration inactiveTimeout,
+                                  Duration maxClockSkew) {
+        if (historySize < 1) {
+            throw new IllegalArgumentException("The history size must be at least 1");
+        }
+        this.clock = clock;
+        this.historySize = historySize;
+        this.maxAge = maxAge;
+        this.inactiveTimeout = inactiveTimeout;
+        this.maxClockSkew = maxClockSkew;
+    }
+
+    /**
+     * Records a batch of locations reported by a courier.
+     * The pings are expected to be validated already.
+     * Pings dated further in the future than the maximum clock skew are dropped, since one of them
+     * would stay the newest location of the courier and hide every real location reported after it.
+     *
+     * @param courierId The id of the courier.
+     * @param pings The reported locations, in the order they were sent.
+     */
+    public void record(long courierId, List<LocationPing> pings) {
+        long latest = clock.millis() + maxClockSkew.toMillis();
+        LocationRingBuffer buffer = buffers.computeIfAbsent(courierId, id -> new LocationRingBuffer(historySize));
+        for (LocationPing ping : pings) {
+            if (ping.getTimestamp() > latest) {
+                continue;
+            }
+            buffer.add(ping.getLatitude(), ping.getLongitude(), ping.getTimestamp());
+        }
+    }
+
+    /**
+     * Retrieves the current location of a courier, which is the newest location they reported,
+     * unless it is older than the maximum age.
+     *
+     * @param courierId The id of the courier.
+     * @param notBefore The earliest timestamp accepted, in milliseconds since the epoch,
+     *                  for instance because older locations belong to a previous delivery.
+     * @return The current location, or an empty optional if the courier did not report a recent enough location.
+     */
+    public Optional<Location> currentLocation(long courierId, long notBefore) {
+        LocationRingBuffer buffer = buffers.get(courierId);
+        if (buffer == null) {
+            return Optional.empty();
+        }
+        long earliest = Math.max(notBefore, clock.millis() - maxAge.toMillis());
+        return Optional.ofNullable(buffer.newest(earliest));
+    }
+
+    /**
+     * Retrieves the locations kept for a courier.
+     *
+     * @param courierId The id of the courier.
+     * @return The buffer with the locations, or an empty optional if the courier did not report any location.
+     */
+    public Optional<LocationRingBuffer> history(long courierId) {
+        return Optional.ofNullable(buffers.get(courierId));
+    }
+
+    /**
+     * Drops the locations of the couriers that did not report a location for longer than the inactive timeout.
+     *
+     * @return The number of couriers whose locations were dropped.
+     */
+    @Scheduled(fixedDelayString = "${tracking.location.eviction-interval-ms:60000}")
+    public int evictInactiveCouriers() {
+        long earliest = clock.millis() - inactiveTimeout.toMillis();
+        int evicted = 0;
+        for (Map.Entry<Long, LocationRingBuffer> entry : buffers.entrySet()) {
+            if (entry.getValue().getNewestTimestamp() < earliest && buffers.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public int trackedCouriers() {
+        return buffers.size();
+    }
+}
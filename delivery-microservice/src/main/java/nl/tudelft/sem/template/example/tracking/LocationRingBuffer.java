@@ -0,0 +1,110 @@
+package nl.tudelft.sem.template.example.tracking;
+
+import nl.tudelft.sem.template.model.Location;
+
+/**
+ * The most recent locations reported by one courier, kept in preallocated primitive arrays
+ * so that recording a location never allocates.
+ * When the buffer is full, every new location overwrites the oldest one.
+ *
+ * <p>Locations are kept in the order they were received, but pings may arrive out of order,
+ * so the location with the highest timestamp is tracked separately.
+ */
+public class LocationRingBuffer {
+    private final double[] latitudes;
+
+    private final double[] longitudes;
+
+    private final long[] timestamps;
+
+    private int next;
+
+    private int size;
+
+    private double newestLatitude;
+
+    private double newestLongitude;
+
+    private long newestTimestamp = Long.MIN_VALUE;
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param capacity The number of locations kept.
+     */
+    public LocationRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be at least 1");
+        }
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    /**
+     * Records a location, overwriting the oldest one if the buffer is full.
+     *
+     * @param latitude The latitude of the location.
+     * @param longitude The longitude of the location.
+     * @param timestamp When the courier was at the location, in milliseconds since the epoch.
+     */
+    public synchronized void add(double latitude, double longitude, long timestamp) {
+        latitudes[next] = latitude;
+        longitudes[next] = longitude;
+        timestamps[next] = timestamp;
+        next = (next + 1) % latitudes.length;
+        if (size < latitudes.length) {
+            size++;
+        }
+        if (timestamp >= newestTimestamp) {
+            newestLatitude = latitude;
+            newestLongitude = longitude;
+            newestTimestamp = timestamp;
+        }
+    }
+
+    /**
+     * Retrieves the location with the highest timestamp, as long as it is recent enough.
+     *
+     * @param notBefore The earliest timestamp accepted, in milliseconds since the epoch.
+     * @return The newest location, or {@code null} if there is none from {@code notBefore} on.
+     */
+    public synchronized Location newest(long notBefore) {
+        if (size == 0 || newestTimestamp < notBefore) {
+            return null;
+        }
+        return new Location(newestLatitude, newestLongitude);
+    }
+
+    /**
+     * Retrieves the timestamp of the newest location.
+     *
+     * @return The timestamp in milliseconds since the epoch, or {@link Long#MIN_VALUE} if the buffer is empty.
+     */
+    public synchronized long getNewestTimestamp() {
+        return newestTimestamp;
+    }
+
+    /**
+     * Retrieves a location by how many locations were received after it.
+     *
+     * @param age 0 for the location received last, 1 for the one before, and so on.
+     * @return The location.
+     * @throws IndexOutOfBoundsException if fewer than {@code age + 1} locations are kept.
+     */
+    public synchronized Location get(int age) {
+        if (age < 0 || age >= size) {
+            throw new IndexOutOfBoundsException("Age " + age + " is out of bounds for " + size + " locations");
+        }
+        int index = Math.floorMod(next - 1 - age, latitudes.length);
+        return new Location(latitudes[index], longitudes[index]);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return latitudes.length;
+    }
+}
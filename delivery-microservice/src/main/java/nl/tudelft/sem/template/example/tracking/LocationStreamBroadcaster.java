@@ -0,0 +1,150 @@
+package nl.tudelft.sem.template.example.tracking;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import nl.tudelft.sem.template.example.exception.OrderNotFoundException;
+import nl.tudelft.sem.template.example.service.DeliveryService;
+import nl.tudelft.sem.template.model.Location;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes the live location of orders to the clients streaming it, instead of having them poll for it.
+ *
+ * <p>The subscribers are grouped per order, so that on every round the location of an order is calculated once
+ * and then sent to all of its subscribers. Subscribers are dropped when their stream completes, times out
+ * or can no longer be written to, and all of them are completed when their order no longer exists.
+ */
+@Component
+public class LocationStreamBroadcaster {
+    static final String EVENT_NAME = "location";
+
+    private final DeliveryService deliveryService;
+
+    private final Duration streamTimeout;
+
+    private final ConcurrentMap<Long, OrderSubscribers> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor of the broadcaster, reading its settings from the environment.
+     *
+     * @param deliveryService The service calculating the live location of an order.
+     * @param environment The environment holding the stream settings.
+     */
+    @Autowired
+    public LocationStreamBroadcaster(DeliveryService deliveryService, Environment environment) {
+        this(deliveryService,
+                Duration.ofMillis(environment.getProperty("tracking.stream.timeout-ms", Long.class, 1_800_000L)));
+    }
+
+    /**
+     * Constructor of the broadcaster with explicit settings.
+     *
+     * @param deliveryService The service calculating the live location of an order.
+     * @param streamTimeout How long a stream stays open before the client has to subscribe again.
+     */
+    public LocationStreamBroadcaster(DeliveryService deliveryService, Duration streamTimeout) {
+        this.deliveryService = deliveryService;
+        this.streamTimeout = streamTimeout;
+    }
+
+    /**
+     * Opens a stream of the live location of an order, starting with its current location.
+     * The caller is expected to have checked that the user is allowed to see the location.
+     *
+     * @param orderId The id of the order.
+     * @return The stream the locations are sent to.
+     * @throws OrderNotFoundException if the order has no delivery.
+     */
+    public SseEmitter subscribe(long orderId) throws OrderNotFoundException {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        register(orderId, emitter);
+        return emitter;
+    }
+
+    void register(long orderId, SseEmitter emitter) throws OrderNotFoundException {
+        Location location = deliveryService.calculateLiveLocation(orderId);
+        if (!send(emitter, location)) {
+            return;
+        }
+        emitter.onCompletion(() -> unregister(orderId, emitter));
+        emitter.onTimeout(() -> unregister(orderId, emitter));
+        emitter.onError(e -> unregister(orderId, emitter));
+        subscribers.compute(orderId, (id, group) -> {
+            OrderSubscribers result = group == null ? new OrderSubscribers() : group;
+            result.emitters.add(emitter);
+            return result;
+        });
+    }
+
+    /**
+     * Sends the current location of every order with subscribers to all of them.
+     * The scheduling pool has a thread for every scheduled task (spring.task.scheduling.pool.size),
+     * so slow clients only delay the next round of this task and not the other scheduled tasks.
+     *
+     * @return The number of locations sent.
+     */
+    @Scheduled(fixedDelayString = "${tracking.stream.interval-ms:2000}")
+    public int pushLocations() {
+        int sent = 0;
+        for (Map.Entry<Long, OrderSubscribers> entry : subscribers.entrySet()) {
+            OrderSubscribers group = entry.getValue();
+            Location location;
+            try {
+                location = deliveryService.calculateLiveLocation(entry.getKey());
+            } catch (OrderNotFoundException e) {
+                subscribers.remove(entry.getKey(), group);
+                group.emitters.forEach(SseEmitter::complete);
+                continue;
+            }
+            for (SseEmitter emitter : group.emitters) {
+                if (send(emitter, location)) {
+                    sent++;
+                } else {
+                    unregister(entry.getKey(), emitter);
+                }
+            }
+        }
+        return sent;
+    }
+
+    /**
+     * Retrieves the number of open streams of an order.
+     *
+     * @param orderId The id of the order.
+     * @return The number of subscribers.
+     */
+    public int subscriberCount(long orderId) {
+        OrderSubscribers group = subscribers.get(orderId);
+        return group == null ? 0 : group.emitters.size();
+    }
+
+    private void unregister(long orderId, SseEmitter emitter) {
+        subscribers.computeIfPresent(orderId, (id, group) -> {
+            group.emitters.remove(emitter);
+            return group.emitters.isEmpty() ? null : group;
+        });
+    }
+
+    private boolean send(SseEmitter emitter, Location location) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(location));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // the client went away or the stream was already completed
+            return false;
+        }
+    }
+
+    private static final class OrderSubscribers {
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    }
+}
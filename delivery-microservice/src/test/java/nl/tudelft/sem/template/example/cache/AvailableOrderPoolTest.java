@@ -0,0 +1,209 @@
+package nl.tudelft.sem.template.example.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import nl.tudelft.sem.template.example.repository.AvailableOrder;
+import nl.tudelft.sem.template.example.repository.DeliveryRepository;
+import nl.tudelft.sem.template.example.repository.VendorRepository;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AvailableOrderPoolTest {
+    private DeliveryRepository deliveryRepository;
+
+    private VendorRepository vendorRepository;
+
+    private AvailableOrderPool pool;
+
+    @BeforeEach
+    void setup() {
+        deliveryRepository = mock(DeliveryRepository.class);
+        vendorRepository = mock(VendorRepository.class);
+        pool = new AvailableOrderPool(deliveryRepository, vendorRepository);
+    }
+
+    @Test
+    void ordersAreClaimedInTheOrderTheyBecameAvailable() {
+        pool.orderAvailable(2L, 1L, null);
+        pool.orderAvailable(1L, 1L, null);
+
+        assertThat(pool.claimNext(null, orderId -> true)).contains(2L);
+        assertThat(pool.claimNext(null, orderId -> true)).contains(1L);
+        assertThat(pool.claimNext(null, orderId -> true)).isEmpty();
+    }
+
+    @Test
+    void ordersOfVendorsWithCouriersAreOnlyOfferedToThem() {
+        pool.vendorHasCouriers(3L);
+        pool.orderAvailable(5L, 3L, null);
+        pool.orderAvailable(6L, 4L, null);
+
+        assertThat(pool.claimNext(null, orderId -> true)).contains(6L);
+        assertThat(pool.claimNext(null, orderId -> true)).isEmpty();
+        assertThat(pool.claimNext(4L, orderId -> true)).isEmpty();
+        assertThat(pool.claimNext(3L, orderId -> true)).contains(5L);
+    }
+
+    @Test
+    void ordersAreMovedWhenTheirVendorGetsCouriers() {
+        pool.orderAvailable(5L, 3L, null);
+        pool.vendorHasCouriers(3L);
+
+        assertThat(pool.claimNext(null, orderId -> true)).isEmpty();
+        assertThat(pool.claimNext(3L, orderId -> true)).contains(5L);
+    }
+
+    @Test
+    void unavailableOrdersAreSkipped() {
+        pool.orderAvailable(5L, 1L, null);
+        pool.orderAvailable(6L, 1L, null);
+        pool.orderUnavailable(5L);
+
+        assertThat(pool.size()).isEqualTo(1);
+        assertThat(pool.claimNext(null, orderId -> true)).contains(6L);
+    }
+
+    @Test
+    void ordersThatCannotBeClaimedAreDropped() {
+        pool.orderAvailable(5L, 1L, null);
+        pool.orderAvailable(6L, 1L, null);
+
+        assertThat(pool.claimNext(null, orderId -> orderId == 6L)).contains(6L);
+        assertThat(pool.size()).isZero();
+    }
+
+    @Test
+    void addingAnOrderTwiceQueuesItOnce() {
+        pool.orderAvailable(5L, 1L, null);
+        pool.orderAvailable(5L, 1L, null);
+
+        assertThat(pool.claimNext(null, orderId -> true)).contains(5L);
+        assertThat(pool.claimNext(null, orderId -> true)).isEmpty();
+    }
+
+    @Test
+    void nearestOrderIsClaimedFirst() {
+        pool.orderAvailable(5L, 1L, new Location(10.0, 10.0));
+        pool.orderAvailable(6L, 2L, new Location(1.0, 1.0));
+        pool.orderAvailable(7L, 3L, null);
+
+        assertThat(pool.claimNearest(new Location(0.0, 0.0), orderId -> true)).contains(6L);
+        assertThat(pool.claimNearest(new Location(0.0, 0.0), orderId -> true)).contains(5L);
+        assertThat(pool.claimNearest(new Location(0.0, 0.0), orderId -> true)).isEmpty();
+        assertThat(pool.claimNext(null, orderId -> true)).contains(7L);
+    }
+
+    @Test
+    void nearestSkipsOrdersThatCannotBeClaimed() {
+        pool.orderAvailable(5L, 1L, new Location(1.0, 1.0));
+        pool.orderAvailable(6L, 1L, new Location(2.0, 2.0));
+
+        assertThat(pool.claimNearest(new Location(0.0, 0.0), orderId -> orderId != 5L)).contains(6L);
+        assertThat(pool.size()).isZero();
+    }
+
+    @Test
+    void nearestIgnoresOrdersOfVendorsWithCouriers() {
+        pool.orderAvailable(5L, 3L, new Location(1.0, 1.0));
+        pool.vendorHasCouriers(3L);
+
+        assertThat(pool.claimNearest(new Location(0.0, 0.0), orderId -> true)).isEmpty();
+        assertThat(pool.claimNext(3L, orderId -> true)).contains(5L);
+    }
+
+    @Test
+    void ordersClaimedFromTheQueueLeaveTheGrid() {
+        pool.orderAvailable(5L, 1L, new Location(1.0, 1.0));
+        pool.orderAvailable(6L, 1L, new Location(2.0, 2.0));
+        pool.orderUnavailable(6L);
+
+        assertThat(pool.claimNext(null, orderId -> true)).contains(5L);
+        assertThat(pool.claimNearest(new Location(0.0, 0.0), orderId -> true)).isEmpty();
+    }
+
+    @Test
+    void queuesAreCompactedAfterManyNearestClaims() {
+        int orders = 10 * AvailableOrderPool.MIN_STALE_ENTRIES_BEFORE_COMPACTION;
+        for (long orderId = 0; orderId < orders; orderId++) {
+            pool.orderAvailable(orderId, 1L, new Location(0.001 * orderId, 0.0));
+        }
+        for (long i = 0; i < orders; i++) {
+            assertThat(pool.claimNearest(new Location(0.001 * i, 0.0), orderId -> true)).contains(i);
+        }
+
+        assertThat(pool.size()).isZero();
+        assertThat(pool.queuedEntries()).isLessThanOrEqualTo(AvailableOrderPool.MIN_STALE_ENTRIES_BEFORE_COMPACTION);
+    }
+
+    @Test
+    void queuesAreCompactedWhenOrdersBecomeUnavailable() {
+        pool.vendorHasCouriers(3L);
+        int orders = 10 * AvailableOrderPool.MIN_STALE_ENTRIES_BEFORE_COMPACTION;
+        for (long orderId = 0; orderId < orders; orderId++) {
+            pool.orderAvailable(orderId, 3L, null);
+            pool.orderUnavailable(orderId);
+        }
+
+        assertThat(pool.queuedEntries()).isLessThanOrEqualTo(AvailableOrderPool.MIN_STALE_ENTRIES_BEFORE_COMPACTION);
+        assertThat(pool.claimNext(3L, orderId -> true)).isEmpty();
+    }
+
+    @Test
+    void rebuildLoadsTheAvailableOrdersFromTheDatabase() {
+        pool.orderAvailable(99L, 1L, null);
+        when(vendorRepository.findIdsOfVendorsWithCouriers()).thenReturn(List.of(3L));
+        when(deliveryRepository.findUnassignedOrdersByStatus(Order.StatusEnum.ACCEPTED))
+                .thenReturn(List.of(new AvailableOrder(5L, 3L, 1.0, 1.0), new AvailableOrder(6L, 4L, 2.0, 2.0)));
+
+        pool.rebuild();
+
+        assertThat(pool.size()).isEqualTo(2);
+        assertThat(pool.claimNext(3L, orderId -> true)).contains(5L);
+        assertThat(pool.claimNearest(new Location(0.0, 0.0), orderId -> true)).contains(6L);
+    }
+
+    @Test
+    void everyOrderIsClaimedOnceUnderContention() throws InterruptedException {
+        int orders = 2000;
+        for (long orderId = 1; orderId <= orders; orderId++) {
+            pool.orderAvailable(orderId, 1L, null);
+        }
+        Set<Long> claimed = ConcurrentHashMap.newKeySet();
+        List<Long> duplicates = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.submit(() -> {
+                start.await();
+                while (pool.claimNext(null, orderId -> {
+                    if (!claimed.add(orderId)) {
+                        duplicates.add(orderId);
+                    }
+                    return true;
+                }).isPresent()) {
+                    Thread.onSpinWait();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(claimed).hasSize(orders);
+        assertThat(duplicates).isEmpty();
+    }
+}
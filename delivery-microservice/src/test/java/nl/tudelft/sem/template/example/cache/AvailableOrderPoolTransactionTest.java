@@ -0,0 +1,72 @@
+package nl.tudelft.sem.template.example.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import nl.tudelft.sem.template.example.Application;
+import nl.tudelft.sem.template.example.statemachine.OrderStatusChangedEvent;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Order;
+import nl.tudelft.sem.template.model.Vendor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(classes = Application.class)
+class AvailableOrderPoolTransactionTest {
+    private static final long ORDER_ID = 880_001L;
+
+    private final AvailableOrderPool availableOrderPool;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    AvailableOrderPoolTransactionTest(AvailableOrderPool availableOrderPool, ApplicationEventPublisher eventPublisher,
+                                      PlatformTransactionManager transactionManager) {
+        this.availableOrderPool = availableOrderPool;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        availableOrderPool.orderUnavailable(ORDER_ID);
+    }
+
+    private OrderStatusChangedEvent event(Order.StatusEnum oldStatus, Order.StatusEnum newStatus) {
+        Vendor vendor = new Vendor(880L, 10L, new Location(1.0, 1.0), new ArrayList<>());
+        Order order = new Order(ORDER_ID, 1L, vendor, newStatus, new Location(1.0, 1.0));
+        return new OrderStatusChangedEvent(order, oldStatus, newStatus, 1L);
+    }
+
+    @Test
+    void acceptedOrdersJoinThePoolOnlyOnceCommitted() {
+        int before = availableOrderPool.size();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(event(Order.StatusEnum.PENDING, Order.StatusEnum.ACCEPTED));
+            assertThat(availableOrderPool.size()).isEqualTo(before);
+        });
+
+        assertThat(availableOrderPool.size()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void rolledBackChangesDoNotAffectThePool() {
+        availableOrderPool.orderAvailable(ORDER_ID, 880L, new Location(1.0, 1.0));
+        int before = availableOrderPool.size();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(event(Order.StatusEnum.ACCEPTED, Order.StatusEnum.PREPARING));
+            status.setRollbackOnly();
+        });
+
+        assertThat(availableOrderPool.size()).isEqualTo(before);
+    }
+}
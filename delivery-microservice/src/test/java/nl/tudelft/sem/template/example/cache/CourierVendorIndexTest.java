@@ -0,0 +1,80 @@
+package nl.tudelft.sem.template.example.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import nl.tudelft.sem.template.example.repository.VendorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CourierVendorIndexTest {
+    private VendorRepository vendorRepository;
+
+    private CourierVendorIndex index;
+
+    @BeforeEach
+    void setup() {
+        vendorRepository = mock(VendorRepository.class);
+        index = new CourierVendorIndex(vendorRepository);
+    }
+
+    @Test
+    void lookupIsRememberedAfterTheFirstQuery() {
+        when(vendorRepository.findVendorIdsByCourierId(5L)).thenReturn(List.of(3L, 4L));
+
+        assertThat(index.findVendorId(5L)).contains(3L);
+        assertThat(index.findVendorId(5L)).contains(3L);
+        verify(vendorRepository, times(1)).findVendorIdsByCourierId(5L);
+    }
+
+    @Test
+    void couriersWithoutVendorAreRemembered() {
+        when(vendorRepository.findVendorIdsByCourierId(5L)).thenReturn(List.of());
+
+        assertThat(index.findVendorId(5L)).isEmpty();
+        assertThat(index.findVendorId(5L)).isEmpty();
+        verify(vendorRepository, times(1)).findVendorIdsByCourierId(5L);
+    }
+
+    @Test
+    void courierWithoutVendorCanBeAssignedLater() {
+        when(vendorRepository.findVendorIdsByCourierId(5L)).thenReturn(List.of());
+        assertThat(index.findVendorId(5L)).isEmpty();
+
+        index.courierAssigned(5L, 9L);
+
+        assertThat(index.findVendorId(5L)).contains(9L);
+        verify(vendorRepository, times(1)).findVendorIdsByCourierId(5L);
+    }
+
+    @Test
+    void assignmentIsAnsweredWithoutQuery() {
+        index.courierAssigned(5L, 9L);
+
+        assertThat(index.findVendorId(5L)).contains(9L);
+        verify(vendorRepository, never()).findVendorIdsByCourierId(5L);
+    }
+
+    @Test
+    void lowestVendorIsKept() {
+        index.courierAssigned(5L, 9L);
+        index.courierAssigned(5L, 7L);
+        index.courierAssigned(5L, 8L);
+
+        assertThat(index.findVendorId(5L)).contains(7L);
+    }
+
+    @Test
+    void clearForgetsAssignments() {
+        when(vendorRepository.findVendorIdsByCourierId(5L)).thenReturn(List.of());
+        index.courierAssigned(5L, 9L);
+        index.clear();
+
+        assertThat(index.findVendorId(5L)).isEmpty();
+    }
+}
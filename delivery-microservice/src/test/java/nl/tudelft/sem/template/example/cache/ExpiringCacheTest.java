@@ -0,0 +1,101 @@
+package nl.tudelft.sem.template.example.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+public class ExpiringCacheTest {
+    private Clock clock;
+
+    private ExpiringCache<Long, String> cache;
+
+    @BeforeEach
+    void setup() {
+        clock = Mockito.mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        cache = new ExpiringCache<>(Duration.ofSeconds(10), 2, clock);
+    }
+
+    @Test
+    void getMissingKeyCountsMiss() {
+        assertThat(cache.get(1L)).isEqualTo(Optional.empty());
+        assertThat(cache.getMissCount()).isEqualTo(1L);
+        assertThat(cache.getHitCount()).isEqualTo(0L);
+    }
+
+    @Test
+    void getCachedKeyCountsHit() {
+        cache.put(1L, "courier");
+
+        assertThat(cache.get(1L)).isEqualTo(Optional.of("courier"));
+        assertThat(cache.getHitCount()).isEqualTo(1L);
+        assertThat(cache.getMissCount()).isEqualTo(0L);
+    }
+
+    @Test
+    void entryExpiresAfterTimeToLive() {
+        cache.put(1L, "courier");
+        when(clock.millis()).thenReturn(9_999L);
+        assertThat(cache.get(1L)).isEqualTo(Optional.of("courier"));
+
+        when(clock.millis()).thenReturn(10_000L);
+        assertThat(cache.get(1L)).isEqualTo(Optional.empty());
+        assertThat(cache.getEvictionCount()).isEqualTo(1L);
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedWhenFull() {
+        cache.put(1L, "courier");
+        cache.put(2L, "vendor");
+        cache.get(1L);
+        cache.put(3L, "admin");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(2L)).isEqualTo(Optional.empty());
+        assertThat(cache.get(1L)).isEqualTo(Optional.of("courier"));
+        assertThat(cache.get(3L)).isEqualTo(Optional.of("admin"));
+        assertThat(cache.getEvictionCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void expiredEntriesAreDroppedBeforeLiveOnes() {
+        cache.put(1L, "courier");
+        when(clock.millis()).thenReturn(5_000L);
+        cache.put(2L, "vendor");
+        cache.get(1L);
+        when(clock.millis()).thenReturn(12_000L);
+        cache.put(3L, "admin");
+
+        assertThat(cache.get(2L)).isEqualTo(Optional.of("vendor"));
+        assertThat(cache.get(3L)).isEqualTo(Optional.of("admin"));
+    }
+
+    @Test
+    void invalidateRemovesEntry() {
+        cache.put(1L, "courier");
+        cache.put(2L, "vendor");
+        cache.invalidate(1L);
+
+        assertThat(cache.get(1L)).isEqualTo(Optional.empty());
+        assertThat(cache.get(2L)).isEqualTo(Optional.of("vendor"));
+
+        cache.invalidateAll();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    void invalidConfigurationIsRejected() {
+        assertThatThrownBy(() -> new ExpiringCache<Long, String>(Duration.ZERO, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ExpiringCache<Long, String>(Duration.ofSeconds(1), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,109 @@
+package nl.tudelft.sem.template.example.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import nl.tudelft.sem.template.example.geo.GeoDistance;
+import org.junit.jupiter.api.Test;
+
+class PickupLocationGridTest {
+
+    @Test
+    void closestOrdersComeFirst() {
+        PickupLocationGrid grid = new PickupLocationGrid(1.0);
+        grid.put(1L, 1L, 5.0, 5.0);
+        grid.put(2L, 1L, 0.5, 0.5);
+        grid.put(3L, 1L, 2.0, 2.0);
+
+        assertThat(grid.nearest(0.0, 0.0, 2, vendorId -> true)).containsExactly(2L, 3L);
+        assertThat(grid.nearest(6.0, 6.0, 5, vendorId -> true)).containsExactly(1L, 3L, 2L);
+    }
+
+    @Test
+    void closerOrderInTheNextRingIsFound() {
+        PickupLocationGrid grid = new PickupLocationGrid(1.0);
+        grid.put(1L, 1L, 0.0, 0.99);
+        grid.put(2L, 1L, 1.01, 0.01);
+        grid.put(3L, 1L, 9.0, 9.0);
+
+        assertThat(grid.nearest(0.98, 0.01, 1, vendorId -> true)).containsExactly(2L);
+    }
+
+    @Test
+    void degreesOfLongitudeAreNarrowerAwayFromTheEquator() {
+        PickupLocationGrid grid = new PickupLocationGrid(0.01);
+        // at 60 degrees, 0.015 degrees east is about 835 m and 0.01 degrees north about 1112 m
+        grid.put(1L, 1L, 60.01, 10.0);
+        grid.put(2L, 1L, 60.0, 10.015);
+
+        assertThat(grid.nearest(60.0, 10.0, 2, vendorId -> true)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void vendorFilterIsApplied() {
+        PickupLocationGrid grid = new PickupLocationGrid(1.0);
+        grid.put(1L, 7L, 0.0, 0.0);
+        grid.put(2L, 8L, 3.0, 3.0);
+
+        assertThat(grid.nearest(0.0, 0.0, 1, vendorId -> vendorId != 7L)).containsExactly(2L);
+    }
+
+    @Test
+    void removedAndMovedOrdersAreUpdated() {
+        PickupLocationGrid grid = new PickupLocationGrid(1.0);
+        grid.put(1L, 1L, 0.0, 0.0);
+        grid.put(2L, 1L, 1.0, 1.0);
+        grid.remove(1L);
+        grid.put(2L, 1L, 40.0, 40.0);
+
+        assertThat(grid.size()).isEqualTo(1);
+        assertThat(grid.nearest(39.0, 39.0, 5, vendorId -> true)).containsExactly(2L);
+        grid.clear();
+        assertThat(grid.nearest(0.0, 0.0, 5, vendorId -> true)).isEmpty();
+    }
+
+    @Test
+    void negativeCoordinatesAreSupported() {
+        PickupLocationGrid grid = new PickupLocationGrid(0.5);
+        grid.put(1L, 1L, -10.2, -3.3);
+        grid.put(2L, 1L, 10.2, 3.3);
+
+        assertThat(grid.nearest(-9.0, -3.0, 1, vendorId -> true)).containsExactly(1L);
+    }
+
+    @Test
+    void matchesALinearScan() {
+        Random random = new Random(42);
+        PickupLocationGrid grid = new PickupLocationGrid(0.05);
+        List<double[]> locations = new ArrayList<>();
+        for (int orderId = 0; orderId < 500; orderId++) {
+            double latitude = 52.0 + random.nextDouble();
+            double longitude = 4.0 + random.nextDouble();
+            locations.add(new double[] {latitude, longitude});
+            grid.put(orderId, orderId % 3, latitude, longitude);
+        }
+        for (int query = 0; query < 50; query++) {
+            double latitude = 51.8 + random.nextDouble() * 1.4;
+            double longitude = 3.8 + random.nextDouble() * 1.4;
+            List<Long> expected = locations.stream()
+                    .filter(location -> locations.indexOf(location) % 3 != 0)
+                    .sorted(Comparator.comparingDouble(location -> GeoDistance.equirectangular(latitude, longitude,
+                            location[0], location[1])))
+                    .limit(5)
+                    .map(location -> (long) locations.indexOf(location))
+                    .collect(Collectors.toList());
+
+            assertThat(grid.nearest(latitude, longitude, 5, vendorId -> vendorId != 0)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void cellSizeMustBePositive() {
+        assertThatThrownBy(() -> new PickupLocationGrid(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,142 @@
+package nl.tudelft.sem.template.example.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import nl.tudelft.sem.template.example.geo.GeoDistance;
+import nl.tudelft.sem.template.example.repository.VendorRepository;
+import nl.tudelft.sem.template.example.repository.VendorZone;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Vendor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class VendorCoverageIndexTest {
+    private VendorRepository vendorRepository;
+
+    private VendorCoverageIndex index;
+
+    @BeforeEach
+    void setup() {
+        vendorRepository = mock(VendorRepository.class);
+        index = new VendorCoverageIndex(vendorRepository);
+    }
+
+    @Test
+    void pointsWithinTheZoneAreCovered() {
+        index.put(1L, 52.0, 4.3, 5L);
+
+        // 0.04 degrees of latitude is about 4.4 km, 0.05 about 5.6 km.
+        assertThat(index.vendorsCovering(52.04, 4.3)).containsExactly(1L);
+        assertThat(index.vendorsCovering(52.05, 4.3)).isEmpty();
+    }
+
+    @Test
+    void closestVendorsComeFirst() {
+        index.put(1L, 52.00, 4.30, 10L);
+        index.put(2L, 52.02, 4.30, 10L);
+        index.put(3L, 52.50, 4.30, 10L);
+
+        assertThat(index.vendorsCovering(52.03, 4.30)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void unknownVendorsCoverNothing() {
+        assertThat(index.vendorsCovering(0.0, 0.0)).isEmpty();
+    }
+
+    @Test
+    void movedZonesAreOnlyFoundAtTheirNewPlace() {
+        index.put(1L, 52.0, 4.3, 5L);
+        index.put(1L, 40.0, -74.0, 5L);
+
+        assertThat(index.vendorsCovering(52.0, 4.3)).isEmpty();
+        assertThat(index.vendorsCovering(40.0, -74.0)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removedZonesCoverNothing() {
+        index.put(1L, 52.0, 4.3, 5L);
+        index.remove(1L);
+        index.remove(2L);
+
+        assertThat(index.vendorsCovering(52.0, 4.3)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void vendorsWithoutAddressOrZoneAreNotIndexed() {
+        index.put(1L, 52.0, 4.3, 5L);
+        index.vendorChanged(new Vendor(1L, 5L, null, null));
+        index.vendorChanged(new Vendor(2L, null, new Location(52.0, 4.3), null));
+
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void zonesWrapAroundTheAntimeridian() {
+        index.put(1L, 0.0, 179.99, 10L);
+
+        assertThat(index.vendorsCovering(0.0, -179.99)).containsExactly(1L);
+    }
+
+    @Test
+    void hugeAndPolarZonesAreStillFound() {
+        index.put(1L, 0.0, 0.0, 5000L);
+        index.put(2L, 89.9, 0.0, 50L);
+
+        assertThat(index.vendorsCovering(30.0, 30.0)).containsExactly(1L);
+        assertThat(index.vendorsCovering(89.9, 180.0)).containsExactly(2L);
+    }
+
+    @Test
+    void rebuildReplacesTheIndexedZones() {
+        index.put(9L, 52.0, 4.3, 5L);
+        when(vendorRepository.findAllVendorZones()).thenReturn(List.of(
+                new VendorZone(1L, 52.0, 4.3, 5L), new VendorZone(2L, null, null, 5L)));
+
+        index.rebuild();
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.vendorsCovering(52.0, 4.3)).containsExactly(1L);
+    }
+
+    @Test
+    void lookupsAgreeWithCheckingEveryVendor() {
+        Random random = new Random(42);
+        List<double[]> zones = new ArrayList<>();
+        for (long vendorId = 0; vendorId < 300; vendorId++) {
+            double latitude = 51 + random.nextDouble() * 2;
+            double longitude = 3 + random.nextDouble() * 3;
+            long deliveryZone = 1 + random.nextInt(30);
+            index.put(vendorId, latitude, longitude, deliveryZone);
+            zones.add(new double[] {latitude, longitude, deliveryZone});
+        }
+        for (int i = 0; i < 500; i++) {
+            double latitude = 51 + random.nextDouble() * 2;
+            double longitude = 3 + random.nextDouble() * 3;
+            List<Long> expected = new ArrayList<>();
+            for (int vendorId = 0; vendorId < zones.size(); vendorId++) {
+                double[] zone = zones.get(vendorId);
+                if (GeoDistance.distance(zone[0], zone[1], latitude, longitude) <= zone[2] * 1000) {
+                    expected.add((long) vendorId);
+                }
+            }
+
+            assertThat(index.vendorsCovering(latitude, longitude)).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    void zoneRuleComparesTheDistanceInKilometers() {
+        Location vendor = new Location(52.0, 4.3);
+
+        assertThat(VendorCoverageIndex.isWithinZone(vendor, 5L, new Location(52.04, 4.3))).isTrue();
+        assertThat(VendorCoverageIndex.isWithinZone(vendor, 5L, new Location(52.05, 4.3))).isFalse();
+    }
+}
@@ -0,0 +1,68 @@
+package nl.tudelft.sem.template.example.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class H2ConfigTest {
+    private HikariDataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    private MockEnvironment environment() {
+        return new MockEnvironment()
+                .withProperty("jdbc.driverClassName", "org.h2.Driver")
+                .withProperty("jdbc.url", "jdbc:h2:mem:h2ConfigTest;DB_CLOSE_DELAY=-1")
+                .withProperty("jdbc.user", "sa")
+                .withProperty("jdbc.pass", "");
+    }
+
+    @Test
+    void poolIsConfiguredFromTheEnvironment() {
+        MockEnvironment environment = environment()
+                .withProperty("jdbc.pool.name", "test-pool")
+                .withProperty("jdbc.pool.maximum-size", "4")
+                .withProperty("jdbc.pool.minimum-idle", "1")
+                .withProperty("jdbc.pool.idle-timeout-ms", "20000")
+                .withProperty("jdbc.pool.max-lifetime-ms", "60000")
+                .withProperty("jdbc.pool.connection-timeout-ms", "5000")
+                .withProperty("jdbc.pool.leak-detection-threshold-ms", "10000")
+                .withProperty("jdbc.pool.register-mbeans", "false");
+
+        DataSource created = new H2Config(environment).dataSource();
+        assertThat(created).isInstanceOf(HikariDataSource.class);
+        dataSource = (HikariDataSource) created;
+
+        assertThat(dataSource.getPoolName()).isEqualTo("test-pool");
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(4);
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(1);
+        assertThat(dataSource.getIdleTimeout()).isEqualTo(20000);
+        assertThat(dataSource.getMaxLifetime()).isEqualTo(60000);
+        assertThat(dataSource.getConnectionTimeout()).isEqualTo(5000);
+        assertThat(dataSource.getLeakDetectionThreshold()).isEqualTo(10000);
+        assertThat(dataSource.isRegisterMbeans()).isFalse();
+    }
+
+    @Test
+    void connectionsAreReturnedToThePool() throws Exception {
+        dataSource = (HikariDataSource) new H2Config(environment()
+                .withProperty("jdbc.pool.register-mbeans", "false")).dataSource();
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.isValid(1)).isTrue();
+            assertThat(dataSource.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+        }
+        assertThat(dataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+        assertThat(dataSource.getHikariPoolMXBean().getTotalConnections()).isPositive();
+    }
+}
@@ -0,0 +1,88 @@
+package nl.tudelft.sem.template.example.configuration;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HttpClientConfigTest {
+    private WireMockServer wireMockServer;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    private CloseableHttpClient httpClient;
+
+    private RestTemplate restTemplate;
+
+    private HttpClientPoolMetrics metrics;
+
+    @BeforeEach
+    void setup() {
+        wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+        wireMockServer.start();
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("http.client.max-total", "10")
+                .withProperty("http.client.max-per-route", "4")
+                .withProperty("http.client.read-timeout-ms", "200");
+        HttpClientConfig httpClientConfig = new HttpClientConfig(environment);
+        connectionManager = httpClientConfig.httpConnectionManager();
+        httpClient = httpClientConfig.httpClient(connectionManager);
+        ClientHttpRequestFactory requestFactory = httpClientConfig.clientHttpRequestFactory(httpClient);
+        restTemplate = new ConfigurationProperties().restTemplate(requestFactory);
+        metrics = new HttpClientPoolMetrics(connectionManager);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        httpClient.close();
+        wireMockServer.stop();
+    }
+
+    @Test
+    void poolIsConfiguredFromEnvironment() {
+        assertThat(connectionManager.getMaxTotal()).isEqualTo(10);
+        assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(4);
+        assertThat(metrics.getMaxConnections()).isEqualTo(10);
+        assertThat(restTemplate.getRequestFactory()).isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+    }
+
+    @Test
+    void connectionIsReturnedToPoolAndReused() {
+        wireMockServer.stubFor(get(urlEqualTo("/user/1")).willReturn(aResponse().withBody("courier")));
+
+        String url = "http://localhost:" + wireMockServer.port() + "/user/1";
+        assertThat(restTemplate.getForObject(url, String.class)).isEqualTo("courier");
+        assertThat(restTemplate.getForObject(url, String.class)).isEqualTo("courier");
+
+        assertThat(metrics.getLeasedConnections()).isEqualTo(0);
+        assertThat(metrics.getAvailableConnections()).isEqualTo(1);
+        assertThat(metrics.getPendingRequests()).isEqualTo(0);
+        assertThat(metrics.getUtilisation()).isEqualTo(0.0);
+        assertThat(metrics.logPoolUsage().getAvailable()).isEqualTo(1);
+    }
+
+    @Test
+    void slowResponseTimesOut() {
+        wireMockServer.stubFor(get(urlEqualTo("/user/1"))
+                .willReturn(aResponse().withBody("courier").withFixedDelay(1000)));
+
+        String url = "http://localhost:" + wireMockServer.port() + "/user/1";
+        assertThatThrownBy(() -> restTemplate.getForObject(url, String.class))
+                .isInstanceOf(ResourceAccessException.class);
+    }
+}
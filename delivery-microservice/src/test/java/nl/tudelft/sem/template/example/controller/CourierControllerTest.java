@@ -117,6 +117,97 @@ public class CourierControllerTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    @Test
+    void testAssignCourierToNearestOrderSuccess() throws DeliveryNotFoundException, NoAvailableOrdersException, CourierNotFoundException {
+        Location location = new Location(52.0, 4.3);
+        doNothing().when(courierService).assignCourierToNearestOrder(1L, location);
+
+        ResponseEntity<Void> response = courierController.courierDeliveryCourierIdAssignNearestOrderPut(1L, 1, location);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Mockito.verify(courierService).assignCourierToNearestOrder(1L, location);
+    }
+
+    @Test
+    void testAssignCourierToNearestOrderNoAvailableOrders() throws DeliveryNotFoundException, NoAvailableOrdersException, CourierNotFoundException {
+        Location location = new Location(52.0, 4.3);
+        doThrow(new NoAvailableOrdersException("No available orders")).when(courierService).assignCourierToNearestOrder(1L, location);
+
+        ResponseEntity<Void> response = courierController.courierDeliveryCourierIdAssignNearestOrderPut(1L, 1, location);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void testAssignCourierToNearestOrderWithoutLocation() {
+        ResponseEntity<Void> response = courierController.courierDeliveryCourierIdAssignNearestOrderPut(1L, 1, new Location());
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void testQueueCourierForDispatch() throws DeliveryNotFoundException, NoAvailableOrdersException, CourierNotFoundException {
+        Location location = new Location(52.0, 4.3);
+        when(courierService.queueCourierForDispatch(1L, location)).thenReturn(true);
+
+        ResponseEntity<Void> response = courierController.courierDeliveryCourierIdDispatchQueuePut(1L, 1, location);
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+    }
+
+    @Test
+    void testQueueCourierForDispatchWhenDisabled() throws DeliveryNotFoundException, NoAvailableOrdersException, CourierNotFoundException {
+        Location location = new Location(52.0, 4.3);
+        when(courierService.queueCourierForDispatch(1L, location)).thenReturn(false);
+
+        ResponseEntity<Void> response = courierController.courierDeliveryCourierIdDispatchQueuePut(1L, 1, location);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    void testQueueCourierForDispatchCourierNotFound() throws DeliveryNotFoundException, NoAvailableOrdersException, CourierNotFoundException {
+        Location location = new Location(52.0, 4.3);
+        when(courierService.queueCourierForDispatch(1L, location)).thenThrow(new CourierNotFoundException("Courier not found"));
+
+        ResponseEntity<Void> response = courierController.courierDeliveryCourierIdDispatchQueuePut(1L, 1, location);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                courierController.courierDeliveryCourierIdDispatchQueuePut(1L, 1, null).getStatusCode());
+    }
+
+    @Test
+    void testRecordLocations() throws CourierNotFoundException {
+        List<LocationPing> pings = List.of(new LocationPing(52.0, 4.3, 1000L), new LocationPing(52.1, 4.4, 2000L));
+
+        ResponseEntity<Void> response = courierController.courierDeliveryCourierIdLocationPost(1L, 1, pings);
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        Mockito.verify(courierService).recordLocations(1L, pings);
+    }
+
+    @Test
+    void testRecordInvalidLocations() throws CourierNotFoundException {
+        assertEquals(HttpStatus.BAD_REQUEST,
+                courierController.courierDeliveryCourierIdLocationPost(1L, 1, List.of()).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, courierController.courierDeliveryCourierIdLocationPost(1L, 1,
+                List.of(new LocationPing(91.0, 4.3, 1000L))).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, courierController.courierDeliveryCourierIdLocationPost(1L, 1,
+                List.of(new LocationPing(52.0, 4.3, null))).getStatusCode());
+        Mockito.verify(courierService, Mockito.never()).recordLocations(Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    void testRecordLocationsOfOtherCourier() throws CourierNotFoundException {
+        ResponseEntity<Void> response = courierController.courierDeliveryCourierIdLocationPost(2L, 1,
+                List.of(new LocationPing(52.0, 4.3, 1000L)));
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        Mockito.verify(courierService, Mockito.never()).recordLocations(Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    void testRecordLocationsCourierNotFound() throws CourierNotFoundException {
+        List<LocationPing> pings = List.of(new LocationPing(52.0, 4.3, 1000L));
+        doThrow(new CourierNotFoundException("Courier not found")).when(courierService).recordLocations(1L, pings);
+
+        ResponseEntity<Void> response = courierController.courierDeliveryCourierIdLocationPost(1L, 1, pings);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
     @Test
     void testAssignCourierToRandomOrderDeliveryNotFound() throws DeliveryNotFoundException, NoAvailableOrdersException, OrderNotFoundException, CourierNotFoundException {
         Long courierId = 1L;
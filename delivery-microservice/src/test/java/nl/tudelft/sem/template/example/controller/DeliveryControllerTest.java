@@ -3,14 +3,20 @@ import nl.tudelft.sem.template.example.authorization.AuthorizationService;
 import nl.tudelft.sem.template.example.exception.*;
 import nl.tudelft.sem.template.example.service.DeliveryService;
 import nl.tudelft.sem.template.example.service.OrderService;
+import nl.tudelft.sem.template.example.tracking.LocationStreamBroadcaster;
 import nl.tudelft.sem.template.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -26,6 +32,8 @@ public class DeliveryControllerTest {
 
     private AuthorizationService authorizationService;
 
+    private LocationStreamBroadcaster locationStreamBroadcaster;
+
     private DeliveryController deliveryController;
 
     private DeliveryPostRequest dummyDeliveryPostRequest;
@@ -54,7 +62,9 @@ public class DeliveryControllerTest {
         authorizationService = Mockito.mock(AuthorizationService.class);
         orderService = Mockito.mock(OrderService.class);
         authorizationService = Mockito.mock(AuthorizationService.class);
-        deliveryController = new DeliveryController(deliveryService, orderService, authorizationService);
+        locationStreamBroadcaster = Mockito.mock(LocationStreamBroadcaster.class);
+        deliveryController = new DeliveryController(deliveryService, orderService, authorizationService,
+                locationStreamBroadcaster);
 
         // Default authorization behavior
         when(authorizationService.getUserRole(anyLong())).thenReturn("customer");
@@ -101,6 +111,74 @@ public class DeliveryControllerTest {
         assertEquals(400, response.getStatusCodeValue());
     }
 
+    @Test
+    public void testDeliveryBulkPostSuccess() {
+        DeliveryCreationResult created = new DeliveryCreationResult();
+        created.setOrderId(123L);
+        created.setResult(DeliveryCreationResult.ResultEnum.CREATED);
+        Map<Long, Vendor> vendors = Map.of(1L, new Vendor());
+        when(deliveryService.findVendorsOrCreate(List.of(dummyDeliveryPostRequest))).thenReturn(vendors);
+        when(deliveryService.createDeliveries(List.of(dummyDeliveryPostRequest), vendors)).thenReturn(List.of(created));
+
+        ResponseEntity<List<DeliveryCreationResult>> response =
+                deliveryController.deliveryBulkPost(1, List.of(dummyDeliveryPostRequest));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(created), response.getBody());
+    }
+
+    @Test
+    public void testDeliveryBulkPostEmpty() {
+        ResponseEntity<List<DeliveryCreationResult>> response = deliveryController.deliveryBulkPost(1, List.of());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(deliveryService, never()).findVendorsOrCreate(any());
+        verify(deliveryService, never()).createDeliveries(any(), any());
+    }
+
+    @Test
+    public void testDeliveryBulkPostTooLarge() {
+        ResponseEntity<List<DeliveryCreationResult>> response = deliveryController.deliveryBulkPost(1,
+                Collections.nCopies(DeliveryController.MAX_BULK_DELIVERIES + 1, dummyDeliveryPostRequest));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(deliveryService, never()).findVendorsOrCreate(any());
+        verify(deliveryService, never()).createDeliveries(any(), any());
+    }
+
+    @Test
+    public void testDeliveryOrdersStatusPutSuccess() throws MicroserviceCommunicationException {
+        List<OrderStatusUpdate> updates = List.of(new OrderStatusUpdate().orderId(1L).status("Preparing"),
+                new OrderStatusUpdate().orderId(2L).status("Preparing"), new OrderStatusUpdate().orderId(1L).status("Given_To_Courier"));
+        List<OrderStatusUpdateResult> results = List.of(new OrderStatusUpdateResult().orderId(1L));
+        when(authorizationService.findUpdatableOrders(5L, List.of(1L, 2L))).thenReturn(Set.of(1L));
+        when(orderService.setOrderStatuses(5, updates, Set.of(1L))).thenReturn(results);
+
+        ResponseEntity<List<OrderStatusUpdateResult>> response = deliveryController.deliveryOrdersStatusPut(5, updates);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(results, response.getBody());
+    }
+
+    @Test
+    public void testDeliveryOrdersStatusPutEmpty() {
+        ResponseEntity<List<OrderStatusUpdateResult>> response = deliveryController.deliveryOrdersStatusPut(5, List.of());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    public void testDeliveryOrdersStatusPutCommunicationError() throws MicroserviceCommunicationException {
+        when(authorizationService.findUpdatableOrders(anyLong(), any())).thenThrow(MicroserviceCommunicationException.class);
+
+        ResponseEntity<List<OrderStatusUpdateResult>> response = deliveryController.deliveryOrdersStatusPut(5,
+                List.of(new OrderStatusUpdate().orderId(1L).status("Preparing")));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        verifyNoInteractions(orderService);
+    }
+
     @Test
     public void testDeliveryOrderOrderIdStatusPut_Success() throws MicroserviceCommunicationException, OrderNotFoundException, IllegalOrderStatusException {
         when(authorizationService.canUpdateDeliveryDetails(anyLong(), anyLong())).thenReturn(true);
@@ -597,6 +675,48 @@ public class DeliveryControllerTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    @Test
+    public void testDeliveryOrderOrderIdSummaryGet_Success() throws Exception {
+        DeliverySummary summary = new DeliverySummary();
+        summary.setOrderId(123L);
+        when(deliveryService.getSummary(123L)).thenReturn(summary);
+
+        ResponseEntity<DeliverySummary> response = deliveryController.deliveryOrderOrderIdSummaryGet(123, 1);
+
+        verify(authorizationService, times(1)).canViewDeliveryDetails(1L, 123L);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(summary, response.getBody());
+    }
+
+    @Test
+    public void testDeliveryOrderOrderIdSummaryGet_Forbidden() throws Exception {
+        when(authorizationService.canViewDeliveryDetails(anyLong(), anyLong())).thenReturn(false);
+
+        ResponseEntity<DeliverySummary> response = deliveryController.deliveryOrderOrderIdSummaryGet(123, 1);
+
+        verify(deliveryService, never()).getSummary(anyLong());
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+
+    @Test
+    public void testDeliveryOrderOrderIdSummaryGet_OrderNotFound() throws Exception {
+        when(deliveryService.getSummary(123L)).thenThrow(new OrderNotFoundException("Order not found"));
+
+        ResponseEntity<DeliverySummary> response = deliveryController.deliveryOrderOrderIdSummaryGet(123, 1);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    public void testDeliveryOrderOrderIdSummaryGet_InternalServerError() throws Exception {
+        when(authorizationService.canViewDeliveryDetails(anyLong(), anyLong()))
+                .thenThrow(MicroserviceCommunicationException.class);
+
+        ResponseEntity<DeliverySummary> response = deliveryController.deliveryOrderOrderIdSummaryGet(123, 1);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
     @Test
     public void testDeliveryOrderOrderIdEtaGet_Exception() throws Exception {
         when(deliveryService.getEta(123L)).thenThrow(new RuntimeException("Unexpected error"));
@@ -665,19 +785,61 @@ public class DeliveryControllerTest {
 
     @Test
     public void testDeliveryOrderOrderIdLocationGet_Success() throws MicroserviceCommunicationException, OrderNotFoundException {
-        when(deliveryService.getDeliveryIdByOrderId(123L)).thenReturn(456L);
+        when(authorizationService.canViewDeliveryDetails(1L, 123L)).thenReturn(true);
         Location liveLocation = new Location(1.0, 2.0);
-        when(deliveryService.calculateLiveLocation(456L)).thenReturn(liveLocation);
+        when(deliveryService.calculateLiveLocation(123L)).thenReturn(liveLocation);
 
         ResponseEntity<Location> response = deliveryController.deliveryOrderOrderIdLocationGet(123, 1);
 
+        // the delivery of order 123 has id 456, the location is looked up by the order
         verify(authorizationService).canViewDeliveryDetails(1L, 123L);
-        verify(deliveryService).getDeliveryIdByOrderId(123L);
-        verify(deliveryService).calculateLiveLocation(456L);
+        verify(deliveryService).calculateLiveLocation(123L);
+        verify(deliveryService, never()).calculateLiveLocation(456L);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(liveLocation, response.getBody());
     }
 
+    @Test
+    public void testDeliveryOrderOrderIdLocationStreamGet_Success() throws MicroserviceCommunicationException, OrderNotFoundException {
+        SseEmitter emitter = new SseEmitter();
+        when(authorizationService.canViewDeliveryDetails(1L, 123L)).thenReturn(true);
+        when(locationStreamBroadcaster.subscribe(123L)).thenReturn(emitter);
+
+        ResponseEntity<SseEmitter> response = deliveryController.deliveryOrderOrderIdLocationStreamGet(123, 1);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(emitter, response.getBody());
+    }
+
+    @Test
+    public void testDeliveryOrderOrderIdLocationStreamGet_Unauthorized() throws MicroserviceCommunicationException, OrderNotFoundException {
+        when(authorizationService.canViewDeliveryDetails(1L, 123L)).thenReturn(false);
+
+        ResponseEntity<SseEmitter> response = deliveryController.deliveryOrderOrderIdLocationStreamGet(123, 1);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verify(locationStreamBroadcaster, never()).subscribe(anyLong());
+    }
+
+    @Test
+    public void testDeliveryOrderOrderIdLocationStreamGet_NotFound() throws MicroserviceCommunicationException, OrderNotFoundException {
+        when(authorizationService.canViewDeliveryDetails(1L, 123L)).thenReturn(true);
+        when(locationStreamBroadcaster.subscribe(123L)).thenThrow(new OrderNotFoundException("Order not found"));
+
+        ResponseEntity<SseEmitter> response = deliveryController.deliveryOrderOrderIdLocationStreamGet(123, 1);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    public void testDeliveryOrderOrderIdLocationStreamGet_MicroserviceCommunicationException() throws MicroserviceCommunicationException {
+        when(authorizationService.canViewDeliveryDetails(1L, 123L)).thenThrow(MicroserviceCommunicationException.class);
+
+        ResponseEntity<SseEmitter> response = deliveryController.deliveryOrderOrderIdLocationStreamGet(123, 1);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
     @Test
     public void testDeliveryOrderOrderIdLocationGet_Unauthorized() throws MicroserviceCommunicationException, OrderNotFoundException {
         when(authorizationService.canViewDeliveryDetails(1L, 123L)).thenReturn(false);
@@ -685,7 +847,6 @@ public class DeliveryControllerTest {
         ResponseEntity<Location> response = deliveryController.deliveryOrderOrderIdLocationGet(123, 1);
 
         verify(authorizationService).canViewDeliveryDetails(1L, 123L);
-        verify(deliveryService, never()).getDeliveryIdByOrderId(anyLong());
         verify(deliveryService, never()).calculateLiveLocation(anyLong());
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
     }
@@ -700,13 +861,13 @@ public class DeliveryControllerTest {
 
     @Test
     public void testDeliveryOrderOrderIdLocationGet_NotFoundOnOrderNotFoundException() throws MicroserviceCommunicationException, OrderNotFoundException {
-        when(deliveryService.getDeliveryIdByOrderId(123L)).thenThrow(OrderNotFoundException.class);
+        when(authorizationService.canViewDeliveryDetails(1L, 123L)).thenReturn(true);
+        when(deliveryService.calculateLiveLocation(123L)).thenThrow(OrderNotFoundException.class);
 
         ResponseEntity<Location> response = deliveryController.deliveryOrderOrderIdLocationGet(123, 1);
 
         verify(authorizationService).canViewDeliveryDetails(1L, 123L);
-        verify(deliveryService).getDeliveryIdByOrderId(123L);
-        verify(deliveryService, never()).calculateLiveLocation(anyLong());
+        verify(deliveryService).calculateLiveLocation(123L);
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
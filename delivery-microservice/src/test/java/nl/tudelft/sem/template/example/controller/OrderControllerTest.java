@@ -1,18 +1,24 @@
 package nl.tudelft.sem.template.example.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import nl.tudelft.sem.template.example.authorization.AuthorizationService;
 import nl.tudelft.sem.template.example.exception.MicroserviceCommunicationException;
 
-import nl.tudelft.sem.template.example.external.OrdersMicroservice;
 import nl.tudelft.sem.template.example.repository.OrderRepository;
+import nl.tudelft.sem.template.example.repository.OrderStatusOutboxRepository;
 import nl.tudelft.sem.template.example.service.DeliveryService;
 import nl.tudelft.sem.template.example.service.OrderService;
+import nl.tudelft.sem.template.example.statemachine.OrderStateMachine;
+import nl.tudelft.sem.template.example.tracking.LocationStreamBroadcaster;
 import nl.tudelft.sem.template.model.Location;
 import nl.tudelft.sem.template.model.Order;
 import nl.tudelft.sem.template.model.Vendor;
@@ -29,15 +35,17 @@ import java.util.Optional;
 public class OrderControllerTest {
     private final OrderRepository orderRepository = Mockito.mock(OrderRepository.class);
 
-    private final OrdersMicroservice ordersMicroservice = Mockito.mock(OrdersMicroservice.class);
+    private final OrderStatusOutboxRepository outboxRepository = Mockito.mock(OrderStatusOutboxRepository.class);
 
-    private final OrderService orderService = new OrderService(orderRepository, ordersMicroservice);
+    private final OrderService orderService = new OrderService(orderRepository, outboxRepository,
+            new OrderStateMachine(event -> { }));
 
     private final DeliveryService deliveryService = Mockito.mock(DeliveryService.class);
 
     private final AuthorizationService authorizationService = Mockito.mock(AuthorizationService.class);
 
-    private final DeliveryController orderController = new DeliveryController(deliveryService, orderService, authorizationService);
+    private final DeliveryController orderController = new DeliveryController(deliveryService, orderService, authorizationService,
+            Mockito.mock(LocationStreamBroadcaster.class));
 
     @BeforeEach
     void setup() throws MicroserviceCommunicationException {
@@ -129,7 +137,6 @@ public class OrderControllerTest {
 
     @Test
     void putOrderStatusPendingToPendingTest() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         String newStatus = "Pending";
         orderController.deliveryOrderOrderIdStatusPut(1, 1, newStatus);
         ResponseEntity<Void> response = orderController.deliveryOrderOrderIdStatusPut(1, 1, newStatus);
@@ -141,7 +148,6 @@ public class OrderControllerTest {
 
     @Test
     void putOrderStatusPendingToAcceptedTest() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         String newStatus = "Accepted";
         orderController.deliveryOrderOrderIdStatusPut(1, 1, newStatus);
         ResponseEntity<Void> response = orderController.deliveryOrderOrderIdStatusPut(1, 1, newStatus);
@@ -153,7 +159,6 @@ public class OrderControllerTest {
 
     @Test
     void putOrderStatusPendingToAcceptedNoChangeTest() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         String newStatus = "Accepted";
         orderController.deliveryOrderOrderIdStatusPut(1, 1, newStatus);
         ResponseEntity<Void> response = orderController.deliveryOrderOrderIdStatusPut(1, 1, newStatus);
@@ -164,7 +169,6 @@ public class OrderControllerTest {
     }
     @Test
     void putOrderStatusPendingToRejectedTest() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         String newStatus = "Rejected";
         orderController.deliveryOrderOrderIdStatusPut(1, 1, newStatus);
         ResponseEntity<Void> response = orderController.deliveryOrderOrderIdStatusPut(1, 1, newStatus);
@@ -176,7 +180,6 @@ public class OrderControllerTest {
 
     @Test
     void putOrderStatusAcceptedToPreparingTest() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         String newStatus = "Preparing";
         orderController.deliveryOrderOrderIdStatusPut(2, 1, newStatus);
         ResponseEntity<Void> response = orderController.deliveryOrderOrderIdStatusPut(2, 1, newStatus);
@@ -188,7 +191,6 @@ public class OrderControllerTest {
 
     @Test
     void putOrderStatusPreparingToGivenToCourierTest() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         String newStatus = "Given_To_Courier";
         orderController.deliveryOrderOrderIdStatusPut(4, 1, newStatus);
         ResponseEntity<Void> response =  orderController.deliveryOrderOrderIdStatusPut(4, 1, newStatus);
@@ -200,7 +202,6 @@ public class OrderControllerTest {
 
     @Test
     void putOrderStatusGivenToCourierToOnTransitTest() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         String newStatus = "On_Transit";
         orderController.deliveryOrderOrderIdStatusPut(5, 1, newStatus);
         ResponseEntity<Void> response = orderController.deliveryOrderOrderIdStatusPut(5, 1, newStatus);
@@ -212,7 +213,6 @@ public class OrderControllerTest {
 
     @Test
     void putOrderStatusOnTransitToDeliveredTest() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         String newStatus = "Delivered";
         orderController.deliveryOrderOrderIdStatusPut(6, 1, newStatus);
         ResponseEntity<Void> response = orderController.deliveryOrderOrderIdStatusPut(6, 1, newStatus);
@@ -224,7 +224,6 @@ public class OrderControllerTest {
 
     @Test
     void putOrderStatusPendingToPreparingTest() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         String newStatus = "Preparing";
         orderController.deliveryOrderOrderIdStatusPut(1, 1, newStatus);
         ResponseEntity<Void> response = orderController.deliveryOrderOrderIdStatusPut(1, 1, newStatus);
@@ -236,7 +235,6 @@ public class OrderControllerTest {
 
     @Test
     void putOrderStatusRejectedToPreparingTest() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         String newStatus = "Preparing";
         orderController.deliveryOrderOrderIdStatusPut(3, 1, newStatus);
         ResponseEntity<Void> response = orderController.deliveryOrderOrderIdStatusPut(3, 1, newStatus);
@@ -248,7 +246,6 @@ public class OrderControllerTest {
 
     @Test
     void putOrderStatusAcceptedToElseTest() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         String newStatus = "Pending";
         orderController.deliveryOrderOrderIdStatusPut(2, 1, newStatus);
         ResponseEntity<Void> response = orderController.deliveryOrderOrderIdStatusPut(2, 1, newStatus);
@@ -264,7 +261,6 @@ public class OrderControllerTest {
     }
     @Test
     void putOrderStatusPreparingToOnTransitTest() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         String newStatus = "On_Transit";
         orderController.deliveryOrderOrderIdStatusPut(4, 1, newStatus);
         String status = orderController.deliveryOrderOrderIdStatusGet(4, 1).getBody();
@@ -273,7 +269,6 @@ public class OrderControllerTest {
 
     @Test
     void putOrderStatusGivenToCourierToDeliveredTest() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         String newStatus = "Delivered";
         orderController.deliveryOrderOrderIdStatusPut(5, 1, newStatus);
         String status = orderController.deliveryOrderOrderIdStatusGet(5, 1).getBody();
@@ -281,7 +276,6 @@ public class OrderControllerTest {
     }
     @Test
     void putOrderStatusOnTransitToGivenToCourierTest() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         String newStatus = "Given_To_Courier";
         orderController.deliveryOrderOrderIdStatusPut(6, 1, newStatus);
         String status = orderController.deliveryOrderOrderIdStatusGet(6, 1).getBody();
@@ -290,7 +284,6 @@ public class OrderControllerTest {
 
     @Test
     void putOrderStatusDeliveredToOnTransitTest() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         String newStatus = "On_Transit";
         orderController.deliveryOrderOrderIdStatusPut(7, 1, newStatus);
         String status = orderController.deliveryOrderOrderIdStatusGet(7, 1).getBody();
@@ -299,10 +292,17 @@ public class OrderControllerTest {
     }
 
     @Test
-    void putOrderStatusBadMicroserviceCommunication() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(false);
+    void putOrderStatusRecordsOutboxEvent() {
         String newStatus = "Delivered";
         ResponseEntity<Void> result = orderController.deliveryOrderOrderIdStatusPut(6, 1, newStatus);
-        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.valueOf(500));
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(outboxRepository).save(argThat(event -> event.getOrderId() == 6L && event.getStatus().equals("Delivered")));
+    }
+
+    @Test
+    void putOrderStatusInvalidTransitionRecordsNoOutboxEvent() {
+        ResponseEntity<Void> result = orderController.deliveryOrderOrderIdStatusPut(3, 1, "Accepted");
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(outboxRepository, never()).save(any());
     }
 }
@@ -229,4 +229,39 @@ public class VendorControllerTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNull(response.getBody());
     }
+
+    @Test
+    void coverageReturnsTheVendorsDeliveringToTheLocation() throws MicroserviceCommunicationException {
+        when(authorizationService.getUserRole(1L)).thenReturn("customer");
+        when(vendorService.getVendorsDeliveringTo(new Location(52.0, 4.3))).thenReturn(List.of(3L, 2L));
+
+        ResponseEntity<List<Long>> response = vendorController.vendorDeliveryCoverageGet(1, 52.0, 4.3);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(3L, 2L), response.getBody());
+    }
+
+    @Test
+    void coverageOfAnInvalidLocationIsABadRequest() {
+        assertEquals(HttpStatus.BAD_REQUEST, vendorController.vendorDeliveryCoverageGet(1, 91.0, 4.3).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, vendorController.vendorDeliveryCoverageGet(1, 52.0, -181.0).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, vendorController.vendorDeliveryCoverageGet(1, null, 4.3).getStatusCode());
+    }
+
+    @Test
+    void coverageIsForbiddenForCouriersAndVendors() throws MicroserviceCommunicationException {
+        when(authorizationService.getUserRole(1L)).thenReturn("courier");
+        when(authorizationService.getUserRole(2L)).thenReturn("vendor");
+
+        assertEquals(HttpStatus.FORBIDDEN, vendorController.vendorDeliveryCoverageGet(1, 52.0, 4.3).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, vendorController.vendorDeliveryCoverageGet(2, 52.0, 4.3).getStatusCode());
+        Mockito.verify(vendorService, Mockito.never()).getVendorsDeliveringTo(any());
+    }
+
+    @Test
+    void coverageForAnUnknownUserIsABadRequest() throws MicroserviceCommunicationException {
+        when(authorizationService.getUserRole(1L)).thenThrow(new MicroserviceCommunicationException("not found"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, vendorController.vendorDeliveryCoverageGet(1, 52.0, 4.3).getStatusCode());
+    }
 }
@@ -68,13 +68,13 @@ public class SystemMockMvcTest {
         dummyDeliveryPostRequest.setVendorId(55);
         dummyDeliveryPostRequest.setOrderId(66);
         dummyDeliveryPostRequest.setCustomerId(77);
-        dummyDeliveryPostRequest.setDestination(new Location(13.0, 13.0));
+        dummyDeliveryPostRequest.setDestination(new Location(2.1, 3.1));
 
         dummyDeliveryPostRequest2 = new DeliveryPostRequest();
         dummyDeliveryPostRequest2.setVendorId(111);
         dummyDeliveryPostRequest2.setOrderId(2020);
         dummyDeliveryPostRequest2.setCustomerId(712);
-        dummyDeliveryPostRequest2.setDestination(new Location(13.0, 13.0));
+        dummyDeliveryPostRequest2.setDestination(new Location(2.1, 3.1));
 
         when(usersMicroservice.getUserType(55L)).thenReturn(Optional.of("vendor"));
         when(usersMicroservice.getUserType(77L)).thenReturn(Optional.of("customer"));
@@ -85,8 +85,6 @@ public class SystemMockMvcTest {
         when(usersMicroservice.getUserType(1111L)).thenReturn(Optional.of("courier"));
 
         when(usersMicroservice.getVendorLocation(any())).thenReturn(Optional.of(new Location(2.0, 3.0)));
-
-        when(ordersMicroservice.putOrderStatus(any(), any(), any())).thenReturn(true);
     }
 
     @AfterEach
@@ -0,0 +1,138 @@
+package nl.tudelft.sem.template.example.dispatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import nl.tudelft.sem.template.example.cache.AvailableOrderPool;
+import nl.tudelft.sem.template.example.cache.CourierVendorIndex;
+import nl.tudelft.sem.template.example.repository.AvailableOrder;
+import nl.tudelft.sem.template.example.repository.DeliveryRepository;
+import nl.tudelft.sem.template.example.repository.VendorRepository;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+class BatchDispatcherTest {
+    private static final Instant NOW = Instant.parse("2024-01-10T12:00:00Z");
+
+    private DeliveryRepository deliveryRepository;
+
+    private VendorRepository vendorRepository;
+
+    private AvailableOrderPool availableOrderPool;
+
+    private Clock clock;
+
+    private BatchDispatcher dispatcher;
+
+    @BeforeEach
+    void setup() {
+        deliveryRepository = mock(DeliveryRepository.class);
+        vendorRepository = mock(VendorRepository.class);
+        availableOrderPool = mock(AvailableOrderPool.class);
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+        dispatcher = dispatcher(true);
+        when(vendorRepository.findIdsOfVendorsWithCouriers()).thenReturn(List.of(3L));
+        when(vendorRepository.findVendorIdsByCourierId(anyLong())).thenReturn(List.of());
+        when(vendorRepository.findVendorIdsByCourierId(30L)).thenReturn(List.of(3L));
+        when(deliveryRepository.claimOrder(anyLong(), anyLong(), any())).thenReturn(1);
+    }
+
+    private BatchDispatcher dispatcher(boolean enabled) {
+        return new BatchDispatcher(deliveryRepository, vendorRepository, new CourierVendorIndex(vendorRepository),
+                availableOrderPool, TransactionOperations.withoutTransaction(), clock, enabled, 100, 200.0,
+                Duration.ofMinutes(5));
+    }
+
+    @Test
+    void couriersAreMatchedToMinimiseTheTotalDistance() {
+        when(deliveryRepository.findUnassignedOrdersByStatus(Order.StatusEnum.ACCEPTED)).thenReturn(List.of(
+                new AvailableOrder(100L, 1L, 0.0, 1.0), new AvailableOrder(101L, 2L, 0.0, 3.0)));
+        // Courier 10 is closest to both orders, but giving it the first one is cheaper overall.
+        dispatcher.courierIdle(10L, new Location(0.0, 1.5));
+        dispatcher.courierIdle(11L, new Location(0.0, 5.0));
+
+        assertThat(dispatcher.dispatchIdleCouriers()).isEqualTo(2);
+
+        verify(deliveryRepository).claimOrder(10L, 100L, Order.StatusEnum.ACCEPTED);
+        verify(deliveryRepository).claimOrder(11L, 101L, Order.StatusEnum.ACCEPTED);
+        verify(availableOrderPool).orderUnavailable(100L);
+        verify(availableOrderPool).orderUnavailable(101L);
+        assertThat(dispatcher.isIdle(10L)).isFalse();
+        assertThat(dispatcher.isIdle(11L)).isFalse();
+    }
+
+    @Test
+    void ordersThatAreReadySoonerArePreferred() {
+        when(deliveryRepository.findUnassignedOrdersByStatus(Order.StatusEnum.ACCEPTED)).thenReturn(List.of(
+                new AvailableOrder(100L, 1L, 0.0, 1.0, OffsetDateTime.ofInstant(NOW.plusSeconds(600), ZoneOffset.UTC)),
+                new AvailableOrder(101L, 2L, 0.0, 2.0, OffsetDateTime.ofInstant(NOW.minusSeconds(60), ZoneOffset.UTC))));
+        dispatcher.courierIdle(10L, new Location(0.0, 1.0));
+
+        dispatcher.dispatchIdleCouriers();
+
+        verify(deliveryRepository).claimOrder(10L, 101L, Order.StatusEnum.ACCEPTED);
+        verify(deliveryRepository, never()).claimOrder(10L, 100L, Order.StatusEnum.ACCEPTED);
+    }
+
+    @Test
+    void vendorCouriersOnlyGetOrdersOfTheirVendor() {
+        when(deliveryRepository.findUnassignedOrdersByStatus(Order.StatusEnum.ACCEPTED)).thenReturn(List.of(
+                new AvailableOrder(100L, 1L, 0.0, 0.0), new AvailableOrder(101L, 3L, 9.0, 9.0)));
+        dispatcher.courierIdle(30L, new Location(0.0, 0.0));
+        dispatcher.courierIdle(10L, new Location(9.0, 9.0));
+
+        assertThat(dispatcher.dispatchIdleCouriers()).isEqualTo(2);
+
+        verify(deliveryRepository).claimOrder(30L, 101L, Order.StatusEnum.ACCEPTED);
+        verify(deliveryRepository).claimOrder(10L, 100L, Order.StatusEnum.ACCEPTED);
+    }
+
+    @Test
+    void couriersWhoseClaimFailedStayQueued() {
+        when(deliveryRepository.findUnassignedOrdersByStatus(Order.StatusEnum.ACCEPTED))
+                .thenReturn(List.of(new AvailableOrder(100L, 1L, 0.0, 0.0)));
+        when(deliveryRepository.claimOrder(10L, 100L, Order.StatusEnum.ACCEPTED)).thenReturn(0);
+        dispatcher.courierIdle(10L, new Location(0.0, 0.0));
+
+        assertThat(dispatcher.dispatchIdleCouriers()).isZero();
+
+        assertThat(dispatcher.isIdle(10L)).isTrue();
+        verify(availableOrderPool, never()).orderUnavailable(anyLong());
+    }
+
+    @Test
+    void couriersWaitingTooLongAreDropped() {
+        dispatcher.courierIdle(10L, new Location(0.0, 0.0));
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(6)));
+
+        assertThat(dispatcher.dispatchIdleCouriers()).isZero();
+
+        assertThat(dispatcher.isIdle(10L)).isFalse();
+        verify(deliveryRepository, never()).findUnassignedOrdersByStatus(any());
+    }
+
+    @Test
+    void nothingIsDispatchedWhenDisabled() {
+        BatchDispatcher disabled = dispatcher(false);
+        disabled.courierIdle(10L, new Location(0.0, 0.0));
+
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThat(disabled.dispatchIdleCouriers()).isZero();
+        verify(deliveryRepository, never()).findUnassignedOrdersByStatus(any());
+    }
+}
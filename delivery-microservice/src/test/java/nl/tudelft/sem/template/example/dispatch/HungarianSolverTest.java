@@ -0,0 +1,103 @@
+package nl.tudelft.sem.template.example.dispatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+class HungarianSolverTest {
+
+    @Test
+    void squareProblemIsSolved() {
+        double[][] costs = {
+            {4, 1, 3},
+            {2, 0, 5},
+            {3, 2, 2}
+        };
+
+        assertThat(HungarianSolver.solve(costs)).containsExactly(1, 0, 2);
+    }
+
+    @Test
+    void extraColumnsAreLeftOver() {
+        double[][] costs = {
+            {9, 1, 9, 9},
+            {9, 9, 9, 2}
+        };
+
+        assertThat(HungarianSolver.solve(costs)).containsExactly(1, 3);
+    }
+
+    @Test
+    void extraRowsAreLeftUnmatched() {
+        double[][] costs = {
+            {5},
+            {1},
+            {3}
+        };
+
+        assertThat(HungarianSolver.solve(costs)).containsExactly(-1, 0, -1);
+    }
+
+    @Test
+    void emptyProblemHasNoMatches() {
+        assertThat(HungarianSolver.solve(new double[0][0])).isEmpty();
+    }
+
+    @Test
+    void matchesBruteForceOnRandomProblems() {
+        Random random = new Random(7);
+        for (int problem = 0; problem < 200; problem++) {
+            int rows = 1 + random.nextInt(6);
+            int columns = 1 + random.nextInt(6);
+            double[][] costs = new double[rows][columns];
+            for (double[] row : costs) {
+                Arrays.setAll(row, column -> random.nextInt(100) / 10.0);
+            }
+
+            int[] matches = HungarianSolver.solve(costs);
+
+            assertThat(Arrays.stream(matches).filter(column -> column >= 0).distinct().count())
+                    .isEqualTo(Math.min(rows, columns));
+            assertThat(total(costs, matches)).isCloseTo(bruteForce(costs, 0, new boolean[columns]),
+                    Offset.offset(1e-9));
+        }
+    }
+
+    private static double total(double[][] costs, int[] matches) {
+        double total = 0;
+        for (int row = 0; row < matches.length; row++) {
+            if (matches[row] >= 0) {
+                total += costs[row][matches[row]];
+            }
+        }
+        return total;
+    }
+
+    private static double bruteForce(double[][] costs, int row, boolean[] used) {
+        int rows = costs.length;
+        int columns = used.length;
+        if (row == rows) {
+            return 0;
+        }
+        double best = Double.POSITIVE_INFINITY;
+        int matchedSoFar = 0;
+        for (boolean columnUsed : used) {
+            matchedSoFar += columnUsed ? 1 : 0;
+        }
+        // A row may only stay unmatched when there are not enough columns for the remaining rows.
+        if (rows - row > columns - matchedSoFar) {
+            best = bruteForce(costs, row + 1, used);
+        }
+        for (int column = 0; column < columns; column++) {
+            if (!used[column]) {
+                used[column] = true;
+                best = Math.min(best, costs[row][column] + bruteForce(costs, row + 1, used));
+                used[column] = false;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,98 @@
+package nl.tudelft.sem.template.example.eta;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import nl.tudelft.sem.template.example.cache.ExpiringCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EtaCacheTest {
+    private static final OffsetDateTime ETA = OffsetDateTime.parse("2024-01-10T12:30:00Z");
+
+    private Clock clock;
+
+    private EtaCache cache;
+
+    @BeforeEach
+    void setup() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        cache = new EtaCache(new ExpiringCache<>(Duration.ofSeconds(15), 100, clock));
+    }
+
+    private void put(long orderId, OffsetDateTime eta) {
+        try (EtaCache.Estimate estimate = cache.startEstimate(orderId)) {
+            estimate.put(eta);
+        }
+    }
+
+    @Test
+    void estimatesAreCachedPerOrder() {
+        put(1L, ETA);
+
+        assertThat(cache.get(1L)).contains(ETA);
+        assertThat(cache.get(2L)).isEmpty();
+    }
+
+    @Test
+    void invalidatedEstimatesAreDropped() {
+        put(1L, ETA);
+        put(2L, ETA);
+
+        cache.invalidate(1L);
+
+        assertThat(cache.get(1L)).isEmpty();
+        assertThat(cache.get(2L)).contains(ETA);
+    }
+
+    @Test
+    void estimatesStartedBeforeAnInvalidationAreNotCached() {
+        try (EtaCache.Estimate estimate = cache.startEstimate(1L)) {
+            cache.invalidate(1L);
+            estimate.put(ETA);
+        }
+
+        assertThat(cache.get(1L)).isEmpty();
+    }
+
+    @Test
+    void invalidatingAnotherOrderDoesNotKeepAnEstimateFromBeingCached() {
+        try (EtaCache.Estimate estimate = cache.startEstimate(1L)) {
+            cache.invalidate(2L);
+            estimate.put(ETA);
+        }
+
+        assertThat(cache.get(1L)).contains(ETA);
+    }
+
+    @Test
+    void onlyTheEstimatesInProgressAreTracked() {
+        EtaCache.Estimate first = cache.startEstimate(1L);
+        EtaCache.Estimate second = cache.startEstimate(1L);
+        cache.invalidate(1L);
+        first.close();
+        first.close();
+        assertThat(cache.pendingOrders()).isEqualTo(1);
+
+        second.close();
+        cache.invalidate(3L);
+
+        assertThat(cache.pendingOrders()).isEqualTo(0);
+        put(1L, ETA);
+        assertThat(cache.get(1L)).contains(ETA);
+    }
+
+    @Test
+    void estimatesExpire() {
+        put(1L, ETA);
+        when(clock.millis()).thenReturn(15_000L);
+
+        assertThat(cache.get(1L)).isEmpty();
+        assertThat(cache.getCache().getEvictionCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,80 @@
+package nl.tudelft.sem.template.example.eta;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import nl.tudelft.sem.template.example.Application;
+import nl.tudelft.sem.template.example.statemachine.OrderStatusChangedEvent;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Order;
+import nl.tudelft.sem.template.model.Vendor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(classes = Application.class)
+class EtaCacheTransactionTest {
+    private static final long ORDER_ID = 880_002L;
+
+    private static final OffsetDateTime ETA = OffsetDateTime.parse("2024-01-10T12:30:00Z");
+
+    private final EtaCache etaCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    EtaCacheTransactionTest(EtaCache etaCache, ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager) {
+        this.etaCache = etaCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        etaCache.invalidate(ORDER_ID);
+    }
+
+    private OrderStatusChangedEvent event() {
+        Vendor vendor = new Vendor(880L, 10L, new Location(1.0, 1.0), new ArrayList<>());
+        Order order = new Order(ORDER_ID, 1L, vendor, Order.StatusEnum.PREPARING, new Location(1.0, 1.0));
+        return new OrderStatusChangedEvent(order, Order.StatusEnum.ACCEPTED, Order.StatusEnum.PREPARING, 1L);
+    }
+
+    private void cacheEstimate() {
+        try (EtaCache.Estimate estimate = etaCache.startEstimate(ORDER_ID)) {
+            estimate.put(ETA);
+        }
+    }
+
+    @Test
+    void estimatesAreDroppedOnlyOnceTheChangeIsCommitted() {
+        cacheEstimate();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(event());
+            assertThat(etaCache.get(ORDER_ID)).contains(ETA);
+        });
+
+        assertThat(etaCache.get(ORDER_ID)).isEmpty();
+    }
+
+    @Test
+    void rolledBackChangesKeepTheEstimate() {
+        cacheEstimate();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(event());
+            status.setRollbackOnly();
+        });
+
+        assertThat(etaCache.get(ORDER_ID)).contains(ETA);
+    }
+}
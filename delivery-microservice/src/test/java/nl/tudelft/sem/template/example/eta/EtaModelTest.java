@@ -0,0 +1,211 @@
+package nl.tudelft.sem.template.example.eta;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import nl.tudelft.sem.template.example.repository.CompletedDelivery;
+import nl.tudelft.sem.template.example.repository.DeliveryRepository;
+import nl.tudelft.sem.template.model.Delivery;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Order;
+import nl.tudelft.sem.template.model.Time;
+import nl.tudelft.sem.template.model.Vendor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EtaModelTest {
+    private static final OffsetDateTime NOW = OffsetDateTime.parse("2024-01-10T12:00:00Z");
+
+    // 0.09 degrees of longitude on the equator are 10007.5 meters.
+    private static final Location VENDOR = new Location(0.0, 0.0);
+
+    private static final Location DESTINATION = new Location(0.0, 0.09);
+
+    private static final double METERS = 10_007.5;
+
+    private DeliveryRepository deliveryRepository;
+
+    private Clock clock;
+
+    @BeforeEach
+    void setup() {
+        deliveryRepository = mock(DeliveryRepository.class);
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW.toInstant());
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+    }
+
+    private EtaModel model(double priorWeight) {
+        return new EtaModel(deliveryRepository, clock, ZoneOffset.UTC, 5.0, Duration.ofMinutes(15),
+                Duration.ofMinutes(5), priorWeight);
+    }
+
+    private static Delivery delivery(long vendorId, Order.StatusEnum status, Time time) {
+        Vendor vendor = new Vendor(vendorId, 10L, VENDOR, new ArrayList<>());
+        return new Delivery(1L, new Order(1L, 2L, vendor, status, DESTINATION), 7L, null, time, null);
+    }
+
+    private static void complete(EtaModel model, long vendorId, OffsetDateTime ready, OffsetDateTime pickUp,
+                                 OffsetDateTime delivered) {
+        model.tripChanged(null, model.tripOf(delivery(vendorId, Order.StatusEnum.DELIVERED,
+                new Time(pickUp, ready, delivered))));
+    }
+
+    private static OffsetDateTime after(OffsetDateTime start, double seconds) {
+        return start.plus(Duration.ofMillis(Math.round(seconds * 1000)));
+    }
+
+    @Test
+    void defaultsAreUsedWithoutHistory() {
+        EtaModel model = model(5.0);
+
+        OffsetDateTime eta = model.estimateArrival(delivery(1L, Order.StatusEnum.ACCEPTED, null));
+
+        assertThat(eta).isCloseTo(after(NOW.plusMinutes(20), METERS / 5), within());
+    }
+
+    @Test
+    void estimatesStartFromTheReadyTime() {
+        EtaModel model = model(5.0);
+
+        OffsetDateTime eta = model.estimateArrival(delivery(1L, Order.StatusEnum.PREPARING,
+                new Time(null, NOW.plusMinutes(30), null)));
+
+        assertThat(eta).isCloseTo(after(NOW.plusMinutes(35), METERS / 5), within());
+    }
+
+    @Test
+    void ordersThatAreLateForPickupAreExpectedToLeaveNow() {
+        EtaModel model = model(5.0);
+
+        OffsetDateTime eta = model.estimateArrival(delivery(1L, Order.StatusEnum.PREPARING,
+                new Time(null, NOW.minusHours(1), null)));
+
+        assertThat(eta).isCloseTo(after(NOW.plusMinutes(5), METERS / 5), within());
+    }
+
+    @Test
+    void pickedUpOrdersOnlyHaveToTravel() {
+        EtaModel model = model(5.0);
+
+        OffsetDateTime pickedUp = model.estimateArrival(delivery(1L, Order.StatusEnum.ON_TRANSIT,
+                new Time(NOW.minusMinutes(10), null, null)));
+        OffsetDateTime handedOver = model.estimateArrival(delivery(1L, Order.StatusEnum.GIVEN_TO_COURIER, new Time()));
+
+        assertThat(pickedUp).isCloseTo(after(NOW.minusMinutes(10), METERS / 5), within());
+        assertThat(handedOver).isCloseTo(after(NOW, METERS / 5), within());
+    }
+
+    @Test
+    void lateOrdersAreExpectedNow() {
+        EtaModel model = model(5.0);
+
+        OffsetDateTime eta = model.estimateArrival(delivery(1L, Order.StatusEnum.ON_TRANSIT,
+                new Time(NOW.minusHours(2), null, null)));
+
+        assertThat(eta).isEqualTo(NOW);
+    }
+
+    @Test
+    void deliveredOrdersArrivedWhenTheyWereDelivered() {
+        EtaModel model = model(5.0);
+
+        OffsetDateTime eta = model.estimateArrival(delivery(1L, Order.StatusEnum.DELIVERED,
+                new Time(NOW.minusHours(2), null, NOW.minusHours(1))));
+
+        assertThat(eta).isEqualTo(NOW.minusHours(1));
+    }
+
+    @Test
+    void speedAndPickupDelayAreLearnedPerVendor() {
+        EtaModel model = model(0.0);
+        // 10 m/s, picked up 2 minutes after being ready
+        complete(model, 1L, NOW.minusHours(3).minusMinutes(2), NOW.minusHours(3),
+                after(NOW.minusHours(3), METERS / 10));
+
+        OffsetDateTime eta = model.estimateArrival(delivery(1L, Order.StatusEnum.PREPARING,
+                new Time(null, NOW.plusMinutes(10), null)));
+
+        assertThat(model.completedTrips()).isEqualTo(1);
+        assertThat(eta).isCloseTo(after(NOW.plusMinutes(12), METERS / 10), within());
+    }
+
+    @Test
+    void hoursWithoutPickupsUseTheOtherHoursOfTheVendor() {
+        EtaModel model = model(0.0);
+        complete(model, 1L, NOW.minusHours(3).minusMinutes(2), NOW.minusHours(3),
+                after(NOW.minusHours(3), METERS / 10));
+
+        OffsetDateTime eta = model.estimateArrival(delivery(1L, Order.StatusEnum.PREPARING,
+                new Time(null, NOW.plusHours(5), null)));
+
+        assertThat(eta).isCloseTo(after(NOW.plusHours(5).plusMinutes(2), METERS / 10), within());
+    }
+
+    @Test
+    void sparseStatisticsLeanOnBroaderOnes() {
+        EtaModel model = model(1.0);
+        // One trip at 10 m/s at noon. Every level mixes its trip with the level above it, starting from 5 m/s:
+        // all vendors (10 + 5) / 2 = 7.5, all vendors at noon (10 + 7.5) / 2 = 8.75,
+        // vendor 1 (10 + 8.75) / 2 = 9.375 and vendor 1 at noon (10 + 9.375) / 2 = 9.6875.
+        complete(model, 1L, null, NOW, after(NOW, METERS / 10));
+
+        assertThat(model.estimateArrival(delivery(1L, Order.StatusEnum.ON_TRANSIT, new Time(NOW, null, null))))
+                .isCloseTo(after(NOW, METERS / 9.6875), within());
+        assertThat(model.estimateArrival(delivery(2L, Order.StatusEnum.ON_TRANSIT, new Time(NOW, null, null))))
+                .isCloseTo(after(NOW, METERS / 8.75), within());
+        OffsetDateTime evening = NOW.plusHours(6);
+        assertThat(model.estimateArrival(delivery(2L, Order.StatusEnum.ON_TRANSIT, new Time(evening, null, null))))
+                .isCloseTo(after(evening, METERS / 7.5), within());
+    }
+
+    @Test
+    void correctedTimesReplaceTheOldTrip() {
+        EtaModel model = model(0.0);
+        Delivery delivery = delivery(1L, Order.StatusEnum.DELIVERED,
+                new Time(NOW.minusHours(1), null, after(NOW.minusHours(1), METERS / 1)));
+        model.tripChanged(null, model.tripOf(delivery));
+
+        EtaModel.Trip before = model.tripOf(delivery);
+        delivery.getTime().setDeliveredTime(after(NOW.minusHours(1), METERS / 10));
+        model.tripChanged(before, model.tripOf(delivery));
+
+        assertThat(model.completedTrips()).isEqualTo(1);
+        assertThat(model.estimateArrival(delivery(1L, Order.StatusEnum.ON_TRANSIT, new Time(NOW, null, null))))
+                .isCloseTo(after(NOW, METERS / 10), within());
+    }
+
+    @Test
+    void unfinishedDeliveriesAreNotTrips() {
+        EtaModel model = model(5.0);
+
+        assertThat(model.tripOf(delivery(1L, Order.StatusEnum.ON_TRANSIT, new Time(NOW, null, null)))).isNull();
+        assertThat(model.tripOf(delivery(1L, Order.StatusEnum.ON_TRANSIT, null))).isNull();
+    }
+
+    @Test
+    void statisticsAreRebuiltFromTheRepository() {
+        EtaModel model = model(0.0);
+        complete(model, 2L, null, NOW.minusHours(2), after(NOW.minusHours(2), METERS / 1));
+        when(deliveryRepository.findCompletedDeliveries()).thenReturn(List.of(new CompletedDelivery(1L, 0.0, 0.0,
+                0.0, 0.09, null, NOW.minusHours(1), after(NOW.minusHours(1), METERS / 10))));
+
+        model.rebuild();
+
+        assertThat(model.completedTrips()).isEqualTo(1);
+        assertThat(model.estimateArrival(delivery(2L, Order.StatusEnum.ON_TRANSIT, new Time(NOW, null, null))))
+                .isCloseTo(after(NOW, METERS / 10), within());
+    }
+
+    private static org.assertj.core.data.TemporalUnitOffset within() {
+        return org.assertj.core.api.Assertions.within(1, java.time.temporal.ChronoUnit.SECONDS);
+    }
+}
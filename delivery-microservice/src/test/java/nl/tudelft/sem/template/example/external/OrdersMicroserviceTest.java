@@ -1,12 +1,14 @@
 package nl.tudelft.sem.template.example.external;
 
+import java.util.List;
+import nl.tudelft.sem.template.model.OrderStatusUpdate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.Mockito.when;
 
 public class OrdersMicroserviceTest {
@@ -24,7 +26,7 @@ public class OrdersMicroserviceTest {
     @Test
     public void testPutOrderStatusWorks() {
         Mockito.doNothing().when(restTemplate).put(Mockito.anyString(), Mockito.any());
-        assertThat(ordersMicroservice.putOrderStatus(1L, 1L, "Delivered")).isTrue();
+        ordersMicroservice.putOrderStatus(1L, 1L, "Delivered");
         Mockito.verify(restTemplate).put(usersBaseUrl + "/order/1/status/1?status=Delivered", null);
     }
 
@@ -33,8 +35,27 @@ public class OrdersMicroserviceTest {
         Mockito.doThrow(HttpClientErrorException.class).when(restTemplate)
                 .put(Mockito.anyString(), Mockito.any());
 
-        assertThat(ordersMicroservice.putOrderStatus(1L, 1L, "Delivered")).isFalse();
+        assertThatThrownBy(() -> ordersMicroservice.putOrderStatus(1L, 1L, "Delivered"))
+                .isInstanceOf(HttpClientErrorException.class);
         Mockito.verify(restTemplate).put(usersBaseUrl + "/order/1/status/1?status=Delivered", null);
     }
 
+    @Test
+    public void testPutOrderStatusesWorks() {
+        List<OrderStatusUpdate> updates = List.of(new OrderStatusUpdate().orderId(1L).status("Preparing"),
+                new OrderStatusUpdate().orderId(2L).status("Preparing"));
+
+        ordersMicroservice.putOrderStatuses(3L, updates);
+        Mockito.verify(restTemplate).put(usersBaseUrl + "/order/status/3", updates);
+    }
+
+    @Test
+    public void testPutOrderStatusesDoesNotWork() {
+        Mockito.doThrow(HttpClientErrorException.class).when(restTemplate)
+                .put(Mockito.anyString(), Mockito.any());
+
+        assertThatThrownBy(() -> ordersMicroservice.putOrderStatuses(3L, List.of()))
+                .isInstanceOf(HttpClientErrorException.class);
+    }
+
 }
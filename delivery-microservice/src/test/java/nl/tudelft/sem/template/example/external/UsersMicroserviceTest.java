@@ -13,6 +13,8 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class UsersMicroserviceTest {
@@ -42,6 +44,40 @@ public class UsersMicroserviceTest {
         assertThat(usersMicroservice.getUserType(1L)).isEqualTo(Optional.empty());
     }
 
+    @Test
+    void testGetUserTypeIsCached() {
+        when(restTemplate.getForObject(usersBaseUrl + "/user/" + 1, String.class))
+                .thenReturn("courier");
+        assertThat(usersMicroservice.getUserType(1L)).isEqualTo(Optional.of("courier"));
+        assertThat(usersMicroservice.getUserType(1L)).isEqualTo(Optional.of("courier"));
+
+        verify(restTemplate, times(1)).getForObject(usersBaseUrl + "/user/" + 1, String.class);
+        assertThat(usersMicroservice.getUserTypeCache().getHitCount()).isEqualTo(1L);
+        assertThat(usersMicroservice.getUserTypeCache().getMissCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void testGetUserTypeFailIsNotCached() {
+        when(restTemplate.getForObject(usersBaseUrl + "/user/" + 1, String.class))
+                .thenThrow(HttpClientErrorException.class)
+                .thenReturn("courier");
+        assertThat(usersMicroservice.getUserType(1L)).isEqualTo(Optional.empty());
+        assertThat(usersMicroservice.getUserType(1L)).isEqualTo(Optional.of("courier"));
+    }
+
+    @Test
+    void testInvalidateUserType() {
+        when(restTemplate.getForObject(usersBaseUrl + "/user/" + 1, String.class))
+                .thenReturn("customer", "courier");
+        assertThat(usersMicroservice.getUserType(1L)).isEqualTo(Optional.of("customer"));
+
+        usersMicroservice.invalidateUserType(1L);
+        assertThat(usersMicroservice.getUserType(1L)).isEqualTo(Optional.of("courier"));
+
+        usersMicroservice.invalidateAllUserTypes();
+        assertThat(usersMicroservice.getUserTypeCache().size()).isEqualTo(0);
+    }
+
     @Test
     void testGetVendorLocation() {
         when(restTemplate.getForObject(usersBaseUrl + "/vendor/" + 1 + "/location", Location.class))
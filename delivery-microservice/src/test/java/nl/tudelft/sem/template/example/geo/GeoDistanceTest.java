@@ -0,0 +1,81 @@
+package nl.tudelft.sem.template.example.geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class GeoDistanceTest {
+
+    @Test
+    void haversineOfKnownDistances() {
+        // Delft to Amsterdam, about 55 km
+        assertThat(GeoDistance.haversine(52.0116, 4.3571, 52.3791, 4.9003)).isCloseTo(55_142, within(1.0));
+        // a quarter of the equator
+        assertThat(GeoDistance.haversine(0, 0, 0, 90)).isCloseTo(Math.PI / 2 * GeoDistance.EARTH_RADIUS_METERS,
+                within(1e-6));
+        // pole to pole
+        assertThat(GeoDistance.haversine(90, 0, -90, 0)).isCloseTo(Math.PI * GeoDistance.EARTH_RADIUS_METERS,
+                within(1e-6));
+        assertThat(GeoDistance.haversine(12.5, 45.1, 12.5, 45.1)).isZero();
+    }
+
+    @Test
+    void distanceIsSymmetricAndCrossesTheAntimeridian() {
+        double east = GeoDistance.distance(10, 179.9, 10.1, -179.9);
+        double west = GeoDistance.distance(10.1, -179.9, 10, 179.9);
+
+        assertThat(east).isEqualTo(west);
+        assertThat(east).isCloseTo(GeoDistance.haversine(10, 179.9, 10.1, -179.9), within(1.0));
+        assertThat(east).isLessThan(30_000);
+    }
+
+    @Test
+    void fastPathIsOnlyTakenForShortRanges() {
+        assertThat(GeoDistance.isShortRange(52, 4, 52.4, 4.4)).isTrue();
+        assertThat(GeoDistance.isShortRange(52, 4, 52.6, 4)).isFalse();
+        assertThat(GeoDistance.isShortRange(52, 4, 52, 4.6)).isFalse();
+        assertThat(GeoDistance.isShortRange(80, 4, 80.1, 4.1)).isFalse();
+    }
+
+    @Test
+    void fastPathStaysCloseToTheExactDistance() {
+        double[][] pairs = {
+            {0, 0, 0.5, 0.5},
+            {52, 4, 52.5, 4.5},
+            {-33.9, 18.4, -33.4, 17.9},
+            {69.5, 20, 70, 20.5},
+            {-70, -60, -69.5, -59.5},
+        };
+        for (double[] pair : pairs) {
+            double exact = GeoDistance.haversine(pair[0], pair[1], pair[2], pair[3]);
+            double fast = GeoDistance.equirectangular(pair[0], pair[1], pair[2], pair[3]);
+            assertThat(fast).isCloseTo(exact, within(exact * 0.001));
+        }
+    }
+
+    @Test
+    void batchDistancesMatchSingleDistances() {
+        double[] latitudes = {52.0, 52.1, 10.0, -45.0};
+        double[] longitudes = {4.0, 4.2, 20.0, 170.0};
+        double[] distances = new double[4];
+        double[] exact = new double[4];
+
+        GeoDistance.distances(52.05, 4.05, latitudes, longitudes, distances);
+        GeoDistance.haversineDistances(52.05, 4.05, latitudes, longitudes, exact);
+
+        for (int i = 0; i < latitudes.length; i++) {
+            assertThat(distances[i]).isEqualTo(GeoDistance.distance(52.05, 4.05, latitudes[i], longitudes[i]));
+            assertThat(exact[i]).isEqualTo(GeoDistance.haversine(52.05, 4.05, latitudes[i], longitudes[i]));
+        }
+    }
+
+    @Test
+    void batchArraysMustHaveTheSameLength() {
+        assertThatThrownBy(() -> GeoDistance.distances(0, 0, new double[2], new double[2], new double[1]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> GeoDistance.haversineDistances(0, 0, new double[2], new double[1], new double[2]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,176 @@
+package nl.tudelft.sem.template.example.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import nl.tudelft.sem.template.example.domain.OrderStatusOutboxEvent;
+import nl.tudelft.sem.template.example.external.OrdersMicroservice;
+import nl.tudelft.sem.template.example.repository.OrderStatusOutboxRepository;
+import nl.tudelft.sem.template.model.OrderStatusUpdate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+class OrderStatusOutboxDispatcherTest {
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    private OrderStatusOutboxRepository outboxRepository;
+
+    private OrdersMicroservice ordersMicroservice;
+
+    private OrderStatusOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setup() {
+        outboxRepository = mock(OrderStatusOutboxRepository.class);
+        ordersMicroservice = mock(OrdersMicroservice.class);
+        dispatcher = new OrderStatusOutboxDispatcher(outboxRepository, ordersMicroservice,
+                Clock.fixed(NOW, ZoneOffset.UTC), 50, true, 3, Duration.ofSeconds(1), Duration.ofSeconds(3));
+    }
+
+    @Test
+    void deliveredEventsAreDeleted() {
+        OrderStatusOutboxEvent event = new OrderStatusOutboxEvent(1L, 2L, "Accepted", NOW);
+        when(outboxRepository.findDueEvents(eq(NOW), any(Pageable.class))).thenReturn(List.of(event));
+
+        assertThat(dispatcher.dispatchPendingEvents()).isEqualTo(1);
+        verify(ordersMicroservice).putOrderStatus(1L, 2L, "Accepted");
+        verify(outboxRepository).delete(event);
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    void batchSizeIsPassedToTheQuery() {
+        when(outboxRepository.findDueEvents(eq(NOW), any(Pageable.class))).thenReturn(List.of());
+
+        dispatcher.dispatchPendingEvents();
+        verify(outboxRepository).findDueEvents(NOW, PageRequest.of(0, 50));
+    }
+
+    @Test
+    void failedEventsAreRetriedWithBackoff() {
+        OrderStatusOutboxEvent event = new OrderStatusOutboxEvent(1L, 2L, "Accepted", NOW);
+        when(outboxRepository.findDueEvents(eq(NOW), any(Pageable.class))).thenReturn(List.of(event));
+        doThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE)).when(ordersMicroservice)
+                .putOrderStatus(anyLong(), anyLong(), anyString());
+
+        assertThat(dispatcher.dispatchPendingEvents()).isZero();
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getNextAttemptAt()).isEqualTo(NOW.plusSeconds(1));
+        assertThat(event.isFailed()).isFalse();
+        verify(outboxRepository).save(event);
+        verify(outboxRepository, never()).delete(any());
+    }
+
+    @Test
+    void backoffIsDoubledAndCapped() {
+        OrderStatusOutboxEvent event = new OrderStatusOutboxEvent(1L, 2L, "Accepted", NOW);
+        event.setAttempts(1);
+        when(outboxRepository.findDueEvents(eq(NOW), any(Pageable.class))).thenReturn(List.of(event));
+        doThrow(new ResourceAccessException("Connection refused")).when(ordersMicroservice)
+                .putOrderStatus(anyLong(), anyLong(), anyString());
+
+        dispatcher.dispatchPendingEvents();
+        assertThat(event.getAttempts()).isEqualTo(2);
+        assertThat(event.getNextAttemptAt()).isEqualTo(NOW.plusSeconds(2));
+
+        dispatcher = new OrderStatusOutboxDispatcher(outboxRepository, ordersMicroservice,
+                Clock.fixed(NOW, ZoneOffset.UTC), 50, true, 10, Duration.ofSeconds(1), Duration.ofSeconds(3));
+        event.setAttempts(5);
+        dispatcher.dispatchPendingEvents();
+        assertThat(event.getNextAttemptAt()).isEqualTo(NOW.plusSeconds(3));
+    }
+
+    @Test
+    void eventIsMarkedFailedAfterMaxAttempts() {
+        OrderStatusOutboxEvent event = new OrderStatusOutboxEvent(1L, 2L, "Accepted", NOW);
+        event.setAttempts(2);
+        when(outboxRepository.findDueEvents(eq(NOW), any(Pageable.class))).thenReturn(List.of(event));
+        doThrow(new ResourceAccessException("Connection refused")).when(ordersMicroservice)
+                .putOrderStatus(anyLong(), anyLong(), anyString());
+
+        dispatcher.dispatchPendingEvents();
+        assertThat(event.getAttempts()).isEqualTo(3);
+        assertThat(event.isFailed()).isTrue();
+        verify(outboxRepository).save(event);
+    }
+
+    @Test
+    void rejectedEventsAreGivenUpOnRightAway() {
+        OrderStatusOutboxEvent event = new OrderStatusOutboxEvent(1L, 2L, "Accepted", NOW);
+        when(outboxRepository.findDueEvents(eq(NOW), any(Pageable.class))).thenReturn(List.of(event));
+        doThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST)).when(ordersMicroservice)
+                .putOrderStatus(anyLong(), anyLong(), anyString());
+
+        assertThat(dispatcher.dispatchPendingEvents()).isZero();
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.isFailed()).isTrue();
+        verify(outboxRepository).save(event);
+        verify(outboxRepository, never()).delete(any());
+    }
+
+    @Test
+    void eventsOfTheSameUserAreSentTogether() {
+        OrderStatusOutboxEvent first = new OrderStatusOutboxEvent(1L, 2L, "Preparing", NOW);
+        OrderStatusOutboxEvent second = new OrderStatusOutboxEvent(3L, 2L, "Preparing", NOW);
+        OrderStatusOutboxEvent other = new OrderStatusOutboxEvent(4L, 5L, "Accepted", NOW);
+        when(outboxRepository.findDueEvents(eq(NOW), any(Pageable.class))).thenReturn(List.of(first, other, second));
+
+        assertThat(dispatcher.dispatchPendingEvents()).isEqualTo(3);
+        verify(ordersMicroservice).putOrderStatuses(2L, List.of(new OrderStatusUpdate().orderId(1L).status("Preparing"),
+                new OrderStatusUpdate().orderId(3L).status("Preparing")));
+        verify(ordersMicroservice, never()).putOrderStatus(eq(1L), anyLong(), anyString());
+        verify(ordersMicroservice).putOrderStatus(4L, 5L, "Accepted");
+        verify(outboxRepository).deleteAll(List.of(first, second));
+        verify(outboxRepository).delete(other);
+    }
+
+    @Test
+    void eventsAreSentOneByOneWhenTheBatchIsNotAccepted() {
+        OrderStatusOutboxEvent first = new OrderStatusOutboxEvent(1L, 2L, "Preparing", NOW);
+        OrderStatusOutboxEvent second = new OrderStatusOutboxEvent(3L, 2L, "Preparing", NOW);
+        when(outboxRepository.findDueEvents(eq(NOW), any(Pageable.class))).thenReturn(List.of(first, second));
+        doThrow(new ResourceAccessException("Timed out")).when(ordersMicroservice).putOrderStatuses(eq(2L), any());
+        doThrow(new ResourceAccessException("Timed out")).when(ordersMicroservice)
+                .putOrderStatus(3L, 2L, "Preparing");
+
+        assertThat(dispatcher.dispatchPendingEvents()).isEqualTo(1);
+        verify(outboxRepository).delete(first);
+        verify(outboxRepository).save(second);
+        assertThat(second.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void eventsAreSentOneByOneWhenTheBatchEndpointIsDisabled() {
+        dispatcher = new OrderStatusOutboxDispatcher(outboxRepository, ordersMicroservice,
+                Clock.fixed(NOW, ZoneOffset.UTC), 50, false, 3, Duration.ofSeconds(1), Duration.ofSeconds(3));
+        OrderStatusOutboxEvent first = new OrderStatusOutboxEvent(1L, 2L, "Preparing", NOW);
+        OrderStatusOutboxEvent second = new OrderStatusOutboxEvent(3L, 2L, "Preparing", NOW);
+        when(outboxRepository.findDueEvents(eq(NOW), any(Pageable.class))).thenReturn(List.of(first, second));
+
+        assertThat(dispatcher.dispatchPendingEvents()).isEqualTo(2);
+        verify(ordersMicroservice, never()).putOrderStatuses(anyLong(), any());
+        verify(ordersMicroservice).putOrderStatus(1L, 2L, "Preparing");
+        verify(ordersMicroservice).putOrderStatus(3L, 2L, "Preparing");
+        verify(outboxRepository).delete(first);
+        verify(outboxRepository).delete(second);
+    }
+}
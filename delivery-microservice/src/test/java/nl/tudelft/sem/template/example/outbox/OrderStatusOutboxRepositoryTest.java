@@ -0,0 +1,55 @@
+package nl.tudelft.sem.template.example.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+import javax.transaction.Transactional;
+import nl.tudelft.sem.template.example.Application;
+import nl.tudelft.sem.template.example.domain.OrderStatusOutboxEvent;
+import nl.tudelft.sem.template.example.repository.OrderStatusOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+@Transactional
+@SpringBootTest(classes = Application.class)
+class OrderStatusOutboxRepositoryTest {
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Autowired
+    private OrderStatusOutboxRepository outboxRepository;
+
+    @Test
+    void onlyTheOldestPendingEventOfAnOrderIsDue() {
+        OrderStatusOutboxEvent accepted = outboxRepository.save(new OrderStatusOutboxEvent(901L, 1L, "Accepted", NOW));
+        outboxRepository.save(new OrderStatusOutboxEvent(901L, 1L, "Preparing", NOW));
+        OrderStatusOutboxEvent other = outboxRepository.save(new OrderStatusOutboxEvent(902L, 1L, "Rejected", NOW));
+
+        List<OrderStatusOutboxEvent> due = outboxRepository.findDueEvents(NOW, PageRequest.of(0, 10));
+        assertThat(due).containsExactly(accepted, other);
+    }
+
+    @Test
+    void eventsWaitingForRetryBlockLaterEventsOfTheSameOrder() {
+        OrderStatusOutboxEvent accepted = new OrderStatusOutboxEvent(903L, 1L, "Accepted", NOW);
+        accepted.setNextAttemptAt(NOW.plusSeconds(10));
+        outboxRepository.save(accepted);
+        outboxRepository.save(new OrderStatusOutboxEvent(903L, 1L, "Preparing", NOW));
+
+        assertThat(outboxRepository.findDueEvents(NOW, PageRequest.of(0, 10))).isEmpty();
+        assertThat(outboxRepository.findDueEvents(NOW.plusSeconds(10), PageRequest.of(0, 10)))
+                .containsExactly(accepted);
+    }
+
+    @Test
+    void failedEventsAreSkipped() {
+        OrderStatusOutboxEvent accepted = new OrderStatusOutboxEvent(904L, 1L, "Accepted", NOW);
+        accepted.setFailed(true);
+        outboxRepository.save(accepted);
+        OrderStatusOutboxEvent preparing = outboxRepository.save(new OrderStatusOutboxEvent(904L, 1L, "Preparing", NOW));
+
+        assertThat(outboxRepository.findDueEvents(NOW, PageRequest.of(0, 10))).containsExactly(preparing);
+    }
+}
@@ -7,10 +7,15 @@ import nl.tudelft.sem.template.example.exception.OrderNotFoundException;
 import nl.tudelft.sem.template.example.exception.RatingNotFoundException;
 import nl.tudelft.sem.template.example.configuration.ConfigurationProperties;
 import nl.tudelft.sem.template.example.exception.*;
+import nl.tudelft.sem.template.example.eta.EtaCache;
+import nl.tudelft.sem.template.example.eta.EtaModel;
 import nl.tudelft.sem.template.example.external.UsersMicroservice;
+import nl.tudelft.sem.template.example.repository.CourierStatsRepository;
+import nl.tudelft.sem.template.example.repository.DeliveryDurationTotals;
 import nl.tudelft.sem.template.example.repository.DeliveryRepository;
 import nl.tudelft.sem.template.example.repository.OrderRepository;
 import nl.tudelft.sem.template.example.repository.VendorRepository;
+import nl.tudelft.sem.template.example.tracking.CourierLocationTracker;
 import nl.tudelft.sem.template.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,6 +31,8 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -48,10 +55,15 @@ public class AnalyticsServiceTest {
         vendorRepository = Mockito.mock(VendorRepository.class);
         orderRepository = Mockito.mock(OrderRepository.class);
         usersMicroservice = Mockito.mock(UsersMicroservice.class);
-        deliveryService = new DeliveryService(deliveryRepository, orderRepository, vendorRepository, Mockito.mock(VendorService.class), Mockito.mock(ConfigurationProperties.class));
+        CourierStatsRepository courierStatsRepository = Mockito.mock(CourierStatsRepository.class);
+        // without saved statistics, every read rebuilds them from the mocked delivery history
+        CourierStatsService courierStatsService = new CourierStatsService(courierStatsRepository, deliveryRepository);
+        deliveryService = new DeliveryService(deliveryRepository, orderRepository, vendorRepository, Mockito.mock(VendorService.class), Mockito.mock(ConfigurationProperties.class), courierStatsService,
+                Mockito.mock(CourierLocationTracker.class), Mockito.mock(EtaModel.class),
+                Mockito.mock(EtaCache.class));
 
         analyticsService = new AnalyticsService(deliveryRepository, vendorRepository, orderRepository,
-                deliveryService, usersMicroservice);
+                deliveryService, usersMicroservice, courierStatsService);
 
         rating = new Rating();
         rating.setComment("Fine");
@@ -244,7 +256,8 @@ public class AnalyticsServiceTest {
         when(deliveryRepository.findByCourierId(courierId)).thenReturn(deliveries);
         int result = analyticsService.getCourierEfficiency(courierId);
 
-        assertEquals(163, result);
+        // about 3279 km in 3 hours, in meters per second
+        assertEquals(182, result);
     }
 
     @Test
@@ -257,30 +270,23 @@ public class AnalyticsServiceTest {
 
     @Test
     void testGetVendorAverage() throws VendorNotFoundException {
-
-        Order order1 = new Order();
-        order1.setOrderId(1L);
-        Order order2 = new Order();
-        order2.setOrderId(2L);
-        Order order3 = new Order();
-        order3.setOrderId(3L);
-        List<Order> mockOrders = new ArrayList<>();
-
-        mockOrders.add(order1);
-        mockOrders.add(order2);
-        mockOrders.add(order3);
-
-        List<Delivery> deliveries = createMockDeliveries();
-
+        // one delivery of an hour and one of two hours
         when(vendorRepository.existsById(1L)).thenReturn(true);
-        when(orderRepository.findOrdersByVendorId(1L)).thenReturn(mockOrders);
-        when(deliveryRepository.findDeliveryByOrder_OrderId(1L)).thenReturn(deliveries.get(0));
-        when(deliveryRepository.findDeliveryByOrder_OrderId(2L)).thenReturn(deliveries.get(1));
-        when(deliveryRepository.findDeliveryByOrder_OrderId(3L)).thenReturn(deliveries.get(2));
+        when(deliveryRepository.sumDeliveryDurationsByVendorIdAndStatus(1L, Order.StatusEnum.DELIVERED))
+                .thenReturn(new DeliveryDurationTotals(2L, 10_800_000L));
 
         int result = analyticsService.getVendorAverage(1L);
         assertEquals(5400, result);
+        verify(deliveryRepository, never()).findDeliveryByOrder_OrderId(anyLong());
+    }
+
+    @Test
+    void testGetVendorAverageWithoutDeliveries() throws VendorNotFoundException {
+        when(vendorRepository.existsById(1L)).thenReturn(true);
+        when(deliveryRepository.sumDeliveryDurationsByVendorIdAndStatus(1L, Order.StatusEnum.DELIVERED))
+                .thenReturn(new DeliveryDurationTotals(0L, null));
 
+        assertEquals(0, analyticsService.getVendorAverage(1L));
     }
 
     @Test
@@ -0,0 +1,130 @@
+package nl.tudelft.sem.template.example.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import nl.tudelft.sem.template.example.Application;
+import nl.tudelft.sem.template.example.domain.CourierStats;
+import nl.tudelft.sem.template.example.repository.CompletedDelivery;
+import nl.tudelft.sem.template.example.repository.CourierStatsRepository;
+import nl.tudelft.sem.template.example.repository.DeliveryDurationTotals;
+import nl.tudelft.sem.template.example.repository.DeliveryRepository;
+import nl.tudelft.sem.template.example.repository.VendorRepository;
+import nl.tudelft.sem.template.model.Delivery;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Order;
+import nl.tudelft.sem.template.model.Time;
+import nl.tudelft.sem.template.model.Vendor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@Transactional
+@SpringBootTest(classes = Application.class)
+public class AnalyticsServiceTestRealRepository {
+    private static final long COURIER_ID = 650L;
+
+    private static final OffsetDateTime PICK_UP = OffsetDateTime.parse("2024-01-01T10:00:00Z");
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private CourierStatsService courierStatsService;
+
+    @Autowired
+    private CourierStatsRepository courierStatsRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setup() {
+        Location location = new Location(1.0, 1.0);
+        Vendor vendor = vendorRepository.save(new Vendor(601L, 30L, location, new ArrayList<>()));
+        Vendor otherVendor = vendorRepository.save(new Vendor(602L, 30L, location, new ArrayList<>()));
+
+        saveDelivery(new Order(6001L, 1L, vendor, Order.StatusEnum.DELIVERED, location), PICK_UP.plusMinutes(30));
+        saveDelivery(new Order(6002L, 1L, vendor, Order.StatusEnum.DELIVERED, location), PICK_UP.plusMinutes(90));
+        saveDelivery(new Order(6003L, 1L, vendor, Order.StatusEnum.ON_TRANSIT, location), PICK_UP.plusHours(5));
+        saveDelivery(new Order(6004L, 1L, vendor, Order.StatusEnum.DELIVERED, location), null);
+        saveDelivery(new Order(6005L, 1L, otherVendor, Order.StatusEnum.DELIVERED, location), PICK_UP.plusHours(5));
+    }
+
+    private void saveDelivery(Order order, OffsetDateTime deliveredTime) {
+        Delivery delivery = new Delivery();
+        delivery.setOrder(order);
+        delivery.setCourierId(COURIER_ID);
+        delivery.setTime(new Time(PICK_UP, null, deliveredTime));
+        deliveryRepository.save(delivery);
+    }
+
+    @Test
+    void durationsOfDeliveredOrdersAreSummed() {
+        DeliveryDurationTotals totals = deliveryRepository.sumDeliveryDurationsByVendorIdAndStatus(601L,
+                Order.StatusEnum.DELIVERED);
+
+        assertThat(totals.getCount()).isEqualTo(2);
+        assertThat(totals.getTotalMillis()).isEqualTo(120 * 60 * 1000L);
+    }
+
+    @Test
+    void completedDeliveriesAreFoundWithTheirLocations() {
+        List<CompletedDelivery> completed = deliveryRepository.findCompletedDeliveries().stream()
+                .filter(delivery -> delivery.getVendorId() == 601L).collect(Collectors.toList());
+
+        // The delivery without a delivered time is left out.
+        assertThat(completed).hasSize(3);
+        assertThat(completed).allSatisfy(delivery -> {
+            assertThat(delivery.getVendorLatitude()).isEqualTo(1.0);
+            assertThat(delivery.getDestinationLongitude()).isEqualTo(1.0);
+            assertThat(delivery.getPickUpTime()).isEqualTo(PICK_UP.toInstant().atOffset(
+                    delivery.getPickUpTime().getOffset()));
+            assertThat(delivery.getReadyTime()).isNull();
+        });
+    }
+
+    @Test
+    void vendorAverageIsComputedFromTheAggregate() throws Exception {
+        assertThat(analyticsService.getVendorAverage(601L)).isEqualTo(3600);
+    }
+
+    @Test
+    void vendorWithoutDeliveriesHasNoAverage() {
+        DeliveryDurationTotals totals = deliveryRepository.sumDeliveryDurationsByVendorIdAndStatus(603L,
+                Order.StatusEnum.DELIVERED);
+
+        assertThat(totals.getCount()).isZero();
+        assertThat(totals.getAverageSeconds()).isZero();
+    }
+
+    @Test
+    void courierStatsAreSavedAndUpdatedOnDelivery() {
+        CourierStats stats = courierStatsService.getStats(COURIER_ID);
+        assertThat(stats.getDeliveredCount()).isEqualTo(4);
+        assertThat(stats.getActiveDays()).isEqualTo(1);
+        assertThat(courierStatsRepository.findById(COURIER_ID)).isPresent();
+
+        Delivery delivery = deliveryRepository.findDeliveryByOrder_OrderId(6003L);
+        delivery.getOrder().setStatus(Order.StatusEnum.DELIVERED);
+        courierStatsService.recordDelivered(6003L);
+        // the statistics are read in a later request, not from the entity built above
+        entityManager.clear();
+
+        CourierStats updated = courierStatsRepository.findById(COURIER_ID).get();
+        assertThat(updated.getDeliveredCount()).isEqualTo(5);
+        assertThat(updated.getDeliveriesPerDay()).containsEntry(PICK_UP.toLocalDate(), 4L);
+    }
+}
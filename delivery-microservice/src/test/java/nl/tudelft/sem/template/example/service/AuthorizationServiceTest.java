@@ -4,6 +4,7 @@ import nl.tudelft.sem.template.example.Application;
 import nl.tudelft.sem.template.example.authorization.AuthorizationService;
 import nl.tudelft.sem.template.example.exception.MicroserviceCommunicationException;
 import nl.tudelft.sem.template.example.external.UsersMicroservice;
+import nl.tudelft.sem.template.example.repository.DeliveryParticipants;
 import nl.tudelft.sem.template.example.repository.DeliveryRepository;
 import nl.tudelft.sem.template.model.Delivery;
 import nl.tudelft.sem.template.model.Location;
@@ -16,13 +17,19 @@ import org.junit.jupiter.api.TestInstance;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.transaction.Transactional;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @Transactional
@@ -295,4 +302,94 @@ public class AuthorizationServiceTest {
 
         assertThat(result).isFalse();
     }
+
+    @Test
+    void testRoleAndDeliveryAreResolvedOncePerRequest() throws MicroserviceCommunicationException {
+        UsersMicroservice mockedUsersMicroservice = Mockito.mock(UsersMicroservice.class);
+        DeliveryRepository mockedRepository = Mockito.mock(DeliveryRepository.class);
+        AuthorizationService requestScopedService = new AuthorizationService(mockedUsersMicroservice, mockedRepository);
+        when(mockedUsersMicroservice.getUserType(7L)).thenReturn(Optional.of("customer"));
+        when(mockedRepository.findParticipantsByOrderId(1L)).thenReturn(new DeliveryParticipants(7L, 4L, null));
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            assertThat(requestScopedService.getUserRole(7L)).isEqualTo("customer");
+            assertThat(requestScopedService.canViewDeliveryDetails(7L, 1L)).isTrue();
+            assertThat(requestScopedService.canChangeOrderRating(7L, 1L)).isTrue();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        verify(mockedUsersMicroservice, times(1)).getUserType(7L);
+        verify(mockedRepository, times(1)).findParticipantsByOrderId(1L);
+    }
+
+    @Test
+    void testFindUpdatableOrdersLoadsAllParticipantsAtOnce() throws MicroserviceCommunicationException {
+        UsersMicroservice mockedUsersMicroservice = Mockito.mock(UsersMicroservice.class);
+        DeliveryRepository mockedRepository = Mockito.mock(DeliveryRepository.class);
+        AuthorizationService requestScopedService = new AuthorizationService(mockedUsersMicroservice, mockedRepository);
+        when(mockedUsersMicroservice.getUserType(4L)).thenReturn(Optional.of("vendor"));
+        when(mockedRepository.findParticipantsByOrderIds(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new DeliveryParticipants(1L, 7L, 4L, null), new DeliveryParticipants(2L, 7L, 5L, null)));
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            Assertions.assertThat(requestScopedService.findUpdatableOrders(4L, List.of(1L, 2L, 3L))).containsOnly(1L);
+            assertThat(requestScopedService.canUpdateDeliveryDetails(4L, 3L)).isFalse();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        verify(mockedRepository, times(0)).findParticipantsByOrderId(anyLong());
+    }
+
+    @Test
+    void testFindUpdatableOrdersOfCustomerAndAdmin() throws MicroserviceCommunicationException {
+        when(usersMicroservice.getUserType(7L)).thenReturn(Optional.of("customer"));
+        when(usersMicroservice.getUserType(1L)).thenReturn(Optional.of("admin"));
+
+        Assertions.assertThat(authorizationService.findUpdatableOrders(7L, List.of(1L))).isEmpty();
+        Assertions.assertThat(authorizationService.findUpdatableOrders(1L, List.of(1L, 2L))).containsOnly(1L, 2L);
+    }
+
+    @Test
+    void testFindParticipantsByOrderIds() {
+        Assertions.assertThat(deliveryRepository.findParticipantsByOrderIds(List.of(1L, 2L)))
+                .extracting(DeliveryParticipants::getOrderId, DeliveryParticipants::getCustomerId,
+                        DeliveryParticipants::getVendorId)
+                .containsExactly(Assertions.tuple(1L, 7L, 4L));
+    }
+
+    @Test
+    void testRoleIsResolvedAgainInNextRequest() throws MicroserviceCommunicationException {
+        when(usersMicroservice.getUserType(7L)).thenReturn(Optional.of("customer"), Optional.of("courier"));
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            assertThat(authorizationService.getUserRole(7L)).isEqualTo("customer");
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            assertThat(authorizationService.getUserRole(7L)).isEqualTo("courier");
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void testIsInvolvedInOrderWithoutDelivery() {
+        assertThat(authorizationService.isInvolvedInOrder(7L, "customer", 404L)).isFalse();
+    }
+
+    @Test
+    void testFindParticipantsByOrderId() {
+        DeliveryParticipants participants = deliveryRepository.findParticipantsByOrderId(1L);
+
+        assertThat(participants.getCustomerId()).isEqualTo(7L);
+        assertThat(participants.getVendorId()).isEqualTo(4L);
+        assertThat(participants.getCourierId()).isNull();
+    }
 }
@@ -1,5 +1,8 @@
 package nl.tudelft.sem.template.example.service;
 
+import nl.tudelft.sem.template.example.cache.AvailableOrderPool;
+import nl.tudelft.sem.template.example.cache.CourierVendorIndex;
+import nl.tudelft.sem.template.example.dispatch.BatchDispatcher;
 import nl.tudelft.sem.template.example.exception.CourierNotFoundException;
 import nl.tudelft.sem.template.example.exception.DeliveryNotFoundException;
 import nl.tudelft.sem.template.example.exception.NoAvailableOrdersException;
@@ -8,6 +11,12 @@ import nl.tudelft.sem.template.example.external.UsersMicroservice;
 import nl.tudelft.sem.template.example.repository.DeliveryRepository;
 import nl.tudelft.sem.template.example.repository.OrderRepository;
 import nl.tudelft.sem.template.example.repository.VendorRepository;
+import nl.tudelft.sem.template.example.service.strategy.AssignOrderStrategyRegistry;
+import nl.tudelft.sem.template.example.service.strategy.BatchDispatchStrategy;
+import nl.tudelft.sem.template.example.service.strategy.NearestOrderStrategy;
+import nl.tudelft.sem.template.example.service.strategy.RandomOrderStrategy;
+import nl.tudelft.sem.template.example.service.strategy.SpecificOrderStrategy;
+import nl.tudelft.sem.template.example.tracking.CourierLocationTracker;
 import nl.tudelft.sem.template.model.*;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,12 +25,20 @@ import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -32,7 +49,19 @@ public class CourierServiceTest {
 
     private final UsersMicroservice usersMicroservice = Mockito.mock(UsersMicroservice.class);
 
-    private final CourierService courierService = Mockito.spy(new CourierService(deliveryRepository, vendorRepository, usersMicroservice));
+    private final AvailableOrderPool availableOrderPool = new AvailableOrderPool(deliveryRepository, vendorRepository);
+
+    private final BatchDispatcher batchDispatcher = Mockito.mock(BatchDispatcher.class);
+
+    private final AssignOrderStrategyRegistry assignOrderStrategies = new AssignOrderStrategyRegistry(List.of(
+            new SpecificOrderStrategy(deliveryRepository), new RandomOrderStrategy(deliveryRepository, availableOrderPool),
+            new NearestOrderStrategy(deliveryRepository, availableOrderPool), new BatchDispatchStrategy(batchDispatcher)));
+
+    private final CourierLocationTracker courierLocationTracker = Mockito.mock(CourierLocationTracker.class);
+
+    private final CourierService courierService = Mockito.spy(new CourierService(deliveryRepository, vendorRepository, usersMicroservice,
+            new CourierVendorIndex(vendorRepository), availableOrderPool, batchDispatcher, assignOrderStrategies,
+            courierLocationTracker));
 
     private final OrderRepository orderRepository = Mockito.mock(OrderRepository.class);
     @BeforeEach
@@ -75,6 +104,13 @@ public class CourierServiceTest {
         when(deliveryRepository.findAll()).thenReturn(deliveryList);
         when(deliveryRepository.findDeliveryByOrder_OrderId(5L)).thenReturn(deliveryAssigning);
         when(vendorRepository.findAll()).thenReturn(vendors);
+        when(vendorRepository.findVendorIdsByCourierId(8L)).thenReturn(List.of(3L));
+        when(vendorRepository.findVendorIdsByCourierId(16L)).thenReturn(List.of(2L));
+        when(vendorRepository.findIdsOfVendorsWithCouriers()).thenReturn(List.of(2L, 3L));
+        when(deliveryRepository.findUnassignedOrderIdsByStatusAndVendorId(Order.StatusEnum.ACCEPTED, 3L))
+                .thenReturn(List.of(9L));
+        when(deliveryRepository.findUnassignedOrderIdsByStatusOfVendorsWithoutCouriers(Order.StatusEnum.ACCEPTED))
+                .thenReturn(List.of(5L));
 
         when(deliveryRepository.findDeliveryByOrder_OrderId(9L)).thenReturn(delivery);
         when(deliveryRepository.findById(2L)).thenReturn(Optional.of(delivery));
@@ -94,13 +130,11 @@ public class CourierServiceTest {
     }
 
     @Test
-    void getAvailableOrdersWithNonNullOrNonAcceptedStatusTest() {
-        Delivery deliveryWithCourier = new Delivery(3L, new Order(8L, 3L, new Vendor(1L, 9L, new Location(5.0, 1.0), new ArrayList<>()), Order.StatusEnum.ACCEPTED, new Location(5.0, 1.0)), 1L, new Rating(), new Time(), new Issue());
-        Delivery deliveryNotAccepted = new Delivery(4L, new Order(9L, 3L, new Vendor(1L, 9L, new Location(5.0, 1.0), new ArrayList<>()), Order.StatusEnum.PENDING, new Location(5.0, 1.0)), null, new Rating(), new Time(), new Issue());
-        List<Delivery> additionalDeliveries = Arrays.asList(deliveryWithCourier, deliveryNotAccepted);
-        when(deliveryRepository.findAll()).thenReturn(additionalDeliveries);
-        List<Long> orderIds = courierService.getAvailableOrderIds(1L);
-        Assertions.assertThat(orderIds).doesNotContain(8L, 9L);
+    void getAvailableOrdersOfVendorWithoutAvailableOrdersTest() {
+        List<Long> orderIds = courierService.getAvailableOrderIds(16L);
+        Assertions.assertThat(orderIds).isEmpty();
+        verify(deliveryRepository).findUnassignedOrderIdsByStatusAndVendorId(Order.StatusEnum.ACCEPTED, 2L);
+        verify(deliveryRepository, never()).findAll();
     }
 
 
@@ -110,6 +144,11 @@ public class CourierServiceTest {
         assertThat(vendorId).isEqualTo(3L);
     }
 
+    @Test
+    void checkIfCourierIsNotAssignedTest() {
+        assertThrows(CourierNotFoundException.class, () -> courierService.checkIfCourierIsAssignedToVendor(1L));
+    }
+
     @Test
     void getVendorsWithCouriers() {
 
@@ -122,10 +161,142 @@ public class CourierServiceTest {
     @Test
     void assignCourierToRandomOrderTest() throws DeliveryNotFoundException, NoAvailableOrdersException, OrderNotFoundException, CourierNotFoundException {
         when(usersMicroservice.getUserType(1L)).thenReturn(Optional.of("courier"));
+        when(deliveryRepository.claimOrder(1L, 5L, Order.StatusEnum.ACCEPTED)).thenReturn(1);
+        courierService.assignCourierToRandomOrder(1L);
+
+        verify(deliveryRepository).claimOrder(1L, 5L, Order.StatusEnum.ACCEPTED);
+    }
+
+    @Test
+    void assignCourierToRandomOrderSkipsClaimedOrdersTest() throws DeliveryNotFoundException, NoAvailableOrdersException,
+            OrderNotFoundException, CourierNotFoundException {
+        when(usersMicroservice.getUserType(1L)).thenReturn(Optional.of("courier"));
+        when(deliveryRepository.findUnassignedOrderIdsByStatusOfVendorsWithoutCouriers(Order.StatusEnum.ACCEPTED))
+                .thenReturn(List.of(5L, 6L));
+        when(deliveryRepository.claimOrder(1L, 5L, Order.StatusEnum.ACCEPTED)).thenReturn(0);
+        when(deliveryRepository.claimOrder(1L, 6L, Order.StatusEnum.ACCEPTED)).thenReturn(1);
+        courierService.assignCourierToRandomOrder(1L);
+
+        verify(deliveryRepository).claimOrder(1L, 6L, Order.StatusEnum.ACCEPTED);
+        verify(deliveryRepository, never()).findDeliveryByOrder_OrderId(anyLong());
+    }
+
+    @Test
+    void assignCourierToRandomOrderFromPoolTest() throws DeliveryNotFoundException, NoAvailableOrdersException,
+            OrderNotFoundException, CourierNotFoundException {
+        when(usersMicroservice.getUserType(8L)).thenReturn(Optional.of("courier"));
+        when(deliveryRepository.claimOrder(8L, 9L, Order.StatusEnum.ACCEPTED)).thenReturn(1);
+        availableOrderPool.rebuild();
+        availableOrderPool.vendorHasCouriers(3L);
+        availableOrderPool.orderAvailable(9L, 3L, null);
+        courierService.assignCourierToRandomOrder(8L);
+
+        verify(deliveryRepository).claimOrder(8L, 9L, Order.StatusEnum.ACCEPTED);
+        verify(deliveryRepository, never()).findUnassignedOrderIdsByStatusAndVendorId(any(), anyLong());
+        assertThat(availableOrderPool.size()).isEqualTo(0);
+    }
+
+    @Test
+    void assignCourierToRandomOrderFromDatabaseRemovesItFromPoolTest() throws DeliveryNotFoundException,
+            NoAvailableOrdersException, OrderNotFoundException, CourierNotFoundException {
+        when(usersMicroservice.getUserType(1L)).thenReturn(Optional.of("courier"));
+        when(deliveryRepository.findUnassignedOrderIdsByStatusOfVendorsWithoutCouriers(Order.StatusEnum.ACCEPTED))
+                .thenReturn(List.of(6L));
+        when(deliveryRepository.claimOrder(1L, 6L, Order.StatusEnum.ACCEPTED)).thenReturn(1);
+        availableOrderPool.vendorHasCouriers(3L);
+        availableOrderPool.orderAvailable(6L, 3L, null);
         courierService.assignCourierToRandomOrder(1L);
 
-        Long actual = deliveryRepository.findById(2L).get().getCourierId();
-        Assertions.assertThat(actual).isEqualTo(1L);
+        verify(deliveryRepository).claimOrder(1L, 6L, Order.StatusEnum.ACCEPTED);
+        assertThat(availableOrderPool.size()).isEqualTo(0);
+    }
+
+    @Test
+    void assignCourierToSpecificOrderRemovesItFromPoolTest() throws DeliveryNotFoundException, OrderNotFoundException,
+            CourierNotFoundException, NoAvailableOrdersException {
+        when(usersMicroservice.getUserType(1L)).thenReturn(Optional.of("courier"));
+        when(deliveryRepository.claimOrder(1L, 5L, Order.StatusEnum.ACCEPTED)).thenReturn(1);
+        availableOrderPool.orderAvailable(5L, 1L, null);
+        courierService.assignCourierToSpecificOrder(1L, 5L);
+
+        assertThat(availableOrderPool.size()).isEqualTo(0);
+    }
+
+    @Test
+    void assignCourierToNearestOrderTest() throws DeliveryNotFoundException, NoAvailableOrdersException,
+            CourierNotFoundException {
+        when(usersMicroservice.getUserType(1L)).thenReturn(Optional.of("courier"));
+        when(deliveryRepository.claimOrder(1L, 11L, Order.StatusEnum.ACCEPTED)).thenReturn(1);
+        availableOrderPool.orderAvailable(10L, 1L, new Location(5.0, 5.0));
+        availableOrderPool.orderAvailable(11L, 4L, new Location(1.0, 1.0));
+        courierService.assignCourierToNearestOrder(1L, new Location(0.0, 0.0));
+
+        verify(deliveryRepository).claimOrder(1L, 11L, Order.StatusEnum.ACCEPTED);
+        verify(deliveryRepository, never()).claimOrder(1L, 10L, Order.StatusEnum.ACCEPTED);
+        verify(deliveryRepository, never()).findUnassignedOrderIdsByStatusOfVendorsWithoutCouriers(any());
+    }
+
+    @Test
+    void assignCourierToNearestOrderFallsBackToDatabaseTest() throws DeliveryNotFoundException,
+            NoAvailableOrdersException, CourierNotFoundException {
+        when(usersMicroservice.getUserType(1L)).thenReturn(Optional.of("courier"));
+        when(deliveryRepository.claimOrder(1L, 5L, Order.StatusEnum.ACCEPTED)).thenReturn(1);
+        courierService.assignCourierToNearestOrder(1L, new Location(0.0, 0.0));
+
+        verify(deliveryRepository).claimOrder(1L, 5L, Order.StatusEnum.ACCEPTED);
+    }
+
+    @Test
+    void assignVendorCourierToNearestOrderTest() throws DeliveryNotFoundException, NoAvailableOrdersException,
+            CourierNotFoundException {
+        when(usersMicroservice.getUserType(8L)).thenReturn(Optional.of("courier"));
+        when(deliveryRepository.claimOrder(8L, 9L, Order.StatusEnum.ACCEPTED)).thenReturn(1);
+        availableOrderPool.orderAvailable(12L, 1L, new Location(0.0, 0.0));
+        courierService.assignCourierToNearestOrder(8L, new Location(0.0, 0.0));
+
+        verify(deliveryRepository).claimOrder(8L, 9L, Order.StatusEnum.ACCEPTED);
+        verify(deliveryRepository, never()).claimOrder(8L, 12L, Order.StatusEnum.ACCEPTED);
+    }
+
+    @Test
+    void queueCourierForDispatchTest() throws DeliveryNotFoundException, NoAvailableOrdersException,
+            CourierNotFoundException {
+        when(usersMicroservice.getUserType(1L)).thenReturn(Optional.of("courier"));
+        when(batchDispatcher.isEnabled()).thenReturn(true);
+        Location location = new Location(1.0, 2.0);
+
+        Assertions.assertThat(courierService.queueCourierForDispatch(1L, location)).isTrue();
+        verify(batchDispatcher).courierIdle(1L, location);
+        verify(deliveryRepository, never()).claimOrder(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void queueCourierForDispatchWhenDisabledTest() throws DeliveryNotFoundException, NoAvailableOrdersException,
+            CourierNotFoundException {
+        when(usersMicroservice.getUserType(1L)).thenReturn(Optional.of("courier"));
+        when(deliveryRepository.claimOrder(1L, 5L, Order.StatusEnum.ACCEPTED)).thenReturn(1);
+
+        Assertions.assertThat(courierService.queueCourierForDispatch(1L, new Location(1.0, 2.0))).isFalse();
+        verify(deliveryRepository).claimOrder(1L, 5L, Order.StatusEnum.ACCEPTED);
+        verify(batchDispatcher, never()).courierIdle(anyLong(), any());
+    }
+
+    @Test
+    void queueNonExistentCourierForDispatchTest() {
+        when(usersMicroservice.getUserType(999L)).thenReturn(Optional.of("vendor"));
+        when(batchDispatcher.isEnabled()).thenReturn(true);
+
+        assertThrows(CourierNotFoundException.class,
+                () -> courierService.queueCourierForDispatch(999L, new Location(1.0, 2.0)));
+        verify(batchDispatcher, never()).courierIdle(anyLong(), any());
+    }
+
+    @Test
+    void assignCourierToRandomOrderAllClaimedTest() {
+        when(usersMicroservice.getUserType(1L)).thenReturn(Optional.of("courier"));
+        when(deliveryRepository.claimOrder(1L, 5L, Order.StatusEnum.ACCEPTED)).thenReturn(0);
+
+        assertThrows(NoAvailableOrdersException.class, () -> courierService.assignCourierToRandomOrder(1L));
     }
 
     @Test
@@ -144,10 +315,21 @@ public class CourierServiceTest {
     void assignCourierToSpecificOrderTest() throws DeliveryNotFoundException, OrderNotFoundException, CourierNotFoundException, NoAvailableOrdersException {
         when(usersMicroservice.getUserType(1L)).thenReturn(Optional.of("courier"));
         when(usersMicroservice.getUserType(5L)).thenReturn(Optional.of("courier"));
+        when(deliveryRepository.claimOrder(5L, 9L, Order.StatusEnum.ACCEPTED)).thenReturn(1);
         courierService.assignCourierToSpecificOrder(5L, 9L);
 
-        Long actualCourier = deliveryRepository.findById(2L).get().getCourierId();
-        Assertions.assertThat(actualCourier).isEqualTo(5L);
+        verify(deliveryRepository).claimOrder(5L, 9L, Order.StatusEnum.ACCEPTED);
+        verify(deliveryRepository, never()).findUnassignedOrderIdsByStatusAndVendorId(any(), anyLong());
+        verify(deliveryRepository, never()).findUnassignedOrderIdsByStatusOfVendorsWithoutCouriers(any());
+    }
+
+    @Test
+    void assignCourierToAlreadyClaimedOrderTest() {
+        when(usersMicroservice.getUserType(5L)).thenReturn(Optional.of("courier"));
+        when(deliveryRepository.claimOrder(5L, 9L, Order.StatusEnum.ACCEPTED)).thenReturn(0);
+        when(deliveryRepository.existsByOrder_OrderId(9L)).thenReturn(true);
+
+        assertThrows(NoAvailableOrdersException.class, () -> courierService.assignCourierToSpecificOrder(5L, 9L));
     }
 
     @Test
@@ -175,4 +357,62 @@ public class CourierServiceTest {
         assertThat(exception.getMessage()).isEqualTo("Delivery with order id " + nonExistentOrderId + " was not found.");
     }
 
+    @Test
+    void recordLocationsTest() throws CourierNotFoundException {
+        List<LocationPing> pings = List.of(new LocationPing(1.0, 2.0, 1000L), new LocationPing(1.5, 2.5, 2000L));
+        when(usersMicroservice.getUserType(1L)).thenReturn(Optional.of("courier"));
+
+        courierService.recordLocations(1L, pings);
+
+        verify(courierLocationTracker).record(1L, pings);
+    }
+
+    @Test
+    void recordLocationsOfNonCourierTest() {
+        when(usersMicroservice.getUserType(999L)).thenReturn(Optional.of("vendor"));
+
+        assertThrows(CourierNotFoundException.class,
+                () -> courierService.recordLocations(999L, List.of(new LocationPing(1.0, 2.0, 1000L))));
+        verify(courierLocationTracker, never()).record(anyLong(), any());
+    }
+
+    @Test
+    void concurrentAssignmentsEachUseTheirOwnStrategyTest() throws Exception {
+        int assignments = 400;
+        when(usersMicroservice.getUserType(anyLong())).thenReturn(Optional.of("courier"));
+        when(deliveryRepository.claimOrder(anyLong(), anyLong(), eq(Order.StatusEnum.ACCEPTED))).thenReturn(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (long i = 0; i < assignments; i++) {
+                long courierId = 1000L + i;
+                boolean specific = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    if (specific) {
+                        courierService.assignCourierToSpecificOrder(courierId, courierId + 10000L);
+                    } else {
+                        courierService.assignCourierToRandomOrder(courierId);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (long i = 0; i < assignments; i++) {
+            long courierId = 1000L + i;
+            long expectedOrderId = i % 2 == 0 ? courierId + 10000L : 5L;
+            verify(deliveryRepository, times(1)).claimOrder(eq(courierId), anyLong(), any());
+            verify(deliveryRepository).claimOrder(courierId, expectedOrderId, Order.StatusEnum.ACCEPTED);
+        }
+    }
+
 }
@@ -0,0 +1,121 @@
+package nl.tudelft.sem.template.example.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.transaction.Transactional;
+import nl.tudelft.sem.template.example.Application;
+import nl.tudelft.sem.template.example.cache.AvailableOrderPool;
+import nl.tudelft.sem.template.example.cache.CourierVendorIndex;
+import nl.tudelft.sem.template.example.dispatch.BatchDispatcher;
+import nl.tudelft.sem.template.example.exception.CourierNotFoundException;
+import nl.tudelft.sem.template.example.external.UsersMicroservice;
+import nl.tudelft.sem.template.example.repository.AvailableOrder;
+import nl.tudelft.sem.template.example.repository.DeliveryRepository;
+import nl.tudelft.sem.template.example.repository.VendorRepository;
+import nl.tudelft.sem.template.example.service.strategy.AssignOrderStrategyRegistry;
+import nl.tudelft.sem.template.example.service.strategy.BatchDispatchStrategy;
+import nl.tudelft.sem.template.example.service.strategy.NearestOrderStrategy;
+import nl.tudelft.sem.template.example.service.strategy.RandomOrderStrategy;
+import nl.tudelft.sem.template.example.service.strategy.SpecificOrderStrategy;
+import nl.tudelft.sem.template.example.tracking.CourierLocationTracker;
+import nl.tudelft.sem.template.model.Delivery;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Order;
+import nl.tudelft.sem.template.model.Vendor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@Transactional
+@SpringBootTest(classes = Application.class)
+public class CourierServiceTestRealRepository {
+    private final DeliveryRepository deliveryRepository;
+
+    private final VendorRepository vendorRepository;
+
+    private final CourierService courierService;
+
+    @Autowired
+    public CourierServiceTestRealRepository(DeliveryRepository deliveryRepository, VendorRepository vendorRepository) {
+        this.deliveryRepository = deliveryRepository;
+        this.vendorRepository = vendorRepository;
+        AvailableOrderPool availableOrderPool = new AvailableOrderPool(deliveryRepository, vendorRepository);
+        BatchDispatcher batchDispatcher = Mockito.mock(BatchDispatcher.class);
+        this.courierService = new CourierService(deliveryRepository, vendorRepository,
+                Mockito.mock(UsersMicroservice.class), new CourierVendorIndex(vendorRepository),
+                availableOrderPool, batchDispatcher, new AssignOrderStrategyRegistry(List.of(
+                        new SpecificOrderStrategy(deliveryRepository),
+                        new RandomOrderStrategy(deliveryRepository, availableOrderPool),
+                        new NearestOrderStrategy(deliveryRepository, availableOrderPool),
+                        new BatchDispatchStrategy(batchDispatcher))), Mockito.mock(CourierLocationTracker.class));
+    }
+
+    @BeforeEach
+    void setup() {
+        Location location = new Location(1.0, 1.0);
+        Vendor withoutCouriers = vendorRepository.save(new Vendor(701L, 30L, location, new ArrayList<>()));
+        Vendor withCouriers = vendorRepository.save(new Vendor(702L, 30L, location, new ArrayList<>(List.of(801L, 802L))));
+
+        saveDelivery(new Order(7001L, 1L, withoutCouriers, Order.StatusEnum.ACCEPTED, location), null);
+        saveDelivery(new Order(7002L, 1L, withoutCouriers, Order.StatusEnum.ACCEPTED, location), 900L);
+        saveDelivery(new Order(7003L, 1L, withoutCouriers, Order.StatusEnum.PENDING, location), null);
+        saveDelivery(new Order(7004L, 1L, withCouriers, Order.StatusEnum.ACCEPTED, location), null);
+        saveDelivery(new Order(7005L, 1L, withCouriers, Order.StatusEnum.PREPARING, location), null);
+    }
+
+    private void saveDelivery(Order order, Long courierId) {
+        Delivery delivery = new Delivery();
+        delivery.setOrder(order);
+        delivery.setCourierId(courierId);
+        deliveryRepository.save(delivery);
+    }
+
+    @Test
+    void independentCourierOnlySeesOrdersOfVendorsWithoutCouriers() {
+        assertThat(courierService.getAvailableOrderIds(900L)).contains(7001L).doesNotContain(7002L, 7003L, 7004L, 7005L);
+    }
+
+    @Test
+    void vendorCourierOnlySeesOrdersOfTheirVendor() {
+        assertThat(courierService.getAvailableOrderIds(802L)).containsExactly(7004L);
+    }
+
+    @Test
+    void courierIsFoundThroughTheCollectionTable() throws CourierNotFoundException {
+        assertThat(courierService.checkIfCourierIsAssignedToVendor(801L)).isEqualTo(702L);
+        assertThrows(CourierNotFoundException.class, () -> courierService.checkIfCourierIsAssignedToVendor(900L));
+    }
+
+    @Test
+    void onlyTheFirstCourierClaimsAnOrder() {
+        assertThat(deliveryRepository.claimOrder(900L, 7001L, Order.StatusEnum.ACCEPTED)).isEqualTo(1);
+        assertThat(deliveryRepository.claimOrder(901L, 7001L, Order.StatusEnum.ACCEPTED)).isEqualTo(0);
+        assertThat(deliveryRepository.findDeliveryByOrder_OrderId(7001L).getCourierId()).isEqualTo(900L);
+    }
+
+    @Test
+    void ordersThatAreNotAcceptedCannotBeClaimed() {
+        assertThat(deliveryRepository.claimOrder(900L, 7003L, Order.StatusEnum.ACCEPTED)).isEqualTo(0);
+        assertThat(deliveryRepository.claimOrder(900L, 7999L, Order.StatusEnum.ACCEPTED)).isEqualTo(0);
+        assertThat(deliveryRepository.findDeliveryByOrder_OrderId(7003L).getCourierId()).isNull();
+    }
+
+    @Test
+    void unassignedAcceptedOrdersAreFoundWithTheirVendor() {
+        assertThat(deliveryRepository.findUnassignedOrdersByStatus(Order.StatusEnum.ACCEPTED))
+                .extracting(AvailableOrder::getOrderId, AvailableOrder::getVendorId)
+                .contains(tuple(7001L, 701L), tuple(7004L, 702L))
+                .doesNotContain(tuple(7002L, 701L), tuple(7003L, 701L), tuple(7005L, 702L));
+    }
+
+    @Test
+    void vendorsWithCouriersAreFound() {
+        assertThat(courierService.getVendorsThatHaveTheirOwnCouriers()).contains(702L).doesNotContain(701L);
+    }
+}
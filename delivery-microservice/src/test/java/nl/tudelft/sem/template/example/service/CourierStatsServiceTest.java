@@ -0,0 +1,218 @@
+package nl.tudelft.sem.template.example.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.doubleThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import nl.tudelft.sem.template.example.domain.CourierStats;
+import nl.tudelft.sem.template.example.repository.CourierStatsRepository;
+import nl.tudelft.sem.template.example.repository.DeliveryRepository;
+import nl.tudelft.sem.template.model.Delivery;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Order;
+import nl.tudelft.sem.template.model.Time;
+import nl.tudelft.sem.template.model.Vendor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class CourierStatsServiceTest {
+    private static final OffsetDateTime PICK_UP = OffsetDateTime.parse("2024-01-01T10:00:00Z");
+
+    private CourierStatsRepository courierStatsRepository;
+
+    private DeliveryRepository deliveryRepository;
+
+    private CourierStatsService courierStatsService;
+
+    @BeforeEach
+    void setup() {
+        courierStatsRepository = mock(CourierStatsRepository.class);
+        deliveryRepository = mock(DeliveryRepository.class);
+        courierStatsService = new CourierStatsService(courierStatsRepository, deliveryRepository);
+    }
+
+    private Delivery delivery(long orderId, Order.StatusEnum status, OffsetDateTime deliveredTime) {
+        Vendor vendor = new Vendor(1L, 10L, new Location(0.0, 0.0), new ArrayList<>());
+        Order order = new Order(orderId, 2L, vendor, status, new Location(3.0, 4.0));
+        return new Delivery(orderId, order, 7L, null, new Time(PICK_UP, null, deliveredTime), null);
+    }
+
+    @Test
+    void statsAreBuiltFromHistoryAndSaved() {
+        when(courierStatsRepository.findById(7L)).thenReturn(Optional.empty());
+        when(deliveryRepository.findByCourierId(7L)).thenReturn(List.of(
+                delivery(1L, Order.StatusEnum.DELIVERED, PICK_UP.plusMinutes(10)),
+                delivery(2L, Order.StatusEnum.DELIVERED, PICK_UP.plusMinutes(20)),
+                delivery(3L, Order.StatusEnum.DELIVERED, PICK_UP.plusDays(1)),
+                delivery(4L, Order.StatusEnum.ON_TRANSIT, null)));
+
+        CourierStats stats = courierStatsService.getStats(7L);
+
+        assertThat(stats.getDeliveredCount()).isEqualTo(3);
+        assertThat(stats.getActiveDays()).isEqualTo(2);
+        assertThat(stats.averageDeliveriesPerDay()).isEqualTo(2);
+        // three times the roughly 556 km between the vendor and the destination
+        assertThat(stats.getTotalDistance()).isCloseTo(1_667_438.1, within(0.1));
+        assertThat(stats.getTotalDurationMillis()).isEqualTo((30 + 24 * 60) * 60 * 1000L);
+        verify(courierStatsRepository).save(stats);
+    }
+
+    @Test
+    void efficiencyIsZeroWithoutDeliveryTime() {
+        CourierStats stats = new CourierStats(7L);
+        assertThat(stats.efficiency()).isEqualTo(0);
+
+        stats.addDelivery(PICK_UP, PICK_UP.plusNanos(500_000_000), 1000.0);
+
+        assertThat(stats.efficiency()).isEqualTo(0);
+    }
+
+    @Test
+    void savedStatsAreReadWithoutHistory() {
+        CourierStats saved = new CourierStats(7L);
+        when(courierStatsRepository.findById(7L)).thenReturn(Optional.of(saved));
+
+        assertThat(courierStatsService.getStats(7L)).isSameAs(saved);
+        verify(deliveryRepository, never()).findByCourierId(7L);
+    }
+
+    @Test
+    void concurrentlyBuiltStatsAreStillReturned() {
+        when(courierStatsRepository.findById(7L)).thenReturn(Optional.empty());
+        when(deliveryRepository.findByCourierId(7L)).thenReturn(List.of(
+                delivery(1L, Order.StatusEnum.DELIVERED, PICK_UP.plusMinutes(10))));
+        when(courierStatsRepository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThat(courierStatsService.getStats(7L).getDeliveredCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deliveredOrderIsAddedToSavedStats() {
+        when(courierStatsRepository.addDelivery(eq(7L), eq(1L), eq(10 * 60 * 1000L), anyDouble())).thenReturn(1);
+        when(deliveryRepository.findDeliveryByOrder_OrderId(1L))
+                .thenReturn(delivery(1L, Order.StatusEnum.DELIVERED, PICK_UP.plusMinutes(10)));
+
+        courierStatsService.recordDelivered(1L);
+
+        verify(courierStatsRepository).addDelivery(eq(7L), eq(1L), eq(10 * 60 * 1000L), doubleThat(
+                distance -> Math.abs(distance - 555_812.7) < 0.1));
+        verify(courierStatsRepository).insertDeliveriesOnDay(7L, PICK_UP.toLocalDate());
+        verify(courierStatsRepository).addActiveDay(7L);
+        verify(courierStatsRepository, never()).save(any());
+    }
+
+    @Test
+    void deliveredOrderOnAnActiveDayIsAddedToItsBucket() {
+        when(courierStatsRepository.addDelivery(eq(7L), eq(1L), eq(10 * 60 * 1000L), anyDouble())).thenReturn(1);
+        when(courierStatsRepository.incrementDeliveriesOnDay(7L, PICK_UP.toLocalDate())).thenReturn(1);
+        when(deliveryRepository.findDeliveryByOrder_OrderId(1L))
+                .thenReturn(delivery(1L, Order.StatusEnum.DELIVERED, PICK_UP.plusMinutes(10)));
+
+        courierStatsService.recordDelivered(1L);
+
+        verify(courierStatsRepository, never()).insertDeliveriesOnDay(anyLong(), any());
+        verify(courierStatsRepository, never()).addActiveDay(anyLong());
+    }
+
+    @Test
+    void deliveredOrderIsLeftForTheHistoryWhenThereAreNoStatsYet() {
+        when(deliveryRepository.findDeliveryByOrder_OrderId(1L))
+                .thenReturn(delivery(1L, Order.StatusEnum.DELIVERED, PICK_UP.plusMinutes(10)));
+
+        courierStatsService.recordDelivered(1L);
+
+        verify(courierStatsRepository, never()).incrementDeliveriesOnDay(anyLong(), any());
+        verify(courierStatsRepository, never()).save(any());
+    }
+
+    @Test
+    void statsBuiltWhileAnOrderIsDeliveredAreNotSaved() {
+        when(courierStatsRepository.findById(7L)).thenReturn(Optional.empty());
+        when(deliveryRepository.findDeliveryByOrder_OrderId(2L))
+                .thenReturn(delivery(2L, Order.StatusEnum.DELIVERED, PICK_UP.plusMinutes(20)));
+        // the order is delivered after the history is read, but before the built statistics are saved
+        when(deliveryRepository.findByCourierId(7L)).thenAnswer(invocation -> {
+            courierStatsService.recordDelivered(2L);
+            return List.of(delivery(1L, Order.StatusEnum.DELIVERED, PICK_UP.plusMinutes(10)));
+        });
+
+        assertThat(courierStatsService.getStats(7L).getDeliveredCount()).isEqualTo(1);
+        verify(courierStatsRepository, never()).save(any());
+
+        doReturn(List.of(
+                delivery(1L, Order.StatusEnum.DELIVERED, PICK_UP.plusMinutes(10)),
+                delivery(2L, Order.StatusEnum.DELIVERED, PICK_UP.plusMinutes(20))))
+                .when(deliveryRepository).findByCourierId(7L);
+
+        CourierStats rebuilt = courierStatsService.getStats(7L);
+
+        assertThat(rebuilt.getDeliveredCount()).isEqualTo(2);
+        verify(courierStatsRepository).save(rebuilt);
+    }
+
+    @Test
+    void statsAreNotSavedWhileADeliveryIsUncommitted() {
+        when(courierStatsRepository.findById(7L)).thenReturn(Optional.empty());
+        when(deliveryRepository.findDeliveryByOrder_OrderId(2L))
+                .thenReturn(delivery(2L, Order.StatusEnum.DELIVERED, PICK_UP.plusMinutes(20)));
+        when(deliveryRepository.findByCourierId(7L)).thenReturn(List.of(
+                delivery(1L, Order.StatusEnum.DELIVERED, PICK_UP.plusMinutes(10))));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            courierStatsService.recordDelivered(2L);
+
+            courierStatsService.getStats(7L);
+            verify(courierStatsRepository, never()).save(any());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        CourierStats rebuilt = courierStatsService.getStats(7L);
+        verify(courierStatsRepository).save(rebuilt);
+    }
+
+    @Test
+    void statsBuiltWhileTheyAreInvalidatedAreNotSaved() {
+        when(courierStatsRepository.findById(7L)).thenReturn(Optional.empty());
+        when(deliveryRepository.findByCourierId(7L)).thenAnswer(invocation -> {
+            courierStatsService.invalidate(7L);
+            return List.of(delivery(1L, Order.StatusEnum.DELIVERED, PICK_UP.plusMinutes(10)));
+        });
+
+        courierStatsService.getStats(7L);
+
+        verify(courierStatsRepository).deleteByCourierId(7L);
+        verify(courierStatsRepository, never()).save(any());
+    }
+
+    @Test
+    void deliveryWithoutTimesIsOnlyCounted() {
+        CourierStats stats = new CourierStats(7L);
+        stats.addDelivery(null, null, null);
+
+        assertThat(stats.getDeliveredCount()).isEqualTo(1);
+        assertThat(stats.getActiveDays()).isZero();
+        assertThat(stats.averageDeliveriesPerDay()).isZero();
+    }
+}
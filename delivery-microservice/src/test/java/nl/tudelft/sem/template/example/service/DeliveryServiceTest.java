@@ -1,18 +1,31 @@
 package nl.tudelft.sem.template.example.service;
 
 import nl.tudelft.sem.template.example.configuration.ConfigurationProperties;
+import nl.tudelft.sem.template.example.cache.ExpiringCache;
+import nl.tudelft.sem.template.example.eta.EtaCache;
+import nl.tudelft.sem.template.example.eta.EtaModel;
 import nl.tudelft.sem.template.example.exception.*;
+import nl.tudelft.sem.template.example.repository.CourierStatsRepository;
 import nl.tudelft.sem.template.example.repository.DeliveryRepository;
 import nl.tudelft.sem.template.example.repository.OrderRepository;
 import nl.tudelft.sem.template.example.repository.VendorRepository;
+import nl.tudelft.sem.template.example.tracking.CourierLocationTracker;
 import nl.tudelft.sem.template.model.*;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +45,12 @@ public class DeliveryServiceTest {
 
     private DeliveryService deliveryService;
 
+    private CourierStatsRepository courierStatsRepository;
+
+    private CourierLocationTracker courierLocationTracker;
+
+    private EtaModel etaModel;
+
     DeliveryPostRequest dummyDeliveryPostRequest;
 
     ConfigurationProperties configurationProperties;
@@ -59,8 +78,15 @@ public class DeliveryServiceTest {
         vendorRepository = Mockito.mock(VendorRepository.class);
         orderRepository = Mockito.mock(OrderRepository.class);
         vendorService = Mockito.mock(VendorService.class);
+        courierStatsRepository = Mockito.mock(CourierStatsRepository.class);
+        courierLocationTracker = Mockito.mock(CourierLocationTracker.class);
+        etaModel = new EtaModel(deliveryRepository, Clock.systemUTC(), ZoneOffset.UTC, 5.0, Duration.ofMinutes(15),
+                Duration.ofMinutes(5), 5.0);
 
-        this.deliveryService = new DeliveryService(deliveryRepository, orderRepository, vendorRepository, vendorService, configurationProperties);
+        this.deliveryService = new DeliveryService(deliveryRepository, orderRepository, vendorRepository, vendorService,
+                configurationProperties, new CourierStatsService(courierStatsRepository, deliveryRepository),
+                courierLocationTracker, etaModel,
+                new EtaCache(new ExpiringCache<>(Duration.ofMinutes(1), 100)));
 
 
         orderId = 123L;
@@ -106,6 +132,45 @@ public class DeliveryServiceTest {
         assertNotNull(result);
     }
 
+    @Test
+    void testCreateDeliveriesLooksUpEveryVendorAndOrderOnce() throws Exception {
+        Vendor unknownVendor = new Vendor(2L, 10L, new Location(4.0, 5.0), new ArrayList<>());
+        when(vendorRepository.findAllById(any())).thenReturn(List.of(vendor));
+        when(vendorService.findVendorOrCreate(2L)).thenReturn(unknownVendor);
+        when(vendorService.findVendorOrCreate(3L)).thenThrow(MicroserviceCommunicationException.class);
+        when(orderRepository.findExistingOrderIds(any())).thenReturn(List.of(124L));
+        when(deliveryRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Delivery> deliveries = invocation.getArgument(0);
+            for (int i = 0; i < deliveries.size(); i++) {
+                deliveries.get(i).setId(10L + i);
+            }
+            return deliveries;
+        });
+
+        List<DeliveryPostRequest> requests = List.of(
+                new DeliveryPostRequest(123, 456, new Location(4.0, 5.0), 1),
+                new DeliveryPostRequest(124, 456, new Location(4.0, 5.0), 1),
+                new DeliveryPostRequest(125, 456, new Location(4.0, 5.0), 2),
+                new DeliveryPostRequest(125, 456, new Location(4.0, 5.0), 2),
+                new DeliveryPostRequest(126, 456, new Location(4.0, 5.0), 3),
+                new DeliveryPostRequest(127, 456, null, 1));
+        List<DeliveryCreationResult> results = deliveryService.createDeliveries(requests,
+                deliveryService.findVendorsOrCreate(requests));
+
+        Assertions.assertThat(results).extracting(DeliveryCreationResult::getOrderId, DeliveryCreationResult::getResult,
+                DeliveryCreationResult::getDeliveryId, DeliveryCreationResult::getStatus).containsExactly(
+                Assertions.tuple(123L, DeliveryCreationResult.ResultEnum.CREATED, 10L, "Rejected"),
+                Assertions.tuple(124L, DeliveryCreationResult.ResultEnum.ALREADY_EXISTS, null, null),
+                Assertions.tuple(125L, DeliveryCreationResult.ResultEnum.CREATED, 11L, "Pending"),
+                Assertions.tuple(125L, DeliveryCreationResult.ResultEnum.ALREADY_EXISTS, null, null),
+                Assertions.tuple(126L, DeliveryCreationResult.ResultEnum.VENDOR_NOT_FOUND, null, null),
+                Assertions.tuple(null, DeliveryCreationResult.ResultEnum.INVALID, null, null));
+        verify(orderRepository).findExistingOrderIds(List.of(123L, 124L, 125L, 125L, 126L));
+        verify(vendorService, never()).findVendorOrCreate(1L);
+        verify(vendorService).findVendorOrCreate(2L);
+        verify(deliveryRepository, never()).save(any());
+    }
+
     @Test
     void testGetReadyTimeSuccess() throws OrderNotFoundException {
         OffsetDateTime readyTime = OffsetDateTime.now();
@@ -342,6 +407,35 @@ public class DeliveryServiceTest {
         assertEquals(newDeliveredTime, mockDelivery.getTime().getDeliveredTime());
     }
 
+    @Test
+    void testUpdateDeliveredTimeOfDeliveredOrderInvalidatesCourierStats() throws OrderNotFoundException {
+        Order order = new Order();
+        order.setStatus(Order.StatusEnum.DELIVERED);
+        Delivery delivery = new Delivery();
+        delivery.setOrder(order);
+        delivery.setCourierId(7L);
+        when(deliveryRepository.findDeliveryByOrder_OrderId(orderId)).thenReturn(delivery);
+
+        deliveryService.updateDeliveredTime(orderId, OffsetDateTime.now());
+        deliveryService.updatePickupTime(orderId, OffsetDateTime.now());
+
+        verify(courierStatsRepository, times(2)).deleteByCourierId(7L);
+    }
+
+    @Test
+    void testUpdateDeliveredTimeOfUndeliveredOrderKeepsCourierStats() throws OrderNotFoundException {
+        Order order = new Order();
+        order.setStatus(Order.StatusEnum.ON_TRANSIT);
+        Delivery delivery = new Delivery();
+        delivery.setOrder(order);
+        delivery.setCourierId(7L);
+        when(deliveryRepository.findDeliveryByOrder_OrderId(orderId)).thenReturn(delivery);
+
+        deliveryService.updateDeliveredTime(orderId, OffsetDateTime.now());
+
+        verify(courierStatsRepository, never()).deleteByCourierId(anyLong());
+    }
+
     @Test
     void testUpdateDeliveredTimeOrderNotFound() {
         OffsetDateTime newDeliveredTime = OffsetDateTime.now().plusHours(2);
@@ -393,17 +487,143 @@ public class DeliveryServiceTest {
         Vendor vendor1 = new Vendor();
         vendor1.setAddress(new Location(0.0, 0.0));
         order1.setVendor(vendor1);
-        Location destination1 = new Location(5.0, 6.0);
+        // About 10 km from the vendor, which takes 2001.5 seconds at the default speed of 5 m/s
+        Location destination1 = new Location(0.0, 0.09);
         order1.setDestination(destination1);
         delivery1.setOrder(order1);
 
         when(deliveryRepository.findDeliveryByOrder_OrderId(orderId)).thenReturn(delivery1);
-        OffsetDateTime estimatedTime = OffsetDateTime.now().plusMinutes(30);
+        // 15 minutes to prepare the order and 5 minutes to pick it up by default
+        OffsetDateTime estimatedTime = OffsetDateTime.now().plusMinutes(20).plus(Duration.ofMillis(2_001_500));
 
         OffsetDateTime eta = deliveryService.getEta(orderId);
         assertThat(eta).isBetween(estimatedTime.minusSeconds(2), estimatedTime.plusSeconds(2));
     }
 
+    @Test
+    void testGetEtaLearnsFromDeliveredOrders() throws OrderNotFoundException {
+        Vendor vendor1 = new Vendor(1L, 10L, new Location(0.0, 0.0), new ArrayList<>());
+        OffsetDateTime pickUp = OffsetDateTime.now().minusHours(1);
+        Delivery done = new Delivery(1L, new Order(1L, 2L, vendor1, Order.StatusEnum.DELIVERED, new Location(0.0, 0.09)),
+                7L, null, new Time(pickUp, null, null), null);
+        Delivery onTheWay = new Delivery(2L, new Order(2L, 2L, vendor1, Order.StatusEnum.ON_TRANSIT,
+                new Location(0.0, 0.18)), 7L, null, new Time(OffsetDateTime.now(), null, null), null);
+        when(deliveryRepository.findDeliveryByOrder_OrderId(1L)).thenReturn(done);
+        when(deliveryRepository.findDeliveryByOrder_OrderId(2L)).thenReturn(onTheWay);
+
+        // The first delivery travels 10 km in 10 minutes, twice as fast as the default speed.
+        deliveryService.updateDeliveredTime(1L, pickUp.plusMinutes(10));
+
+        assertThat(deliveryService.getEta(1L)).isEqualTo(pickUp.plusMinutes(10));
+        // The second delivery travels 20 km, which takes 66.7 minutes at the default speed and 20 at the learned one.
+        // A single trip only moves the estimate part of the way.
+        OffsetDateTime departure = onTheWay.getTime().getPickUpTime();
+        assertThat(deliveryService.getEta(2L)).isBetween(departure.plusMinutes(21), departure.plusMinutes(66));
+    }
+
+    @Test
+    void testConcurrentTimeUpdatesOfAnOrderAreAppliedOneAfterTheOther() throws Exception {
+        Vendor vendor1 = new Vendor(1L, 10L, new Location(0.0, 0.0), new ArrayList<>());
+        Order order1 = new Order(1L, 2L, vendor1, Order.StatusEnum.ON_TRANSIT, new Location(0.0, 0.09));
+        OffsetDateTime pickUp = OffsetDateTime.now().minusHours(1);
+        // the repository hands out copies of the stored times, like the database would
+        AtomicReference<Time> stored = new AtomicReference<>(new Time(pickUp, null, null));
+        CountDownLatch loads = new CountDownLatch(2);
+        when(deliveryRepository.findDeliveryByOrder_OrderId(1L)).thenAnswer(invocation -> {
+            loads.countDown();
+            Time time = stored.get();
+            return new Delivery(1L, order1, 7L, null,
+                    new Time(time.getPickUpTime(), time.getReadyTime(), time.getDeliveredTime()), null);
+        });
+        Thread[] second = new Thread[1];
+        doAnswer(invocation -> {
+            Delivery saved = invocation.getArgument(0);
+            if (second[0] == null) {
+                // a second update of the same order comes in while the first one is being saved
+                second[0] = new Thread(() -> {
+                    try {
+                        deliveryService.updateDeliveredTime(1L, pickUp.plusMinutes(20));
+                    } catch (OrderNotFoundException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                second[0].start();
+                loads.await(200, TimeUnit.MILLISECONDS);
+            }
+            Time time = saved.getTime();
+            stored.set(new Time(time.getPickUpTime(), time.getReadyTime(), time.getDeliveredTime()));
+            return saved;
+        }).when(deliveryRepository).save(any(Delivery.class));
+
+        deliveryService.updateDeliveredTime(1L, pickUp.plusMinutes(10));
+        second[0].join();
+
+        assertEquals(pickUp.plusMinutes(20), stored.get().getDeliveredTime());
+        // the second update replaced the trip of the first one instead of adding another one
+        assertEquals(1, etaModel.completedTrips());
+    }
+
+    @Test
+    void testGetEtaIsCachedUntilTheOrderChanges() throws Exception {
+        Vendor vendor1 = new Vendor(1L, 10L, new Location(0.0, 0.0), new ArrayList<>());
+        Delivery delivery1 = new Delivery(1L, new Order(1L, 2L, vendor1, Order.StatusEnum.PREPARING,
+                new Location(0.0, 0.09)), 7L, null, new Time(), null);
+        when(deliveryRepository.findDeliveryByOrder_OrderId(1L)).thenReturn(delivery1);
+
+        OffsetDateTime first = deliveryService.getEta(1L);
+        assertThat(deliveryService.getEta(1L)).isEqualTo(first);
+        verify(deliveryRepository, times(1)).findDeliveryByOrder_OrderId(1L);
+
+        OffsetDateTime ready = OffsetDateTime.now().plusHours(2);
+        deliveryService.updateReadyTime(1L, ready);
+        assertThat(deliveryService.getEta(1L)).isAfter(ready);
+
+        deliveryService.getEta(1L);
+        deliveryService.addIssueToDelivery(1, new Issue("traffic", "Road closed"));
+        deliveryService.getEta(1L);
+        deliveryService.updatePickupTime(1L, OffsetDateTime.now());
+        deliveryService.getEta(1L);
+        deliveryService.updateDeliveredTime(1L, OffsetDateTime.now());
+        deliveryService.getEta(1L);
+        // Every change and every estimate after it loads the delivery again.
+        verify(deliveryRepository, times(9)).findDeliveryByOrder_OrderId(1L);
+    }
+
+    @Test
+    void testGetSummaryLoadsTheDeliveryOnce() throws Exception {
+        Vendor vendor1 = new Vendor(1L, 10L, new Location(0.0, 0.0), new ArrayList<>());
+        OffsetDateTime ready = OffsetDateTime.now().plusMinutes(10);
+        Issue issue = new Issue("traffic", "Road closed");
+        Delivery delivery1 = new Delivery(1L, new Order(1L, 2L, vendor1, Order.StatusEnum.PREPARING,
+                new Location(0.0, 0.09)), 7L, null, new Time(null, ready, null), issue);
+        when(deliveryRepository.findDeliveryByOrder_OrderId(1L)).thenReturn(delivery1);
+
+        DeliverySummary summary = deliveryService.getSummary(1L);
+
+        assertThat(summary.getOrderId()).isEqualTo(1L);
+        assertThat(summary.getStatus()).isEqualTo("Preparing");
+        assertThat(summary.getReadyTime()).isEqualTo(ready);
+        assertThat(summary.getPickUpTime()).isNull();
+        assertThat(summary.getDeliveredTime()).isNull();
+        assertThat(summary.getCourierId()).isEqualTo(7L);
+        assertThat(summary.getIssue()).isEqualTo(issue);
+        // Not picked up yet, so the order is still at the vendor.
+        assertThat(summary.getLocation()).isEqualTo(new Location(0.0, 0.0));
+        assertThat(summary.getEta()).isAfter(ready);
+        verify(deliveryRepository, times(1)).findDeliveryByOrder_OrderId(1L);
+
+        // The estimate made for the summary is reused by the ETA endpoint.
+        assertThat(deliveryService.getEta(1L)).isEqualTo(summary.getEta());
+        verify(deliveryRepository, times(1)).findDeliveryByOrder_OrderId(1L);
+    }
+
+    @Test
+    void testGetSummaryOrderNotFound() {
+        when(deliveryRepository.findDeliveryByOrder_OrderId(1L)).thenReturn(null);
+
+        assertThrows(OrderNotFoundException.class, () -> deliveryService.getSummary(1L));
+    }
+
     @Test
     void testGetEtaOrderNotFound() {
         Long orderId = 456L;
@@ -449,6 +669,7 @@ public class DeliveryServiceTest {
     @Test
     void calculateLiveLocationAtDestinationTest() throws OrderNotFoundException {
         OffsetDateTime pickupTime = OffsetDateTime.now().minusHours(2);
+        mockDelivery.getOrder().setDestination(new Location(0.01, 0.01)); // about 1.6 km away
         OffsetDateTime currentTime = OffsetDateTime.now();
         mockDelivery.getTime().setPickUpTime(pickupTime);
 
@@ -461,6 +682,48 @@ public class DeliveryServiceTest {
         assertEquals(mockDelivery.getOrder().getDestination().getLatitude(), result.getLatitude(), tolerance);
         assertEquals(mockDelivery.getOrder().getDestination().getLongitude(), result.getLongitude(), tolerance);
     }
+
+    @Test
+    void calculateLiveLocationFromReportedLocationTest() throws OrderNotFoundException {
+        OffsetDateTime pickupTime = OffsetDateTime.now().minusMinutes(10);
+        mockDelivery.getTime().setPickUpTime(pickupTime);
+        mockDelivery.setCourierId(7L);
+        Location reported = new Location(3.0, 4.0);
+        when(courierLocationTracker.currentLocation(7L, pickupTime.toInstant().toEpochMilli()))
+                .thenReturn(Optional.of(reported));
+        when(deliveryRepository.findDeliveryByOrder_OrderId(orderId)).thenReturn(mockDelivery);
+
+        Location result = deliveryService.calculateLiveLocation(orderId);
+
+        assertEquals(reported, result);
+    }
+
+    @Test
+    void calculateLiveLocationWithoutRecentReportedLocationTest() throws OrderNotFoundException {
+        OffsetDateTime pickupTime = OffsetDateTime.now().minusHours(2);
+        mockDelivery.getTime().setPickUpTime(pickupTime);
+        mockDelivery.getOrder().setDestination(new Location(0.01, 0.01)); // about 1.6 km away
+        mockDelivery.setCourierId(7L);
+        when(courierLocationTracker.currentLocation(anyLong(), anyLong())).thenReturn(Optional.empty());
+        when(deliveryRepository.findDeliveryByOrder_OrderId(orderId)).thenReturn(mockDelivery);
+
+        Location result = deliveryService.calculateLiveLocation(orderId);
+
+        assertEquals(mockDelivery.getOrder().getDestination().getLatitude(), result.getLatitude(), 0.2);
+        assertEquals(mockDelivery.getOrder().getDestination().getLongitude(), result.getLongitude(), 0.2);
+    }
+
+    @Test
+    void calculateLiveLocationIgnoresReportedLocationBeforePickupTest() throws OrderNotFoundException {
+        mockDelivery.getTime().setPickUpTime(OffsetDateTime.now().plusHours(1));
+        mockDelivery.setCourierId(7L);
+        when(deliveryRepository.findDeliveryByOrder_OrderId(orderId)).thenReturn(mockDelivery);
+
+        Location result = deliveryService.calculateLiveLocation(orderId);
+
+        assertEquals(mockDelivery.getOrder().getVendor().getAddress(), result);
+        verify(courierLocationTracker, never()).currentLocation(anyLong(), anyLong());
+    }
     @Test
     void testGetDeliveryIdByOrderIdSuccess() throws OrderNotFoundException {
         when(deliveryRepository.findDeliveryByOrder_OrderId(anyLong())).thenReturn(mockDelivery);
@@ -505,14 +768,14 @@ public class DeliveryServiceTest {
     @Test
     void testEstimatePositionMidway() {
         Location start = new Location(0.0, 0.0);
-        Location end = new Location(0.0, 3600.0); // 3600 meters away
-        OffsetDateTime pickupTime = OffsetDateTime.now().minusMinutes(30); // 30 minutes ago
+        Location end = new Location(0.0, 0.0323755); // 3600 meters away along the equator
         OffsetDateTime currentTime = OffsetDateTime.now();
+        OffsetDateTime pickupTime = currentTime.minusMinutes(30); // 30 minutes ago
 
         Location result = deliveryService.estimatePosition(start, end, pickupTime, currentTime);
 
         assertEquals(0.0, result.getLatitude());
-        assertEquals(1800.0, result.getLongitude());
+        assertEquals(0.0323755 / 2, result.getLongitude(), 1e-6);
     }
 
     @Test
@@ -535,5 +798,33 @@ public class DeliveryServiceTest {
         assertEquals(Order.StatusEnum.REJECTED, result.getOrder().getStatus());
     }
 
+    @Test
+    void testCreateDeliveryDeliveryZoneIsInKilometers() throws Exception {
+        Mockito.when(vendorService.findVendorOrCreate(anyLong())).thenReturn(vendor);
+        Mockito.when(deliveryRepository.save(any(Delivery.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // the vendor is at (1, 2) with a zone of 10 km, and 0.08 degrees of latitude are about 8.9 km
+        dummyDeliveryPostRequest.setDestination(new Location(1.08, 2.0));
+        assertEquals(Order.StatusEnum.PENDING, deliveryService.createDelivery(dummyDeliveryPostRequest).getOrder().getStatus());
+
+        // while 0.1 degrees of latitude are about 11.1 km
+        dummyDeliveryPostRequest.setDestination(new Location(1.1, 2.0));
+        assertEquals(Order.StatusEnum.REJECTED, deliveryService.createDelivery(dummyDeliveryPostRequest).getOrder().getStatus());
+    }
+
+    @Test
+    void calculateDistanceInMetersTest() {
+        // one degree of longitude along the equator
+        assertEquals(111_195.08, deliveryService.calculateDistance(new Location(0.0, 0.0), new Location(0.0, 1.0)), 0.01);
+    }
 
+    @Test
+    void calculateDistancesTest() {
+        double[] distances = new double[2];
+        deliveryService.calculateDistances(new Location(0.0, 0.0), new double[] {0.0, 0.01}, new double[] {1.0, 0.0},
+                distances);
+
+        assertEquals(111_195.08, distances[0], 0.01);
+        assertEquals(1_111.95, distances[1], 0.01);
+    }
 }
@@ -0,0 +1,98 @@
+package nl.tudelft.sem.template.example.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import nl.tudelft.sem.template.example.Application;
+import nl.tudelft.sem.template.example.exception.OrderNotFoundException;
+import nl.tudelft.sem.template.example.repository.DeliveryRepository;
+import nl.tudelft.sem.template.example.repository.OrderRepository;
+import nl.tudelft.sem.template.example.repository.VendorRepository;
+import nl.tudelft.sem.template.model.Delivery;
+import nl.tudelft.sem.template.model.DeliveryCreationResult;
+import nl.tudelft.sem.template.model.DeliveryPostRequest;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Order;
+import nl.tudelft.sem.template.model.Vendor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@Transactional
+@SpringBootTest(classes = Application.class)
+public class DeliveryServiceTestRealRepository {
+    private final DeliveryRepository deliveryRepository;
+
+    private final OrderRepository orderRepository;
+
+    private final VendorRepository vendorRepository;
+
+    private final DeliveryService deliveryService;
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    public DeliveryServiceTestRealRepository(DeliveryRepository deliveryRepository, OrderRepository orderRepository,
+                                             VendorRepository vendorRepository, DeliveryService deliveryService,
+                                             EntityManager entityManager) {
+        this.deliveryRepository = deliveryRepository;
+        this.orderRepository = orderRepository;
+        this.vendorRepository = vendorRepository;
+        this.deliveryService = deliveryService;
+        this.entityManager = entityManager;
+    }
+
+    private Delivery delivery;
+
+    @BeforeEach
+    void setup() {
+        Vendor vendor = vendorRepository.save(new Vendor(901L, 30L, new Location(1.0, 1.0), new ArrayList<>()));
+        delivery = new Delivery();
+        delivery.setOrder(new Order(9001L, 1L, vendor, Order.StatusEnum.PENDING, new Location(1.0, 1.0)));
+        delivery = deliveryRepository.save(delivery);
+    }
+
+    @Test
+    void liveLocationIsLookedUpByOrderId() throws OrderNotFoundException {
+        assertThat(delivery.getId()).isNotEqualTo(9001L);
+
+        assertThat(deliveryService.calculateLiveLocation(9001L)).isEqualTo(new Location(1.0, 1.0));
+        assertThatThrownBy(() -> deliveryService.calculateLiveLocation(delivery.getId()))
+                .isInstanceOf(OrderNotFoundException.class);
+    }
+
+    @Test
+    void findExistingOrderIds() {
+        assertThat(orderRepository.findExistingOrderIds(List.of(9000L, 9001L, 9002L))).containsExactly(9001L);
+    }
+
+    @Test
+    void createDeliveries() {
+        List<DeliveryPostRequest> requests = new ArrayList<>();
+        for (int orderId = 9001; orderId <= 9120; orderId++) {
+            requests.add(new DeliveryPostRequest(orderId, 2, new Location(1.0, 1.01), 901));
+        }
+
+        List<DeliveryCreationResult> results = deliveryService.createDeliveries(requests,
+                deliveryService.findVendorsOrCreate(requests));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(results).hasSize(120);
+        assertThat(results.get(0).getResult()).isEqualTo(DeliveryCreationResult.ResultEnum.ALREADY_EXISTS);
+        assertThat(results.subList(1, 120)).allMatch(result -> result.getResult()
+                == DeliveryCreationResult.ResultEnum.CREATED && "Pending".equals(result.getStatus()));
+        assertThat(results.subList(1, 120)).extracting(DeliveryCreationResult::getDeliveryId).doesNotContainNull()
+                .doesNotHaveDuplicates();
+
+        Delivery last = deliveryRepository.findById(results.get(119).getDeliveryId()).orElseThrow();
+        assertThat(last.getOrder().getOrderId()).isEqualTo(9120L);
+        assertThat(last.getOrder().getVendor().getId()).isEqualTo(901L);
+        assertThat(orderRepository.findOrdersByVendorId(901L)).hasSize(120);
+    }
+}
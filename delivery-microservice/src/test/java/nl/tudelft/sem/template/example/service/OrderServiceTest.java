@@ -2,23 +2,33 @@ package nl.tudelft.sem.template.example.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import nl.tudelft.sem.template.example.cache.AvailableOrderPool;
+import nl.tudelft.sem.template.example.domain.OrderStatusOutboxEvent;
+import nl.tudelft.sem.template.example.eta.EtaCache;
 import nl.tudelft.sem.template.example.exception.IllegalOrderStatusException;
-import nl.tudelft.sem.template.example.exception.MicroserviceCommunicationException;
 import nl.tudelft.sem.template.example.exception.OrderNotFoundException;
-import nl.tudelft.sem.template.example.external.OrdersMicroservice;
 import nl.tudelft.sem.template.example.repository.OrderRepository;
+import nl.tudelft.sem.template.example.repository.OrderStatusOutboxRepository;
+import nl.tudelft.sem.template.example.statemachine.OrderStateMachine;
+import nl.tudelft.sem.template.example.statemachine.OrderStatusChangedEvent;
 import nl.tudelft.sem.template.model.Location;
 import nl.tudelft.sem.template.model.Order;
+import nl.tudelft.sem.template.model.OrderStatusUpdate;
+import nl.tudelft.sem.template.model.OrderStatusUpdateResult;
 import nl.tudelft.sem.template.model.Vendor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -29,14 +39,35 @@ public class OrderServiceTest {
 
     private final OrderRepository orderRepository = Mockito.mock(OrderRepository.class);
 
-    private final OrdersMicroservice ordersMicroservice = Mockito.mock(OrdersMicroservice.class);
+    private final OrderStatusOutboxRepository outboxRepository = Mockito.mock(OrderStatusOutboxRepository.class);
 
-    private final OrderService orderService = new OrderService(orderRepository, ordersMicroservice);
+    private final CourierStatsService courierStatsService = Mockito.mock(CourierStatsService.class);
+
+    private final AvailableOrderPool availableOrderPool = Mockito.mock(AvailableOrderPool.class);
+
+    private final EtaCache etaCache = Mockito.mock(EtaCache.class);
+
+    private final OrderService orderService = new OrderService(orderRepository, outboxRepository,
+            new OrderStateMachine(this::publish));
 
     Order order1, order2, order3, order4, order5, order6, order7;
 
+    /**
+     * Delivers the status changes to the listeners like the application context does,
+     * the listeners then call the mocked methods of their own class.
+     */
+    private void publish(Object event) {
+        etaCache.orderStatusChanged((OrderStatusChangedEvent) event);
+        availableOrderPool.orderStatusChanged((OrderStatusChangedEvent) event);
+        courierStatsService.orderStatusChanged((OrderStatusChangedEvent) event);
+    }
+
     @BeforeEach
     void setup() {
+        doCallRealMethod().when(etaCache).orderStatusChanged(any());
+        doCallRealMethod().when(availableOrderPool).orderStatusChanged(any());
+        doCallRealMethod().when(courierStatsService).orderStatusChanged(any());
+
         Location location1 = new Location(5.0, 1.0);
         Vendor vendor1 = new Vendor(3L, 9L, location1, new ArrayList<>());
         order1 = new Order(1L, 3L, vendor1, Order.StatusEnum.PENDING, location1);
@@ -90,16 +121,17 @@ public class OrderServiceTest {
 
     @Test
     public void setOrderStatus_pendingToAccepted_validTransition() throws Exception {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         orderService.setOrderStatus(1, 11,"Accepted");
 
         assertThat(order1.getStatus()).isEqualTo(Order.StatusEnum.ACCEPTED);
         verify(orderRepository).save(order1);
+        verify(courierStatsService, never()).recordDelivered(anyLong());
+        verify(availableOrderPool).orderAvailable(1L, 3L, order1.getVendor().getAddress());
+        verify(etaCache).invalidate(1L);
     }
 
     @Test
     public void setOrderStatus_pendingToRejected_validTransition() throws Exception {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         orderService.setOrderStatus(1, 11,"Rejected");
 
         assertThat(order1.getStatus()).isEqualTo(Order.StatusEnum.REJECTED);
@@ -108,16 +140,16 @@ public class OrderServiceTest {
 
     @Test
     public void setOrderStatus_acceptedToPreparing_validTransition() throws Exception {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         orderService.setOrderStatus(2, 12,"Preparing");
 
         assertThat(order2.getStatus()).isEqualTo(Order.StatusEnum.PREPARING);
         verify(orderRepository).save(order2);
+        verify(availableOrderPool).orderUnavailable(2L);
+        verify(availableOrderPool, never()).orderAvailable(anyLong(), anyLong(), any());
     }
 
     @Test
     public void setOrderStatus_preparingToGivenToCourier_validTransition() throws Exception {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         orderService.setOrderStatus(4, 14,"Given_To_Courier");
 
         assertThat(order4.getStatus()).isEqualTo(Order.StatusEnum.GIVEN_TO_COURIER);
@@ -126,7 +158,6 @@ public class OrderServiceTest {
 
     @Test
     public void setOrderStatus_givenToCourierToOnTransit_validTransition() throws Exception {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         orderService.setOrderStatus(5, 15,"On_Transit");
 
         assertThat(order5.getStatus()).isEqualTo(Order.StatusEnum.ON_TRANSIT);
@@ -135,26 +166,79 @@ public class OrderServiceTest {
 
     @Test
     public void setOrderStatus_onTransitToDelivered_validTransition() throws Exception {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         orderService.setOrderStatus(6, 15,"Delivered");
 
         assertThat(order6.getStatus()).isEqualTo(Order.StatusEnum.DELIVERED);
         verify(orderRepository).save(order6);
+        verify(courierStatsService).recordDelivered(6L);
     }
 
     @Test
     public void setOrderStatus_invalidTransition_throwsException() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(true);
         assertThatThrownBy(() -> orderService.setOrderStatus(1, 6, "Preparing"))
                 .isInstanceOf(IllegalOrderStatusException.class)
                 .hasMessageContaining("Error! Order status cant go from PENDING to PREPARING.");
+        verify(etaCache, never()).invalidate(anyLong());
     }
 
     @Test
-    public void setOrderStatusBadMicroserviceCommunication() {
-        when(ordersMicroservice.putOrderStatus(anyLong(), anyLong(), anyString())).thenReturn(false);
+    public void setOrderStatus_validTransition_recordsOutboxEvent() throws Exception {
+        orderService.setOrderStatus(2, 12, "Preparing");
+
+        ArgumentCaptor<OrderStatusOutboxEvent> captor = ArgumentCaptor.forClass(OrderStatusOutboxEvent.class);
+        verify(outboxRepository).save(captor.capture());
+        assertThat(captor.getValue().getOrderId()).isEqualTo(2L);
+        assertThat(captor.getValue().getAuthorizationId()).isEqualTo(12L);
+        assertThat(captor.getValue().getStatus()).isEqualTo("Preparing");
+        assertThat(captor.getValue().getAttempts()).isZero();
+        assertThat(captor.getValue().getNextAttemptAt()).isEqualTo(captor.getValue().getCreatedAt());
+    }
+
+    @Test
+    public void setOrderStatus_invalidTransition_recordsNoOutboxEvent() {
         assertThatThrownBy(() -> orderService.setOrderStatus(1, 6, "Preparing"))
-                .isInstanceOf(MicroserviceCommunicationException.class)
-                .hasMessageContaining("Order status could not be updated");
+                .isInstanceOf(IllegalOrderStatusException.class);
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    public void setOrderStatuses_validatesEveryUpdateAndSavesTogether() {
+        when(orderRepository.findAllById(any())).thenReturn(List.of(order1, order2, order3));
+
+        List<OrderStatusUpdateResult> results = orderService.setOrderStatuses(11, List.of(
+                new OrderStatusUpdate().orderId(2L).status("Preparing"),
+                new OrderStatusUpdate().orderId(1L).status("Accepted"),
+                new OrderStatusUpdate().orderId(2L).status("Given_To_Courier"),
+                new OrderStatusUpdate().orderId(3L).status("Accepted"),
+                new OrderStatusUpdate().orderId(1L).status("Unknown"),
+                new OrderStatusUpdate().orderId(8L).status("Accepted"),
+                new OrderStatusUpdate().orderId(4L).status("Given_To_Courier")), Set.of(1L, 2L, 3L, 8L));
+
+        assertThat(results).extracting(OrderStatusUpdateResult::getOrderId, OrderStatusUpdateResult::getResult,
+                OrderStatusUpdateResult::getMessage).containsExactly(
+                tuple(2L, OrderStatusUpdateResult.ResultEnum.UPDATED, null),
+                tuple(1L, OrderStatusUpdateResult.ResultEnum.UPDATED, null),
+                tuple(2L, OrderStatusUpdateResult.ResultEnum.UPDATED, null),
+                tuple(3L, OrderStatusUpdateResult.ResultEnum.ILLEGAL_STATUS,
+                        "Error! Order status can't change after being REJECTED"),
+                tuple(1L, OrderStatusUpdateResult.ResultEnum.ILLEGAL_STATUS,
+                        "Error! Unknown is not an order status."),
+                tuple(8L, OrderStatusUpdateResult.ResultEnum.NOT_FOUND, null),
+                tuple(4L, OrderStatusUpdateResult.ResultEnum.FORBIDDEN, null));
+        assertThat(order1.getStatus()).isEqualTo(Order.StatusEnum.ACCEPTED);
+        assertThat(order2.getStatus()).isEqualTo(Order.StatusEnum.GIVEN_TO_COURIER);
+        assertThat(order4.getStatus()).isEqualTo(Order.StatusEnum.PREPARING);
+
+        verify(orderRepository).findAllById(Set.of(1L, 2L, 3L, 8L));
+        ArgumentCaptor<Iterable<Order>> orders = ArgumentCaptor.forClass(Iterable.class);
+        verify(orderRepository).saveAll(orders.capture());
+        assertThat(orders.getValue()).containsExactly(order2, order1);
+        verify(orderRepository, never()).save(any());
+        ArgumentCaptor<List<OrderStatusOutboxEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).saveAll(events.capture());
+        assertThat(events.getValue()).extracting(OrderStatusOutboxEvent::getOrderId, OrderStatusOutboxEvent::getStatus)
+                .containsExactly(tuple(2L, "Preparing"), tuple(1L, "Accepted"), tuple(2L, "Given_To_Courier"));
+        verify(availableOrderPool).orderAvailable(1L, 3L, order1.getVendor().getAddress());
+        verify(etaCache, times(2)).invalidate(2L);
     }
 }
@@ -1,5 +1,8 @@
 package nl.tudelft.sem.template.example.service;
 
+import nl.tudelft.sem.template.example.cache.AvailableOrderPool;
+import nl.tudelft.sem.template.example.cache.CourierVendorIndex;
+import nl.tudelft.sem.template.example.cache.VendorCoverageIndex;
 import nl.tudelft.sem.template.example.configuration.ConfigurationProperties;
 import nl.tudelft.sem.template.example.exception.CourierNotFoundException;
 import nl.tudelft.sem.template.example.exception.VendorHasNoCouriersException;
@@ -32,6 +35,9 @@ public class VendorServiceTest {
 
     private VendorService vendorService;
     private CourierService courierService;
+    private CourierVendorIndex courierVendorIndex;
+    private AvailableOrderPool availableOrderPool;
+    private VendorCoverageIndex vendorCoverageIndex;
 
 
     Vendor vendor;
@@ -42,7 +48,11 @@ public class VendorServiceTest {
         configurationProperties = new ConfigurationProperties();
         usersMicroservice = Mockito.mock(UsersMicroservice.class);
         courierService = Mockito.mock(CourierService.class);
-        vendorService = new VendorService(vendorRepository, configurationProperties, usersMicroservice, courierService);
+        courierVendorIndex = new CourierVendorIndex(vendorRepository);
+        availableOrderPool = Mockito.mock(AvailableOrderPool.class);
+        vendorCoverageIndex = new VendorCoverageIndex(vendorRepository);
+        vendorService = new VendorService(vendorRepository, configurationProperties, usersMicroservice, courierService,
+                courierVendorIndex, availableOrderPool, vendorCoverageIndex);
 
         Location address = new Location(0.0,0.0);
         vendor = new Vendor(1L, configurationProperties.getDefaultDeliveryZone(), address, new ArrayList<>());
@@ -119,6 +129,28 @@ public class VendorServiceTest {
         assertEquals(address, updated.getAddress());
     }
 
+    @Test
+    void updateDeliveryZoneUpdatesCoverageTest() throws VendorNotFoundException, VendorHasNoCouriersException {
+        // About 5.6 km north of the vendor
+        Location destination = new Location(0.05, 0.0);
+        vendorCoverageIndex.put(3L, 0.0, 0.0, 1L);
+        Assertions.assertThat(vendorService.getVendorsDeliveringTo(destination)).isEmpty();
+
+        vendorService.updateDeliveryZone(3L, 10L);
+
+        Assertions.assertThat(vendorService.getVendorsDeliveringTo(destination)).containsExactly(3L);
+    }
+
+    @Test
+    void createdVendorIsCoveredTest() throws MicroserviceCommunicationException {
+        when(vendorRepository.existsById(100L)).thenReturn(false);
+        when(usersMicroservice.getVendorLocation(100L)).thenReturn(Optional.of(new Location(2.0, 2.0)));
+
+        vendorService.createVendor(100L);
+
+        Assertions.assertThat(vendorService.getVendorsDeliveringTo(new Location(2.0, 2.0))).containsExactly(100L);
+    }
+
     @Test
     void updateDeliveryZoneNoCouriersTest() throws VendorNotFoundException, VendorHasNoCouriersException {
         Long vendorId = 1L;
@@ -165,6 +197,10 @@ public class VendorServiceTest {
         couriers.add(2L);
         updated = vendorService.assignCourierToVendor(33L, 2L);
         assertEquals(couriers, updated.getCouriers());
+        assertEquals(Optional.of(33L), courierVendorIndex.findVendorId(6L));
+        assertEquals(Optional.of(33L), courierVendorIndex.findVendorId(2L));
+        verify(vendorRepository, never()).findVendorIdsByCourierId(anyLong());
+        verify(availableOrderPool, times(2)).vendorHasCouriers(33L);
 
 
 
@@ -1,6 +1,9 @@
 package nl.tudelft.sem.template.example.service;
 
 import nl.tudelft.sem.template.example.Application;
+import nl.tudelft.sem.template.example.cache.AvailableOrderPool;
+import nl.tudelft.sem.template.example.cache.CourierVendorIndex;
+import nl.tudelft.sem.template.example.cache.VendorCoverageIndex;
 import nl.tudelft.sem.template.example.configuration.ConfigurationProperties;
 import nl.tudelft.sem.template.example.exception.MicroserviceCommunicationException;
 import nl.tudelft.sem.template.example.external.UsersMicroservice;
@@ -35,13 +38,16 @@ public class VendorServiceTestRealRepository {
 
     private final ConfigurationProperties configurationProperties;
 
+    private final VendorCoverageIndex vendorCoverageIndex;
+
     @Autowired
-    public VendorServiceTestRealRepository(VendorRepository vendorRepository, ConfigurationProperties configurationProperties, CourierService courierService){
+    public VendorServiceTestRealRepository(VendorRepository vendorRepository, ConfigurationProperties configurationProperties, CourierService courierService, CourierVendorIndex courierVendorIndex, AvailableOrderPool availableOrderPool){
+        this.vendorCoverageIndex = new VendorCoverageIndex(vendorRepository);
         this.vendorRepository = vendorRepository;
         this.usersMicroservice = Mockito.mock(UsersMicroservice.class);
         this.configurationProperties = configurationProperties;
         this.courierService = courierService;
-        this.vendorService = new VendorService(vendorRepository, configurationProperties, usersMicroservice, courierService);
+        this.vendorService = new VendorService(vendorRepository, configurationProperties, usersMicroservice, courierService, courierVendorIndex, availableOrderPool, vendorCoverageIndex);
     }
 
     @BeforeEach
@@ -53,6 +59,16 @@ public class VendorServiceTestRealRepository {
         vendorRepository.save(vendor2);
     }
 
+    @Test
+    void coverageIsRebuiltFromTheRepository() {
+        vendorCoverageIndex.rebuild();
+
+        // Vendor 5 has no address, so it does not deliver anywhere.
+        assertThat(vendorCoverageIndex.size()).isEqualTo(1);
+        assertThat(vendorService.getVendorsDeliveringTo(new Location(3.1, 4.1))).containsExactly(4L);
+        assertThat(vendorService.getVendorsDeliveringTo(new Location(4.0, 4.0))).isEmpty();
+    }
+
     @Test
     void testVendorWithIdDoesNotExist() throws MicroserviceCommunicationException {
         when(usersMicroservice.getVendorLocation(any())).thenReturn(Optional.of(new Location(2.0, 2.0)));
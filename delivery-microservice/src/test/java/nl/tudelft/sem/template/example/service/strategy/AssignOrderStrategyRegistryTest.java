@@ -0,0 +1,53 @@
+package nl.tudelft.sem.template.example.service.strategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import nl.tudelft.sem.template.example.cache.AvailableOrderPool;
+import nl.tudelft.sem.template.example.dispatch.BatchDispatcher;
+import nl.tudelft.sem.template.example.repository.DeliveryRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class AssignOrderStrategyRegistryTest {
+    private final DeliveryRepository deliveryRepository = Mockito.mock(DeliveryRepository.class);
+
+    private final SpecificOrderStrategy specific = new SpecificOrderStrategy(deliveryRepository);
+
+    private final AvailableOrderPool availableOrderPool = Mockito.mock(AvailableOrderPool.class);
+
+    private final RandomOrderStrategy random = new RandomOrderStrategy(deliveryRepository, availableOrderPool);
+
+    private final NearestOrderStrategy nearest = new NearestOrderStrategy(deliveryRepository, availableOrderPool);
+
+    private final BatchDispatchStrategy batch = new BatchDispatchStrategy(Mockito.mock(BatchDispatcher.class));
+
+    @Test
+    void strategiesAreLookedUpByMode() {
+        AssignOrderStrategyRegistry registry = new AssignOrderStrategyRegistry(List.of(batch, random, nearest, specific));
+
+        assertThat(registry.get(AssignmentMode.SPECIFIC)).isSameAs(specific);
+        assertThat(registry.get(AssignmentMode.RANDOM)).isSameAs(random);
+        assertThat(registry.get(AssignmentMode.NEAREST)).isSameAs(nearest);
+        assertThat(registry.get(AssignmentMode.BATCH)).isSameAs(batch);
+    }
+
+    @Test
+    void missingModeIsRejected() {
+        Throwable exception = assertThrows(IllegalStateException.class,
+                () -> new AssignOrderStrategyRegistry(List.of(specific, random, nearest)));
+
+        assertThat(exception.getMessage()).isEqualTo("No strategy implements assignment mode BATCH");
+    }
+
+    @Test
+    void duplicateModeIsRejected() {
+        Throwable exception = assertThrows(IllegalStateException.class, () -> new AssignOrderStrategyRegistry(
+                List.of(specific, random, nearest, batch,
+                        new RandomOrderStrategy(deliveryRepository, availableOrderPool))));
+
+        assertThat(exception.getMessage())
+                .isEqualTo("Both RandomOrderStrategy and RandomOrderStrategy implement assignment mode RANDOM");
+    }
+}
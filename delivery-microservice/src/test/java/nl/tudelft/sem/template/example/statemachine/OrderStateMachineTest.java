@@ -0,0 +1,87 @@
+package nl.tudelft.sem.template.example.statemachine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import nl.tudelft.sem.template.example.exception.IllegalOrderStatusException;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.Order;
+import nl.tudelft.sem.template.model.Order.StatusEnum;
+import nl.tudelft.sem.template.model.Vendor;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+class OrderStateMachineTest {
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private final OrderStateMachine stateMachine = new OrderStateMachine(eventPublisher);
+
+    @Test
+    void onlyTheFlowOfTheStatusesIsAllowed() {
+        Set<List<StatusEnum>> allowed = Set.of(List.of(StatusEnum.PENDING, StatusEnum.ACCEPTED),
+                List.of(StatusEnum.PENDING, StatusEnum.REJECTED), List.of(StatusEnum.ACCEPTED, StatusEnum.PREPARING),
+                List.of(StatusEnum.PREPARING, StatusEnum.GIVEN_TO_COURIER),
+                List.of(StatusEnum.GIVEN_TO_COURIER, StatusEnum.ON_TRANSIT),
+                List.of(StatusEnum.ON_TRANSIT, StatusEnum.DELIVERED));
+
+        for (StatusEnum oldStatus : StatusEnum.values()) {
+            for (StatusEnum newStatus : StatusEnum.values()) {
+                assertThat(stateMachine.canTransition(oldStatus, newStatus))
+                        .as("%s -> %s", oldStatus, newStatus)
+                        .isEqualTo(allowed.contains(List.of(oldStatus, newStatus)));
+            }
+        }
+    }
+
+    @Test
+    void rejectedTransitionsKeepTheirMessages() {
+        assertThatThrownBy(() -> stateMachine.assertTransition(StatusEnum.PENDING, StatusEnum.PREPARING))
+                .isInstanceOf(IllegalOrderStatusException.class)
+                .hasMessage("Error! Order status cant go from PENDING to PREPARING.");
+        assertThatThrownBy(() -> stateMachine.assertTransition(StatusEnum.REJECTED, StatusEnum.ACCEPTED))
+                .hasMessage("Error! Order status can't change after being REJECTED");
+        assertThatThrownBy(() -> stateMachine.assertTransition(StatusEnum.ACCEPTED, StatusEnum.GIVEN_TO_COURIER))
+                .hasMessage("Error! Order status can't change from ACCEPTED to GIVEN_TO_COURIER.");
+        assertThatThrownBy(() -> stateMachine.assertTransition(StatusEnum.ON_TRANSIT, StatusEnum.ON_TRANSIT))
+                .hasMessage("Error! Order status can't change from ON_TRANSIT to ON_TRANSIT.");
+        assertThatThrownBy(() -> stateMachine.assertTransition(StatusEnum.DELIVERED, StatusEnum.PENDING))
+                .hasMessage("Error! Order status can't change from DELIVERED to PENDING.");
+    }
+
+    @Test
+    void transitionsArePublished() throws IllegalOrderStatusException {
+        Order order = new Order(1L, 2L, new Vendor(3L, 10L, new Location(0.0, 0.0), new ArrayList<>()),
+                StatusEnum.ACCEPTED, new Location(0.0, 0.0));
+
+        stateMachine.transition(order, StatusEnum.PREPARING, 3L);
+
+        assertThat(order.getStatus()).isEqualTo(StatusEnum.PREPARING);
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue()).isInstanceOfSatisfying(OrderStatusChangedEvent.class, changed -> {
+            assertThat(changed.getOrderId()).isEqualTo(1L);
+            assertThat(changed.getOldStatus()).isEqualTo(StatusEnum.ACCEPTED);
+            assertThat(changed.getNewStatus()).isEqualTo(StatusEnum.PREPARING);
+            assertThat(changed.getAuthorizationId()).isEqualTo(3L);
+        });
+    }
+
+    @Test
+    void rejectedTransitionsAreNotPublished() {
+        Order order = new Order(1L, 2L, null, StatusEnum.DELIVERED, null);
+
+        assertThatThrownBy(() -> stateMachine.transition(order, StatusEnum.ON_TRANSIT, 3L))
+                .isInstanceOf(IllegalOrderStatusException.class);
+
+        assertThat(order.getStatus()).isEqualTo(StatusEnum.DELIVERED);
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+}
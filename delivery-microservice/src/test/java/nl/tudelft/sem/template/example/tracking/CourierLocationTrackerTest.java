@@ -0,0 +1,107 @@
+package nl.tudelft.sem.template.example.tracking;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import nl.tudelft.sem.template.model.Location;
+import nl.tudelft.sem.template.model.LocationPing;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+public class CourierLocationTrackerTest {
+    private Clock clock;
+
+    private CourierLocationTracker tracker;
+
+    @BeforeEach
+    void setup() {
+        clock = Mockito.mock(Clock.class);
+        when(clock.millis()).thenReturn(100_000L);
+        tracker = new CourierLocationTracker(clock, 4, Duration.ofSeconds(30), Duration.ofMinutes(10),
+                Duration.ofSeconds(5));
+    }
+
+    @Test
+    void currentLocationIsTheNewestPing() {
+        tracker.record(1L, List.of(new LocationPing(1.0, 1.0, 95_000L), new LocationPing(2.0, 2.0, 99_000L)));
+        tracker.record(2L, List.of(new LocationPing(3.0, 3.0, 98_000L)));
+
+        assertThat(tracker.currentLocation(1L, 0L)).isEqualTo(Optional.of(new Location(2.0, 2.0)));
+        assertThat(tracker.currentLocation(2L, 0L)).isEqualTo(Optional.of(new Location(3.0, 3.0)));
+        assertThat(tracker.trackedCouriers()).isEqualTo(2);
+    }
+
+    @Test
+    void unknownCourierHasNoCurrentLocation() {
+        assertThat(tracker.currentLocation(1L, 0L)).isEmpty();
+        assertThat(tracker.history(1L)).isEmpty();
+    }
+
+    @Test
+    void staleLocationIsNotCurrent() {
+        tracker.record(1L, List.of(new LocationPing(1.0, 1.0, 69_000L)));
+
+        assertThat(tracker.currentLocation(1L, 0L)).isEmpty();
+    }
+
+    @Test
+    void locationBeforeTheGivenTimestampIsNotCurrent() {
+        tracker.record(1L, List.of(new LocationPing(1.0, 1.0, 95_000L)));
+
+        assertThat(tracker.currentLocation(1L, 96_000L)).isEmpty();
+        assertThat(tracker.currentLocation(1L, 95_000L)).isEqualTo(Optional.of(new Location(1.0, 1.0)));
+    }
+
+    @Test
+    void futureDatedPingDoesNotHideLaterPings() {
+        tracker.record(1L, List.of(new LocationPing(9.0, 9.0, 10_000_000L)));
+        tracker.record(1L, List.of(new LocationPing(1.0, 1.0, 99_000L)));
+
+        assertThat(tracker.currentLocation(1L, 0L)).isEqualTo(Optional.of(new Location(1.0, 1.0)));
+        assertThat(tracker.history(1L).orElseThrow().size()).isEqualTo(1);
+    }
+
+    @Test
+    void pingWithinTheClockSkewIsRecorded() {
+        tracker.record(1L, List.of(new LocationPing(1.0, 1.0, 104_000L)));
+
+        assertThat(tracker.currentLocation(1L, 0L)).isEqualTo(Optional.of(new Location(1.0, 1.0)));
+    }
+
+    @Test
+    void futureDatedPingDoesNotKeepTheCourierActive() {
+        tracker.record(1L, List.of(new LocationPing(1.0, 1.0, 99_000L), new LocationPing(2.0, 2.0, Long.MAX_VALUE)));
+        when(clock.millis()).thenReturn(99_000L + Duration.ofMinutes(10).toMillis() + 1);
+
+        assertThat(tracker.evictInactiveCouriers()).isEqualTo(1);
+    }
+
+    @Test
+    void historyKeepsTheLastPings() {
+        for (int i = 0; i < 6; i++) {
+            tracker.record(1L, List.of(new LocationPing((double) i, 0.0, 90_000L + i)));
+        }
+
+        LocationRingBuffer history = tracker.history(1L).orElseThrow();
+        assertThat(history.size()).isEqualTo(4);
+        assertThat(history.get(0)).isEqualTo(new Location(5.0, 0.0));
+        assertThat(history.get(3)).isEqualTo(new Location(2.0, 0.0));
+    }
+
+    @Test
+    void inactiveCouriersAreEvicted() {
+        tracker.record(1L, List.of(new LocationPing(1.0, 1.0, 99_000L)));
+        tracker.record(2L, List.of(new LocationPing(1.0, 1.0, 99_000L)));
+        when(clock.millis()).thenReturn(99_000L + Duration.ofMinutes(10).toMillis() + 1);
+        tracker.record(2L, List.of(new LocationPing(1.0, 1.0, clock.millis())));
+
+        assertThat(tracker.evictInactiveCouriers()).isEqualTo(1);
+        assertThat(tracker.history(1L)).isEmpty();
+        assertThat(tracker.history(2L)).isPresent();
+    }
+}
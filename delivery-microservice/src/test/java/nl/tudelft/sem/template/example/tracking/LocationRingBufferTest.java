@@ -0,0 +1,60 @@
+package nl.tudelft.sem.template.example.tracking;
+
+import nl.tudelft.sem.template.model.Location;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LocationRingBufferTest {
+
+    @Test
+    void emptyBufferHasNoNewestLocation() {
+        LocationRingBuffer buffer = new LocationRingBuffer(3);
+
+        assertThat(buffer.size()).isEqualTo(0);
+        assertThat(buffer.newest(Long.MIN_VALUE)).isNull();
+        assertThatThrownBy(() -> buffer.get(0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void oldestLocationsAreOverwrittenWhenFull() {
+        LocationRingBuffer buffer = new LocationRingBuffer(3);
+        for (int i = 1; i <= 5; i++) {
+            buffer.add(i, -i, i * 1000L);
+        }
+
+        assertThat(buffer.size()).isEqualTo(3);
+        assertThat(buffer.capacity()).isEqualTo(3);
+        assertThat(buffer.get(0)).isEqualTo(new Location(5.0, -5.0));
+        assertThat(buffer.get(1)).isEqualTo(new Location(4.0, -4.0));
+        assertThat(buffer.get(2)).isEqualTo(new Location(3.0, -3.0));
+        assertThatThrownBy(() -> buffer.get(3)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void newestLocationIsTheOneWithTheHighestTimestamp() {
+        LocationRingBuffer buffer = new LocationRingBuffer(2);
+        buffer.add(1.0, 1.0, 2000L);
+        buffer.add(2.0, 2.0, 1000L);
+        buffer.add(3.0, 3.0, 1500L);
+
+        assertThat(buffer.newest(0L)).isEqualTo(new Location(1.0, 1.0));
+        assertThat(buffer.getNewestTimestamp()).isEqualTo(2000L);
+        assertThat(buffer.get(0)).isEqualTo(new Location(3.0, 3.0));
+    }
+
+    @Test
+    void newestLocationMustBeRecentEnough() {
+        LocationRingBuffer buffer = new LocationRingBuffer(2);
+        buffer.add(1.0, 1.0, 2000L);
+
+        assertThat(buffer.newest(2000L)).isEqualTo(new Location(1.0, 1.0));
+        assertThat(buffer.newest(2001L)).isNull();
+    }
+
+    @Test
+    void capacityMustBePositive() {
+        assertThatThrownBy(() -> new LocationRingBuffer(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,88 @@
+package nl.tudelft.sem.template.example.tracking;
+
+import java.io.IOException;
+import java.time.Duration;
+import nl.tudelft.sem.template.example.exception.OrderNotFoundException;
+import nl.tudelft.sem.template.example.service.DeliveryService;
+import nl.tudelft.sem.template.model.Location;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LocationStreamBroadcasterTest {
+    private DeliveryService deliveryService;
+
+    private LocationStreamBroadcaster broadcaster;
+
+    @BeforeEach
+    void setup() throws OrderNotFoundException {
+        deliveryService = Mockito.mock(DeliveryService.class);
+        when(deliveryService.calculateLiveLocation(1L)).thenReturn(new Location(1.0, 2.0));
+        broadcaster = new LocationStreamBroadcaster(deliveryService, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void subscribersOfAnOrderShareOneLocationLookup() throws Exception {
+        SseEmitter first = mock(SseEmitter.class);
+        SseEmitter second = mock(SseEmitter.class);
+        broadcaster.register(1L, first);
+        broadcaster.register(1L, second);
+
+        assertThat(broadcaster.pushLocations()).isEqualTo(2);
+
+        // one lookup per subscription and one for the round
+        verify(deliveryService, times(3)).calculateLiveLocation(1L);
+        verify(first, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(second, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        assertThat(broadcaster.subscriberCount(1L)).isEqualTo(2);
+    }
+
+    @Test
+    void subscriberThatCannotBeWrittenToIsDropped() throws Exception {
+        SseEmitter broken = mock(SseEmitter.class);
+        SseEmitter working = mock(SseEmitter.class);
+        broadcaster.register(1L, broken);
+        broadcaster.register(1L, working);
+        doThrow(new IOException("Broken pipe")).when(broken).send(any(SseEmitter.SseEventBuilder.class));
+
+        assertThat(broadcaster.pushLocations()).isEqualTo(1);
+        assertThat(broadcaster.subscriberCount(1L)).isEqualTo(1);
+    }
+
+    @Test
+    void subscribersAreCompletedWhenTheOrderDisappears() throws Exception {
+        SseEmitter emitter = mock(SseEmitter.class);
+        broadcaster.register(1L, emitter);
+        when(deliveryService.calculateLiveLocation(1L)).thenThrow(new OrderNotFoundException("not found"));
+
+        assertThat(broadcaster.pushLocations()).isEqualTo(0);
+        verify(emitter).complete();
+        assertThat(broadcaster.subscriberCount(1L)).isEqualTo(0);
+    }
+
+    @Test
+    void subscribingToMissingOrderFails() throws OrderNotFoundException {
+        when(deliveryService.calculateLiveLocation(2L)).thenThrow(new OrderNotFoundException("not found"));
+
+        assertThatThrownBy(() -> broadcaster.subscribe(2L)).isInstanceOf(OrderNotFoundException.class);
+        assertThat(broadcaster.subscriberCount(2L)).isEqualTo(0);
+    }
+
+    @Test
+    void subscribeOpensStream() throws OrderNotFoundException {
+        SseEmitter emitter = broadcaster.subscribe(1L);
+
+        assertThat(emitter.getTimeout()).isEqualTo(Duration.ofMinutes(1).toMillis());
+        assertThat(broadcaster.subscriberCount(1L)).isEqualTo(1);
+    }
+}